@@ -8,6 +8,16 @@ const signToken = (userId) => {
   });
 };
 
+const refreshSecret = () => process.env.JWT_REFRESH_SECRET || process.env.JWT_SECRET;
+
+// Long-lived token that can only be exchanged at POST /refresh. tokenVersion is bumped on logout,
+// which revokes every refresh token issued before it.
+const signRefreshToken = (user) => {
+  return jwt.sign({ id: user._id, type: 'refresh', ver: user.tokenVersion || 0 }, refreshSecret(), {
+    expiresIn: process.env.JWT_REFRESH_EXPIRE || '30d'
+  });
+};
+
 exports.register = async (req, res, next) => {
   try {
     const errors = validationResult(req);
@@ -38,6 +48,7 @@ exports.register = async (req, res, next) => {
     res.status(201).json({
       success: true,
       token,
+      refreshToken: signRefreshToken(user),
       user: {
         id: user._id,
         username: user.username,
@@ -77,6 +88,7 @@ exports.login = async (req, res, next) => {
     res.json({
       success: true,
       token,
+      refreshToken: signRefreshToken(user),
       user: {
         id: user._id,
         username: user.username,
@@ -89,9 +101,55 @@ exports.login = async (req, res, next) => {
   }
 };
 
-exports.logout = async (req, res) => {
-  // JWT stateless: client should discard token. Provide 200 OK.
-  res.json({ success: true, message: 'Đăng xuất thành công' });
+// @desc    Exchange a refresh token for a new access token
+// @route   POST /api/auth/refresh
+// @access  Public (refresh token in body)
+exports.refresh = async (req, res) => {
+  try {
+    const { refreshToken } = req.body;
+    if (!refreshToken) {
+      return res.status(400).json({ success: false, message: 'Thiếu refresh token' });
+    }
+
+    let decoded;
+    try {
+      decoded = jwt.verify(refreshToken, refreshSecret());
+    } catch (err) {
+      return res.status(401).json({ success: false, message: 'Refresh token không hợp lệ hoặc đã hết hạn' });
+    }
+    if (decoded.type !== 'refresh') {
+      return res.status(401).json({ success: false, message: 'Refresh token không hợp lệ hoặc đã hết hạn' });
+    }
+
+    const user = await User.findById(decoded.id);
+    if (!user || user.isActive === false || (user.tokenVersion || 0) !== decoded.ver) {
+      return res.status(401).json({ success: false, message: 'Phiên đăng nhập đã bị thu hồi' });
+    }
+
+    res.json({
+      success: true,
+      token: signToken(user._id),
+      refreshToken: signRefreshToken(user),
+      user: {
+        id: user._id,
+        username: user.username,
+        email: user.email,
+        role: user.role
+      }
+    });
+  } catch (error) {
+    res.status(500).json({ success: false, message: error.message || 'Server Error' });
+  }
+};
+
+exports.logout = async (req, res, next) => {
+  try {
+    // Access tokens are stateless and run out on their own; refresh tokens are revoked here
+    await User.updateOne({ _id: req.user._id }, { $inc: { tokenVersion: 1 } });
+    res.json({ success: true, message: 'Đăng xuất thành công' });
+  } catch (err) {
+    next(err);
+  }
 };
 
 exports.getMe = async (req, res) => {
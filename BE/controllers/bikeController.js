@@ -1,5 +1,32 @@
 const Bike = require('../models/Bike');
 const { validationResult } = require('express-validator');
+const { resolveImages } = require('./uploadController');
+
+// Top-level fields a list request may pick with ?fields=
+const SELECTABLE_FIELDS = new Set([
+  'name', 'brand', 'model', 'price', 'originalPrice', 'description', 'specifications',
+  'images', 'colors', 'category', 'status', 'stock', 'features', 'warranty', 'rating',
+  'isFeatured', 'isNew', 'tags', 'createdAt', 'updatedAt'
+]);
+
+// ?fields=name,price,image -> Mongo projection. `image` is the first image only (list
+// thumbnails); `images` wins if both are asked for. _id is always included.
+const parseFields = (value) => {
+  const projection = {};
+  const unknown = [];
+  for (const field of String(value).split(',').map(f => f.trim()).filter(Boolean)) {
+    if (field === 'image') {
+      if (projection.images !== 1) {
+        projection.images = { $slice: 1 };
+      }
+    } else if (SELECTABLE_FIELDS.has(field)) {
+      projection[field] = 1;
+    } else {
+      unknown.push(field);
+    }
+  }
+  return { projection, unknown };
+};
 
 // @desc    Get all bikes with filtering and pagination
 // @route   GET /api/bikes
@@ -15,6 +42,18 @@ const getBikes = async (req, res) => {
       });
     }
 
+    let projection = null;
+    if (req.query.fields) {
+      const parsed = parseFields(req.query.fields);
+      if (parsed.unknown.length > 0) {
+        return res.status(400).json({
+          success: false,
+          message: `Trường không hợp lệ: ${parsed.unknown.join(', ')}`
+        });
+      }
+      projection = parsed.projection;
+    }
+
     const page = parseInt(req.query.page) || 1;
     const limit = parseInt(req.query.limit) || 10;
     const skip = (page - 1) * limit;
@@ -69,15 +108,22 @@ const getBikes = async (req, res) => {
       }
     }
 
-    const bikes = await Bike.find(filter)
+    // Tie-break on _id so rows with equal sort keys never move between pages while scrolling
+    sort._id = 1;
+
+    let bikesQuery = Bike.find(filter)
       .sort(sort)
       .skip(skip)
-      .limit(limit)
-      .select('-__v');
+      .limit(limit);
+    // A projected list skips the document/virtuals step too; it only feeds list rows
+    bikesQuery = projection ? bikesQuery.select(projection).lean() : bikesQuery.select('-__v');
+    const bikes = await bikesQuery;
 
     const total = await Bike.countDocuments(filter);
     const totalPages = Math.ceil(total / limit);
 
+    // Clients may store the page but must revalidate it (Express adds a weak ETag)
+    res.set('Cache-Control', 'no-cache');
     res.json({
       success: true,
       data: bikes,
@@ -113,6 +159,7 @@ const getBikeById = async (req, res) => {
       });
     }
 
+    res.set('Cache-Control', 'no-cache');
     res.json({
       success: true,
       data: bike
@@ -146,7 +193,13 @@ const createBike = async (req, res) => {
       });
     }
 
-    const bike = new Bike(req.body);
+    // Images uploaded beforehand through /api/uploads are referenced by id
+    const { imageIds, ...fields } = req.body;
+    if (Array.isArray(imageIds) && imageIds.length > 0) {
+      fields.images = await resolveImages(imageIds);
+    }
+
+    const bike = new Bike(fields);
     await bike.save();
 
     res.status(201).json({
@@ -156,6 +209,12 @@ const createBike = async (req, res) => {
     });
   } catch (error) {
     console.error('Error creating bike:', error);
+    if (error.name === 'UploadNotFound') {
+      return res.status(400).json({
+        success: false,
+        message: error.message
+      });
+    }
     if (error.name === 'ValidationError') {
       return res.status(400).json({
         success: false,
@@ -187,9 +246,16 @@ const updateBike = async (req, res) => {
       });
     }
 
+    // New uploads are appended to the existing images
+    const { imageIds, ...fields } = req.body;
+    const update = { $set: fields };
+    if (Array.isArray(imageIds) && imageIds.length > 0) {
+      update.$push = { images: { $each: await resolveImages(imageIds) } };
+    }
+
     const bike = await Bike.findByIdAndUpdate(
       req.params.id,
-      req.body,
+      update,
       { new: true, runValidators: true }
     ).select('-__v');
 
@@ -207,6 +273,12 @@ const updateBike = async (req, res) => {
     });
   } catch (error) {
     console.error('Error updating bike:', error);
+    if (error.name === 'UploadNotFound') {
+      return res.status(400).json({
+        success: false,
+        message: error.message
+      });
+    }
     if (error.name === 'CastError') {
       return res.status(400).json({
         success: false,
@@ -278,6 +350,7 @@ const getFeaturedBikes = async (req, res) => {
     .limit(limit)
     .select('-__v');
 
+    res.set('Cache-Control', 'public, max-age=300');
     res.json({
       success: true,
       data: bikes
@@ -327,6 +400,7 @@ const getCategories = async (req, res) => {
       availableCount: cat.availableCount
     }));
 
+    res.set('Cache-Control', 'public, max-age=3600');
     res.json({
       success: true,
       data: formattedCategories
@@ -0,0 +1,193 @@
+const mongoose = require('mongoose');
+const Cart = require('../models/Cart');
+const CartItem = require('../models/CartItem');
+const Bike = require('../models/Bike');
+
+const MAX_QUANTITY = 999;
+const MAX_CHANGES = 100;
+
+const findActiveCart = async (userId) => {
+  let cart = await Cart.findOne({ user: userId, status: 'active' });
+  if (!cart) {
+    cart = await Cart.create({ user: userId });
+  }
+  return cart;
+};
+
+// Checks every line against current stock and drops or clamps the ones that no longer fit.
+// `changes` maps bikeId -> { quantity, selected } as last set by the client (quantity 0 removes).
+// Returns the lines to keep plus one adjustment per line the server changed.
+const reconcile = (lines, bikesById, changes) => {
+  const byBike = new Map();
+  lines.forEach((line) => byBike.set(line.product.toString(), {
+    bikeId: line.product.toString(),
+    quantity: line.quantity,
+    selected: line.selected !== false,
+    addedAt: line.addedAt
+  }));
+
+  changes.forEach((change, bikeId) => {
+    const existing = byBike.get(bikeId);
+    if (change.quantity === 0) {
+      byBike.delete(bikeId);
+    } else if (existing) {
+      existing.quantity = change.quantity;
+      if (typeof change.selected === 'boolean') existing.selected = change.selected;
+    } else {
+      byBike.set(bikeId, {
+        bikeId,
+        quantity: change.quantity,
+        selected: change.selected !== false,
+        addedAt: new Date()
+      });
+    }
+  });
+
+  const kept = [];
+  const adjustments = [];
+  byBike.forEach((line) => {
+    const bike = bikesById.get(line.bikeId);
+    if (!bike || bike.status === 'discontinued') {
+      adjustments.push({ bikeId: line.bikeId, reason: 'unavailable', quantity: 0 });
+      return;
+    }
+    const limit = Math.min(bike.stock || 0, MAX_QUANTITY);
+    if (limit === 0) {
+      adjustments.push({ bikeId: line.bikeId, reason: 'out_of_stock', quantity: 0 });
+      return;
+    }
+    if (line.quantity > limit) {
+      line.quantity = limit;
+      adjustments.push({ bikeId: line.bikeId, reason: 'stock_limited', quantity: limit });
+    }
+    line.price = bike.price;
+    kept.push(line);
+  });
+  kept.sort((a, b) => a.addedAt - b.addedAt);
+  return { kept, adjustments };
+};
+
+// Writes the reconciled lines in one round trip and returns the cart as the app shows it
+const saveAndDescribe = async (cart, kept, adjustments, bikesById) => {
+  const ops = kept.map((line) => ({
+    updateOne: {
+      filter: { cart: cart._id, product: line.bikeId },
+      update: {
+        $set: { quantity: line.quantity, price: line.price, selected: line.selected },
+        $setOnInsert: { addedAt: line.addedAt }
+      },
+      upsert: true
+    }
+  }));
+  ops.push({
+    deleteMany: {
+      filter: { cart: cart._id, product: { $nin: kept.map((line) => line.bikeId) } }
+    }
+  });
+  await CartItem.bulkWrite(ops, { ordered: true });
+
+  const saved = await CartItem.find({ cart: cart._id }).sort({ addedAt: 1 }).select('_id').lean();
+  const lineIds = saved.map((line) => line._id);
+  const totalPrice = kept.reduce((sum, line) => sum + (line.selected ? line.price * line.quantity : 0), 0);
+  await Cart.updateOne({ _id: cart._id }, { items: lineIds, totalPrice });
+
+  return {
+    items: kept.map((line) => {
+      const bike = bikesById.get(line.bikeId);
+      return {
+        bikeId: line.bikeId,
+        name: bike.name,
+        description: bike.description,
+        imageUrl: bike.images && bike.images.length > 0 ? bike.images[0].url : null,
+        unitPrice: line.price,
+        quantity: line.quantity,
+        selected: line.selected,
+        stock: bike.stock
+      };
+    }),
+    totalPrice,
+    adjustments
+  };
+};
+
+const loadBikes = async (ids) => {
+  const bikes = await Bike.find({ _id: { $in: ids } })
+    .select('name description price stock status images')
+    .lean();
+  return new Map(bikes.map((bike) => [bike._id.toString(), bike]));
+};
+
+// @desc    Get current user's cart, checked against current stock
+// @route   GET /api/cart
+// @access  Private
+const getCart = async (req, res) => {
+  try {
+    const cart = await findActiveCart(req.user._id);
+    const lines = await CartItem.find({ cart: cart._id }).lean();
+    const bikesById = await loadBikes(lines.map((line) => line.product));
+    const { kept, adjustments } = reconcile(lines, bikesById, new Map());
+
+    res.status(200).json({
+      success: true,
+      data: await saveAndDescribe(cart, kept, adjustments, bikesById)
+    });
+  } catch (error) {
+    res.status(500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+// @desc    Apply a batch of line changes and return the reconciled cart
+// @route   PUT /api/cart
+// @access  Private
+// Body: { items: [{ bikeId, quantity, selected }] } with absolute values, so a batch can be
+// retried safely and many taps on one line collapse into a single entry. quantity 0 removes.
+const syncCart = async (req, res) => {
+  try {
+    const items = Array.isArray(req.body.items) ? req.body.items : null;
+    if (!items || items.length > MAX_CHANGES) {
+      return res.status(400).json({
+        success: false,
+        message: `items phải là mảng tối đa ${MAX_CHANGES} phần tử`
+      });
+    }
+
+    const changes = new Map();
+    for (const item of items) {
+      const quantity = Number(item && item.quantity);
+      if (!item || !mongoose.Types.ObjectId.isValid(item.bikeId)
+          || !Number.isInteger(quantity) || quantity < 0 || quantity > MAX_QUANTITY) {
+        return res.status(400).json({
+          success: false,
+          message: 'Dữ liệu giỏ hàng không hợp lệ'
+        });
+      }
+      // A later entry for the same bike wins
+      changes.set(String(item.bikeId), { quantity, selected: item.selected });
+    }
+
+    const cart = await findActiveCart(req.user._id);
+    const lines = await CartItem.find({ cart: cart._id }).lean();
+    const ids = new Set(lines.map((line) => line.product.toString()));
+    changes.forEach((change, bikeId) => ids.add(bikeId));
+    const bikesById = await loadBikes([...ids]);
+    const { kept, adjustments } = reconcile(lines, bikesById, changes);
+
+    res.status(200).json({
+      success: true,
+      data: await saveAndDescribe(cart, kept, adjustments, bikesById)
+    });
+  } catch (error) {
+    res.status(500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+module.exports = {
+  getCart,
+  syncCart
+};
@@ -0,0 +1,353 @@
+const crypto = require('crypto');
+const mongoose = require('mongoose');
+const Order = require('../models/Order');
+const Payment = require('../models/Payment');
+const Cart = require('../models/Cart');
+const CartItem = require('../models/CartItem');
+const Bike = require('../models/Bike');
+
+const MAX_ITEMS = 50;
+const PAGE_SIZE = 20;
+const MAX_PAGE_SIZE = 100;
+const DTO_FIELDS = 'orderNumber orderStatus totalAmount shippingFee finalAmount paymentMethod items createdAt updatedAt';
+const MAX_KEY_LENGTH = 64;
+const PAYMENT_METHODS = ['cash', 'bank_transfer', 'vnpay', 'zalopay', 'momo', 'paypal', 'credit_card'];
+
+class OrderError extends Error {
+  constructor(statusCode, message) {
+    super(message);
+    this.statusCode = statusCode;
+  }
+}
+
+const toDto = (order) => ({
+  id: order._id,
+  orderNumber: order.orderNumber,
+  orderStatus: order.orderStatus,
+  statusText: order.statusText,
+  totalAmount: order.totalAmount,
+  shippingFee: order.shippingFee,
+  finalAmount: order.finalAmount,
+  paymentMethod: order.paymentMethod,
+  items: (order.items || []).map((item) => ({
+    bikeId: item.bike,
+    name: item.name,
+    quantity: item.quantity,
+    unitPrice: item.unitPrice
+  })),
+  createdAt: new Date(order.createdAt).getTime(),
+  updatedAt: new Date(order.updatedAt).getTime()
+});
+
+// Same items in any order hash the same
+const hashRequest = (body) => {
+  const items = body.items
+    .map((item) => `${item.bikeId}:${item.quantity}`)
+    .sort()
+    .join(',');
+  return crypto.createHash('sha256')
+    .update(JSON.stringify([items, body.paymentMethod, body.receiverName, body.receiverPhone, body.shippingAddress]))
+    .digest('hex');
+};
+
+const validate = (body) => {
+  if (!Array.isArray(body.items) || body.items.length === 0 || body.items.length > MAX_ITEMS) {
+    return 'Đơn hàng phải có từ 1 đến ' + MAX_ITEMS + ' sản phẩm';
+  }
+  const seen = new Set();
+  for (const item of body.items) {
+    if (!item || !mongoose.Types.ObjectId.isValid(item.bikeId) || seen.has(String(item.bikeId))
+        || !Number.isInteger(item.quantity) || item.quantity < 1) {
+      return 'Danh sách sản phẩm không hợp lệ';
+    }
+    seen.add(String(item.bikeId));
+  }
+  if (!PAYMENT_METHODS.includes(body.paymentMethod)) {
+    return 'Phương thức thanh toán không hợp lệ';
+  }
+  if (!body.receiverName || !body.receiverPhone || !body.shippingAddress) {
+    return 'Vui lòng nhập đầy đủ thông tin người nhận';
+  }
+  return null;
+};
+
+// Takes stock for every line or for none: lines already taken are put back when a later one fails
+const reserveStock = async (items, bikesById) => {
+  const taken = [];
+  try {
+    for (const item of items) {
+      const bike = bikesById.get(String(item.bikeId));
+      if (!bike || bike.status === 'discontinued') {
+        throw new OrderError(409, 'Sản phẩm không còn được bán');
+      }
+      const result = await Bike.updateOne(
+        { _id: bike._id, stock: { $gte: item.quantity } },
+        { $inc: { stock: -item.quantity } }
+      );
+      if (result.modifiedCount !== 1) {
+        throw new OrderError(409, `"${bike.name}" không đủ hàng trong kho`);
+      }
+      taken.push(item);
+    }
+  } catch (error) {
+    await releaseStock(taken);
+    throw error;
+  }
+};
+
+const releaseStock = async (items) => {
+  if (items.length === 0) return;
+  await Bike.bulkWrite(items.map((item) => ({
+    updateOne: { filter: { _id: item.bikeId }, update: { $inc: { stock: item.quantity } } }
+  })));
+};
+
+// One initial payment per order: its transactionId is derived from the order, and that field is unique
+const ensurePayment = async (order) => {
+  try {
+    await Payment.create({
+      order: order._id,
+      user: order.user,
+      amount: order.finalAmount,
+      paymentMethod: order.paymentMethod,
+      transactionId: `ORDER-${order._id}`
+    });
+  } catch (error) {
+    if (error.code !== 11000) throw error;
+  }
+};
+
+// Ordered lines leave the cart. Safe to repeat: a line added or changed after the order was
+// placed is the user's new intent and stays.
+const removeOrderedLines = async (order) => {
+  if (!order.cart) return;
+  await CartItem.deleteMany({
+    cart: order.cart,
+    product: { $in: order.items.map((item) => item.bike) },
+    updatedAt: { $lte: order.createdAt }
+  });
+  const remaining = await CartItem.find({ cart: order.cart }).select('_id price quantity selected').lean();
+  await Cart.updateOne({ _id: order.cart }, {
+    items: remaining.map((line) => line._id),
+    totalPrice: remaining.reduce((sum, line) => sum + (line.selected !== false ? line.price * line.quantity : 0), 0)
+  });
+};
+
+// Replays an earlier request with the same key; null when there is none
+const replay = async (userId, key, requestHash) => {
+  const existing = await Order.findOne({ user: userId, idempotencyKey: key });
+  if (!existing) return null;
+  if (existing.requestHash !== requestHash) {
+    throw new OrderError(422, 'Idempotency-Key đã được dùng cho một đơn hàng khác');
+  }
+  // The first attempt may have stopped before the payment was recorded or the cart was cleared
+  await ensurePayment(existing);
+  await removeOrderedLines(existing);
+  return existing;
+};
+
+const createWithUniqueNumber = async (fields) => {
+  for (let attempt = 0; ; attempt++) {
+    try {
+      return await Order.create(fields);
+    } catch (error) {
+      const numberTaken = error.code === 11000 && error.keyPattern && error.keyPattern.orderNumber;
+      if (!numberTaken || attempt >= 2) throw error;
+    }
+  }
+};
+
+// @desc    Place an order from cart lines; safe to retry with the same Idempotency-Key
+// @route   POST /api/orders
+// @access  Private
+const createOrder = async (req, res) => {
+  try {
+    const key = req.get('Idempotency-Key');
+    if (!key || key.length > MAX_KEY_LENGTH) {
+      return res.status(400).json({
+        success: false,
+        message: 'Thiếu header Idempotency-Key hợp lệ'
+      });
+    }
+    const invalid = validate(req.body);
+    if (invalid) {
+      return res.status(400).json({
+        success: false,
+        message: invalid
+      });
+    }
+
+    const userId = req.user._id;
+    const requestHash = hashRequest(req.body);
+    const earlier = await replay(userId, key, requestHash);
+    if (earlier) {
+      return res.status(200).json({
+        success: true,
+        message: 'Đơn hàng đã được tạo trước đó',
+        data: toDto(earlier)
+      });
+    }
+
+    const items = req.body.items.map((item) => ({ bikeId: String(item.bikeId), quantity: item.quantity }));
+    const bikes = await Bike.find({ _id: { $in: items.map((item) => item.bikeId) } })
+      .select('name price stock status')
+      .lean();
+    const bikesById = new Map(bikes.map((bike) => [bike._id.toString(), bike]));
+
+    const orderItems = [];
+    let totalAmount = 0;
+    for (const item of items) {
+      const bike = bikesById.get(item.bikeId);
+      if (!bike) {
+        throw new OrderError(409, 'Sản phẩm không còn được bán');
+      }
+      orderItems.push({ bike: bike._id, name: bike.name, quantity: item.quantity, unitPrice: bike.price });
+      totalAmount += bike.price * item.quantity;
+    }
+    const expectedTotal = req.body.expectedTotal;
+    if (typeof expectedTotal === 'number' && expectedTotal !== totalAmount) {
+      throw new OrderError(409, 'Giá sản phẩm đã thay đổi, vui lòng kiểm tra lại giỏ hàng');
+    }
+
+    const cart = await Cart.findOne({ user: userId, status: 'active' })
+      || await Cart.create({ user: userId });
+
+    await reserveStock(items, bikesById);
+    let order;
+    try {
+      order = await createWithUniqueNumber({
+        cart: cart._id,
+        user: userId,
+        items: orderItems,
+        paymentMethod: req.body.paymentMethod,
+        billingAddress: {
+          fullName: req.body.receiverName,
+          phone: req.body.receiverPhone,
+          address: req.body.shippingAddress
+        },
+        totalAmount,
+        finalAmount: totalAmount,
+        notes: req.body.notes,
+        idempotencyKey: key,
+        requestHash
+      });
+    } catch (error) {
+      await releaseStock(items);
+      if (error.code === 11000 && error.keyPattern && error.keyPattern.idempotencyKey) {
+        // A concurrent copy of this request won the race; answer with its order
+        const winner = await replay(userId, key, requestHash);
+        return res.status(200).json({
+          success: true,
+          message: 'Đơn hàng đã được tạo trước đó',
+          data: toDto(winner)
+        });
+      }
+      throw error;
+    }
+
+    await ensurePayment(order);
+    await removeOrderedLines(order);
+
+    res.status(201).json({
+      success: true,
+      data: toDto(order)
+    });
+  } catch (error) {
+    res.status(error.statusCode || 500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+const pageSize = (value) => Math.min(Math.max(parseInt(value, 10) || PAGE_SIZE, 1), MAX_PAGE_SIZE);
+
+// Keyset condition on (field, _id): strictly before or after the given position.
+// Only the timestamp is required; without an id every row at that exact millisecond is excluded.
+const keyset = (field, time, id, direction) => {
+  const op = direction < 0 ? '$lt' : '$gt';
+  const at = new Date(time);
+  if (!id || !mongoose.Types.ObjectId.isValid(id)) {
+    return { [field]: { [op]: at } };
+  }
+  return {
+    $or: [
+      { [field]: { [op]: at } },
+      { [field]: at, _id: { [op]: new mongoose.Types.ObjectId(id) } }
+    ]
+  };
+};
+
+// @desc    Current user's orders, newest first; pass the last order's createdAt/id as before/beforeId for the next page
+// @route   GET /api/orders
+// @access  Private
+const getOrders = async (req, res) => {
+  try {
+    const limit = pageSize(req.query.limit);
+    const filter = { user: req.user._id };
+    const before = Number(req.query.before);
+    if (before > 0) {
+      Object.assign(filter, keyset('createdAt', before, req.query.beforeId, -1));
+    }
+
+    // Keyset paging walks the (user, createdAt) index, so page 50 costs the same as page 1
+    const orders = await Order.find(filter)
+      .select(DTO_FIELDS)
+      .sort({ createdAt: -1, _id: -1 })
+      .limit(limit + 1);
+
+    res.status(200).json({
+      success: true,
+      data: {
+        orders: orders.slice(0, limit).map(toDto),
+        hasMore: orders.length > limit
+      }
+    });
+  } catch (error) {
+    res.status(500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+// @desc    Orders changed after updatedSince/afterId, oldest change first, for incremental sync
+// @route   GET /api/orders/changes
+// @access  Private
+const getOrderChanges = async (req, res) => {
+  try {
+    const since = Number(req.query.updatedSince);
+    if (!(since >= 0)) {
+      return res.status(400).json({
+        success: false,
+        message: 'Thiếu tham số updatedSince'
+      });
+    }
+    const limit = pageSize(req.query.limit);
+    const filter = { user: req.user._id, ...keyset('updatedAt', since, req.query.afterId, 1) };
+
+    const orders = await Order.find(filter)
+      .select(DTO_FIELDS)
+      .sort({ updatedAt: 1, _id: 1 })
+      .limit(limit + 1);
+
+    res.status(200).json({
+      success: true,
+      data: {
+        orders: orders.slice(0, limit).map(toDto),
+        hasMore: orders.length > limit
+      }
+    });
+  } catch (error) {
+    res.status(500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+module.exports = {
+  createOrder,
+  getOrders,
+  getOrderChanges
+};
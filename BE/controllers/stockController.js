@@ -0,0 +1,117 @@
+const mongoose = require('mongoose');
+const Bike = require('../models/Bike');
+const StoreLocation = require('../models/StoreLocation');
+const StoreStock = require('../models/StoreStock');
+
+const MAX_BIKES = 100;
+
+// @desc    Stock of many bikes in one request: the total plus each active store's quantity
+// @route   GET /api/stock?bikeIds=<id>,<id>,...
+// @access  Public
+const getStock = async (req, res) => {
+  try {
+    const bikeIds = [...new Set(String(req.query.bikeIds || '').split(',').map((id) => id.trim()).filter(Boolean))];
+    if (bikeIds.length === 0 || bikeIds.length > MAX_BIKES || !bikeIds.every((id) => mongoose.Types.ObjectId.isValid(id))) {
+      return res.status(400).json({
+        success: false,
+        message: 'bikeIds phải gồm từ 1 đến ' + MAX_BIKES + ' id hợp lệ'
+      });
+    }
+
+    // Three indexed queries whatever the number of bikes
+    const [bikes, rows] = await Promise.all([
+      Bike.find({ _id: { $in: bikeIds } }).select('stock status').lean(),
+      StoreStock.find({ bike: { $in: bikeIds } }).select('bike store quantity').lean()
+    ]);
+    const stores = await StoreLocation.find({
+      _id: { $in: [...new Set(rows.map((row) => row.store.toString()))] },
+      isActive: true
+    }).select('name address district city').lean();
+    const activeStores = new Set(stores.map((store) => store._id.toString()));
+
+    const bikesById = new Map(bikes.map((bike) => [bike._id.toString(), bike]));
+    const rowsByBike = new Map();
+    for (const row of rows) {
+      if (!activeStores.has(row.store.toString())) continue;
+      const key = row.bike.toString();
+      if (!rowsByBike.has(key)) rowsByBike.set(key, []);
+      rowsByBike.get(key).push({ storeId: row.store, quantity: row.quantity });
+    }
+
+    // Every requested id gets an entry, so clients can cache "not sold" as well
+    const items = bikeIds.map((bikeId) => {
+      const bike = bikesById.get(bikeId);
+      const available = bike && bike.status !== 'discontinued';
+      return {
+        bikeId,
+        total: available ? bike.stock : 0,
+        stores: available ? (rowsByBike.get(bikeId) || []) : []
+      };
+    });
+
+    res.status(200).json({
+      success: true,
+      data: {
+        stores: stores.map((store) => ({
+          id: store._id,
+          name: store.name,
+          address: [store.address, store.district, store.city].filter(Boolean).join(', ')
+        })),
+        items
+      }
+    });
+  } catch (error) {
+    res.status(500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+// @desc    Set how many units of a bike a store holds
+// @route   PUT /api/stock/:bikeId/stores/:storeId
+// @access  Private/Admin/Staff
+const setStoreStock = async (req, res) => {
+  try {
+    const { bikeId, storeId } = req.params;
+    const quantity = req.body.quantity;
+    if (!mongoose.Types.ObjectId.isValid(bikeId) || !mongoose.Types.ObjectId.isValid(storeId)
+        || !Number.isInteger(quantity) || quantity < 0) {
+      return res.status(400).json({
+        success: false,
+        message: 'Dữ liệu không hợp lệ'
+      });
+    }
+    const [bike, store] = await Promise.all([
+      Bike.exists({ _id: bikeId }),
+      StoreLocation.exists({ _id: storeId })
+    ]);
+    if (!bike || !store) {
+      return res.status(404).json({
+        success: false,
+        message: 'Không tìm thấy xe hoặc cửa hàng'
+      });
+    }
+
+    const row = await StoreStock.findOneAndUpdate(
+      { bike: bikeId, store: storeId },
+      { quantity },
+      { new: true, upsert: true, runValidators: true, setDefaultsOnInsert: true }
+    );
+
+    res.status(200).json({
+      success: true,
+      data: { bikeId: row.bike, storeId: row.store, quantity: row.quantity }
+    });
+  } catch (error) {
+    res.status(500).json({
+      success: false,
+      message: error.message || 'Server Error'
+    });
+  }
+};
+
+module.exports = {
+  getStock,
+  setStoreStock
+};
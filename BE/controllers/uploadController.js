@@ -0,0 +1,170 @@
+const fs = require('fs');
+const path = require('path');
+const Upload = require('../models/Upload');
+
+const UPLOAD_ROOT = path.join(__dirname, '..', 'uploads');
+const PARTIAL_DIR = path.join(UPLOAD_ROOT, 'partial');
+const IMAGE_DIR = path.join(UPLOAD_ROOT, 'images');
+const MAX_IMAGE_SIZE = 20 * 1024 * 1024;
+
+const EXTENSIONS = {
+  'image/jpeg': '.jpg',
+  'image/png': '.png',
+  'image/webp': '.webp'
+};
+
+fs.mkdirSync(PARTIAL_DIR, { recursive: true });
+fs.mkdirSync(IMAGE_DIR, { recursive: true });
+
+// Clients hand image URLs straight to their image loader, so they are stored absolute. Behind a
+// proxy, set PUBLIC_BASE_URL (e.g. https://api.example.com); otherwise the request's own host is used.
+const publicBaseUrl = (req) =>
+  (process.env.PUBLIC_BASE_URL || `${req.protocol}://${req.get('host')}`).replace(/\/+$/, '');
+
+const toStatus = (upload) => ({
+  id: upload.uploadId,
+  offset: upload.offset,
+  length: upload.length,
+  completed: upload.completed,
+  url: upload.url
+});
+
+// @desc    Get how much of an upload the server already has, so the client can resume
+// @route   GET /api/uploads/images/:uploadId
+// @access  Private (Admin/Staff)
+const getUploadStatus = async (req, res) => {
+  try {
+    const upload = await Upload.findOne({ uploadId: req.params.uploadId });
+    if (!upload) {
+      return res.status(404).json({
+        success: false,
+        message: 'Không tìm thấy phiên tải lên'
+      });
+    }
+    res.json({ success: true, data: toStatus(upload) });
+  } catch (error) {
+    console.error('Error getting upload status:', error);
+    res.status(500).json({
+      success: false,
+      message: 'Lỗi server khi kiểm tra tải lên'
+    });
+  }
+};
+
+// @desc    Append one chunk of an image. Headers: Upload-Offset (where this chunk starts)
+//          and Upload-Length (total size). A chunk at the wrong offset gets 409 with the
+//          current offset so the client can continue from there.
+// @route   PUT /api/uploads/images/:uploadId
+// @access  Private (Admin/Staff)
+const uploadImageChunk = async (req, res) => {
+  try {
+    const offset = parseInt(req.get('Upload-Offset'), 10);
+    const length = parseInt(req.get('Upload-Length'), 10);
+    const contentType = (req.get('Content-Type') || '').split(';')[0].trim();
+    const chunk = Buffer.isBuffer(req.body) ? req.body : Buffer.alloc(0);
+
+    if (!EXTENSIONS[contentType]) {
+      return res.status(415).json({
+        success: false,
+        message: 'Định dạng ảnh không được hỗ trợ'
+      });
+    }
+    if (!Number.isInteger(offset) || offset < 0 || !Number.isInteger(length) || length <= 0 || length > MAX_IMAGE_SIZE) {
+      return res.status(400).json({
+        success: false,
+        message: 'Upload-Offset hoặc Upload-Length không hợp lệ'
+      });
+    }
+    if (offset + chunk.length > length) {
+      return res.status(400).json({
+        success: false,
+        message: 'Dữ liệu vượt quá kích thước khai báo'
+      });
+    }
+
+    let upload = await Upload.findOne({ uploadId: req.params.uploadId });
+    if (!upload) {
+      upload = await Upload.create({
+        uploadId: req.params.uploadId,
+        contentType,
+        length,
+        uploadedBy: req.user._id
+      });
+    }
+
+    if (upload.completed) {
+      return res.json({ success: true, data: toStatus(upload) });
+    }
+    if (upload.length !== length || upload.contentType !== contentType) {
+      return res.status(400).json({
+        success: false,
+        message: 'Thông tin ảnh không khớp với phiên tải lên'
+      });
+    }
+    if (offset !== upload.offset) {
+      return res.status(409).json({
+        success: false,
+        message: 'Sai vị trí tải lên',
+        data: toStatus(upload)
+      });
+    }
+
+    // Write at the confirmed offset, so a chunk whose response was lost is simply rewritten
+    const partialPath = path.join(PARTIAL_DIR, upload.uploadId);
+    const handle = await fs.promises.open(partialPath, offset === 0 ? 'w' : 'r+');
+    try {
+      await handle.write(chunk, 0, chunk.length, offset);
+    } finally {
+      await handle.close();
+    }
+
+    upload.offset = offset + chunk.length;
+    if (upload.offset === upload.length) {
+      const fileName = upload.uploadId + EXTENSIONS[contentType];
+      await fs.promises.rename(partialPath, path.join(IMAGE_DIR, fileName));
+      upload.completed = true;
+      upload.url = `${publicBaseUrl(req)}/uploads/images/${fileName}`;
+    }
+    await upload.save();
+
+    res.status(upload.completed ? 201 : 200).json({ success: true, data: toStatus(upload) });
+  } catch (error) {
+    console.error('Error uploading image chunk:', error);
+    if (error.name === 'ValidationError') {
+      return res.status(400).json({
+        success: false,
+        message: 'Dữ liệu không hợp lệ',
+        errors: Object.values(error.errors).map(err => ({
+          field: err.path,
+          message: err.message
+        }))
+      });
+    }
+    res.status(500).json({
+      success: false,
+      message: 'Lỗi server khi tải ảnh lên'
+    });
+  }
+};
+
+// Maps finished upload ids to bike image entries, keeping the order the client sent
+const resolveImages = async (imageIds) => {
+  if (!Array.isArray(imageIds) || imageIds.length === 0) {
+    return [];
+  }
+  const uploads = await Upload.find({ uploadId: { $in: imageIds }, completed: true });
+  const byId = new Map(uploads.map(upload => [upload.uploadId, upload]));
+  const missing = imageIds.filter(id => !byId.has(id));
+  if (missing.length > 0) {
+    const error = new Error('Ảnh chưa được tải lên: ' + missing.join(', '));
+    error.name = 'UploadNotFound';
+    throw error;
+  }
+  return imageIds.map(id => ({ url: byId.get(id).url, alt: '' }));
+};
+
+module.exports = {
+  getUploadStatus,
+  uploadImageChunk,
+  resolveImages
+};
@@ -1,10 +1,96 @@
+const mongoose = require('mongoose');
 const { validationResult } = require('express-validator');
 const User = require('../models/User');
 
+const PAGE_SIZE = 20;
+const MAX_PAGE_SIZE = 100;
+const ROLES = ['customer', 'admin', 'staff'];
+const STATUSES = { active: true, inactive: false };
+// field, direction and how the cursor value is stored for each sort
+const SORTS = {
+  newest: { field: 'createdAt', direction: -1, date: true },
+  oldest: { field: 'createdAt', direction: 1, date: true },
+  username: { field: 'username', direction: 1, date: false }
+};
+
+const escapeRegex = (text) => text.replace(/[.*+?^${}()|[\]\\]/g, '\\$&');
+
+// Opaque to clients: the sort value and _id of the last user on the previous page
+const encodeCursor = (sort, user) => {
+  const value = sort.date ? user[sort.field].getTime() : user[sort.field];
+  return Buffer.from(JSON.stringify({ v: value, id: user._id.toString() })).toString('base64url');
+};
+
+const decodeCursor = (sort, cursor) => {
+  try {
+    const { v, id } = JSON.parse(Buffer.from(cursor, 'base64url').toString('utf8'));
+    if (v === undefined || !mongoose.Types.ObjectId.isValid(id)) return null;
+    return { value: sort.date ? new Date(v) : v, id: new mongoose.Types.ObjectId(id) };
+  } catch (err) {
+    return null;
+  }
+};
+
+// @desc    Users one page at a time, filtered by role/status/q, continuing after cursor
+// @route   GET /api/users?role=&status=&q=&sort=&cursor=&limit=
+// @access  Private (Admin/Staff)
 exports.listUsers = async (req, res, next) => {
   try {
-    const users = await User.find().select('-passwordHash');
-    res.json({ success: true, count: users.length, users });
+    const limit = Math.min(Math.max(parseInt(req.query.limit, 10) || PAGE_SIZE, 1), MAX_PAGE_SIZE);
+    const sort = SORTS[req.query.sort] || SORTS.newest;
+
+    const filter = {};
+    if (ROLES.includes(req.query.role)) {
+      filter.role = req.query.role;
+    }
+    if (req.query.status in STATUSES) {
+      filter.isActive = STATUSES[req.query.status];
+    }
+    const q = typeof req.query.q === 'string' ? req.query.q.trim() : '';
+    if (q) {
+      const pattern = new RegExp(escapeRegex(q), 'i');
+      filter.$or = [{ username: pattern }, { email: pattern }, { phoneNumber: pattern }];
+    }
+
+    let page = filter;
+    if (req.query.cursor) {
+      const cursor = decodeCursor(sort, req.query.cursor);
+      if (!cursor) {
+        return res.status(400).json({ success: false, message: 'Cursor không hợp lệ' });
+      }
+      const op = sort.direction < 0 ? '$lt' : '$gt';
+      page = {
+        $and: [
+          filter,
+          {
+            $or: [
+              { [sort.field]: { [op]: cursor.value } },
+              { [sort.field]: cursor.value, _id: { [op]: cursor.id } }
+            ]
+          }
+        ]
+      };
+    }
+
+    // Keyset paging: page 500 costs the same as page 1, unlike skip()
+    const users = await User.find(page)
+      .select('-passwordHash -tokenVersion')
+      .sort({ [sort.field]: sort.direction, _id: sort.direction })
+      .limit(limit + 1);
+    const hasNextPage = users.length > limit;
+    const items = users.slice(0, limit);
+
+    const pagination = {
+      itemsPerPage: limit,
+      hasNextPage,
+      nextCursor: hasNextPage ? encodeCursor(sort, items[items.length - 1]) : null
+    };
+    // Counting is the expensive part of a filtered query, so only the first page pays for it
+    if (!req.query.cursor) {
+      pagination.totalItems = await User.countDocuments(filter);
+    }
+
+    res.json({ success: true, count: items.length, users: items, pagination });
   } catch (err) {
     next(err);
   }
@@ -16,6 +16,9 @@ exports.protect = async (req, res, next) => {
 
   try {
     const decoded = jwt.verify(token, process.env.JWT_SECRET);
+    if (decoded.type === 'refresh') {
+      return res.status(401).json({ success: false, message: 'Token không hợp lệ hoặc đã hết hạn' });
+    }
     const user = await User.findById(decoded.id).select('-passwordHash');
 
     if (!user || user.isActive === false) {
@@ -66,7 +66,12 @@ const validateBike = [
   body('isNew')
     .optional()
     .isBoolean()
-    .withMessage('Trạng thái mới phải là boolean')
+    .withMessage('Trạng thái mới phải là boolean'),
+
+  body('imageIds')
+    .optional()
+    .isArray({ max: 20 })
+    .withMessage('Danh sách ảnh không hợp lệ (tối đa 20 ảnh)')
 ];
 
 // Validation rules for query parameters
@@ -114,7 +119,12 @@ const validateBikeQuery = [
   query('sortBy')
     .optional()
     .isIn(['price_asc', 'price_desc', 'rating', 'name', 'createdAt'])
-    .withMessage('Cách sắp xếp không hợp lệ')
+    .withMessage('Cách sắp xếp không hợp lệ'),
+
+  query('fields')
+    .optional()
+    .isString()
+    .withMessage('Danh sách trường phải là chuỗi')
 ];
 
 // Validation for featured bikes query
@@ -32,6 +32,10 @@ const cartItemSchema = new mongoose.Schema({
     max: [100, 'Giảm giá không được vượt quá 100%'],
     default: 0
   },
+  selected: {
+    type: Boolean,
+    default: true
+  },
   addedAt: {
     type: Date,
     default: Date.now
@@ -12,6 +12,12 @@ const chatMessageSchema = new mongoose.Schema({
     trim: true,
     maxlength: [1000, 'Tin nhắn không được vượt quá 1000 ký tự']
   },
+  // Id given by the sending device, so a resend after a lost ack is not stored twice
+  clientId: {
+    type: String,
+    trim: true,
+    maxlength: [64, 'Mã tin nhắn không được vượt quá 64 ký tự']
+  },
   messageType: {
     type: String,
     enum: ['text', 'image', 'file', 'system', 'order', 'product'],
@@ -161,6 +167,10 @@ chatMessageSchema.index({ messageType: 1, sentAt: -1 });
 chatMessageSchema.index({ isFromAdmin: 1, sentAt: -1 });
 chatMessageSchema.index({ priority: 1, sentAt: -1 });
 chatMessageSchema.index({ isArchived: 1, sentAt: -1 });
+chatMessageSchema.index(
+  { user: 1, clientId: 1 },
+  { unique: true, partialFilterExpression: { clientId: { $type: 'string' } } }
+);
 
 // Pre-save middleware
 chatMessageSchema.pre('save', function(next) {
@@ -1,3 +1,4 @@
+const crypto = require('crypto');
 const mongoose = require('mongoose');
 
 const orderSchema = new mongoose.Schema({
@@ -19,7 +20,39 @@ const orderSchema = new mongoose.Schema({
   paymentMethod: {
     type: String,
     required: [true, 'Phương thức thanh toán là bắt buộc'],
-    enum: ['cash', 'bank_transfer', 'vnpay', 'zalopay', 'paypal', 'credit_card']
+    enum: ['cash', 'bank_transfer', 'vnpay', 'zalopay', 'momo', 'paypal', 'credit_card']
+  },
+  // Snapshot of what was bought, priced when the order was placed
+  items: [{
+    bike: {
+      type: mongoose.Schema.Types.ObjectId,
+      ref: 'Bike',
+      required: true
+    },
+    name: {
+      type: String,
+      trim: true
+    },
+    quantity: {
+      type: Number,
+      required: true,
+      min: [1, 'Số lượng phải lớn hơn 0']
+    },
+    unitPrice: {
+      type: Number,
+      required: true,
+      min: [0, 'Giá không được âm']
+    }
+  }],
+  // Client-generated key; resending a request with the same key returns the same order
+  idempotencyKey: {
+    type: String,
+    trim: true,
+    maxlength: [64, 'Idempotency-Key không được vượt quá 64 ký tự']
+  },
+  // Fingerprint of the first request body, to reject a reused key with different contents
+  requestHash: {
+    type: String
   },
   billingAddress: {
     fullName: {
@@ -46,14 +79,13 @@ const orderSchema = new mongoose.Schema({
       trim: true,
       maxlength: [255, 'Địa chỉ không được vượt quá 255 ký tự']
     },
+    // The app collects the address as a single line
     city: {
       type: String,
-      required: [true, 'Thành phố là bắt buộc'],
       trim: true
     },
     district: {
       type: String,
-      required: [true, 'Quận/Huyện là bắt buộc'],
       trim: true
     },
     ward: {
@@ -186,6 +218,13 @@ orderSchema.index({ orderNumber: 1 });
 orderSchema.index({ user: 1, orderDate: -1 });
 orderSchema.index({ orderStatus: 1, orderDate: -1 });
 orderSchema.index({ orderDate: -1 });
+// Order history pages and incremental sync
+orderSchema.index({ user: 1, createdAt: -1, _id: -1 });
+orderSchema.index({ user: 1, updatedAt: 1, _id: 1 });
+orderSchema.index(
+  { user: 1, idempotencyKey: 1 },
+  { unique: true, partialFilterExpression: { idempotencyKey: { $type: 'string' } } }
+);
 
 // Pre-save middleware to generate order number
 orderSchema.pre('save', async function(next) {
@@ -195,8 +234,8 @@ orderSchema.pre('save', async function(next) {
     const month = String(date.getMonth() + 1).padStart(2, '0');
     const day = String(date.getDate()).padStart(2, '0');
     
-    // Generate random 4-digit number
-    const randomNum = Math.floor(1000 + Math.random() * 9000);
+    // Random 6-digit suffix; a rare clash with an existing number fails the unique index
+    const randomNum = crypto.randomInt(100000, 1000000);
     this.orderNumber = `ORD${year}${month}${day}${randomNum}`;
   }
   
@@ -0,0 +1,29 @@
+const mongoose = require('mongoose');
+
+// How many units of one bike a store holds. Bike.stock stays the total that checkout reserves from;
+// these rows break it down per store for availability lookups.
+const storeStockSchema = new mongoose.Schema({
+  bike: {
+    type: mongoose.Schema.Types.ObjectId,
+    ref: 'Bike',
+    required: [true, 'Xe là bắt buộc']
+  },
+  store: {
+    type: mongoose.Schema.Types.ObjectId,
+    ref: 'StoreLocation',
+    required: [true, 'Cửa hàng là bắt buộc']
+  },
+  quantity: {
+    type: Number,
+    required: [true, 'Số lượng là bắt buộc'],
+    min: [0, 'Số lượng không được âm'],
+    default: 0
+  }
+}, {
+  timestamps: true
+});
+
+// One row per bike and store; batched lookups read it by bike
+storeStockSchema.index({ bike: 1, store: 1 }, { unique: true });
+
+module.exports = mongoose.model('StoreStock', storeStockSchema);
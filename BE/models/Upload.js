@@ -0,0 +1,40 @@
+const mongoose = require('mongoose');
+
+// One resumable image upload. The client picks uploadId and sends the bytes in
+// chunks; offset is how many bytes the server has safely written so far.
+const uploadSchema = new mongoose.Schema({
+  uploadId: {
+    type: String,
+    required: true,
+    unique: true,
+    match: [/^[A-Za-z0-9-]{8,64}$/, 'uploadId không hợp lệ']
+  },
+  contentType: {
+    type: String,
+    required: true
+  },
+  length: {
+    type: Number,
+    required: true,
+    min: [1, 'Kích thước file không hợp lệ']
+  },
+  offset: {
+    type: Number,
+    default: 0
+  },
+  completed: {
+    type: Boolean,
+    default: false
+  },
+  url: {
+    type: String
+  },
+  uploadedBy: {
+    type: mongoose.Schema.Types.ObjectId,
+    ref: 'User'
+  }
+}, {
+  timestamps: true
+});
+
+module.exports = mongoose.model('Upload', uploadSchema);
@@ -45,6 +45,11 @@ const userSchema = new mongoose.Schema({
   lastLogin: {
     type: Date
   },
+  // Bumped to revoke all refresh tokens issued so far
+  tokenVersion: {
+    type: Number,
+    default: 0
+  },
   profile: {
     firstName: {
       type: String,
@@ -82,6 +87,9 @@ userSchema.virtual('fullName').get(function() {
 userSchema.index({ username: 1 });
 userSchema.index({ email: 1 });
 userSchema.index({ role: 1, isActive: 1 });
+// Admin user list: keyset paging by newest first, with and without a role/status filter
+userSchema.index({ createdAt: -1, _id: -1 });
+userSchema.index({ role: 1, isActive: 1, createdAt: -1, _id: -1 });
 
 // Pre-save middleware to hash password
 userSchema.pre('save', async function(next) {
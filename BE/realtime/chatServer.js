@@ -0,0 +1,239 @@
+const mongoose = require('mongoose');
+const jwt = require('jsonwebtoken');
+const { WebSocketServer, WebSocket } = require('ws');
+const User = require('../models/User');
+const ChatMessage = require('../models/ChatMessage');
+
+const CHAT_PATH = '/ws/chat';
+const HEARTBEAT_INTERVAL_MS = 30000;
+const SYNC_BATCH_SIZE = 200;
+const MAX_FRAME_BYTES = 16 * 1024;
+const USER_FIELDS = 'username profile.firstName profile.lastName';
+
+// Customer id -> that customer's open sockets (one per device)
+const customerSockets = new Map();
+// Admin/staff sockets see every conversation
+const staffSockets = new Set();
+
+const isStaff = (user) => user.role === 'admin' || user.role === 'staff';
+
+const toDto = (doc, customer) => ({
+  id: doc._id.toString(),
+  clientId: doc.clientId,
+  userId: customer._id.toString(),
+  userName: customer.fullName,
+  message: doc.message,
+  sentAt: doc.sentAt.getTime(),
+  isFromAdmin: doc.isFromAdmin
+});
+
+const send = (ws, frame) => {
+  if (ws.readyState === WebSocket.OPEN) {
+    ws.send(JSON.stringify(frame));
+  }
+};
+
+// Deliver to every socket of the conversation except the one the message came from
+const broadcast = (customerId, frame, origin) => {
+  const targets = [...(customerSockets.get(customerId) || []), ...staffSockets];
+  targets.forEach((ws) => {
+    if (ws !== origin) {
+      send(ws, frame);
+    }
+  });
+};
+
+// Token from the Authorization header, or ?token= for clients that cannot set headers
+const authenticate = async (req, url) => {
+  let token = url.searchParams.get('token');
+  if (req.headers.authorization && req.headers.authorization.startsWith('Bearer ')) {
+    token = req.headers.authorization.split(' ')[1];
+  }
+  if (!token) {
+    return null;
+  }
+  try {
+    const decoded = jwt.verify(token, process.env.JWT_SECRET);
+    if (decoded.type === 'refresh') {
+      return null;
+    }
+    const user = await User.findById(decoded.id).select('-passwordHash');
+    return user && user.isActive !== false ? user : null;
+  } catch (err) {
+    return null;
+  }
+};
+
+const register = (ws, user) => {
+  if (isStaff(user)) {
+    staffSockets.add(ws);
+    return;
+  }
+  const id = user._id.toString();
+  if (!customerSockets.has(id)) {
+    customerSockets.set(id, new Set());
+  }
+  customerSockets.get(id).add(ws);
+};
+
+const unregister = (ws, user) => {
+  if (isStaff(user)) {
+    staffSockets.delete(ws);
+    return;
+  }
+  const id = user._id.toString();
+  const sockets = customerSockets.get(id);
+  if (sockets) {
+    sockets.delete(ws);
+    if (sockets.size === 0) {
+      customerSockets.delete(id);
+    }
+  }
+};
+
+// { type: 'send', clientId, message, userId (staff only) }
+const handleSend = async (ws, user, frame) => {
+  const text = typeof frame.message === 'string' ? frame.message.trim() : '';
+  if (typeof frame.clientId !== 'string' || !frame.clientId || frame.clientId.length > 64) {
+    return send(ws, { type: 'error', message: 'Thiếu mã tin nhắn' });
+  }
+  if (!text || text.length > 1000) {
+    return send(ws, { type: 'error', clientId: frame.clientId, message: 'Tin nhắn phải từ 1 đến 1000 ký tự' });
+  }
+
+  const staff = isStaff(user);
+  let customer = user;
+  if (staff) {
+    customer = mongoose.isValidObjectId(frame.userId)
+      ? await User.findById(frame.userId).select(USER_FIELDS)
+      : null;
+    if (!customer) {
+      return send(ws, { type: 'error', clientId: frame.clientId, message: 'Không tìm thấy người dùng' });
+    }
+  }
+
+  // A resend after a lost ack finds the stored copy instead of creating a duplicate
+  const key = { user: customer._id, clientId: frame.clientId };
+  let doc = await ChatMessage.findOne(key);
+  let created = false;
+  if (!doc) {
+    try {
+      doc = await ChatMessage.create({
+        ...key,
+        message: text,
+        isFromAdmin: staff,
+        adminUser: staff ? user._id : undefined
+      });
+      created = true;
+    } catch (error) {
+      if (error.code !== 11000) {
+        throw error;
+      }
+      doc = await ChatMessage.findOne(key);
+    }
+  }
+
+  const dto = toDto(doc, customer);
+  send(ws, { type: 'ack', clientId: frame.clientId, message: dto });
+  if (created) {
+    broadcast(customer._id.toString(), { type: 'message', message: dto }, ws);
+  }
+};
+
+// { type: 'sync', since } -> messages sent at or after `since`, oldest first, in batches.
+// Boundary messages are repeated on purpose; clients store by id so that is harmless.
+const handleSync = async (ws, user, frame) => {
+  const since = Number(frame.since) || 0;
+  const filter = { sentAt: { $gte: new Date(since) }, isDeleted: false };
+  if (!isStaff(user)) {
+    filter.user = user._id;
+  }
+
+  const docs = await ChatMessage.find(filter)
+    .sort({ sentAt: 1, _id: 1 })
+    .limit(SYNC_BATCH_SIZE + 1)
+    .populate('user', USER_FIELDS);
+
+  const hasMore = docs.length > SYNC_BATCH_SIZE;
+  const messages = docs
+    .slice(0, SYNC_BATCH_SIZE)
+    .filter(doc => doc.user)
+    .map(doc => toDto(doc, doc.user));
+  send(ws, { type: 'history', messages, hasMore });
+};
+
+const handleFrame = async (ws, user, frame) => {
+  switch (frame.type) {
+    case 'send':
+      return handleSend(ws, user, frame);
+    case 'sync':
+      return handleSync(ws, user, frame);
+    default:
+      return send(ws, { type: 'error', message: 'Loại khung tin không hợp lệ' });
+  }
+};
+
+// Real-time chat at ws://<host>/ws/chat. Messages are stored in ChatMessage before they are
+// acknowledged or fanned out, so a reconnecting client catches up with a single 'sync'.
+const attachChatServer = (server) => {
+  const wss = new WebSocketServer({ noServer: true, maxPayload: MAX_FRAME_BYTES });
+
+  server.on('upgrade', async (req, socket, head) => {
+    const url = new URL(req.url, 'http://localhost');
+    if (url.pathname !== CHAT_PATH) {
+      socket.destroy();
+      return;
+    }
+    const user = await authenticate(req, url);
+    if (!user) {
+      socket.write('HTTP/1.1 401 Unauthorized\r\nConnection: close\r\n\r\n');
+      socket.destroy();
+      return;
+    }
+    wss.handleUpgrade(req, socket, head, (ws) => wss.emit('connection', ws, user));
+  });
+
+  wss.on('connection', (ws, user) => {
+    ws.isAlive = true;
+    ws.on('pong', () => {
+      ws.isAlive = true;
+    });
+    register(ws, user);
+    ws.on('close', () => unregister(ws, user));
+
+    ws.on('message', (data) => {
+      let frame;
+      try {
+        frame = JSON.parse(data.toString());
+      } catch (error) {
+        return send(ws, { type: 'error', message: 'Khung tin không hợp lệ' });
+      }
+      // Valid JSON can still be null, an array or a bare value
+      if (!frame || typeof frame !== 'object' || Array.isArray(frame)) {
+        return send(ws, { type: 'error', message: 'Khung tin không hợp lệ' });
+      }
+      handleFrame(ws, user, frame).catch((error) => {
+        console.error('Chat error:', error);
+        // Not the message's fault; the client keeps it queued and resends after reconnecting
+        send(ws, { type: 'error', clientId: frame.clientId, message: 'Lỗi server', retryable: true });
+      });
+    });
+  });
+
+  // Drop sockets that stopped answering pings, e.g. a phone that lost signal without closing
+  const heartbeat = setInterval(() => {
+    wss.clients.forEach((ws) => {
+      if (!ws.isAlive) {
+        ws.terminate();
+        return;
+      }
+      ws.isAlive = false;
+      ws.ping();
+    });
+  }, HEARTBEAT_INTERVAL_MS);
+  wss.on('close', () => clearInterval(heartbeat));
+
+  return wss;
+};
+
+module.exports = { attachChatServer, CHAT_PATH };
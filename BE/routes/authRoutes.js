@@ -1,6 +1,6 @@
 const express = require('express');
 const { body } = require('express-validator');
-const { register, login, logout, getMe, updateProfile, changePassword } = require('../controllers/authController');
+const { register, login, refresh, logout, getMe, updateProfile, changePassword } = require('../controllers/authController');
 const { protect } = require('../middleware/auth');
 
 const router = express.Router();
@@ -25,6 +25,7 @@ router.post(
   login
 );
 
+router.post('/refresh', refresh);
 router.post('/logout', protect, logout);
 
 // Me
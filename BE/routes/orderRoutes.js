@@ -0,0 +1,13 @@
+const express = require('express');
+const { createOrder, getOrders, getOrderChanges } = require('../controllers/orderController');
+const { protect } = require('../middleware/auth');
+
+const router = express.Router();
+
+router.use(protect);
+
+router.get('/', getOrders);
+router.get('/changes', getOrderChanges);
+router.post('/', createOrder);
+
+module.exports = router;
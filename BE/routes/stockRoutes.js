@@ -0,0 +1,13 @@
+const express = require('express');
+const { getStock, setStoreStock } = require('../controllers/stockController');
+const { protect, authorize } = require('../middleware/auth');
+
+const router = express.Router();
+
+// Public route
+router.get('/', getStock);
+
+// Admin/Staff
+router.put('/:bikeId/stores/:storeId', protect, authorize('admin', 'staff'), setStoreStock);
+
+module.exports = router;
@@ -0,0 +1,20 @@
+const express = require('express');
+const router = express.Router();
+const { getUploadStatus, uploadImageChunk } = require('../controllers/uploadController');
+const { protect, authorize } = require('../middleware/auth');
+
+// Admin or staff only
+router.use(protect);
+router.use(authorize('admin', 'staff'));
+
+// @route   GET /api/uploads/images/:uploadId
+// @desc    Get received byte count of a resumable image upload
+// @access  Private (Admin/Staff)
+router.get('/images/:uploadId', getUploadStatus);
+
+// @route   PUT /api/uploads/images/:uploadId
+// @desc    Upload one chunk of an image (raw bytes)
+// @access  Private (Admin/Staff)
+router.put('/images/:uploadId', express.raw({ type: 'image/*', limit: '2mb' }), uploadImageChunk);
+
+module.exports = router;
@@ -1,8 +1,10 @@
 const express = require('express');
+const path = require('path');
 const cors = require('cors');
 const dotenv = require('dotenv');
 const connectDB = require('./config/database');
 const errorHandler = require('./middleware/errorHandler');
+const { attachChatServer } = require('./realtime/chatServer');
 
 // Load env vars
 dotenv.config();
@@ -29,6 +31,13 @@ app.use('/api/bikes', require('./routes/bikeRoutes'));
 app.use('/api/auth', require('./routes/authRoutes'));
 app.use('/api/users', require('./routes/userRoutes'));
 app.use('/api/locations', require('./routes/locationRoutes'));
+app.use('/api/uploads', require('./routes/uploadRoutes'));
+app.use('/api/cart', require('./routes/cartRoutes'));
+app.use('/api/orders', require('./routes/orderRoutes'));
+app.use('/api/stock', require('./routes/stockRoutes'));
+
+// Uploaded bike images
+app.use('/uploads', express.static(path.join(__dirname, 'uploads'), { maxAge: '7d', immutable: true }));
 
 // Health check endpoint
 app.get('/api/health', (req, res) => {
@@ -57,6 +66,9 @@ const server = app.listen(PORT, () => {
   console.log(`Server running in ${process.env.NODE_ENV} mode on port ${PORT}`);
 });
 
+// Real-time chat shares the HTTP port
+attachChatServer(server);
+
 // Handle unhandled promise rejections
 process.on('unhandledRejection', (err, promise) => {
   console.log(`Error: ${err.message}`);
@@ -0,0 +1,52 @@
+const axios = require('axios');
+
+// Cách chạy: node test/bikeFields.js
+const API_URL = 'http://localhost:5000/api/bikes';
+const LIST_FIELDS = 'name,brand,model,price,originalPrice,description,category,status,stock,isFeatured,tags,image';
+
+// Function để test chọn trường trên danh sách xe: chỉ có các trường được hỏi, một ảnh,
+// cùng thứ tự với danh sách đầy đủ và nhỏ hơn về dung lượng
+async function testBikeFields() {
+  try {
+    const params = { page: 1, limit: 50 };
+    const full = await axios.get(API_URL, { params });
+    const slim = await axios.get(API_URL, { params: { ...params, fields: LIST_FIELDS } });
+
+    const allowed = new Set(['_id', ...LIST_FIELDS.split(',').filter(f => f !== 'image'), 'images']);
+    let ok = slim.data.data.length === full.data.data.length;
+    slim.data.data.forEach((bike, i) => {
+      const extra = Object.keys(bike).filter(key => !allowed.has(key));
+      if (extra.length > 0) {
+        console.log(`❌ ${bike.name} có trường thừa: ${extra.join(', ')}`);
+        ok = false;
+      }
+      if ((bike.images || []).length > 1) {
+        console.log(`❌ ${bike.name} có ${bike.images.length} ảnh`);
+        ok = false;
+      }
+      if (bike._id !== full.data.data[i]._id) {
+        console.log(`❌ Thứ tự khác ở vị trí ${i}`);
+        ok = false;
+      }
+    });
+    const fullSize = JSON.stringify(full.data).length;
+    const slimSize = JSON.stringify(slim.data).length;
+    console.log(ok
+      ? `✅ ${slim.data.data.length} xe, ${slimSize} / ${fullSize} byte`
+      : '❌ Danh sách rút gọn không khớp');
+
+    const bad = await axios.get(API_URL, { params: { fields: 'name,passwordHash' }, validateStatus: () => true });
+    console.log(bad.status === 400 ? '✅ Trường không hợp lệ bị từ chối' : `❌ Trường không hợp lệ trả ${bad.status}`);
+  } catch (error) {
+    console.error('❌ Lỗi khi test chọn trường:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testBikeFields();
+}
+
+module.exports = {
+  testBikeFields
+};
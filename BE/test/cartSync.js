@@ -0,0 +1,39 @@
+const axios = require('axios');
+
+// Cách chạy: TOKEN=<jwt khách hàng> BIKE_ID=<id xe còn hàng> node test/cartSync.js
+const API_URL = 'http://localhost:5000/api/cart';
+
+// Function để test đồng bộ giỏ hàng: gửi một lô, gửi lại đúng lô đó (kết quả không đổi),
+// rồi yêu cầu số lượng vượt tồn kho để server tự điều chỉnh
+async function testCartSync() {
+  const headers = { Authorization: `Bearer ${process.env.TOKEN}` };
+  const bikeId = process.env.BIKE_ID;
+
+  try {
+    const batch = { items: [{ bikeId, quantity: 2, selected: true }] };
+    const first = await axios.put(API_URL, batch, { headers });
+    console.log('🛒 Sau lô đầu:', JSON.stringify(first.data.data.items));
+
+    // Giả lập mất phản hồi: gửi lại cùng lô
+    const retry = await axios.put(API_URL, batch, { headers });
+    const quantity = retry.data.data.items.find(item => item.bikeId === bikeId).quantity;
+    console.log(quantity === 2 ? '✅ Gửi lại không làm đổi số lượng' : `❌ Số lượng bị đổi thành ${quantity}`);
+
+    const tooMany = await axios.put(API_URL, { items: [{ bikeId, quantity: 999 }] }, { headers });
+    console.log('📦 Điều chỉnh:', JSON.stringify(tooMany.data.data.adjustments));
+
+    const removed = await axios.put(API_URL, { items: [{ bikeId, quantity: 0 }] }, { headers });
+    console.log('🗑️ Sau khi xóa:', JSON.stringify(removed.data.data.items));
+  } catch (error) {
+    console.error('❌ Lỗi khi test giỏ hàng:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testCartSync();
+}
+
+module.exports = {
+  testCartSync
+};
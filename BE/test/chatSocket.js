@@ -0,0 +1,61 @@
+const crypto = require('crypto');
+const WebSocket = require('ws');
+
+// Cách chạy: TOKEN=<jwt khách hàng> node test/chatSocket.js
+const WS_URL = 'ws://localhost:5000/ws/chat';
+
+// Chờ khung tin đầu tiên thỏa điều kiện
+function nextFrame(ws, predicate) {
+  return new Promise((resolve, reject) => {
+    const onMessage = (data) => {
+      const frame = JSON.parse(data.toString());
+      if (predicate(frame)) {
+        ws.off('message', onMessage);
+        resolve(frame);
+      }
+    };
+    ws.on('message', onMessage);
+    ws.once('close', () => reject(new Error('Kết nối bị đóng')));
+  });
+}
+
+// Function để test gửi tin, gửi lại cùng clientId (không được trùng) rồi đồng bộ lịch sử
+async function testChat() {
+  const ws = new WebSocket(WS_URL, { headers: { Authorization: `Bearer ${process.env.TOKEN}` } });
+  try {
+    await new Promise((resolve, reject) => {
+      ws.once('open', resolve);
+      ws.once('error', reject);
+    });
+    console.log('🔌 Đã kết nối');
+
+    const clientId = crypto.randomUUID();
+    const payload = { type: 'send', clientId, message: 'Xin chào, tôi cần hỗ trợ về sản phẩm' };
+
+    ws.send(JSON.stringify(payload));
+    const first = await nextFrame(ws, frame => frame.clientId === clientId);
+    console.log('📨 Ack:', JSON.stringify(first));
+
+    // Giả lập mất ack: gửi lại đúng tin đó
+    ws.send(JSON.stringify(payload));
+    const second = await nextFrame(ws, frame => frame.clientId === clientId);
+    console.log(first.message.id === second.message.id ? '✅ Không tạo tin trùng' : '❌ Tin bị lưu hai lần');
+
+    ws.send(JSON.stringify({ type: 'sync', since: first.message.sentAt }));
+    const history = await nextFrame(ws, frame => frame.type === 'history');
+    console.log(`📚 Lịch sử từ tin vừa gửi: ${history.messages.length} tin, hasMore=${history.hasMore}`);
+  } catch (error) {
+    console.error('❌ Lỗi khi test chat:', error.message);
+  } finally {
+    ws.close();
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testChat();
+}
+
+module.exports = {
+  testChat
+};
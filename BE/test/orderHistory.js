@@ -0,0 +1,56 @@
+const axios = require('axios');
+
+// Cách chạy: TOKEN=<jwt khách hàng đã có vài đơn> node test/orderHistory.js
+const API_URL = 'http://localhost:5000/api/orders';
+
+// Function để test lịch sử đơn hàng: đi hết các trang bằng con trỏ (không trùng, không sót),
+// rồi đồng bộ thay đổi từ đơn cập nhật gần nhất (phải không còn gì mới)
+async function testOrderHistory() {
+  const headers = { Authorization: `Bearer ${process.env.TOKEN}` };
+
+  try {
+    const seen = new Set();
+    let params = { limit: 2 };
+    let pages = 0;
+    let latest = null;
+    for (;;) {
+      const { data } = await axios.get(API_URL, { headers, params });
+      const { orders, hasMore } = data.data;
+      pages++;
+      for (const order of orders) {
+        if (seen.has(order.id)) {
+          console.log(`❌ Đơn ${order.orderNumber} xuất hiện ở hai trang`);
+        }
+        seen.add(order.id);
+        if (!latest || order.updatedAt > latest.updatedAt) {
+          latest = order;
+        }
+      }
+      if (!hasMore) break;
+      const last = orders[orders.length - 1];
+      params = { limit: 2, before: last.createdAt, beforeId: last.id };
+    }
+    console.log(`📄 ${seen.size} đơn trong ${pages} trang`);
+
+    if (latest) {
+      const { data } = await axios.get(`${API_URL}/changes`, {
+        headers,
+        params: { updatedSince: latest.updatedAt, afterId: latest.id }
+      });
+      console.log(data.data.orders.length === 0
+        ? '✅ Không có thay đổi mới sau lần đồng bộ'
+        : `🔄 ${data.data.orders.length} đơn vừa thay đổi`);
+    }
+  } catch (error) {
+    console.error('❌ Lỗi khi test lịch sử đơn hàng:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testOrderHistory();
+}
+
+module.exports = {
+  testOrderHistory
+};
@@ -0,0 +1,44 @@
+const crypto = require('crypto');
+const axios = require('axios');
+
+// Cách chạy: TOKEN=<jwt khách hàng> BIKE_ID=<id xe còn hàng> node test/orderIdempotency.js
+const API_URL = 'http://localhost:5000/api/orders';
+
+// Function để test đặt hàng hai lần với cùng Idempotency-Key: lần sau phải trả về đúng đơn cũ
+async function testOrderIdempotency() {
+  const key = crypto.randomUUID();
+  const headers = { Authorization: `Bearer ${process.env.TOKEN}`, 'Idempotency-Key': key };
+  const order = {
+    items: [{ bikeId: process.env.BIKE_ID, quantity: 1 }],
+    paymentMethod: 'cash',
+    receiverName: 'Nguyễn Văn A',
+    receiverPhone: '0901234567',
+    shippingAddress: '123 Nguyễn Huệ, Q.1, TP.HCM'
+  };
+
+  try {
+    const first = await axios.post(API_URL, order, { headers });
+    console.log(`📦 Lần 1: ${first.status} ${first.data.data.orderNumber}`);
+
+    // Giả lập mất phản hồi rồi client gửi lại
+    const retry = await axios.post(API_URL, order, { headers });
+    console.log(`🔁 Lần 2: ${retry.status} ${retry.data.data.orderNumber}`);
+    console.log(first.data.data.id === retry.data.data.id ? '✅ Không tạo đơn trùng' : '❌ Đơn bị tạo hai lần');
+
+    // Cùng key nhưng nội dung khác phải bị từ chối
+    await axios.post(API_URL, { ...order, receiverName: 'Người khác' }, { headers })
+      .then(() => console.log('❌ Key bị dùng lại mà không báo lỗi'))
+      .catch(error => console.log(`✅ Dùng lại key: ${error.response?.status}`));
+  } catch (error) {
+    console.error('❌ Lỗi khi test đặt hàng:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testOrderIdempotency();
+}
+
+module.exports = {
+  testOrderIdempotency
+};
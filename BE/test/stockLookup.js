@@ -0,0 +1,34 @@
+const axios = require('axios');
+
+// Cách chạy: node test/stockLookup.js (server đang chạy, đã có dữ liệu xe)
+const API_URL = 'http://localhost:5000/api';
+
+// Function để test tra tồn kho hàng loạt: một request cho cả trang xe thay vì mỗi xe một request
+async function testStockLookup() {
+  try {
+    const bikes = await axios.get(`${API_URL}/bikes`, { params: { limit: 40 } });
+    const bikeIds = bikes.data.data.map(bike => bike._id || bike.id);
+
+    const started = Date.now();
+    const { data } = await axios.get(`${API_URL}/stock`, { params: { bikeIds: bikeIds.join(',') } });
+    console.log(`📦 ${data.data.items.length}/${bikeIds.length} xe, ${data.data.stores.length} cửa hàng trong ${Date.now() - started}ms`);
+
+    const missing = bikeIds.filter(id => !data.data.items.some(item => item.bikeId === id));
+    console.log(missing.length === 0 ? '✅ Mọi id đều có kết quả' : `❌ Thiếu ${missing.length} id`);
+
+    await axios.get(`${API_URL}/stock`, { params: { bikeIds: 'abc' } })
+      .then(() => console.log('❌ Id không hợp lệ mà không báo lỗi'))
+      .catch(error => console.log(`✅ Id không hợp lệ: ${error.response?.status}`));
+  } catch (error) {
+    console.error('❌ Lỗi khi test tồn kho:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testStockLookup();
+}
+
+module.exports = {
+  testStockLookup
+};
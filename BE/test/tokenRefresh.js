@@ -0,0 +1,47 @@
+const axios = require('axios');
+
+// Cách chạy: LOGIN=<tên đăng nhập hoặc email> PASSWORD=<mật khẩu> node test/tokenRefresh.js
+const API_URL = 'http://localhost:5000/api/auth';
+
+// Function để test làm mới token: refresh token đổi được access token dùng được ngay,
+// không dùng thay access token được, và bị thu hồi sau khi đăng xuất
+async function testTokenRefresh() {
+  try {
+    const { data: login } = await axios.post(`${API_URL}/login`, {
+      usernameOrEmail: process.env.LOGIN,
+      password: process.env.PASSWORD
+    });
+
+    const { data: refreshed } = await axios.post(`${API_URL}/refresh`, { refreshToken: login.refreshToken });
+    const headers = { Authorization: `Bearer ${refreshed.token}` };
+    const { data: me } = await axios.get(`${API_URL}/me`, { headers });
+    console.log(me.success ? '✅ Access token mới dùng được' : '❌ Access token mới bị từ chối');
+
+    const misuse = await axios.get(`${API_URL}/me`, {
+      headers: { Authorization: `Bearer ${refreshed.refreshToken}` },
+      validateStatus: () => true
+    });
+    console.log(misuse.status === 401
+      ? '✅ Refresh token không dùng thay access token được'
+      : `❌ Refresh token được chấp nhận ở /me (${misuse.status})`);
+
+    await axios.post(`${API_URL}/logout`, {}, { headers });
+    const revoked = await axios.post(`${API_URL}/refresh`, { refreshToken: refreshed.refreshToken }, {
+      validateStatus: () => true
+    });
+    console.log(revoked.status === 401
+      ? '✅ Refresh token bị thu hồi sau khi đăng xuất'
+      : `❌ Refresh token vẫn dùng được sau khi đăng xuất (${revoked.status})`);
+  } catch (error) {
+    console.error('❌ Lỗi khi test làm mới token:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testTokenRefresh();
+}
+
+module.exports = {
+  testTokenRefresh
+};
@@ -0,0 +1,84 @@
+const fs = require('fs');
+const crypto = require('crypto');
+const axios = require('axios');
+
+// Cách chạy: TOKEN=<jwt admin/staff> node test/uploadImage.js <đường dẫn ảnh jpg>
+const BASE_URL = 'http://localhost:5000/api/uploads/images';
+const CHUNK_SIZE = 256 * 1024;
+
+const headers = () => ({ Authorization: `Bearer ${process.env.TOKEN}` });
+
+// Gửi một đoạn ảnh tại vị trí offset
+async function sendChunk(uploadId, data, offset, length) {
+  const response = await axios.put(`${BASE_URL}/${uploadId}`, data, {
+    headers: {
+      ...headers(),
+      'Content-Type': 'image/jpeg',
+      'Upload-Offset': offset,
+      'Upload-Length': length
+    },
+    validateStatus: status => status < 500
+  });
+  return response;
+}
+
+// Function để test tải ảnh theo từng đoạn, có ngắt giữa chừng rồi tiếp tục
+async function uploadWithResume(filePath) {
+  try {
+    const data = fs.readFileSync(filePath);
+    const uploadId = crypto.randomUUID();
+    console.log(`🚀 Đang tải ${filePath} (${data.length} bytes), uploadId=${uploadId}`);
+
+    // Gửi đoạn đầu rồi "mất kết nối"
+    let response = await sendChunk(uploadId, data.subarray(0, CHUNK_SIZE), 0, data.length);
+    console.log('📦 Đoạn đầu:', response.status, JSON.stringify(response.data.data));
+
+    // Gửi sai vị trí: server phải trả 409 kèm offset hiện tại
+    response = await sendChunk(uploadId, data.subarray(0, CHUNK_SIZE), 0, data.length);
+    console.log('⚠️  Gửi lại sai vị trí:', response.status);
+
+    // Hỏi server đã nhận bao nhiêu rồi tiếp tục từ đó
+    const status = await axios.get(`${BASE_URL}/${uploadId}`, { headers: headers() });
+    let offset = status.data.data.offset;
+    console.log(`🔁 Tiếp tục từ byte ${offset}`);
+
+    while (offset < data.length) {
+      const end = Math.min(offset + CHUNK_SIZE, data.length);
+      response = await sendChunk(uploadId, data.subarray(offset, end), offset, data.length);
+      if (response.status >= 400) {
+        throw new Error(`Status ${response.status}: ${JSON.stringify(response.data)}`);
+      }
+      offset = response.data.data.offset;
+    }
+
+    console.log('✅ Tải xong!');
+    console.log('📊 Response:', JSON.stringify(response.data, null, 2));
+
+    // URL trả về phải là URL tuyệt đối, tải được trực tiếp như client sẽ làm
+    const url = response.data.data.url;
+    const image = await axios.get(url, { responseType: 'arraybuffer' });
+    const contentType = image.headers['content-type'] || '';
+    if (image.status !== 200 || !contentType.startsWith('image/') || image.data.length !== data.length) {
+      throw new Error(`Không tải được ảnh từ ${url}: ${image.status} ${contentType} ${image.data.length} bytes`);
+    }
+    console.log(`🖼️  Tải lại ảnh từ ${url}: ${image.status} ${contentType}, ${image.data.length} bytes`);
+    return response.data.data;
+  } catch (error) {
+    console.error('❌ Lỗi khi tải ảnh:');
+    if (error.response) {
+      console.error('Status:', error.response.status);
+      console.error('Data:', JSON.stringify(error.response.data, null, 2));
+    } else {
+      console.error('Error:', error.message);
+    }
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  uploadWithResume(process.argv[2]);
+}
+
+module.exports = {
+  uploadWithResume
+};
@@ -0,0 +1,58 @@
+const axios = require('axios');
+
+// Cách chạy: TOKEN=<jwt admin/staff> node test/userPaging.js
+const API_URL = 'http://localhost:5000/api/users';
+
+// Function để test phân trang người dùng: đi hết các trang bằng cursor với bộ lọc,
+// không trùng, không sót, và tổng số khớp totalItems của trang đầu
+async function testUserPaging() {
+  const headers = { Authorization: `Bearer ${process.env.TOKEN}` };
+  const filters = { role: 'customer', sort: 'username', limit: 5 };
+
+  try {
+    const seen = new Set();
+    let params = filters;
+    let total = null;
+    let pages = 0;
+    let previous = null;
+    for (;;) {
+      const { data } = await axios.get(API_URL, { headers, params });
+      pages++;
+      if (total === null) {
+        total = data.pagination.totalItems;
+      }
+      for (const user of data.users) {
+        if (seen.has(user._id)) {
+          console.log(`❌ ${user.username} xuất hiện ở hai trang`);
+        }
+        if (user.role !== 'customer') {
+          console.log(`❌ ${user.username} không khớp bộ lọc role`);
+        }
+        if (previous !== null && user.username < previous) {
+          console.log(`❌ ${user.username} sai thứ tự sắp xếp`);
+        }
+        previous = user.username;
+        seen.add(user._id);
+      }
+      if (!data.pagination.hasNextPage) break;
+      params = { ...filters, cursor: data.pagination.nextCursor };
+    }
+    console.log(seen.size === total
+      ? `✅ ${seen.size} khách hàng trong ${pages} trang`
+      : `❌ Đọc được ${seen.size} / ${total} khách hàng`);
+
+    const bad = await axios.get(API_URL, { headers, params: { cursor: 'abc' }, validateStatus: () => true });
+    console.log(bad.status === 400 ? '✅ Cursor không hợp lệ bị từ chối' : `❌ Cursor không hợp lệ trả ${bad.status}`);
+  } catch (error) {
+    console.error('❌ Lỗi khi test phân trang người dùng:', error.response?.data || error.message);
+  }
+}
+
+// Chạy nếu file được gọi trực tiếp
+if (require.main === module) {
+  testUserPaging();
+}
+
+module.exports = {
+  testUserPaging
+};
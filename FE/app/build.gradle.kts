@@ -24,6 +24,15 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release code, debug-signed so the macrobenchmark module can install and measure it
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
+    }
+    buildFeatures {
+        buildConfig = true
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
@@ -38,6 +47,8 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation(libs.viewpager2)
+    // Installs the bundled baseline profile on devices that do not get it from Play
+    implementation(libs.profileinstaller)
     
     // Network dependencies
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
@@ -11,6 +11,8 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
+import com.example.project.utils.AuthManager;
+
 public class AccountActivity extends AppCompatActivity {
 
     private TextView tvUserName, tvUserEmail, tvPhone, tvAddress;
@@ -134,6 +136,7 @@ public class AccountActivity extends AppCompatActivity {
         });
 
         btnLogout.setOnClickListener(v -> {
+            AuthManager.getInstance(this).clearAuthData();
             Toast.makeText(this, "Đã đăng xuất", Toast.LENGTH_SHORT).show();
             // Navigate to Login Activity
             Intent intent = new Intent(AccountActivity.this, LoginActivity.class);
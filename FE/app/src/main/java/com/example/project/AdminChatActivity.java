@@ -5,12 +5,15 @@ import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
+import com.example.project.chat.ChatClient;
+import com.example.project.chat.ChatHistory;
+
 import java.util.List;
 
 public class AdminChatActivity extends AppCompatActivity {
@@ -21,11 +24,16 @@ public class AdminChatActivity extends AppCompatActivity {
     private TextView tvUserNameHeader;
 
     private ChatMessageAdapter messageAdapter;
-    private List<ChatMessage> messages;
+    private LinearLayoutManager layoutManager;
+    private ChatHistory history;
+    // Keep scrolling to new messages only while the newest one is visible
+    private boolean followLatest = true;
 
     private String userId;
     private String userName;
 
+    private ChatClient chatClient;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -34,10 +42,14 @@ public class AdminChatActivity extends AppCompatActivity {
         // Get user info from intent
         userId = getIntent().getStringExtra("userId");
         userName = getIntent().getStringExtra("userName");
+        if (userId == null) {
+            finish();
+            return;
+        }
+        chatClient = ChatClient.getInstance(this);
 
         initViews();
         setupRecyclerView();
-        loadMessages();
         setupClickListeners();
     }
 
@@ -54,33 +66,44 @@ public class AdminChatActivity extends AppCompatActivity {
     }
 
     private void setupRecyclerView() {
-        messages = new ArrayList<>();
-        messageAdapter = new ChatMessageAdapter(messages, false); // false = admin view
+        messageAdapter = new ChatMessageAdapter(false); // false = admin view
 
-        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
-        layoutManager.setStackFromEnd(true);
+        // Newest message at the bottom, same as the customer screen
+        layoutManager = new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, true);
 
         rvMessages.setLayoutManager(layoutManager);
         rvMessages.setAdapter(messageAdapter);
-    }
+        rvMessages.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int firstVisible = layoutManager.findFirstVisibleItemPosition();
+                followLatest = firstVisible <= 0;
+                history.onScrolled(firstVisible, layoutManager.findLastVisibleItemPosition());
+            }
+        });
 
-    private void loadMessages() {
-        // TODO: Load messages for specific user from database
-        // Sample messages
-        messages.add(new ChatMessage("1", userId, userName, "admin",
-                "Xin chào, tôi cần hỗ trợ về sản phẩm",
-                System.currentTimeMillis() - 3600000, true));
+        history = new ChatHistory(this, userId, this::showMessages);
+    }
 
-        messages.add(new ChatMessage("2", "admin", "Admin", userId,
-                "Chào bạn! Tôi có thể giúp gì cho bạn?",
-                System.currentTimeMillis() - 3500000, false));
+    @Override
+    protected void onStart() {
+        super.onStart();
+        history.start();
+    }
 
-        messages.add(new ChatMessage("3", userId, userName, "admin",
-                "Tôi muốn biết thông tin về xe đạp điện VinFast",
-                System.currentTimeMillis() - 3400000, true));
+    @Override
+    protected void onStop() {
+        super.onStop();
+        history.stop();
+    }
 
-        messageAdapter.notifyDataSetChanged();
-        rvMessages.scrollToPosition(messages.size() - 1);
+    private void showMessages(List<ChatMessage> newestFirst, boolean newestIncluded) {
+        boolean scrollToNewest = followLatest && newestIncluded;
+        messageAdapter.submitList(newestFirst, () -> {
+            if (scrollToNewest) {
+                rvMessages.scrollToPosition(0);
+            }
+        });
     }
 
     private void setupClickListeners() {
@@ -102,24 +125,12 @@ public class AdminChatActivity extends AppCompatActivity {
             return;
         }
 
-        // TODO: Send message to database
-        ChatMessage newMessage = new ChatMessage(
-                String.valueOf(System.currentTimeMillis()),
-                "admin",
-                "Admin",
-                userId,
-                messageText,
-                System.currentTimeMillis(),
-                false
-        );
-
-        messages.add(newMessage);
-        messageAdapter.notifyItemInserted(messages.size() - 1);
-        rvMessages.scrollToPosition(messages.size() - 1);
-
+        chatClient.send(userId, userName, messageText);
         etMessage.setText("");
 
-        Toast.makeText(this, "Đã gửi tin nhắn", Toast.LENGTH_SHORT).show();
+        followLatest = true;
+        if (!history.isNewestIncluded()) {
+            history.loadLatest();
+        }
     }
 }
-
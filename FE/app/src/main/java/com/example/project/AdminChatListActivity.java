@@ -8,10 +8,14 @@ import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.chat.ChatClient;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
-public class AdminChatListActivity extends AppCompatActivity implements ChatUserAdapter.OnChatUserClickListener {
+public class AdminChatListActivity extends AppCompatActivity
+        implements ChatUserAdapter.OnChatUserClickListener, ChatClient.Listener {
 
     private RecyclerView rvChatUsers;
     private CardView btnBack;
@@ -19,14 +23,17 @@ public class AdminChatListActivity extends AppCompatActivity implements ChatUser
     private ChatUserAdapter chatUserAdapter;
     private List<ChatUser> chatUsers;
 
+    private ChatClient chatClient;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_admin_chat_list);
 
+        chatClient = ChatClient.getInstance(this);
+
         initViews();
         setupRecyclerView();
-        loadChatUsers();
         setupClickListeners();
     }
 
@@ -43,55 +50,30 @@ public class AdminChatListActivity extends AppCompatActivity implements ChatUser
         rvChatUsers.setAdapter(chatUserAdapter);
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        chatClient.addListener(this);
+        loadChatUsers();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        chatClient.removeListener(this);
+    }
+
+    @Override
+    public void onMessagesChanged(Set<String> conversationIds) {
+        loadChatUsers();
+    }
+
     private void loadChatUsers() {
-        // TODO: Load real chat users from database
-        // Sample data
-        chatUsers.add(new ChatUser(
-                "user1",
-                "Nguyễn Văn A",
-                "",
-                "Xin chào, tôi cần hỗ trợ...",
-                System.currentTimeMillis() - 600000,
-                3
-        ));
-
-        chatUsers.add(new ChatUser(
-                "user2",
-                "Trần Thị B",
-                "",
-                "Sản phẩm này còn hàng không?",
-                System.currentTimeMillis() - 1200000,
-                1
-        ));
-
-        chatUsers.add(new ChatUser(
-                "user3",
-                "Lê Văn C",
-                "",
-                "Cảm ơn bạn!",
-                System.currentTimeMillis() - 3600000,
-                0
-        ));
-
-        chatUsers.add(new ChatUser(
-                "user4",
-                "Phạm Thị D",
-                "",
-                "Tôi muốn đặt hàng",
-                System.currentTimeMillis() - 7200000,
-                5
-        ));
-
-        chatUsers.add(new ChatUser(
-                "user5",
-                "Hoàng Văn E",
-                "",
-                "Giá sản phẩm là bao nhiêu?",
-                System.currentTimeMillis() - 10800000,
-                0
-        ));
-
-        chatUserAdapter.notifyDataSetChanged();
+        // Conversations come from the local store, which the chat client keeps in sync
+        chatClient.loadConversations(result -> {
+            chatUsers = result;
+            chatUserAdapter.submitList(chatUsers);
+        });
     }
 
     private void setupClickListeners() {
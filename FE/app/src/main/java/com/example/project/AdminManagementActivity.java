@@ -1,13 +1,19 @@
 package com.example.project;
 
+import android.app.AlertDialog;
 import android.content.Intent;
+import android.graphics.Typeface;
 import android.os.Bundle;
+import android.widget.ScrollView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
+import com.example.project.network.NetworkTelemetry;
+import com.example.project.network.RetrofitClient;
+
 public class AdminManagementActivity extends AppCompatActivity {
 
     private CardView btnManageProducts, btnManageStores, btnManageOrders, btnManageUsers, btnManageChat;
@@ -73,5 +79,33 @@ public class AdminManagementActivity extends AppCompatActivity {
             Intent intent = new Intent(AdminManagementActivity.this, AdminChatListActivity.class);
             startActivity(intent);
         });
+
+        // Debug builds: long-press the products card to inspect network telemetry
+        if (BuildConfig.DEBUG) {
+            btnManageProducts.setOnLongClickListener(v -> {
+                showNetworkTelemetry();
+                return true;
+            });
+        }
+    }
+
+    private void showNetworkTelemetry() {
+        TextView content = new TextView(this);
+        content.setText(NetworkTelemetry.getInstance().dump());
+        content.setTypeface(Typeface.MONOSPACE);
+        content.setTextSize(10);
+        content.setPadding(32, 32, 32, 32);
+        content.setTextIsSelectable(true);
+
+        ScrollView scrollView = new ScrollView(this);
+        scrollView.addView(content);
+
+        new AlertDialog.Builder(this)
+            .setTitle("Network telemetry")
+            .setView(scrollView)
+            .setPositiveButton("Đóng", null)
+            .setNeutralButton("Xóa", (dialog, which) -> NetworkTelemetry.getInstance().clear())
+            .setNegativeButton("Bật log body", (dialog, which) -> RetrofitClient.getInstance().setBodyLoggingEnabled(true))
+            .show();
     }
 }
@@ -20,14 +20,16 @@ import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.project.adapters.BikeImageAdapter;
 import com.example.project.models.ApiResponse;
 import com.example.project.models.Bike;
+import com.example.project.models.BikeSummary;
 import com.example.project.network.ApiService;
 import com.example.project.network.RetrofitClient;
+import com.example.project.repository.BikeDetailStore;
+import com.example.project.repository.ChangeTracker;
 import com.example.project.utils.AuthManager;
+import com.example.project.utils.Formatters;
 
-import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -51,6 +53,7 @@ public class BikeDetailActivity extends AppCompatActivity {
     private BikeImageAdapter imageAdapter;
     private List<String> imageUrls;
     private ApiService apiService;
+    private BikeDetailStore bikeStore;
     private AuthManager authManager;
 
     @Override
@@ -99,6 +102,7 @@ public class BikeDetailActivity extends AppCompatActivity {
     private void initData() {
         imageUrls = new ArrayList<>();
         apiService = RetrofitClient.getInstance().getApiService();
+        bikeStore = BikeDetailStore.getInstance();
         authManager = AuthManager.getInstance(this);
     }
 
@@ -134,46 +138,87 @@ public class BikeDetailActivity extends AppCompatActivity {
     private void onImageClick(int position) {
         // Set main image when gallery image is clicked
         if (position < imageUrls.size()) {
-            Glide.with(this)
-                .load(imageUrls.get(position))
-                .diskCacheStrategy(DiskCacheStrategy.ALL)
-                .placeholder(R.drawable.ic_bike_placeholder)
-                .error(R.drawable.ic_bike_placeholder)
-                .centerCrop()
-                .into(ivMainImage);
+            showMainImage(imageUrls.get(position));
         }
     }
 
+    // The list row loaded the same URL, so the first image usually comes from Glide's disk cache
+    private void showMainImage(String url) {
+        Glide.with(this)
+            .load(url)
+            .diskCacheStrategy(DiskCacheStrategy.ALL)
+            .placeholder(R.drawable.ic_bike_placeholder)
+            .error(R.drawable.ic_bike_placeholder)
+            .centerCrop()
+            .into(ivMainImage);
+    }
+
     private void loadBikeDetail() {
-        progressBar.setVisibility(View.VISIBLE);
         llErrorState.setVisibility(View.GONE);
 
-        Call<ApiResponse<Bike>> call = apiService.getBikeById(bikeId);
-        call.enqueue(new Callback<ApiResponse<Bike>>() {
+        // Draw what is already here (an earlier full copy or the list's row) and fill in the rest
+        // when the full bike arrives; the spinner is only for a bike we know nothing about
+        Bike cached = bikeStore.getBike(bikeId);
+        BikeSummary summary = bikeStore.getSummary(bikeId);
+        boolean drawn = cached != null || summary != null;
+        if (!bikeStore.isFresh(bikeId)) {
+            if (cached != null) {
+                bike = cached;
+                displayBikeDetail();
+            } else if (summary != null) {
+                displaySummary(summary);
+            } else {
+                progressBar.setVisibility(View.VISIBLE);
+            }
+        }
+
+        bikeStore.load(bikeId, new BikeDetailStore.BikeCallback() {
             @Override
-            public void onResponse(Call<ApiResponse<Bike>> call, Response<ApiResponse<Bike>> response) {
-                progressBar.setVisibility(View.GONE);
-                
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    bike = response.body().getData();
-                    if (bike != null) {
-                        displayBikeDetail();
-                    } else {
-                        showError("Không tìm thấy thông tin xe");
-                    }
-                } else {
-                    showError("Lỗi tải thông tin xe: " + response.code());
+            public void onBikeLoaded(Bike loaded) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
                 }
+                progressBar.setVisibility(View.GONE);
+                bike = loaded;
+                displayBikeDetail();
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<Bike>> call, Throwable t) {
+            public void onError(String message) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
                 progressBar.setVisibility(View.GONE);
-                showError("Lỗi kết nối: " + t.getMessage());
+                if (drawn) {
+                    Toast.makeText(BikeDetailActivity.this, message, Toast.LENGTH_SHORT).show();
+                } else {
+                    showError(message);
+                }
             }
         });
     }
 
+    // The fields a list row carries; specifications, rating, features and the gallery wait for the full bike
+    private void displaySummary(BikeSummary summary) {
+        tvBikeName.setText(summary.getName());
+        tvBikeBrand.setText(summary.getBrand());
+        tvBikeModel.setText(summary.getModel());
+        tvBikeDescription.setText(summary.getDescription());
+        tvBikeCategory.setText(getCategoryDisplayName(summary.getCategory()));
+        tvBikeStock.setText("Kho: " + summary.getStock());
+        showPrices(summary.getPrice(), summary.getOriginalPrice());
+        showStatus(summary.getStatus());
+        tvBikeWarranty.setText("Đang tải...");
+        tvBikeRating.setText("Đang tải...");
+        tvBikeFeatures.setText("Đang tải...");
+
+        if (summary.getImageUrl() != null) {
+            showMainImage(summary.getImageUrl());
+        } else {
+            ivMainImage.setImageResource(R.drawable.ic_bike_placeholder);
+        }
+    }
+
     private void displayBikeDetail() {
         // Set basic info
         tvBikeName.setText(bike.getName());
@@ -181,23 +226,10 @@ public class BikeDetailActivity extends AppCompatActivity {
         tvBikeModel.setText(bike.getModel());
         tvBikeDescription.setText(bike.getDescription());
         tvBikeCategory.setText(getCategoryDisplayName(bike.getCategory()));
-        tvBikeStatus.setText(bike.getStatus());
         tvBikeStock.setText("Kho: " + bike.getStock());
         tvBikeWarranty.setText(bike.getWarranty() != null ? bike.getWarranty() : "12 tháng");
-
-        // Format and set price
-        NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-        String formattedPrice = formatter.format(bike.getPrice()) + " ₫";
-        tvBikePrice.setText(formattedPrice);
-
-        // Set original price if available
-        if (bike.getOriginalPrice() > 0 && bike.getOriginalPrice() > bike.getPrice()) {
-            String formattedOriginalPrice = formatter.format(bike.getOriginalPrice()) + " ₫";
-            tvOriginalPrice.setText(formattedOriginalPrice);
-            tvOriginalPrice.setVisibility(View.VISIBLE);
-        } else {
-            tvOriginalPrice.setVisibility(View.GONE);
-        }
+        showPrices(bike.getPrice(), bike.getOriginalPrice());
+        showStatus(bike.getStatus());
 
         // Set rating
         if (bike.getRating() != null) {
@@ -220,8 +252,29 @@ public class BikeDetailActivity extends AppCompatActivity {
             tvBikeFeatures.setText("Không có thông tin đặc điểm");
         }
 
-        // Set status color
-        switch (bike.getStatus().toLowerCase()) {
+        // Load images
+        loadBikeImages();
+
+        // Load specifications
+        loadSpecifications();
+    }
+
+    private void showPrices(double price, double originalPrice) {
+        Formatters formatters = Formatters.get();
+        tvBikePrice.setText(formatters.price(price));
+
+        // Set original price if available
+        if (originalPrice > 0 && originalPrice > price) {
+            tvOriginalPrice.setText(formatters.price(originalPrice));
+            tvOriginalPrice.setVisibility(View.VISIBLE);
+        } else {
+            tvOriginalPrice.setVisibility(View.GONE);
+        }
+    }
+
+    private void showStatus(String status) {
+        tvBikeStatus.setText(status);
+        switch (status.toLowerCase()) {
             case "available":
                 tvBikeStatus.setTextColor(getColor(R.color.green));
                 break;
@@ -235,12 +288,6 @@ public class BikeDetailActivity extends AppCompatActivity {
                 tvBikeStatus.setTextColor(getColor(R.color.gray));
                 break;
         }
-
-        // Load images
-        loadBikeImages();
-
-        // Load specifications
-        loadSpecifications();
     }
 
     private void loadBikeImages() {
@@ -252,13 +299,7 @@ public class BikeDetailActivity extends AppCompatActivity {
             }
             
             // Set main image
-            Glide.with(this)
-                .load(imageUrls.get(0))
-                .diskCacheStrategy(DiskCacheStrategy.ALL)
-                .placeholder(R.drawable.ic_bike_placeholder)
-                .error(R.drawable.ic_bike_placeholder)
-                .centerCrop()
-                .into(ivMainImage);
+            showMainImage(imageUrls.get(0));
         } else {
             // Set placeholder
             ivMainImage.setImageResource(R.drawable.ic_bike_placeholder);
@@ -359,8 +400,7 @@ public class BikeDetailActivity extends AppCompatActivity {
     private void deleteBike() {
         progressBar.setVisibility(View.VISIBLE);
 
-        String token = "Bearer " + authManager.getToken();
-        Call<ApiResponse<Void>> call = apiService.deleteBike(token, bikeId);
+        Call<ApiResponse<Void>> call = apiService.deleteBike(bikeId);
         
         call.enqueue(new Callback<ApiResponse<Void>>() {
             @Override
@@ -369,6 +409,7 @@ public class BikeDetailActivity extends AppCompatActivity {
                 
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
                     Toast.makeText(BikeDetailActivity.this, "Xóa xe thành công!", Toast.LENGTH_SHORT).show();
+                    ChangeTracker.getInstance().publish(ChangeTracker.BIKES, ChangeTracker.Type.DELETED, bikeId, null);
                     setResult(RESULT_OK);
                     finish();
                 } else {
@@ -13,16 +13,19 @@ import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.NumberFormat;
+import com.example.project.cart.CartStore;
+import com.example.project.utils.Money;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
-public class CartActivity extends AppCompatActivity implements CartAdapter.OnCartItemListener {
+public class CartActivity extends AppCompatActivity
+        implements CartAdapter.OnCartItemListener, CartStore.Listener {
 
     private RecyclerView rvCartItems;
     private CartAdapter cartAdapter;
     private List<CartItem> cartItems;
+    private CartStore cartStore;
 
     private TextView tvItemCount, tvBadge, tvSubtotal, tvTotal;
     private CardView emptyCartCard, btnCheckout;
@@ -38,11 +41,24 @@ public class CartActivity extends AppCompatActivity implements CartAdapter.OnCar
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_cart);
 
+        cartStore = CartStore.getInstance(this);
         initViews();
         setupRecyclerView();
         setupBottomNavigation();
-        loadCartItems();
-        updateCartSummary();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        cartStore.addListener(this);
+        cartStore.refresh();
+        showCart();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        cartStore.removeListener(this);
     }
 
     private void initViews() {
@@ -139,62 +155,25 @@ public class CartActivity extends AppCompatActivity implements CartAdapter.OnCar
         text.setTextColor(Color.parseColor("#666666"));
     }
 
-    private void loadCartItems() {
-        // Sample cart items
-        cartItems.add(new CartItem(
-            "Xe đạp điện VinFast Klara S",
-            "Xe đạp điện thông minh",
-            "29.990.000 VNĐ",
-            R.drawable.splash_bike_background,
-            1
-        ));
-
-        cartItems.add(new CartItem(
-            "Xe đạp điện Yadea E3",
-            "Công nghệ Nhật Bản",
-            "25.500.000 VNĐ",
-            R.drawable.splash_bike_background,
-            2
-        ));
-
-        cartItems.add(new CartItem(
-            "Xe đạp điện Dibao Type R",
-            "Thiết kế thể thao",
-            "32.000.000 VNĐ",
-            R.drawable.splash_bike_background,
-            1
-        ));
-
-        cartAdapter.notifyDataSetChanged();
+    private void showCart() {
+        cartItems = cartStore.getItems();
+        cartAdapter.submitList(cartItems);
+        updateCartSummary();
         checkEmptyCart();
     }
 
     private void updateCartSummary() {
-        int totalItems = 0;
-        long subtotal = 0;
-
-        for (CartItem item : cartItems) {
-            totalItems += item.getQuantity();
-            // Only count selected items in subtotal
-            if (item.isSelected()) {
-                subtotal += item.getTotalPrice();
-            }
-        }
-
-        // Update UI
+        CartTotals cartTotals = cartStore.getTotals();
+        int totalItems = cartTotals.getItemCount();
         tvItemCount.setText(totalItems + " sản phẩm");
         tvBadge.setText(String.valueOf(totalItems));
 
-        String formattedSubtotal = formatPrice(subtotal);
+        // Only selected items count towards the subtotal
+        String formattedSubtotal = Money.format(cartTotals.getSelectedSubtotal());
         tvSubtotal.setText(formattedSubtotal);
         tvTotal.setText(formattedSubtotal);
     }
 
-    private String formatPrice(long price) {
-        NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-        return formatter.format(price) + " VNĐ";
-    }
-
     private void checkEmptyCart() {
         if (cartItems.isEmpty()) {
             emptyCartCard.setVisibility(View.VISIBLE);
@@ -208,21 +187,29 @@ public class CartActivity extends AppCompatActivity implements CartAdapter.OnCar
     }
 
     @Override
-    public void onQuantityChanged(int position, int newQuantity) {
-        updateCartSummary();
+    public void onCartChanged() {
+        showCart();
     }
 
     @Override
-    public void onItemRemoved(int position) {
-        cartItems.remove(position);
-        cartAdapter.notifyItemRemoved(position);
-        updateCartSummary();
-        checkEmptyCart();
+    public void onCartAdjusted(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+    }
+
+    // Row edits go to the store, which applies them at once and reports back via onCartChanged
+    @Override
+    public void onQuantityChanged(CartItem item, int newQuantity) {
+        cartStore.setQuantity(item, newQuantity);
+    }
+
+    @Override
+    public void onItemRemoved(CartItem item) {
+        cartStore.remove(item);
         Toast.makeText(this, "Đã xóa sản phẩm khỏi giỏ hàng", Toast.LENGTH_SHORT).show();
     }
 
     @Override
-    public void onItemSelected(int position, boolean isSelected) {
-        updateCartSummary();
+    public void onItemSelected(CartItem item, boolean isSelected) {
+        cartStore.setSelected(item, isSelected);
     }
 }
@@ -11,24 +11,27 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.NumberFormat;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.example.project.adapters.DiffingAdapter;
+import com.example.project.utils.Money;
+
 import java.util.List;
-import java.util.Locale;
 
-public class CartAdapter extends RecyclerView.Adapter<CartAdapter.CartViewHolder> {
+public class CartAdapter extends DiffingAdapter<CartItem, CartAdapter.CartViewHolder> {
 
-    private List<CartItem> cartItems;
     private OnCartItemListener listener;
 
+    // The listener applies the edit to the item (see CartTotals); rows only ask for it
     public interface OnCartItemListener {
-        void onQuantityChanged(int position, int newQuantity);
-        void onItemRemoved(int position);
-        void onItemSelected(int position, boolean isSelected);
+        void onQuantityChanged(CartItem item, int newQuantity);
+        void onItemRemoved(CartItem item);
+        void onItemSelected(CartItem item, boolean isSelected);
     }
 
     public CartAdapter(List<CartItem> cartItems, OnCartItemListener listener) {
-        this.cartItems = cartItems;
         this.listener = listener;
+        submitList(cartItems);
     }
 
     @NonNull
@@ -41,65 +44,75 @@ public class CartAdapter extends RecyclerView.Adapter<CartAdapter.CartViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull CartViewHolder holder, int position) {
-        CartItem item = cartItems.get(position);
+        CartItem item = getItem(position);
 
         holder.tvProductName.setText(item.getName());
-        holder.tvProductPrice.setText(item.getPrice());
+        holder.tvProductPrice.setText(Money.format(item.getUnitPrice()));
         holder.tvQuantity.setText(String.valueOf(item.getQuantity()));
-        holder.ivProductImage.setImageResource(item.getImageResId());
+        if (item.getImageUrl() != null) {
+            Glide.with(holder.itemView.getContext())
+                .load(item.getImageUrl())
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .placeholder(item.getImageResId())
+                .error(item.getImageResId())
+                .centerCrop()
+                .into(holder.ivProductImage);
+        } else {
+            holder.ivProductImage.setImageResource(item.getImageResId());
+        }
+        holder.cbSelectItem.setOnCheckedChangeListener(null); // Clear previous listener
         holder.cbSelectItem.setChecked(item.isSelected());
 
-        // Checkbox click
-        holder.cbSelectItem.setOnCheckedChangeListener(null); // Clear previous listener
-        holder.checkboxCard.setOnClickListener(v -> {
-            boolean newState = !holder.cbSelectItem.isChecked();
-            holder.cbSelectItem.setChecked(newState);
-            item.setSelected(newState);
-            if (listener != null) {
-                listener.onItemSelected(holder.getAdapterPosition(), newState);
-            }
-        });
+        // Checkbox click; toggling fires the change listener below
+        holder.checkboxCard.setOnClickListener(v -> holder.cbSelectItem.toggle());
 
         holder.cbSelectItem.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            item.setSelected(isChecked);
             if (listener != null) {
-                listener.onItemSelected(holder.getAdapterPosition(), isChecked);
+                listener.onItemSelected(item, isChecked);
             }
         });
 
         // Decrease quantity
         holder.btnDecrease.setOnClickListener(v -> {
-            int currentQuantity = item.getQuantity();
-            if (currentQuantity > 1) {
-                item.setQuantity(currentQuantity - 1);
+            if (item.getQuantity() > 1 && listener != null) {
+                listener.onQuantityChanged(item, item.getQuantity() - 1);
                 holder.tvQuantity.setText(String.valueOf(item.getQuantity()));
-                if (listener != null) {
-                    listener.onQuantityChanged(holder.getAdapterPosition(), item.getQuantity());
-                }
             }
         });
 
         // Increase quantity
         holder.btnIncrease.setOnClickListener(v -> {
-            int currentQuantity = item.getQuantity();
-            item.setQuantity(currentQuantity + 1);
-            holder.tvQuantity.setText(String.valueOf(item.getQuantity()));
             if (listener != null) {
-                listener.onQuantityChanged(holder.getAdapterPosition(), item.getQuantity());
+                listener.onQuantityChanged(item, item.getQuantity() + 1);
+                holder.tvQuantity.setText(String.valueOf(item.getQuantity()));
             }
         });
 
         // Remove item
         holder.btnRemove.setOnClickListener(v -> {
             if (listener != null) {
-                listener.onItemRemoved(holder.getAdapterPosition());
+                listener.onItemRemoved(item);
             }
         });
     }
 
     @Override
-    public int getItemCount() {
-        return cartItems.size();
+    protected String getKey(CartItem item) {
+        // Sample items have no bike id, their name is unique within the cart
+        return item.getBikeId() != null ? item.getBikeId() : item.getName();
+    }
+
+    // Rows share CartItem instances with CartStore; in-place quantity/selection edits compare
+    // equal here because the row has already updated its own views, while a sync replaces the
+    // instances it changes so those rows rebind
+    @Override
+    protected boolean areContentsTheSame(CartItem oldItem, CartItem newItem) {
+        return oldItem.getImageResId() == newItem.getImageResId()
+                && equalsNullable(oldItem.getName(), newItem.getName())
+                && equalsNullable(oldItem.getImageUrl(), newItem.getImageUrl())
+                && oldItem.getQuantity() == newItem.getQuantity()
+                && oldItem.isSelected() == newItem.isSelected()
+                && oldItem.getUnitPrice() == newItem.getUnitPrice();
     }
 
     public static class CartViewHolder extends RecyclerView.ViewHolder {
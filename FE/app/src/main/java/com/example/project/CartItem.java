@@ -1,32 +1,54 @@
 package com.example.project;
 
+import android.util.Log;
+
+import com.example.project.models.Bike;
+import com.example.project.utils.Money;
+
 public class CartItem {
+    private static final String TAG = "CartItem";
+
+    private String bikeId;
     private String name;
     private String description;
-    private String price;
+    private long unitPrice; // Minor units, see Money
     private int imageResId;
+    private String imageUrl;
     private int quantity;
-    private int priceValue; // Store numeric price for calculations
+    private int stock; // Last known stock, 0 = unknown
     private boolean isSelected; // For checkbox state
 
-    public CartItem(String name, String description, String price, int imageResId, int quantity) {
+    public CartItem(String name, String description, long unitPrice, int imageResId, int quantity) {
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.unitPrice = unitPrice;
         this.imageResId = imageResId;
         this.quantity = quantity;
-        this.priceValue = parsePriceFromString(price);
         this.isSelected = true; // Default selected
     }
 
-    private int parsePriceFromString(String priceStr) {
-        try {
-            // Remove "VNĐ" and dots, then parse
-            String cleanPrice = priceStr.replace(" VNĐ", "").replace(".", "").trim();
-            return Integer.parseInt(cleanPrice);
-        } catch (Exception e) {
-            return 0;
+    // Null for a bike whose price cannot be sold at
+    public static CartItem fromBike(Bike bike, int quantity) {
+        if (!Money.isValidApiAmount(bike.getPrice())) {
+            Log.w(TAG, "Skipping bike " + bike.getId() + " with invalid price " + bike.getPrice());
+            return null;
         }
+        CartItem item = new CartItem(bike.getName(), bike.getDescription(), Money.fromApi(bike.getPrice()),
+                R.drawable.splash_bike_background, quantity);
+        item.bikeId = bike.getId();
+        item.stock = bike.getStock();
+        if (bike.getImages() != null && !bike.getImages().isEmpty()) {
+            item.imageUrl = bike.getImages().get(0).getUrl();
+        }
+        return item;
+    }
+
+    public String getBikeId() {
+        return bikeId;
+    }
+
+    public void setBikeId(String bikeId) {
+        this.bikeId = bikeId;
     }
 
     public String getName() {
@@ -45,13 +67,12 @@ public class CartItem {
         this.description = description;
     }
 
-    public String getPrice() {
-        return price;
+    public long getUnitPrice() {
+        return unitPrice;
     }
 
-    public void setPrice(String price) {
-        this.price = price;
-        this.priceValue = parsePriceFromString(price);
+    public void setUnitPrice(long unitPrice) {
+        this.unitPrice = unitPrice;
     }
 
     public int getImageResId() {
@@ -62,6 +83,22 @@ public class CartItem {
         this.imageResId = imageResId;
     }
 
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
     public int getQuantity() {
         return quantity;
     }
@@ -70,12 +107,8 @@ public class CartItem {
         this.quantity = quantity;
     }
 
-    public int getPriceValue() {
-        return priceValue;
-    }
-
-    public int getTotalPrice() {
-        return priceValue * quantity;
+    public long getTotalPrice() {
+        return Money.times(unitPrice, quantity);
     }
 
     public boolean isSelected() {
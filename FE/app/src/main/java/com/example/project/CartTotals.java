@@ -0,0 +1,72 @@
+package com.example.project;
+
+import com.example.project.utils.Money;
+
+import java.util.List;
+
+// Running cart sums. Quantity, selection and removal all go through here so each edit adjusts
+// the totals by its own delta instead of re-walking the cart. Setters ignore no-op edits, which
+// keeps a listener that fires twice for one tap from counting it twice.
+public class CartTotals {
+    private long selectedSubtotal;
+    private int itemCount;
+
+    public CartTotals(List<CartItem> items) {
+        reset(items);
+    }
+
+    // Full pass, only when a whole list is loaded
+    public void reset(List<CartItem> items) {
+        selectedSubtotal = Money.ZERO;
+        itemCount = 0;
+        for (CartItem item : items) {
+            add(item);
+        }
+    }
+
+    public void add(CartItem item) {
+        itemCount += item.getQuantity();
+        if (item.isSelected()) {
+            selectedSubtotal = Money.add(selectedSubtotal, item.getTotalPrice());
+        }
+    }
+
+    public void remove(CartItem item) {
+        itemCount -= item.getQuantity();
+        if (item.isSelected()) {
+            selectedSubtotal = Money.subtract(selectedSubtotal, item.getTotalPrice());
+        }
+    }
+
+    public void setQuantity(CartItem item, int quantity) {
+        int delta = quantity - item.getQuantity();
+        if (delta == 0) {
+            return;
+        }
+        itemCount += delta;
+        if (item.isSelected()) {
+            selectedSubtotal = Money.add(selectedSubtotal, Money.times(item.getUnitPrice(), delta));
+        }
+        item.setQuantity(quantity);
+    }
+
+    public void setSelected(CartItem item, boolean selected) {
+        if (item.isSelected() == selected) {
+            return;
+        }
+        long lineTotal = item.getTotalPrice();
+        selectedSubtotal = selected
+                ? Money.add(selectedSubtotal, lineTotal)
+                : Money.subtract(selectedSubtotal, lineTotal);
+        item.setSelected(selected);
+    }
+
+    public long getSelectedSubtotal() {
+        return selectedSubtotal;
+    }
+
+    // Units across all rows, selected or not, as the badge shows
+    public int getItemCount() {
+        return itemCount;
+    }
+}
@@ -1,13 +1,20 @@
 package com.example.project;
 
 public class ChatMessage {
+    public static final int STATUS_SENT = 0;
+    public static final int STATUS_PENDING = 1;
+    public static final int STATUS_FAILED = 2;
+
     private String id;
+    private String clientId; // set by the sending device, stable from before the server assigns an id
     private String senderId;
     private String senderName;
     private String receiverId;
     private String message;
     private long timestamp;
     private boolean isFromUser; // true if from user, false if from admin
+    private int status = STATUS_SENT;
+    private long localId; // row id in the local chat store; breaks ties between equal timestamps
 
     public ChatMessage() {
     }
@@ -30,6 +37,14 @@ public class ChatMessage {
         this.id = id;
     }
 
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
     public String getSenderId() {
         return senderId;
     }
@@ -77,5 +92,20 @@ public class ChatMessage {
     public void setFromUser(boolean fromUser) {
         isFromUser = fromUser;
     }
-}
 
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public long getLocalId() {
+        return localId;
+    }
+
+    public void setLocalId(long localId) {
+        this.localId = localId;
+    }
+}
@@ -8,27 +8,24 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.List;
-import java.util.Locale;
+import com.example.project.adapters.DiffingAdapter;
+import com.example.project.utils.Formatters;
 
-public class ChatMessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+// Shows a ChatHistory window: newest message first, for a reverse-layout list
+public class ChatMessageAdapter extends DiffingAdapter<ChatMessage, RecyclerView.ViewHolder> {
 
     private static final int VIEW_TYPE_SENT = 1;
     private static final int VIEW_TYPE_RECEIVED = 2;
 
-    private List<ChatMessage> messages;
     private boolean isUserView; // true if user view, false if admin view
 
-    public ChatMessageAdapter(List<ChatMessage> messages, boolean isUserView) {
-        this.messages = messages;
+    public ChatMessageAdapter(boolean isUserView) {
         this.isUserView = isUserView;
     }
 
     @Override
     public int getItemViewType(int position) {
-        ChatMessage message = messages.get(position);
+        ChatMessage message = getItem(position);
 
         // For user: sent messages are from user, received are from admin
         // For admin: sent messages are from admin, received are from user
@@ -55,13 +52,18 @@ public class ChatMessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        ChatMessage message = messages.get(position);
+        ChatMessage message = getItem(position);
 
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
-        String time = sdf.format(new Date(message.getTimestamp()));
+        String time = Formatters.get().time(message.getTimestamp());
 
         if (holder instanceof SentMessageViewHolder) {
             ((SentMessageViewHolder) holder).tvMessage.setText(message.getMessage());
+            // Own messages show whether they have reached the server yet
+            if (message.getStatus() == ChatMessage.STATUS_PENDING) {
+                time = "Đang gửi...";
+            } else if (message.getStatus() == ChatMessage.STATUS_FAILED) {
+                time = "Gửi thất bại";
+            }
             ((SentMessageViewHolder) holder).tvTimestamp.setText(time);
         } else if (holder instanceof ReceivedMessageViewHolder) {
             ((ReceivedMessageViewHolder) holder).tvMessage.setText(message.getMessage());
@@ -70,8 +72,16 @@ public class ChatMessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
     }
 
     @Override
-    public int getItemCount() {
-        return messages.size();
+    protected String getKey(ChatMessage message) {
+        // The client id exists before the server id and survives the ack, so a row is not rebuilt when it is confirmed
+        return message.getClientId() != null ? message.getClientId() : message.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(ChatMessage oldMessage, ChatMessage newMessage) {
+        return oldMessage.getStatus() == newMessage.getStatus()
+                && oldMessage.getTimestamp() == newMessage.getTimestamp()
+                && equalsNullable(oldMessage.getMessage(), newMessage.getMessage());
     }
 
     static class SentMessageViewHolder extends RecyclerView.ViewHolder {
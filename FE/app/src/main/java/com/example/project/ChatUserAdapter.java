@@ -9,14 +9,13 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.example.project.adapters.DiffingAdapter;
+import com.example.project.utils.Formatters;
+
 import java.util.List;
-import java.util.Locale;
 
-public class ChatUserAdapter extends RecyclerView.Adapter<ChatUserAdapter.ViewHolder> {
+public class ChatUserAdapter extends DiffingAdapter<ChatUser, ChatUserAdapter.ViewHolder> {
 
-    private List<ChatUser> chatUsers;
     private OnChatUserClickListener listener;
 
     public interface OnChatUserClickListener {
@@ -24,8 +23,8 @@ public class ChatUserAdapter extends RecyclerView.Adapter<ChatUserAdapter.ViewHo
     }
 
     public ChatUserAdapter(List<ChatUser> chatUsers, OnChatUserClickListener listener) {
-        this.chatUsers = chatUsers;
         this.listener = listener;
+        submitList(chatUsers);
     }
 
     @NonNull
@@ -38,15 +37,13 @@ public class ChatUserAdapter extends RecyclerView.Adapter<ChatUserAdapter.ViewHo
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        ChatUser chatUser = chatUsers.get(position);
+        ChatUser chatUser = getItem(position);
 
         holder.tvUserName.setText(chatUser.getUserName());
         holder.tvLastMessage.setText(chatUser.getLastMessage());
 
         // Format timestamp
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
-        String time = sdf.format(new Date(chatUser.getLastMessageTime()));
-        holder.tvMessageTime.setText(time);
+        holder.tvMessageTime.setText(Formatters.get().time(chatUser.getLastMessageTime()));
 
         // Show/hide unread badge
         if (chatUser.getUnreadCount() > 0) {
@@ -64,8 +61,16 @@ public class ChatUserAdapter extends RecyclerView.Adapter<ChatUserAdapter.ViewHo
     }
 
     @Override
-    public int getItemCount() {
-        return chatUsers.size();
+    protected String getKey(ChatUser chatUser) {
+        return chatUser.getUserId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(ChatUser oldUser, ChatUser newUser) {
+        return oldUser.getLastMessageTime() == newUser.getLastMessageTime()
+                && oldUser.getUnreadCount() == newUser.getUnreadCount()
+                && equalsNullable(oldUser.getUserName(), newUser.getUserName())
+                && equalsNullable(oldUser.getLastMessage(), newUser.getLastMessage());
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -1,5 +1,6 @@
 package com.example.project;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.widget.EditText;
 import android.widget.RadioGroup;
@@ -12,12 +13,18 @@ import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.NumberFormat;
+import com.example.project.cart.CartStore;
+import com.example.project.models.OrderRequest;
+import com.example.project.orders.OrderSubmitter;
+import com.example.project.stock.StockRepository;
+import com.example.project.utils.AuthManager;
+import com.example.project.utils.Money;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public class CheckoutActivity extends AppCompatActivity {
+    public static final String EXTRA_BIKE_ID = "bikeId";
 
     private CardView btnBack, btnConfirmOrder;
     private EditText etReceiverName, etReceiverPhone, etShippingAddress;
@@ -25,20 +32,31 @@ public class CheckoutActivity extends AppCompatActivity {
     private RecyclerView rvOrderItems;
     private TextView tvSubtotal, tvShippingFee, tvTotal;
 
+    private CartStore cartStore;
     private CheckoutAdapter checkoutAdapter;
     private List<CartItem> orderItems;
-    private double totalAmount = 0;
+    private long totalAmount = Money.ZERO;
+    // Set once the order is handed to the outbox; later taps must not queue it again
+    private boolean orderQueued;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_checkout);
 
+        cartStore = CartStore.getInstance(this);
         initViews();
-        loadOrderItems();
-        setupRecyclerView();
-        calculateTotal();
         setupClickListeners();
+        cartStore.whenLoaded(() -> {
+            loadOrderItems();
+            if (orderItems.isEmpty()) {
+                Toast.makeText(this, "Chưa chọn sản phẩm nào", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
+            setupRecyclerView();
+            calculateTotal();
+        });
     }
 
     private void initViews() {
@@ -58,33 +76,14 @@ public class CheckoutActivity extends AppCompatActivity {
     }
 
     private void loadOrderItems() {
-        // Load cart items from intent or database
-        // For now, using sample data
+        // "Buy now" checks out a single line; otherwise everything selected in the cart
+        String bikeId = getIntent().getStringExtra(EXTRA_BIKE_ID);
         orderItems = new ArrayList<>();
-
-        orderItems.add(new CartItem(
-            "Xe đạp điện VinFast Klara S",
-            "Xe đạp điện thông minh",
-            "29.990.000 VNĐ",
-            R.drawable.splash_bike_background,
-            1
-        ));
-
-        orderItems.add(new CartItem(
-            "Xe đạp điện Yadea E3",
-            "Thiết kế thời trang",
-            "19.990.000 VNĐ",
-            R.drawable.splash_bike_background,
-            1
-        ));
-
-        orderItems.add(new CartItem(
-            "Xe đạp điện Pega Cap A",
-            "Tiết kiệm năng lượng",
-            "15.000.000 VNĐ",
-            R.drawable.splash_bike_background,
-            1
-        ));
+        for (CartItem item : cartStore.getSelectedItems()) {
+            if (bikeId == null || bikeId.equals(item.getBikeId())) {
+                orderItems.add(item);
+            }
+        }
     }
 
     private void setupRecyclerView() {
@@ -95,22 +94,10 @@ public class CheckoutActivity extends AppCompatActivity {
     }
 
     private void calculateTotal() {
-        totalAmount = 0;
+        // The order list does not change on this screen, so one pass is enough
+        totalAmount = new CartTotals(orderItems).getSelectedSubtotal();
 
-        for (CartItem item : orderItems) {
-            // Extract price from string (remove "VNĐ" and dots)
-            String priceStr = item.getPrice().replace(" VNĐ", "").replace(".", "");
-            try {
-                double price = Double.parseDouble(priceStr);
-                totalAmount += price * item.getQuantity();
-            } catch (NumberFormatException e) {
-                e.printStackTrace();
-            }
-        }
-
-        // Format currency
-        NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-        String formattedTotal = formatter.format(totalAmount) + " VNĐ";
+        String formattedTotal = Money.format(totalAmount);
 
         tvSubtotal.setText(formattedTotal);
         tvTotal.setText(formattedTotal);
@@ -141,7 +128,7 @@ public class CheckoutActivity extends AppCompatActivity {
             return;
         }
 
-        if (receiverPhone.length() < 10) {
+        if (!receiverPhone.matches("\\d{10,11}")) {
             etReceiverPhone.setError("Số điện thoại không hợp lệ");
             etReceiverPhone.requestFocus();
             return;
@@ -156,20 +143,23 @@ public class CheckoutActivity extends AppCompatActivity {
         // Get selected payment method
         int selectedPaymentId = rgPaymentMethod.getCheckedRadioButtonId();
         String paymentMethod = "COD";
+        String paymentCode = OrderRequest.PAYMENT_CASH;
 
         if (selectedPaymentId == R.id.rbBankTransfer) {
             paymentMethod = "Chuyển khoản ngân hàng";
+            paymentCode = OrderRequest.PAYMENT_BANK_TRANSFER;
         } else if (selectedPaymentId == R.id.rbEWallet) {
             paymentMethod = "Ví điện tử";
+            paymentCode = OrderRequest.PAYMENT_MOMO;
         }
 
         // Show confirmation dialog
-        showConfirmationDialog(receiverName, receiverPhone, shippingAddress, paymentMethod);
+        showConfirmationDialog(receiverName, receiverPhone, shippingAddress, paymentMethod, paymentCode);
     }
 
-    private void showConfirmationDialog(String name, String phone, String address, String paymentMethod) {
-        NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-        String formattedTotal = formatter.format(totalAmount) + " VNĐ";
+    private void showConfirmationDialog(String name, String phone, String address, String paymentMethod,
+                                        String paymentCode) {
+        String formattedTotal = Money.format(totalAmount);
 
         String message = "Người nhận: " + name + "\n" +
                 "Số điện thoại: " + phone + "\n" +
@@ -183,29 +173,55 @@ public class CheckoutActivity extends AppCompatActivity {
                 .setMessage(message)
                 .setPositiveButton("Xác nhận", (dialog, which) -> {
                     // Process order
-                    processOrder(name, phone, address, paymentMethod);
+                    processOrder(name, phone, address, paymentCode);
                 })
                 .setNegativeButton("Hủy", null)
                 .show();
     }
 
-    private void processOrder(String name, String phone, String address, String paymentMethod) {
-        // TODO: Save order to database
-        // TODO: Clear cart
-        // TODO: Send notification/email
-
-        Toast.makeText(this, "Đặt hàng thành công!", Toast.LENGTH_LONG).show();
+    private void processOrder(String name, String phone, String address, String paymentCode) {
+        if (orderQueued) {
+            return;
+        }
+        if (!AuthManager.getInstance(this).isLoggedIn()) {
+            Toast.makeText(this, "Vui lòng đăng nhập để đặt hàng", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        orderQueued = true;
+        btnConfirmOrder.setEnabled(false);
 
-        // Show success dialog
-        new AlertDialog.Builder(this)
-                .setTitle("Đặt Hàng Thành Công")
-                .setMessage("Cảm ơn bạn đã đặt hàng!\n\nĐơn hàng của bạn đang được xử lý và sẽ được giao trong thời gian sớm nhất.")
-                .setPositiveButton("OK", (dialog, which) -> {
-                    // Return to home or order history
-                    finish();
-                })
-                .setCancelable(false)
-                .show();
+        List<OrderRequest.Item> items = new ArrayList<>();
+        List<String> bikeIds = new ArrayList<>();
+        StringBuilder summary = new StringBuilder();
+        for (CartItem item : orderItems) {
+            items.add(new OrderRequest.Item(item.getBikeId(), item.getQuantity()));
+            bikeIds.add(item.getBikeId());
+            if (summary.length() > 0) {
+                summary.append('\n');
+            }
+            summary.append(item.getName()).append(" x").append(item.getQuantity());
+        }
+        OrderRequest request = new OrderRequest(items, paymentCode, name, phone, address, totalAmount);
+
+        // Once queued the order is on disk and is sent (and retried) in the background
+        OrderSubmitter.getInstance(this).submit(request, summary.toString(), totalAmount, idempotencyKey -> {
+            cartStore.discard(bikeIds);
+            // Stock badges for these bikes are about to change
+            StockRepository.getInstance().invalidate(bikeIds);
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            new AlertDialog.Builder(this)
+                    .setTitle("Đã Ghi Nhận Đơn Hàng")
+                    .setMessage("Cảm ơn bạn đã đặt hàng!\n\nĐơn hàng đang được gửi đến cửa hàng. "
+                            + "Bạn có thể theo dõi trạng thái trong lịch sử đơn hàng, kể cả khi mạng chập chờn.")
+                    .setPositiveButton("Xem đơn hàng", (dialog, which) -> {
+                        startActivity(new Intent(this, OrderHistoryActivity.class));
+                        finish();
+                    })
+                    .setNegativeButton("Đóng", (dialog, which) -> finish())
+                    .setCancelable(false)
+                    .show();
+        });
     }
 }
-
@@ -9,6 +9,10 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.example.project.utils.Money;
+
 import java.util.List;
 
 public class CheckoutAdapter extends RecyclerView.Adapter<CheckoutAdapter.ViewHolder> {
@@ -31,9 +35,19 @@ public class CheckoutAdapter extends RecyclerView.Adapter<CheckoutAdapter.ViewHo
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
         CartItem item = items.get(position);
         holder.tvProductName.setText(item.getName());
-        holder.tvProductPrice.setText(item.getPrice());
+        holder.tvProductPrice.setText(Money.format(item.getUnitPrice()));
         holder.tvProductQuantity.setText("Số lượng: " + item.getQuantity());
-        holder.ivProductImage.setImageResource(item.getImageResId());
+        if (item.getImageUrl() != null) {
+            Glide.with(holder.itemView.getContext())
+                .load(item.getImageUrl())
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .placeholder(item.getImageResId())
+                .error(item.getImageResId())
+                .centerCrop()
+                .into(holder.ivProductImage);
+        } else {
+            holder.ivProductImage.setImageResource(item.getImageResId());
+        }
     }
 
     @Override
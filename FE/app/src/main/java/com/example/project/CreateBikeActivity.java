@@ -21,17 +21,17 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.project.adapters.SelectedImageAdapter;
 import com.example.project.models.ApiResponse;
 import com.example.project.models.Bike;
+import com.example.project.models.BikeRequest;
 import com.example.project.network.ApiService;
+import com.example.project.network.ImageUploadManager;
 import com.example.project.network.RetrofitClient;
+import com.example.project.repository.ChangeTracker;
 import com.example.project.utils.AuthManager;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
-import okhttp3.MediaType;
-import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -55,6 +55,8 @@ public class CreateBikeActivity extends AppCompatActivity implements SelectedIma
     private List<Uri> selectedImages;
     private SelectedImageAdapter imageAdapter;
     private ApiService apiService;
+    private ImageUploadManager imageUploadManager;
+    private ImageUploadManager.Batch uploadBatch;
     private AuthManager authManager;
 
     @Override
@@ -99,6 +101,7 @@ public class CreateBikeActivity extends AppCompatActivity implements SelectedIma
     private void initData() {
         selectedImages = new ArrayList<>();
         apiService = RetrofitClient.getInstance().getApiService();
+        imageUploadManager = new ImageUploadManager(this);
         authManager = AuthManager.getInstance(this);
     }
 
@@ -308,92 +311,87 @@ public class CreateBikeActivity extends AppCompatActivity implements SelectedIma
             }
         }
 
-        // Convert images to MultipartBody.Part
-        List<MultipartBody.Part> imageParts = new ArrayList<>();
-        for (int i = 0; i < selectedImages.size(); i++) {
-            Uri uri = selectedImages.get(i);
-            try {
-                // Get file name
-                String fileName = "image_" + (i + 1) + ".jpg";
-                
-                // Get content type
-                String contentType = getContentResolver().getType(uri);
-                if (contentType == null) {
-                    contentType = "image/jpeg";
-                }
-                
-                // Create RequestBody from InputStream
-                java.io.InputStream inputStream = getContentResolver().openInputStream(uri);
-                if (inputStream == null) {
-                    throw new Exception("Không thể đọc file ảnh");
-                }
-                
-                // Convert InputStream to byte array
-                byte[] bytes = new byte[inputStream.available()];
-                inputStream.read(bytes);
-                inputStream.close();
-                
-                RequestBody requestFile = RequestBody.create(MediaType.parse(contentType), bytes);
-                imageParts.add(MultipartBody.Part.createFormData("images", fileName, requestFile));
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-                showToast("Lỗi xử lý ảnh " + (i + 1) + ": " + e.getMessage());
-                progressBar.setVisibility(View.GONE);
-                btnCreateBike.setEnabled(true);
-                return;
-            }
-        }
+        BikeRequest request = new BikeRequest();
+        request.setName(name);
+        request.setBrand(brand);
+        request.setModel(model);
+        request.setPrice(price);
+        request.setDescription(description);
+        request.setStock(stock);
+        request.setCategory(category);
+        request.setStatus(status);
+        request.setWarranty(warranty);
+        request.setOriginalPrice(originalPrice > 0 ? originalPrice : null);
+        request.setFeatures(features);
+        request.setTags(tags);
 
-        // Create RequestBody for text fields
-        RequestBody namePart = RequestBody.create(MediaType.parse("text/plain"), name);
-        RequestBody brandPart = RequestBody.create(MediaType.parse("text/plain"), brand);
-        RequestBody modelPart = RequestBody.create(MediaType.parse("text/plain"), model);
-        RequestBody pricePart = RequestBody.create(MediaType.parse("text/plain"), String.valueOf(price));
-        RequestBody descriptionPart = RequestBody.create(MediaType.parse("text/plain"), description);
-        RequestBody stockPart = RequestBody.create(MediaType.parse("text/plain"), String.valueOf(stock));
-        RequestBody categoryPart = RequestBody.create(MediaType.parse("text/plain"), category);
-        RequestBody statusPart = RequestBody.create(MediaType.parse("text/plain"), status);
-        
         // Specifications
-        RequestBody batteryPart = RequestBody.create(MediaType.parse("text/plain"), battery);
-        RequestBody motorPart = RequestBody.create(MediaType.parse("text/plain"), motor);
-        RequestBody rangePart = RequestBody.create(MediaType.parse("text/plain"), range);
-        RequestBody maxSpeedPart = RequestBody.create(MediaType.parse("text/plain"), maxSpeed);
-        RequestBody weightPart = RequestBody.create(MediaType.parse("text/plain"), weight);
-        RequestBody chargingTimePart = RequestBody.create(MediaType.parse("text/plain"), chargingTime);
-        
-        // Features (join with newline)
-        String featuresString = String.join("\n", features);
-        RequestBody featuresPart = RequestBody.create(MediaType.parse("text/plain"), featuresString);
-        
-        // Warranty
-        RequestBody warrantyPart = RequestBody.create(MediaType.parse("text/plain"), warranty);
-        
-        // Original price
-        RequestBody originalPricePart = RequestBody.create(MediaType.parse("text/plain"), String.valueOf(originalPrice));
-        
-        // Tags (join with comma)
-        String tagsString = String.join(",", tags);
-        RequestBody tagsPart = RequestBody.create(MediaType.parse("text/plain"), tagsString);
-
-        // Make API call
-        String token = "Bearer " + authManager.getToken();
-        Call<ApiResponse<Bike>> call = apiService.createBike(
-            token, namePart, brandPart, modelPart, pricePart, 
-            descriptionPart, stockPart, categoryPart, statusPart,
-            batteryPart, motorPart, rangePart, maxSpeedPart, weightPart, chargingTimePart,
-            featuresPart, warrantyPart, originalPricePart, tagsPart, imageParts
-        );
+        Bike.Specifications specifications = new Bike.Specifications();
+        specifications.setBattery(battery);
+        specifications.setMotor(motor);
+        specifications.setRange(range);
+        specifications.setMaxSpeed(maxSpeed);
+        specifications.setWeight(weight);
+        specifications.setChargingTime(chargingTime);
+        request.setSpecifications(specifications);
+
+        // Upload images first (in parallel, resumable), then create the bike referencing their ids
+        long[] sent = new long[selectedImages.size()];
+        long[] total = new long[selectedImages.size()];
+        uploadBatch = imageUploadManager.upload(selectedImages, new ImageUploadManager.Listener() {
+            @Override
+            public void onProgress(int index, long bytesSent, long totalBytes) {
+                sent[index] = bytesSent;
+                total[index] = totalBytes;
+                showUploadProgress(sent, total);
+            }
+
+            @Override
+            public void onImageUploaded(int index, String imageId) {
+                // Progress already shows 100% for this image
+            }
+
+            @Override
+            public void onComplete(List<String> imageIds) {
+                uploadBatch = null;
+                request.setImageIds(imageIds);
+                btnCreateBike.setText("Đang tạo xe...");
+                submitBike(request);
+            }
 
+            @Override
+            public void onError(int index, String message) {
+                uploadBatch = null;
+                showToast(message);
+                resetCreateButton();
+            }
+        });
+    }
+
+    private void showUploadProgress(long[] sent, long[] total) {
+        long sentSum = 0;
+        long totalSum = 0;
+        for (int i = 0; i < sent.length; i++) {
+            sentSum += sent[i];
+            totalSum += total[i];
+        }
+        // Images whose size is not known yet are not counted, so the figure may dip once they start
+        int percent = totalSum > 0 ? (int) (sentSum * 100 / totalSum) : 0;
+        btnCreateBike.setText("Đang tải ảnh " + percent + "%");
+    }
+
+    private void submitBike(BikeRequest request) {
+        Call<ApiResponse<Bike>> call = apiService.createBike(request);
         call.enqueue(new Callback<ApiResponse<Bike>>() {
             @Override
             public void onResponse(Call<ApiResponse<Bike>> call, Response<ApiResponse<Bike>> response) {
-                progressBar.setVisibility(View.GONE);
-                btnCreateBike.setEnabled(true);
-                
+                resetCreateButton();
+
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
                     showToast("Tạo xe thành công!");
+                    Bike created = response.body().getData();
+                    ChangeTracker.getInstance().publish(ChangeTracker.BIKES, ChangeTracker.Type.CREATED,
+                            created != null ? created.getId() : null, created);
                     setResult(RESULT_OK);
                     finish();
                 } else {
@@ -404,13 +402,26 @@ public class CreateBikeActivity extends AppCompatActivity implements SelectedIma
 
             @Override
             public void onFailure(Call<ApiResponse<Bike>> call, Throwable t) {
-                progressBar.setVisibility(View.GONE);
-                btnCreateBike.setEnabled(true);
+                resetCreateButton();
                 showToast("Lỗi kết nối: " + t.getMessage());
             }
         });
     }
 
+    private void resetCreateButton() {
+        progressBar.setVisibility(View.GONE);
+        btnCreateBike.setEnabled(true);
+        btnCreateBike.setText("Tạo xe");
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (uploadBatch != null) {
+            uploadBatch.cancel();
+        }
+    }
+
     private File getFileFromUri(Uri uri) throws Exception {
         // Get the file path from URI
         String filePath = null;
@@ -6,6 +6,7 @@ import android.view.View;
 import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
@@ -13,6 +14,10 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.models.BikeSummary;
+import com.example.project.repository.BikePage;
+import com.example.project.repository.BikeQuery;
+import com.example.project.repository.BikeRepository;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import java.util.ArrayList;
@@ -23,6 +28,8 @@ public class HomeActivity extends AppCompatActivity {
     private RecyclerView rvProducts;
     private ProductAdapter productAdapter;
     private List<Product> productList;
+    private BikeRepository bikeRepository;
+    private boolean reportedFullyDrawn;
 
     // Bottom Navigation
     private View navHome, navProducts, navCart, navAccount;
@@ -47,7 +54,7 @@ public class HomeActivity extends AppCompatActivity {
         setupRecyclerView();
         setupBottomNavigation();
         setupChatButton();
-        loadSampleProducts();
+        loadProducts();
     }
 
     private void initViews() {
@@ -102,6 +109,7 @@ public class HomeActivity extends AppCompatActivity {
 
     private void setupRecyclerView() {
         productList = new ArrayList<>();
+        bikeRepository = BikeRepository.getInstance(this);
         productAdapter = new ProductAdapter(productList);
 
         // Set LinearLayoutManager with vertical orientation
@@ -155,176 +163,37 @@ public class HomeActivity extends AppCompatActivity {
         text.setTextColor(secondaryColor);
     }
 
-    private void loadSampleProducts() {
-        // Xe đạp điện cao cấp
-        productList.add(new Product(
-            "Xe đạp điện VinFast Klara S",
-            "Xe đạp điện thông minh, thiết kế hiện đại, pin Lithium 60V",
-            "29.990.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện Yadea E3",
-            "Công nghệ Nhật Bản, động cơ 1200W, quãng đường 80km",
-            "25.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện Dibao Type R",
-            "Thiết kế thể thao, phanh ABS, màn hình LCD",
-            "32.000.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện Pega Aska",
-            "Phong cách trẻ trung, vận hành êm ái, bảo hành 3 năm",
-            "27.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện Giant M133S",
-            "Thương hiệu uy tín, chất lượng cao, pin Lithium 72V",
-            "35.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện HKbike Cap A+",
-            "Pin lithium 60V, tốc độ cao, phanh đĩa trước sau",
-            "28.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện Bluera 133E",
-            "Xe đạp điện cao cấp, sang trọng, động cơ mạnh mẽ",
-            "31.200.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp điện Anbico Smart",
-            "Công nghệ thông minh, tiết kiệm, GPS tích hợp",
-            "26.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // Xe đạp thể thao
-        productList.add(new Product(
-            "Xe đạp thể thao Road Bike Pro",
-            "Xe đạp đua chuyên nghiệp, khung carbon",
-            "15.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp thể thao Giant TCR",
-            "Thiết kế khí động học, Shimano 105",
-            "18.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // Xe đạp địa hình
-        productList.add(new Product(
-            "Xe đạp địa hình MTB Pro",
-            "Xe đạp leo núi chuyên dụng, phuộc 120mm",
-            "8.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp địa hình Trek Marlin",
-            "Khung nhôm cao cấp, phanh đĩa thủy lực",
-            "12.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp địa hình Specialized",
-            "Thiết kế bền bỉ, địa hình phức tạp",
-            "11.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // Xe đạp gấp
-        productList.add(new Product(
-            "Xe đạp gấp Dahon K3",
-            "Siêu nhỏ gọn, dễ mang theo, 7kg",
-            "5.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp gấp Java Fit 16",
-            "Xe gấp cao cấp, gấp trong 10 giây",
-            "6.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp gấp Fornix BF-300",
-            "Gọn nhẹ, phù hợp đi làm, đi học",
-            "4.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // Xe đạp trẻ em
-        productList.add(new Product(
-            "Xe đạp trẻ em Disney Princess",
-            "Cho bé gái 5-8 tuổi, có bánh phụ",
-            "1.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp trẻ em Giant XTC Jr",
-            "Xe đạp thể thao cho trẻ em, bánh 20 inch",
-            "3.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp trẻ em BMX Freestyle",
-            "Xe đạp biểu diễn cho trẻ từ 10 tuổi",
-            "2.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // Xe đạp touring
-        productList.add(new Product(
-            "Xe đạp Touring Giant Escape",
-            "Xe đạp đi phố và đường dài, 21 tốc độ",
-            "9.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp Touring Trek FX 2",
-            "Thiết kế đa năng, di chuyển hàng ngày",
-            "10.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // Fixed Gear
-        productList.add(new Product(
-            "Xe đạp Fixed Gear Pista",
-            "Xe cào cào thời trang, phong cách tối giản",
-            "4.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Xe đạp Single Speed Classic",
-            "1 tốc độ, thiết kế cổ điển",
-            "3.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productAdapter.notifyDataSetChanged();
+    private void loadProducts() {
+        bikeRepository.getBikes(new BikeQuery(1, 20).setStatus("available"), new BikeRepository.BikePageCallback() {
+            @Override
+            public void onPageLoaded(BikePage page) {
+                // A fresh list each time; the adapter diffs it against the one on screen
+                List<Product> products = new ArrayList<>(page.getBikes().size());
+                for (BikeSummary bike : page.getBikes()) {
+                    Product product = Product.fromBike(bike);
+                    if (product != null) {
+                        products.add(product);
+                    }
+                }
+                productList = products;
+                productAdapter.submitList(products);
+                markFullyDrawn();
+            }
+
+            @Override
+            public void onError(String message) {
+                Toast.makeText(HomeActivity.this, message, Toast.LENGTH_SHORT).show();
+                markFullyDrawn();
+            }
+        });
+    }
+
+    // End of the cold-start path: the startup benchmark measures up to here (TimeToFullDisplay)
+    private void markFullyDrawn() {
+        if (!reportedFullyDrawn) {
+            reportedFullyDrawn = true;
+            reportFullyDrawn();
+        }
     }
 
     private void setupChatButton() {
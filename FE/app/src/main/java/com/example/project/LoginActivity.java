@@ -135,7 +135,7 @@ public class LoginActivity extends AppCompatActivity {
                     ApiResponse<User> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
                         // Save auth data
-                        authManager.saveAuthData(apiResponse.getToken(), apiResponse.getUser());
+                        authManager.saveAuthData(apiResponse.getToken(), apiResponse.getRefreshToken(), apiResponse.getUser());
                         
                         Toast.makeText(LoginActivity.this, "Đăng nhập thành công!", Toast.LENGTH_SHORT).show();
                         
@@ -1,68 +0,0 @@
-package com.example.project;
-
-public class Order {
-    private String orderId;
-    private String orderDate;
-    private String status;
-    private String items;
-    private String totalAmount;
-    private String statusColor;
-
-    public Order(String orderId, String orderDate, String status, String items, String totalAmount, String statusColor) {
-        this.orderId = orderId;
-        this.orderDate = orderDate;
-        this.status = status;
-        this.items = items;
-        this.totalAmount = totalAmount;
-        this.statusColor = statusColor;
-    }
-
-    public String getOrderId() {
-        return orderId;
-    }
-
-    public void setOrderId(String orderId) {
-        this.orderId = orderId;
-    }
-
-    public String getOrderDate() {
-        return orderDate;
-    }
-
-    public void setOrderDate(String orderDate) {
-        this.orderDate = orderDate;
-    }
-
-    public String getStatus() {
-        return status;
-    }
-
-    public void setStatus(String status) {
-        this.status = status;
-    }
-
-    public String getItems() {
-        return items;
-    }
-
-    public void setItems(String items) {
-        this.items = items;
-    }
-
-    public String getTotalAmount() {
-        return totalAmount;
-    }
-
-    public void setTotalAmount(String totalAmount) {
-        this.totalAmount = totalAmount;
-    }
-
-    public String getStatusColor() {
-        return statusColor;
-    }
-
-    public void setStatusColor(String statusColor) {
-        this.statusColor = statusColor;
-    }
-}
-
@@ -12,16 +12,20 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.adapters.DiffingAdapter;
+import com.example.project.models.Order;
+import com.example.project.utils.Formatters;
+import com.example.project.utils.Money;
+
 import java.util.List;
 
-public class OrderAdapter extends RecyclerView.Adapter<OrderAdapter.OrderViewHolder> {
+public class OrderAdapter extends DiffingAdapter<Order, OrderAdapter.OrderViewHolder> {
 
-    private List<Order> orders;
     private Context context;
 
     public OrderAdapter(List<Order> orders, Context context) {
-        this.orders = orders;
         this.context = context;
+        submitList(orders);
     }
 
     @NonNull
@@ -33,37 +37,60 @@ public class OrderAdapter extends RecyclerView.Adapter<OrderAdapter.OrderViewHol
 
     @Override
     public void onBindViewHolder(@NonNull OrderViewHolder holder, int position) {
-        Order order = orders.get(position);
+        Order order = getItem(position);
 
-        holder.tvOrderId.setText("Đơn hàng #" + order.getOrderId());
-        holder.tvOrderDate.setText(order.getOrderDate());
-        holder.tvOrderStatus.setText(order.getStatus());
-        holder.tvOrderItems.setText(order.getItems());
-        holder.tvOrderTotal.setText(order.getTotalAmount());
+        holder.tvOrderId.setText("Đơn hàng #" + order.getOrderNumber());
+        holder.tvOrderDate.setText(Formatters.get().date(order.getCreatedAt()));
+        holder.tvOrderStatus.setText(order.getStatusText());
+        holder.tvOrderItems.setText(order.getItemsSummary());
+        holder.tvOrderTotal.setText(Money.format(order.getFinalAmount()));
 
         // Set status badge color
-        try {
-            holder.statusBadge.setCardBackgroundColor(Color.parseColor(order.getStatusColor()));
-        } catch (IllegalArgumentException e) {
-            holder.statusBadge.setCardBackgroundColor(Color.parseColor("#2196F3"));
-        }
+        holder.statusBadge.setCardBackgroundColor(statusColor(order.getOrderStatus()));
 
         // View detail button click
         holder.btnViewDetail.setOnClickListener(v -> {
-            Toast.makeText(context, "Chi tiết đơn hàng #" + order.getOrderId(), Toast.LENGTH_SHORT).show();
+            Toast.makeText(context, "Chi tiết đơn hàng #" + order.getOrderNumber(), Toast.LENGTH_SHORT).show();
             // TODO: Navigate to order detail activity
         });
 
         // Order item click
         holder.itemView.setOnClickListener(v -> {
-            Toast.makeText(context, "Xem đơn hàng #" + order.getOrderId(), Toast.LENGTH_SHORT).show();
+            Toast.makeText(context, "Xem đơn hàng #" + order.getOrderNumber(), Toast.LENGTH_SHORT).show();
             // TODO: Navigate to order detail activity
         });
     }
 
+    private static int statusColor(String orderStatus) {
+        if (orderStatus == null) {
+            return Color.parseColor("#2196F3");
+        }
+        switch (orderStatus) {
+            case Order.STATUS_DELIVERED:
+                return Color.parseColor("#4CAF50");
+            case Order.STATUS_CANCELLED:
+            case Order.STATUS_REFUNDED:
+            case Order.STATUS_SEND_FAILED:
+                return Color.parseColor("#F44336");
+            case Order.STATUS_PENDING:
+            case Order.STATUS_SENDING:
+                return Color.parseColor("#FF9800");
+            default:
+                return Color.parseColor("#2196F3");
+        }
+    }
+
+    @Override
+    protected String getKey(Order order) {
+        return order.getId();
+    }
+
+    // updatedAt moves with every server-side change; local rows change only their status
     @Override
-    public int getItemCount() {
-        return orders.size();
+    protected boolean areContentsTheSame(Order oldOrder, Order newOrder) {
+        return oldOrder.getUpdatedAt() == newOrder.getUpdatedAt()
+                && equalsNullable(oldOrder.getOrderNumber(), newOrder.getOrderNumber())
+                && equalsNullable(oldOrder.getStatusText(), newOrder.getStatusText());
     }
 
     static class OrderViewHolder extends RecyclerView.ViewHolder {
@@ -3,35 +3,88 @@ package com.example.project;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.LinearLayout;
+import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.models.Order;
+import com.example.project.orders.OrderHistory;
+import com.example.project.orders.OrderSubmitter;
+import com.example.project.orders.PendingOrder;
+
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-public class OrderHistoryActivity extends AppCompatActivity {
+public class OrderHistoryActivity extends AppCompatActivity implements OrderSubmitter.Listener, OrderHistory.Callback {
 
     private CardView btnBack;
     private RecyclerView rvOrders;
     private LinearLayout emptyState;
 
     private OrderAdapter orderAdapter;
-    private List<Order> orders;
+    private OrderSubmitter orderSubmitter;
+    private OrderHistory orderHistory;
+
+    // Orders from the server (cache first), and this device's outbox shown on top of them
+    private List<Order> serverOrders = new ArrayList<>();
+    private List<PendingOrder> deviceOrders = new ArrayList<>();
+    private int deviceRows;
+    private boolean loaded;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_order_history);
 
+        orderSubmitter = OrderSubmitter.getInstance(this);
+        orderHistory = new OrderHistory(this, this);
         initViews();
         setupRecyclerView();
-        loadOrders();
         setupClickListeners();
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        orderSubmitter.addListener(this);
+        // Opening the history is a good moment to retry anything still waiting to be sent
+        orderSubmitter.resume();
+        orderHistory.start();
+        showDeviceOrders();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        orderSubmitter.removeListener(this);
+        orderHistory.stop();
+    }
+
+    @Override
+    public void onOrdersChanged() {
+        // A freshly placed order is picked up by the next sync
+        orderHistory.refresh();
+        showDeviceOrders();
+    }
+
+    @Override
+    public void onOrdersLoaded(List<Order> newestFirst, boolean hasMore) {
+        serverOrders = newestFirst;
+        loaded = true;
+        updateList();
+    }
+
+    @Override
+    public void onLoadFailed(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
+
     private void initViews() {
         btnBack = findViewById(R.id.btnBack);
         rvOrders = findViewById(R.id.rvOrders);
@@ -39,63 +92,46 @@ public class OrderHistoryActivity extends AppCompatActivity {
     }
 
     private void setupRecyclerView() {
-        orders = new ArrayList<>();
-        orderAdapter = new OrderAdapter(orders, this);
+        orderAdapter = new OrderAdapter(new ArrayList<>(), this);
 
         LinearLayoutManager layoutManager = new LinearLayoutManager(this);
         rvOrders.setLayoutManager(layoutManager);
         rvOrders.setAdapter(orderAdapter);
+        rvOrders.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                orderHistory.onScrolled(layoutManager.findLastVisibleItemPosition() - deviceRows);
+            }
+        });
     }
 
-    private void loadOrders() {
-        // TODO: Load real orders from database
-        // Sample orders
-        orders.add(new Order(
-                "12345",
-                "20/10/2025",
-                "Đã giao",
-                "Xe đạp điện VinFast Klara S x1\nPhụ kiện bảo vệ xe x2",
-                "30.500.000 ₫",
-                "#4CAF50"
-        ));
-
-        orders.add(new Order(
-                "12344",
-                "18/10/2025",
-                "Đang giao",
-                "Xe đạp địa hình MTB Pro x1",
-                "8.500.000 ₫",
-                "#2196F3"
-        ));
-
-        orders.add(new Order(
-                "12343",
-                "15/10/2025",
-                "Đã giao",
-                "Xe đạp thể thao Road Bike x1\nMũ bảo hiểm x1",
-                "15.200.000 ₫",
-                "#4CAF50"
-        ));
-
-        orders.add(new Order(
-                "12342",
-                "12/10/2025",
-                "Đã hủy",
-                "Xe đạp gấp Mini x1",
-                "5.800.000 ₫",
-                "#F44336"
-        ));
-
-        orders.add(new Order(
-                "12341",
-                "10/10/2025",
-                "Đã giao",
-                "Xe đạp trẻ em Disney x1\nBình nước x1",
-                "3.500.000 ₫",
-                "#4CAF50"
-        ));
-
-        if (orders.isEmpty()) {
+    private void showDeviceOrders() {
+        orderSubmitter.loadOrders(pending -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            deviceOrders = pending;
+            updateList();
+        });
+    }
+
+    private void updateList() {
+        Set<String> synced = new HashSet<>();
+        for (Order order : serverOrders) {
+            synced.add(order.getOrderNumber());
+        }
+
+        List<Order> shown = new ArrayList<>();
+        for (PendingOrder pending : deviceOrders) {
+            // Once the server's copy is synced it replaces the local one
+            if (pending.getStatus() != PendingOrder.STATUS_PLACED || !synced.contains(pending.getOrderNumber())) {
+                shown.add(toOrder(pending));
+            }
+        }
+        deviceRows = shown.size();
+        shown.addAll(serverOrders);
+
+        if (shown.isEmpty() && loaded) {
             emptyState.setVisibility(View.VISIBLE);
             rvOrders.setVisibility(View.GONE);
         } else {
@@ -103,7 +139,23 @@ public class OrderHistoryActivity extends AppCompatActivity {
             rvOrders.setVisibility(View.VISIBLE);
         }
 
-        orderAdapter.notifyDataSetChanged();
+        orderAdapter.submitList(shown);
+    }
+
+    private Order toOrder(PendingOrder pending) {
+        String id = "local:" + pending.getIdempotencyKey();
+        String shortKey = pending.getIdempotencyKey().substring(0, 8);
+        switch (pending.getStatus()) {
+            case PendingOrder.STATUS_PLACED:
+                return Order.local(id, pending.getOrderNumber(), Order.STATUS_PENDING, "Đã đặt hàng",
+                        pending.getTotal(), pending.getSummary(), pending.getCreatedAt());
+            case PendingOrder.STATUS_FAILED:
+                return Order.local(id, shortKey, Order.STATUS_SEND_FAILED, "Gửi thất bại: " + pending.getError(),
+                        pending.getTotal(), pending.getSummary(), pending.getCreatedAt());
+            default:
+                return Order.local(id, shortKey, Order.STATUS_SENDING, "Đang gửi",
+                        pending.getTotal(), pending.getSummary(), pending.getCreatedAt());
+        }
     }
 
     private void setupClickListeners() {
@@ -1,10 +1,21 @@
 package com.example.project;
 
+import android.util.Log;
+
+import com.example.project.models.BikeSummary;
+import com.example.project.utils.Formatters;
+import com.example.project.utils.Money;
+
 public class Product {
+    private static final String TAG = "Product";
+
+    private String id;
     private String name;
     private String description;
     private String price;
+    private long unitPrice; // Minor units; 0 for sample products
     private int imageResId;
+    private String imageUrl;
 
     public Product(String name, String description, String price, int imageResId) {
         this.name = name;
@@ -13,6 +24,24 @@ public class Product {
         this.imageResId = imageResId;
     }
 
+    // Null for a bike whose price cannot be sold at; callers leave it out of the list
+    public static Product fromBike(BikeSummary bike) {
+        if (!Money.isValidApiAmount(bike.getPrice())) {
+            Log.w(TAG, "Skipping bike " + bike.getId() + " with invalid price " + bike.getPrice());
+            return null;
+        }
+        Product product = new Product(bike.getName(), bike.getDescription(),
+                Formatters.get().price(bike.getPrice()), R.drawable.splash_bike_background);
+        product.id = bike.getId();
+        product.unitPrice = Money.fromApi(bike.getPrice());
+        product.imageUrl = bike.getImageUrl();
+        return product;
+    }
+
+    public String getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -25,8 +54,26 @@ public class Product {
         return price;
     }
 
+    public long getUnitPrice() {
+        return unitPrice;
+    }
+
     public int getImageResId() {
         return imageResId;
     }
-}
 
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    // Sample products have no server id and cannot go into the cart
+    public CartItem toCartItem(int quantity) {
+        if (id == null) {
+            return null;
+        }
+        CartItem item = new CartItem(name, description, unitPrice, imageResId, quantity);
+        item.setBikeId(id);
+        item.setImageUrl(imageUrl);
+        return item;
+    }
+}
@@ -10,23 +10,29 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.example.project.adapters.DiffingAdapter;
+import com.example.project.cart.CartStore;
+import com.example.project.stock.StockAvailability;
+import com.example.project.stock.StockRepository;
+
 import java.util.List;
 
-public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductViewHolder> {
+public class ProductAdapter extends DiffingAdapter<Product, ProductAdapter.ProductViewHolder> {
 
-    private List<Product> productList;
     private boolean isGridMode;
 
     public ProductAdapter(List<Product> productList) {
-        this.productList = productList;
-        this.isGridMode = false;
+        this(productList, false);
     }
 
     public ProductAdapter(List<Product> productList, boolean isGridMode) {
-        this.productList = productList;
         this.isGridMode = isGridMode;
+        submitList(productList);
     }
 
     @NonNull
@@ -39,31 +45,104 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
 
     @Override
     public void onBindViewHolder(@NonNull ProductViewHolder holder, int position) {
-        Product product = productList.get(position);
+        Product product = getItem(position);
 
         holder.tvProductName.setText(product.getName());
         holder.tvProductDescription.setText(product.getDescription());
         holder.tvProductPrice.setText(product.getPrice());
-        holder.ivProductImage.setImageResource(product.getImageResId());
+        if (product.getImageUrl() != null) {
+            Glide.with(holder.itemView.getContext())
+                .load(product.getImageUrl())
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .placeholder(product.getImageResId())
+                .error(product.getImageResId())
+                .centerCrop()
+                .into(holder.ivProductImage);
+        } else {
+            holder.ivProductImage.setImageResource(product.getImageResId());
+        }
+        bindStock(holder, product.getId());
 
         // Click on product card to view details
         holder.itemView.setOnClickListener(v -> {
             Intent intent = new Intent(v.getContext(), ProductDetailActivity.class);
+            intent.putExtra("productId", product.getId());
             intent.putExtra("productName", product.getName());
             intent.putExtra("productDescription", product.getDescription());
             intent.putExtra("productPrice", product.getPrice());
+            intent.putExtra("productPriceValue", product.getUnitPrice());
             intent.putExtra("productImage", product.getImageResId());
+            intent.putExtra("productImageUrl", product.getImageUrl());
             v.getContext().startActivity(intent);
         });
 
         holder.btnAddToCart.setOnClickListener(v -> {
+            CartItem cartItem = product.toCartItem(1);
+            if (cartItem == null) {
+                Toast.makeText(v.getContext(), "Sản phẩm mẫu không thể thêm vào giỏ hàng", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            CartStore.getInstance(v.getContext()).add(cartItem);
             Toast.makeText(v.getContext(), "Đã thêm " + product.getName() + " vào giỏ hàng", Toast.LENGTH_SHORT).show();
         });
     }
 
+    // Every row asks; StockRepository turns one screen's worth of rows into a single request
+    private void bindStock(ProductViewHolder holder, String bikeId) {
+        holder.boundBikeId = bikeId;
+        if (bikeId == null) {
+            holder.tvStockBadge.setVisibility(View.GONE);
+            return;
+        }
+        StockRepository stockRepository = StockRepository.getInstance();
+        StockAvailability cached = stockRepository.peek(bikeId);
+        if (cached != null) {
+            showStock(holder, cached);
+            return;
+        }
+        // Hidden until known, so a recycled row never shows the previous product's stock
+        holder.tvStockBadge.setVisibility(View.GONE);
+        stockRepository.get(bikeId, availability -> {
+            if (bikeId.equals(holder.boundBikeId)) {
+                showStock(holder, availability);
+            }
+        });
+    }
+
+    private static void showStock(ProductViewHolder holder, StockAvailability availability) {
+        if (availability == null) {
+            holder.tvStockBadge.setVisibility(View.GONE);
+            return;
+        }
+        int total = availability.getTotal();
+        int colorRes;
+        if (total > ProductStock.LOW_STOCK_THRESHOLD) {
+            holder.tvStockBadge.setText("Còn hàng");
+            colorRes = R.color.accent_green;
+        } else if (total > 0) {
+            holder.tvStockBadge.setText("Chỉ còn " + total + " xe");
+            colorRes = R.color.accent_orange;
+        } else {
+            holder.tvStockBadge.setText("Hết hàng");
+            colorRes = R.color.error;
+        }
+        holder.tvStockBadge.setTextColor(ContextCompat.getColor(holder.itemView.getContext(), colorRes));
+        holder.tvStockBadge.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    protected String getKey(Product product) {
+        // Sample products have no server id, their name is unique within a list
+        return product.getId() != null ? product.getId() : product.getName();
+    }
+
     @Override
-    public int getItemCount() {
-        return productList.size();
+    protected boolean areContentsTheSame(Product oldProduct, Product newProduct) {
+        return oldProduct.getImageResId() == newProduct.getImageResId()
+                && equalsNullable(oldProduct.getName(), newProduct.getName())
+                && equalsNullable(oldProduct.getDescription(), newProduct.getDescription())
+                && equalsNullable(oldProduct.getPrice(), newProduct.getPrice())
+                && equalsNullable(oldProduct.getImageUrl(), newProduct.getImageUrl());
     }
 
     static class ProductViewHolder extends RecyclerView.ViewHolder {
@@ -71,7 +150,10 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
         TextView tvProductName;
         TextView tvProductDescription;
         TextView tvProductPrice;
+        TextView tvStockBadge;
         CardView btnAddToCart;
+        // Product whose stock this row is waiting for
+        String boundBikeId;
 
         public ProductViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -79,6 +161,7 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
             tvProductName = itemView.findViewById(R.id.tvProductName);
             tvProductDescription = itemView.findViewById(R.id.tvProductDescription);
             tvProductPrice = itemView.findViewById(R.id.tvProductPrice);
+            tvStockBadge = itemView.findViewById(R.id.tvStockBadge);
             btnAddToCart = itemView.findViewById(R.id.btnAddToCart);
         }
     }
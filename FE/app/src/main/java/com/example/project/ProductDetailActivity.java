@@ -18,6 +18,9 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewpager2.widget.ViewPager2;
 
+import com.example.project.cart.CartStore;
+import com.example.project.stock.StockRepository;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,12 +37,14 @@ public class ProductDetailActivity extends AppCompatActivity {
     private int currentImagePosition = 0;
 
     // Product data
+    private String productId;
     private String productName;
     private String productDescription;
     private String productPrice;
+    private long productPriceValue;
     private int productImageResId;
+    private String productImageUrl;
     private List<Integer> productImages;
-    private List<ProductStock> productStockList;
     private ProductStockAdapter stockAdapter;
 
     @Override
@@ -74,10 +79,13 @@ public class ProductDetailActivity extends AppCompatActivity {
     private void loadProductData() {
         // Get product data from intent
         Intent intent = getIntent();
+        productId = intent.getStringExtra("productId");
         productName = intent.getStringExtra("productName");
         productDescription = intent.getStringExtra("productDescription");
         productPrice = intent.getStringExtra("productPrice");
+        productPriceValue = intent.getLongExtra("productPriceValue", 0);
         productImageResId = intent.getIntExtra("productImage", R.drawable.splash_bike_background);
+        productImageUrl = intent.getStringExtra("productImageUrl");
 
         // Set default values if not provided
         if (productName == null || productName.isEmpty()) {
@@ -249,37 +257,56 @@ public class ProductDetailActivity extends AppCompatActivity {
         }
     }
 
+    // Returns false for sample products, which have no server id
+    private boolean putInCart(int quantity) {
+        if (productId == null) {
+            Toast.makeText(this, "Sản phẩm mẫu không thể thêm vào giỏ hàng", Toast.LENGTH_SHORT).show();
+            return false;
+        }
+        CartItem item = new CartItem(productName, productDescription, productPriceValue, productImageResId, quantity);
+        item.setBikeId(productId);
+        item.setImageUrl(productImageUrl);
+        CartStore.getInstance(this).add(item);
+        return true;
+    }
+
     private void addToCart(int quantity) {
-        // TODO: Add product to cart database
-        String message = "Đã thêm " + quantity + " sản phẩm vào giỏ hàng";
-        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+        if (putInCart(quantity)) {
+            String message = "Đã thêm " + quantity + " sản phẩm vào giỏ hàng";
+            Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+        }
     }
 
     private void buyNow(int quantity) {
-        // TODO: Add product to cart and navigate to checkout
-        String message = "Mua " + quantity + " sản phẩm - " + productName;
-        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+        if (!putInCart(quantity)) {
+            return;
+        }
 
-        // Navigate to checkout activity
+        // Navigate to checkout activity with only this product
         Intent intent = new Intent(ProductDetailActivity.this, CheckoutActivity.class);
-        intent.putExtra("productName", productName);
-        intent.putExtra("productPrice", productPrice);
-        intent.putExtra("productImage", productImageResId);
-        intent.putExtra("quantity", quantity);
+        intent.putExtra(CheckoutActivity.EXTRA_BIKE_ID, productId);
         startActivity(intent);
     }
 
     private void setupStoreStock() {
-        // TODO: Load real store stock data from database
-        productStockList = new ArrayList<>();
-        productStockList.add(new ProductStock(1, "Chi nhánh Quận 1", "123 Nguyễn Huệ, Q.1, TP.HCM", 24, "Còn hàng"));
-        productStockList.add(new ProductStock(2, "Chi nhánh Quận 3", "456 Võ Văn Tần, Q.3, TP.HCM", 8, "Sắp hết"));
-        productStockList.add(new ProductStock(3, "Chi nhánh Bình Thạnh", "789 Điện Biên Phủ, Q.Bình Thạnh", 15, "Còn hàng"));
-        productStockList.add(new ProductStock(4, "Chi nhánh Quận 7", "321 Nguyễn Thị Thập, Q.7, TP.HCM", 0, "Hết hàng"));
-        productStockList.add(new ProductStock(5, "Chi nhánh Thủ Đức", "555 Võ Văn Ngân, TP.Thủ Đức", 12, "Còn hàng"));
-
-        stockAdapter = new ProductStockAdapter(productStockList);
+        stockAdapter = new ProductStockAdapter(new ArrayList<>());
         rvStoreStock.setLayoutManager(new LinearLayoutManager(this));
         rvStoreStock.setAdapter(stockAdapter);
+
+        if (productId == null) {
+            // Sample products are not stocked anywhere
+            return;
+        }
+        // Usually answered from the cache the product list just filled
+        StockRepository.getInstance().get(productId, availability -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            if (availability == null) {
+                Toast.makeText(this, "Không thể tải tồn kho các cửa hàng", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            stockAdapter.submitList(new ArrayList<>(availability.getStores()));
+        });
     }
 }
@@ -2,33 +2,38 @@ package com.example.project;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.project.adapters.BikeAdapter;
-import com.example.project.models.ApiResponse;
 import com.example.project.models.Bike;
-import com.example.project.network.ApiService;
-import com.example.project.network.RetrofitClient;
+import com.example.project.models.BikeSummary;
+import com.example.project.repository.BikeDetailStore;
+import com.example.project.repository.BikeQuery;
+import com.example.project.repository.BikeRepository;
+import com.example.project.repository.ChangeTracker;
+import com.example.project.repository.PagingSource;
 import com.example.project.utils.AuthManager;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class ProductManagementActivity extends AppCompatActivity {
+    // Edits from other devices only show up on revalidation, so do it at most this often
+    private static final long STALE_AFTER_MS = 5 * 60 * 1000;
+    // Rows still on screen this long after scrolling stops get their full bike fetched ahead of a tap
+    private static final long PREFETCH_DWELL_MS = 600;
 
     private CardView btnBack, btnAddProduct;
     private RecyclerView rvProducts;
@@ -36,9 +41,14 @@ public class ProductManagementActivity extends AppCompatActivity {
     private ProgressBar progressBar;
     private TextView tvBikeCount;
     private BikeAdapter bikeAdapter;
-    private List<Bike> bikeList;
-    private ApiService apiService;
+    private PagingSource<BikeSummary> pagingSource;
+    private BikeDetailStore bikeStore;
     private AuthManager authManager;
+    private ChangeTracker changeTracker;
+    private long seenVersion;
+    private long loadedAt;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable prefetchVisible = this::prefetchVisibleBikes;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -62,25 +72,68 @@ public class ProductManagementActivity extends AppCompatActivity {
     }
 
     private void initData() {
-        bikeList = new ArrayList<>();
-        apiService = RetrofitClient.getInstance().getApiService();
+        BikeRepository bikeRepository = BikeRepository.getInstance(this);
+        pagingSource = new PagingSource<>(bikeRepository.pageFetcher(new BikeQuery(1, PagingSource.DEFAULT_PAGE_SIZE)));
+        bikeStore = BikeDetailStore.getInstance();
         authManager = AuthManager.getInstance(this);
+        changeTracker = ChangeTracker.getInstance();
     }
 
     private void setupRecyclerView() {
-        bikeAdapter = new BikeAdapter(bikeList);
+        bikeAdapter = new BikeAdapter(pagingSource.getItems());
         bikeAdapter.setOnBikeClickListener(this::onBikeClick);
 
         LinearLayoutManager layoutManager = new LinearLayoutManager(this);
         rvProducts.setLayoutManager(layoutManager);
         rvProducts.setAdapter(bikeAdapter);
+        pagingSource.attachTo(rvProducts);
+        rvProducts.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                schedulePrefetch();
+            }
+        });
+
+        pagingSource.setListener(new PagingSource.Listener() {
+            @Override
+            public void onItemRangeInserted(int position, int count) {
+                bikeAdapter.submitList(pagingSource.getItems());
+                updateListState();
+                schedulePrefetch();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int position, int count) {
+                bikeAdapter.submitList(pagingSource.getItems());
+                updateListState();
+            }
+
+            @Override
+            public void onItemRangeChanged(int position, int count) {
+                // The diff narrows a replaced page down to the rows that really changed
+                bikeAdapter.submitList(pagingSource.getItems());
+                updateListState();
+            }
+
+            @Override
+            public void onLoadingChanged(boolean loading) {
+                // Full-screen spinner only for the first page, later pages load behind the list
+                progressBar.setVisibility(loading && pagingSource.getItems().isEmpty() ? View.VISIBLE : View.GONE);
+                updateListState();
+            }
+
+            @Override
+            public void onError(String message) {
+                if (pagingSource.getItems().isEmpty()) {
+                    showError(message);
+                } else {
+                    Toast.makeText(ProductManagementActivity.this, message, Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
     }
 
     private void loadBikes() {
-        progressBar.setVisibility(View.VISIBLE);
-        emptyState.setVisibility(View.GONE);
-        rvProducts.setVisibility(View.GONE);
-
         // Check if user is admin or staff
         if (!authManager.isStaff()) {
             Toast.makeText(this, "Bạn không có quyền truy cập", Toast.LENGTH_SHORT).show();
@@ -88,51 +141,96 @@ public class ProductManagementActivity extends AppCompatActivity {
             return;
         }
 
-        Call<ApiResponse<Bike[]>> call = apiService.getBikes(1, 50, null, null, null, null, null, null, null);
-        call.enqueue(new Callback<ApiResponse<Bike[]>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<Bike[]>> call, Response<ApiResponse<Bike[]>> response) {
-                progressBar.setVisibility(View.GONE);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Bike[]> apiResponse = response.body();
-                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                        bikeList.clear();
-                        bikeList.addAll(Arrays.asList(apiResponse.getData()));
-                        
-                        // Update bike count from pagination
-                        if (apiResponse.getPagination() != null) {
-                            tvBikeCount.setText("Tổng số xe: " + apiResponse.getPagination().getTotalItems());
-                        }
-                        
-                        if (bikeList.isEmpty()) {
-                            emptyState.setVisibility(View.VISIBLE);
-                            rvProducts.setVisibility(View.GONE);
-                        } else {
-                            emptyState.setVisibility(View.GONE);
-                            rvProducts.setVisibility(View.VISIBLE);
-                            bikeAdapter.notifyDataSetChanged();
-                        }
-                    } else {
-                        showError("Không thể tải danh sách xe");
+        seenVersion = changeTracker.getVersion(ChangeTracker.BIKES);
+        loadedAt = System.currentTimeMillis();
+        emptyState.setVisibility(View.GONE);
+        rvProducts.setVisibility(View.GONE);
+        pagingSource.refresh();
+    }
+
+    // Brings the list up to date with edits made on this device since it was last shown
+    private void syncBikes() {
+        List<ChangeTracker.Change> changes = changeTracker.getChangesSince(ChangeTracker.BIKES, seenVersion);
+        seenVersion = changeTracker.getVersion(ChangeTracker.BIKES);
+        if (changes == null) {
+            // Too far behind to replay, start over
+            loadBikes();
+            return;
+        }
+
+        for (ChangeTracker.Change change : changes) {
+            String id = change.getId();
+            // Create/update screens publish the whole bike; the list keeps only its summary
+            Bike entity = change.getEntity();
+            BikeSummary bike = entity != null ? BikeSummary.from(entity) : null;
+            switch (change.getType()) {
+                case CREATED:
+                    if (bike != null) {
+                        pagingSource.insertFirst(bike);
                     }
-                } else {
-                    showError("Lỗi tải dữ liệu: " + response.code());
-                }
+                    break;
+                case UPDATED:
+                    if (bike != null) {
+                        pagingSource.replaceItem(b -> id != null && id.equals(b.getId()), bike);
+                    }
+                    break;
+                case DELETED:
+                    pagingSource.removeItem(b -> id != null && id.equals(b.getId()));
+                    break;
             }
+        }
 
-            @Override
-            public void onFailure(Call<ApiResponse<Bike[]>> call, Throwable t) {
-                progressBar.setVisibility(View.GONE);
-                showError("Lỗi kết nối: " + t.getMessage());
+        if (System.currentTimeMillis() - loadedAt > STALE_AFTER_MS) {
+            // Keep the scroll position and only revalidate the pages already on screen
+            loadedAt = System.currentTimeMillis();
+            pagingSource.reloadLoadedPages();
+        }
+    }
+
+    private void updateListState() {
+        if (pagingSource.getTotalItems() >= 0) {
+            tvBikeCount.setText("Tổng số xe: " + pagingSource.getTotalItems());
+        }
+
+        if (pagingSource.getItems().isEmpty()) {
+            if (!pagingSource.isLoading()) {
+                emptyState.setVisibility(View.VISIBLE);
+                rvProducts.setVisibility(View.GONE);
             }
-        });
+        } else {
+            emptyState.setVisibility(View.GONE);
+            rvProducts.setVisibility(View.VISIBLE);
+        }
     }
 
-    private void onBikeClick(Bike bike) {
+    private void onBikeClick(BikeSummary bike) {
+        // The detail screen draws this row at once and fetches the rest behind it
+        bikeStore.putSummary(bike);
         Intent intent = new Intent(ProductManagementActivity.this, BikeDetailActivity.class);
         intent.putExtra("bike_id", bike.getId());
-        startActivityForResult(intent, 1002);
+        startActivity(intent);
+    }
+
+    // Restarted on every scroll state change, so it only fires once the list has settled
+    private void schedulePrefetch() {
+        handler.removeCallbacks(prefetchVisible);
+        if (rvProducts.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+            handler.postDelayed(prefetchVisible, PREFETCH_DWELL_MS);
+        } else {
+            bikeStore.cancelPrefetches();
+        }
+    }
+
+    private void prefetchVisibleBikes() {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) rvProducts.getLayoutManager();
+        int first = layoutManager.findFirstCompletelyVisibleItemPosition();
+        int last = layoutManager.findLastCompletelyVisibleItemPosition();
+        List<BikeSummary> items = pagingSource.getItems();
+        List<String> ids = new ArrayList<>();
+        for (int i = Math.max(first, 0); i <= last && i < items.size(); i++) {
+            ids.add(items.get(i).getId());
+        }
+        bikeStore.prefetch(ids);
     }
 
     private void showError(String message) {
@@ -146,26 +244,21 @@ public class ProductManagementActivity extends AppCompatActivity {
 
         btnAddProduct.setOnClickListener(v -> {
             Intent intent = new Intent(ProductManagementActivity.this, CreateBikeActivity.class);
-            startActivityForResult(intent, 1001);
+            startActivity(intent);
         });
     }
 
     @Override
-    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
-        super.onActivityResult(requestCode, resultCode, data);
-        if (requestCode == 1001 && resultCode == RESULT_OK) {
-            // Reload bikes when bike is created successfully
-            loadBikes();
-        } else if (requestCode == 1002 && resultCode == RESULT_OK) {
-            // Reload bikes when bike is updated or deleted
-            loadBikes();
-        }
+    protected void onResume() {
+        super.onResume();
+        // Create/update/delete screens publish to ChangeTracker, so only replay what they changed
+        syncBikes();
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        // Reload bikes when returning from add product screen
-        loadBikes();
+    protected void onPause() {
+        super.onPause();
+        handler.removeCallbacks(prefetchVisible);
+        bikeStore.cancelPrefetches();
     }
 }
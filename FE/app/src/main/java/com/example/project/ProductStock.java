@@ -1,13 +1,16 @@
 package com.example.project;
 
 public class ProductStock {
-    private int storeId;
+    // Above this many units a store shows "Còn hàng"
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    private String storeId;
     private String storeName;
     private String storeAddress;
     private int quantity;
     private String status; // "Còn hàng", "Sắp hết", "Hết hàng"
 
-    public ProductStock(int storeId, String storeName, String storeAddress, int quantity, String status) {
+    public ProductStock(String storeId, String storeName, String storeAddress, int quantity, String status) {
         this.storeId = storeId;
         this.storeName = storeName;
         this.storeAddress = storeAddress;
@@ -15,11 +18,18 @@ public class ProductStock {
         this.status = status;
     }
 
-    public int getStoreId() {
+    public static String statusFor(int quantity) {
+        if (quantity > LOW_STOCK_THRESHOLD) {
+            return "Còn hàng";
+        }
+        return quantity > 0 ? "Sắp hết" : "Hết hàng";
+    }
+
+    public String getStoreId() {
         return storeId;
     }
 
-    public void setStoreId(int storeId) {
+    public void setStoreId(String storeId) {
         this.storeId = storeId;
     }
 
@@ -9,14 +9,14 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import com.example.project.adapters.DiffingAdapter;
 
-public class ProductStockAdapter extends RecyclerView.Adapter<ProductStockAdapter.ViewHolder> {
+import java.util.List;
 
-    private List<ProductStock> stockList;
+public class ProductStockAdapter extends DiffingAdapter<ProductStock, ProductStockAdapter.ViewHolder> {
 
     public ProductStockAdapter(List<ProductStock> stockList) {
-        this.stockList = stockList;
+        submitList(stockList);
     }
 
     @NonNull
@@ -29,7 +29,7 @@ public class ProductStockAdapter extends RecyclerView.Adapter<ProductStockAdapte
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        ProductStock stock = stockList.get(position);
+        ProductStock stock = getItem(position);
 
         holder.tvStoreName.setText(stock.getStoreName());
         holder.tvStoreAddress.setText(stock.getStoreAddress());
@@ -38,7 +38,7 @@ public class ProductStockAdapter extends RecyclerView.Adapter<ProductStockAdapte
 
         // Set color based on status
         int statusColor;
-        if (stock.getQuantity() > 10) {
+        if (stock.getQuantity() > ProductStock.LOW_STOCK_THRESHOLD) {
             statusColor = Color.parseColor("#4CAF50"); // Green - Còn hàng
         } else if (stock.getQuantity() > 0) {
             statusColor = Color.parseColor("#FF9800"); // Orange - Sắp hết
@@ -51,8 +51,16 @@ public class ProductStockAdapter extends RecyclerView.Adapter<ProductStockAdapte
     }
 
     @Override
-    public int getItemCount() {
-        return stockList.size();
+    protected String getKey(ProductStock stock) {
+        return stock.getStoreId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(ProductStock oldStock, ProductStock newStock) {
+        return oldStock.getQuantity() == newStock.getQuantity()
+                && equalsNullable(oldStock.getStoreName(), newStock.getStoreName())
+                && equalsNullable(oldStock.getStoreAddress(), newStock.getStoreAddress())
+                && equalsNullable(oldStock.getStatus(), newStock.getStatus());
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
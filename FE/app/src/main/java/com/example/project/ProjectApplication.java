@@ -0,0 +1,21 @@
+package com.example.project;
+
+import android.app.Application;
+
+import com.example.project.network.NetworkTelemetry;
+import com.example.project.network.RetrofitClient;
+import com.example.project.startup.StartupPipeline;
+
+public class ProjectApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Give the network stack a place for its HTTP cache before any activity makes a request
+        RetrofitClient.init(this);
+        // Record every call while developing; release builds keep telemetry off until sampled explicitly
+        NetworkTelemetry.getInstance().setSampleRate(BuildConfig.DEBUG ? 1.0 : 0.0);
+        // Network stack and session are built off the main thread while the first activity inflates
+        StartupPipeline.start(this);
+    }
+}
@@ -162,7 +162,7 @@ public class RegisterActivity extends AppCompatActivity {
                     ApiResponse<User> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
                         // Save auth data
-                        authManager.saveAuthData(apiResponse.getToken(), apiResponse.getUser());
+                        authManager.saveAuthData(apiResponse.getToken(), apiResponse.getRefreshToken(), apiResponse.getUser());
                         
                         Toast.makeText(RegisterActivity.this, "Đăng ký thành công!", Toast.LENGTH_SHORT).show();
                         
@@ -4,17 +4,29 @@ import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
+import android.view.inputmethod.EditorInfo;
 import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.models.BikeSummary;
+import com.example.project.repository.BikePage;
+import com.example.project.repository.BikeQuery;
+import com.example.project.repository.BikeRepository;
+import com.example.project.search.BikeSearchController;
+import com.example.project.search.BikeSearchIndex;
+import com.example.project.utils.AppExecutors;
+
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SearchActivity extends AppCompatActivity {
 
@@ -28,7 +40,10 @@ public class SearchActivity extends AppCompatActivity {
     private CardView suggestion1, suggestion2, suggestion3, suggestion4, suggestion5;
 
     private ProductAdapter productAdapter;
-    private List<Product> allProducts;
+    private BikeSearchController searchController;
+    // Rows for bikes already seen, so results only allocate rows for bikes new from the server
+    private final Map<BikeSummary, Product> productsByBike = new IdentityHashMap<>();
+    private int indexGeneration;
     private List<Product> searchResults;
 
     @Override
@@ -37,6 +52,7 @@ public class SearchActivity extends AppCompatActivity {
         setContentView(R.layout.activity_search);
 
         initViews();
+        setupSearchController();
         setupSearchBox();
         setupSuggestions();
         loadProducts();
@@ -82,6 +98,7 @@ public class SearchActivity extends AppCompatActivity {
                 // Show/hide clear button
                 if (query.isEmpty()) {
                     btnClearSearch.setVisibility(View.GONE);
+                    searchController.onQueryChanged(query);
                     showSuggestions();
                 } else {
                     btnClearSearch.setVisibility(View.VISIBLE);
@@ -93,6 +110,18 @@ public class SearchActivity extends AppCompatActivity {
             public void afterTextChanged(Editable s) {}
         });
 
+        // Keyboard search action asks the server right away instead of waiting for the debounce
+        etSearch.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                String query = etSearch.getText().toString().trim();
+                if (!query.isEmpty()) {
+                    searchController.submit(query);
+                }
+                return true;
+            }
+            return false;
+        });
+
         // Clear search button
         btnClearSearch.setOnClickListener(v -> {
             etSearch.setText("");
@@ -100,6 +129,23 @@ public class SearchActivity extends AppCompatActivity {
         });
     }
 
+    private void setupSearchController() {
+        searchController = new BikeSearchController(new BikeSearchController.Listener() {
+            @Override
+            public void onResults(String query, List<BikeSummary> results, boolean serverIncluded) {
+                showResults(results);
+            }
+
+            @Override
+            public void onServerError(String query, String message) {
+                // Local hits are still on screen, so only mention it when there is nothing to show
+                if (searchResults.isEmpty()) {
+                    Toast.makeText(SearchActivity.this, message, Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+    }
+
     private void setupSuggestions() {
         // Suggestion 1: Xe đạp điện
         suggestion1.setOnClickListener(v -> {
@@ -133,51 +179,46 @@ public class SearchActivity extends AppCompatActivity {
     }
 
     private void loadProducts() {
-        // Load all products - sử dụng cấu trúc Product hiện có
-        allProducts = new ArrayList<>();
-
-        // Xe đạp điện
-        allProducts.add(new Product("Xe Đạp Điện VinFast Klara S",
-            "Xe đạp điện thông minh, thiết kế hiện đại, pin Lithium 60V",
-            "29.990.000 ₫", R.drawable.splash_bike_background));
-        allProducts.add(new Product("Xe Đạp Điện Yadea E3",
-            "Công nghệ Nhật Bản, động cơ 1200W, quãng đường 80km",
-            "25.500.000 ₫", R.drawable.splash_bike_background));
-        allProducts.add(new Product("Xe Đạp Điện Dibao Type R",
-            "Thiết kế thể thao, phanh ABS, màn hình LCD",
-            "32.000.000 ₫", R.drawable.splash_bike_background));
-
-        // Xe thể thao
-        allProducts.add(new Product("Xe Đạp Thể Thao Road Bike Pro",
-            "Xe đạp đua chuyên nghiệp, khung carbon",
-            "15.500.000 ₫", R.drawable.splash_bike_background));
-        allProducts.add(new Product("Xe Đạp Thể Thao Giant TCR",
-            "Thiết kế khí động học, Shimano 105",
-            "18.900.000 ₫", R.drawable.splash_bike_background));
-
-        // Xe địa hình
-        allProducts.add(new Product("Xe Đạp Địa Hình MTB Pro",
-            "Xe đạp leo núi chuyên dụng, phuộc 120mm",
-            "8.500.000 ₫", R.drawable.splash_bike_background));
-        allProducts.add(new Product("Xe Đạp Địa Hình Trek Marlin",
-            "Khung nhôm cao cấp, phanh đĩa thủy lực",
-            "12.900.000 ₫", R.drawable.splash_bike_background));
-
-        // Xe đạp trẻ em
-        allProducts.add(new Product("Xe Đạp Trẻ Em Disney Princess",
-            "Cho bé gái 5-8 tuổi, có bánh phụ",
-            "1.800.000 ₫", R.drawable.splash_bike_background));
-        allProducts.add(new Product("Xe Đạp Trẻ Em Giant XTC Jr",
-            "Xe đạp thể thao cho trẻ em, bánh 20 inch",
-            "3.500.000 ₫", R.drawable.splash_bike_background));
-
-        // Xe đạp gấp
-        allProducts.add(new Product("Xe Đạp Gấp Dahon K3",
-            "Siêu nhỏ gọn, dễ mang theo, 7kg",
-            "5.800.000 ₫", R.drawable.splash_bike_background));
-        allProducts.add(new Product("Xe Đạp Gấp Java Fit 16",
-            "Xe gấp cao cấp, gấp trong 10 giây",
-            "6.500.000 ₫", R.drawable.splash_bike_background));
+        // Served from the catalog cache first so search works offline
+        BikeRepository.getInstance(this).getBikes(new BikeQuery(1, 100), new BikeRepository.BikePageCallback() {
+            @Override
+            public void onPageLoaded(BikePage page) {
+                // The index is rebuilt from scratch, so wait for the whole page
+                if (!page.isPartial()) {
+                    buildIndex(page.getBikes());
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                Toast.makeText(SearchActivity.this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    // Indexing folds and tokenizes every field, so it runs off the main thread; the newest catalog wins
+    private void buildIndex(List<BikeSummary> bikes) {
+        int generation = ++indexGeneration;
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.background().execute(() -> {
+            BikeSearchIndex index = BikeSearchIndex.build(bikes);
+            Map<BikeSummary, Product> products = new IdentityHashMap<>();
+            for (BikeSummary bike : index.getBikes()) {
+                Product product = Product.fromBike(bike);
+                if (product != null) {
+                    products.put(bike, product);
+                }
+            }
+            executors.mainThread().execute(() -> {
+                if (generation != indexGeneration || isFinishing()) {
+                    return;
+                }
+                productsByBike.clear();
+                productsByBike.putAll(products);
+                // Re-runs the current query against the refreshed catalog
+                searchController.setIndex(index);
+            });
+        });
     }
 
     private void performSearch(String query) {
@@ -185,15 +226,22 @@ public class SearchActivity extends AppCompatActivity {
         suggestionsCard.setVisibility(View.GONE);
         resultsCard.setVisibility(View.VISIBLE);
 
-        // Filter products
-        searchResults.clear();
-        String lowerQuery = query.toLowerCase();
+        // Local hits come back immediately, server hits are merged in once typing pauses
+        searchController.onQueryChanged(query);
+    }
 
-        for (Product product : allProducts) {
-            if (product.getName().toLowerCase().contains(lowerQuery) ||
-                product.getDescription().toLowerCase().contains(lowerQuery)) {
-                searchResults.add(product);
+    private void showResults(List<BikeSummary> bikes) {
+        searchResults.clear();
+        for (BikeSummary bike : bikes) {
+            Product product = productsByBike.get(bike);
+            if (product == null) {
+                product = Product.fromBike(bike);
+                if (product == null) {
+                    continue;
+                }
+                productsByBike.put(bike, product);
             }
+            searchResults.add(product);
         }
 
         // Show results
@@ -208,7 +256,7 @@ public class SearchActivity extends AppCompatActivity {
                 productAdapter = new ProductAdapter(searchResults, false);
                 rvSearchResults.setAdapter(productAdapter);
             } else {
-                productAdapter.notifyDataSetChanged();
+                productAdapter.submitList(searchResults);
             }
         }
     }
@@ -218,4 +266,10 @@ public class SearchActivity extends AppCompatActivity {
         suggestionsCard.setVisibility(View.VISIBLE);
         resultsCard.setVisibility(View.GONE);
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchController.cancel();
+    }
 }
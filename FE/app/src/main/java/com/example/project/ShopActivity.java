@@ -7,12 +7,18 @@ import android.view.View;
 import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.models.BikeSummary;
+import com.example.project.repository.BikePage;
+import com.example.project.repository.BikeQuery;
+import com.example.project.repository.BikeRepository;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,6 +27,7 @@ public class ShopActivity extends AppCompatActivity {
     private RecyclerView rvProducts;
     private ProductAdapter productAdapter;
     private List<Product> productList;
+    private BikeRepository bikeRepository;
 
     // Bottom Navigation
     private View navHome, navProducts, navCart, navAccount;
@@ -41,7 +48,7 @@ public class ShopActivity extends AppCompatActivity {
         setupSearchBox();
         setupRecyclerView();
         setupBottomNavigation();
-        loadSampleProducts();
+        loadProducts();
     }
 
     private void initViews() {
@@ -93,6 +100,7 @@ public class ShopActivity extends AppCompatActivity {
 
     private void setupRecyclerView() {
         productList = new ArrayList<>();
+        bikeRepository = BikeRepository.getInstance(this);
         productAdapter = new ProductAdapter(productList);
 
         // Set GridLayoutManager with 2 columns for shop view
@@ -141,245 +149,24 @@ public class ShopActivity extends AppCompatActivity {
         text.setTextColor(Color.parseColor("#666666"));
     }
 
-    private void loadSampleProducts() {
-        // === XE ĐẠP ĐIỆN (8 sản phẩm) ===
-        productList.add(new Product(
-            "VinFast Klara S",
-            "Pin Lithium 60V, tốc độ 50km/h",
-            "29.990.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Yadea E3",
-            "Động cơ 1200W, quãng đường 80km",
-            "25.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Dibao Type R",
-            "Phanh ABS, màn hình LCD",
-            "32.000.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Pega Aska",
-            "Vận hành êm, bảo hành 3 năm",
-            "27.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Giant M133S",
-            "Chất lượng cao, pin 72V",
-            "35.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "HKbike Cap A+",
-            "Tốc độ cao, phanh đĩa",
-            "28.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Bluera 133E",
-            "Cao cấp, sang trọng",
-            "31.200.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Anbico Smart",
-            "Thông minh, GPS tích hợp",
-            "26.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // === XE ĐẠP THỂ THAO (4 sản phẩm) ===
-        productList.add(new Product(
-            "Road Bike Pro",
-            "Khung carbon, siêu nhẹ",
-            "15.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Giant TCR",
-            "Khí động học, Shimano 105",
-            "18.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Specialized Allez",
-            "Xe đua tốc độ cao",
-            "22.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Trek Emonda",
-            "Siêu nhẹ, leo dốc tốt",
-            "19.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // === XE ĐẠP ĐỊA HÌNH (5 sản phẩm) ===
-        productList.add(new Product(
-            "MTB Pro 27.5",
-            "Leo núi, phuộc 120mm",
-            "8.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Trek Marlin 7",
-            "Nhôm cao cấp, phanh thủy lực",
-            "12.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Specialized Rock",
-            "Địa hình phức tạp, 21 tốc độ",
-            "11.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Giant Talon 29",
-            "Bánh 29 inch, khung nhôm",
-            "10.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Cannondale Trail",
-            "Ổn định, bền bỉ",
-            "13.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // === XE ĐẠP GẤP (5 sản phẩm) ===
-        productList.add(new Product(
-            "Dahon K3",
-            "Siêu gọn, chỉ 7kg",
-            "5.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Java Fit 16",
-            "Gấp trong 10 giây",
-            "6.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Fornix BF-300",
-            "Phù hợp đi làm, học",
-            "4.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Hachiko HA-02",
-            "Gọn nhẹ, màu đẹp",
-            "5.200.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Sava Z0 Carbon",
-            "Xe gấp carbon cao cấp",
-            "15.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // === XE ĐẠP TRẺ EM (5 sản phẩm) ===
-        productList.add(new Product(
-            "Disney Princess",
-            "Cho bé gái 5-8 tuổi",
-            "1.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Giant XTC Jr",
-            "Thể thao, bánh 20 inch",
-            "3.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "BMX Freestyle",
-            "Biểu diễn từ 10 tuổi",
-            "2.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Spider Man",
-            "Cho bé trai 6-9 tuổi",
-            "2.200.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Royal Baby",
-            "An toàn, dễ sử dụng",
-            "2.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // === XE ĐẠP TOURING (3 sản phẩm) ===
-        productList.add(new Product(
-            "Giant Escape 3",
-            "Đi phố, 21 tốc độ",
-            "9.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Trek FX 2",
-            "Đa năng, hàng ngày",
-            "10.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Momentum Street",
-            "Thoải mái, phong cách",
-            "8.900.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        // === FIXED GEAR (3 sản phẩm) ===
-        productList.add(new Product(
-            "Fixed Gear Pista",
-            "Thời trang, tối giản",
-            "4.500.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Single Speed",
-            "1 tốc độ, cổ điển",
-            "3.800.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productList.add(new Product(
-            "Fixie Retro",
-            "Phong cách Vintage",
-            "4.200.000 ₫",
-            R.drawable.splash_bike_background
-        ));
-
-        productAdapter.notifyDataSetChanged();
+    private void loadProducts() {
+        bikeRepository.getBikes(new BikeQuery(1, 40).setStatus("available"), new BikeRepository.BikePageCallback() {
+            @Override
+            public void onPageLoaded(BikePage page) {
+                productList.clear();
+                for (BikeSummary bike : page.getBikes()) {
+                    Product product = Product.fromBike(bike);
+                    if (product != null) {
+                        productList.add(product);
+                    }
+                }
+                productAdapter.submitList(productList);
+            }
+
+            @Override
+            public void onError(String message) {
+                Toast.makeText(ShopActivity.this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 }
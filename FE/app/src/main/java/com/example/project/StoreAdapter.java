@@ -10,11 +10,12 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.project.adapters.DiffingAdapter;
+
 import java.util.List;
 
-public class StoreAdapter extends RecyclerView.Adapter<StoreAdapter.StoreViewHolder> {
+public class StoreAdapter extends DiffingAdapter<Store, StoreAdapter.StoreViewHolder> {
 
-    private List<Store> storeList;
     private OnStoreActionListener listener;
 
     public interface OnStoreActionListener {
@@ -23,8 +24,8 @@ public class StoreAdapter extends RecyclerView.Adapter<StoreAdapter.StoreViewHol
     }
 
     public StoreAdapter(List<Store> storeList, OnStoreActionListener listener) {
-        this.storeList = storeList;
         this.listener = listener;
+        submitList(storeList);
     }
 
     @NonNull
@@ -37,7 +38,7 @@ public class StoreAdapter extends RecyclerView.Adapter<StoreAdapter.StoreViewHol
 
     @Override
     public void onBindViewHolder(@NonNull StoreViewHolder holder, int position) {
-        Store store = storeList.get(position);
+        Store store = getItem(position);
 
         holder.tvStoreName.setText(store.getName());
         holder.tvStoreAddress.setText(store.getAddress());
@@ -67,13 +68,20 @@ public class StoreAdapter extends RecyclerView.Adapter<StoreAdapter.StoreViewHol
     }
 
     @Override
-    public int getItemCount() {
-        return storeList.size();
+    protected String getKey(Store store) {
+        return store.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(Store oldStore, Store newStore) {
+        return oldStore.getProductCount() == newStore.getProductCount()
+                && equalsNullable(oldStore.getName(), newStore.getName())
+                && equalsNullable(oldStore.getAddress(), newStore.getAddress())
+                && equalsNullable(oldStore.getStatus(), newStore.getStatus());
     }
 
     public void updateStores(List<Store> newStores) {
-        this.storeList = newStores;
-        notifyDataSetChanged();
+        submitList(newStores);
     }
 
     static class StoreViewHolder extends RecyclerView.ViewHolder {
@@ -96,7 +96,7 @@ public class StoreManagementActivity extends AppCompatActivity implements StoreA
         storeList.add(new Store("8", "VinFast E-Bike Center",
             "258 Nguyễn Văn Cừ, Quận 5, TP.HCM", "0978901234", "Hoạt động", 38));
 
-        storeAdapter.notifyDataSetChanged();
+        storeAdapter.submitList(storeList);
 
         // Show/hide empty state
         if (storeList.isEmpty()) {
@@ -152,7 +152,7 @@ public class StoreManagementActivity extends AppCompatActivity implements StoreA
         builder.setMessage("Bạn có chắc chắn muốn xóa cửa hàng: " + store.getName() + "?");
         builder.setPositiveButton("Xóa", (dialog, which) -> {
             storeList.remove(store);
-            storeAdapter.notifyDataSetChanged();
+            storeAdapter.submitList(storeList);
             updateStatistics();
 
             // Show/hide empty state
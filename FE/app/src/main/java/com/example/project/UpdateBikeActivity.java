@@ -24,10 +24,12 @@ import com.example.project.adapters.SelectedImageAdapter;
 import com.example.project.models.ApiResponse;
 import com.example.project.models.Bike;
 import com.example.project.network.ApiService;
+import com.example.project.network.ImagePartFactory;
 import com.example.project.network.RetrofitClient;
+import com.example.project.repository.BikeDetailStore;
+import com.example.project.repository.ChangeTracker;
 import com.example.project.utils.AuthManager;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,6 +60,7 @@ public class UpdateBikeActivity extends AppCompatActivity implements SelectedIma
     private List<String> existingImageUrls;
     private SelectedImageAdapter imageAdapter;
     private ApiService apiService;
+    private ImagePartFactory imagePartFactory;
     private AuthManager authManager;
 
     @Override
@@ -102,6 +105,7 @@ public class UpdateBikeActivity extends AppCompatActivity implements SelectedIma
         selectedImages = new ArrayList<>();
         existingImageUrls = new ArrayList<>();
         apiService = RetrofitClient.getInstance().getApiService();
+        imagePartFactory = new ImagePartFactory(this);
         authManager = AuthManager.getInstance(this);
     }
 
@@ -135,32 +139,30 @@ public class UpdateBikeActivity extends AppCompatActivity implements SelectedIma
     }
 
     private void loadBikeData() {
-        progressBar.setVisibility(View.VISIBLE);
+        // Opened from the detail screen, which has just loaded this bike; a fresh copy needs no request
+        BikeDetailStore bikeStore = BikeDetailStore.getInstance();
+        if (!bikeStore.isFresh(bikeId)) {
+            progressBar.setVisibility(View.VISIBLE);
+        }
 
-        Call<ApiResponse<Bike>> call = apiService.getBikeById(bikeId);
-        call.enqueue(new Callback<ApiResponse<Bike>>() {
+        bikeStore.load(bikeId, new BikeDetailStore.BikeCallback() {
             @Override
-            public void onResponse(Call<ApiResponse<Bike>> call, Response<ApiResponse<Bike>> response) {
-                progressBar.setVisibility(View.GONE);
-                
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    originalBike = response.body().getData();
-                    if (originalBike != null) {
-                        populateForm();
-                    } else {
-                        showToast("Không tìm thấy thông tin xe");
-                        finish();
-                    }
-                } else {
-                    showToast("Lỗi tải thông tin xe: " + response.code());
-                    finish();
+            public void onBikeLoaded(Bike bike) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
                 }
+                progressBar.setVisibility(View.GONE);
+                originalBike = bike;
+                populateForm();
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<Bike>> call, Throwable t) {
+            public void onError(String message) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
                 progressBar.setVisibility(View.GONE);
-                showToast("Lỗi kết nối: " + t.getMessage());
+                showToast(message);
                 finish();
             }
         });
@@ -332,42 +334,6 @@ public class UpdateBikeActivity extends AppCompatActivity implements SelectedIma
         String category = spinnerCategory.getSelectedItem().toString();
         String status = spinnerStatus.getSelectedItem().toString();
 
-        // Convert new images to MultipartBody.Part
-        List<MultipartBody.Part> imageParts = new ArrayList<>();
-        for (Uri uri : selectedImages) {
-            try {
-                // Get file name
-                String fileName = "image_" + System.currentTimeMillis() + ".jpg";
-                
-                // Get content type
-                String contentType = getContentResolver().getType(uri);
-                if (contentType == null) {
-                    contentType = "image/jpeg";
-                }
-                
-                // Create RequestBody from InputStream
-                InputStream inputStream = getContentResolver().openInputStream(uri);
-                if (inputStream == null) {
-                    throw new Exception("Không thể đọc file ảnh");
-                }
-                
-                // Convert InputStream to byte array
-                byte[] bytes = new byte[inputStream.available()];
-                inputStream.read(bytes);
-                inputStream.close();
-                
-                RequestBody requestFile = RequestBody.create(MediaType.parse(contentType), bytes);
-                imageParts.add(MultipartBody.Part.createFormData("images", fileName, requestFile));
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-                showToast("Lỗi xử lý ảnh: " + e.getMessage());
-                progressBar.setVisibility(View.GONE);
-                btnUpdateBike.setEnabled(true);
-                return;
-            }
-        }
-
         // Create RequestBody for text fields
         RequestBody namePart = RequestBody.create(MediaType.parse("text/plain"), name);
         RequestBody brandPart = RequestBody.create(MediaType.parse("text/plain"), brand);
@@ -378,34 +344,48 @@ public class UpdateBikeActivity extends AppCompatActivity implements SelectedIma
         RequestBody categoryPart = RequestBody.create(MediaType.parse("text/plain"), category);
         RequestBody statusPart = RequestBody.create(MediaType.parse("text/plain"), status);
 
-        // Make API call
-        String token = "Bearer " + authManager.getToken();
-        Call<ApiResponse<Bike>> call = apiService.updateBike(
-            token, bikeId, namePart, brandPart, modelPart, pricePart, 
-            descriptionPart, stockPart, categoryPart, statusPart, imageParts
-        );
-
-        call.enqueue(new Callback<ApiResponse<Bike>>() {
+        // Images are streamed or downscaled off the main thread before the request is built
+        imagePartFactory.createParts("images", "image_" + System.currentTimeMillis(), selectedImages, new ImagePartFactory.Callback() {
             @Override
-            public void onResponse(Call<ApiResponse<Bike>> call, Response<ApiResponse<Bike>> response) {
-                progressBar.setVisibility(View.GONE);
-                btnUpdateBike.setEnabled(true);
+            public void onReady(List<MultipartBody.Part> imageParts) {
+                // Make API call
+                Call<ApiResponse<Bike>> call = apiService.updateBike(
+                    bikeId, namePart, brandPart, modelPart, pricePart, 
+                    descriptionPart, stockPart, categoryPart, statusPart, imageParts
+                );
+
+                call.enqueue(new Callback<ApiResponse<Bike>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<Bike>> call, Response<ApiResponse<Bike>> response) {
+                        progressBar.setVisibility(View.GONE);
+                        btnUpdateBike.setEnabled(true);
                 
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    showToast("Cập nhật xe thành công!");
-                    setResult(RESULT_OK);
-                    finish();
-                } else {
-                    String errorMessage = "Lỗi cập nhật xe: " + (response.body() != null ? response.body().getMessage() : response.message());
-                    showToast(errorMessage);
-                }
+                        if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                            showToast("Cập nhật xe thành công!");
+                            ChangeTracker.getInstance().publish(ChangeTracker.BIKES, ChangeTracker.Type.UPDATED,
+                                    bikeId, response.body().getData());
+                            setResult(RESULT_OK);
+                            finish();
+                        } else {
+                            String errorMessage = "Lỗi cập nhật xe: " + (response.body() != null ? response.body().getMessage() : response.message());
+                            showToast(errorMessage);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<Bike>> call, Throwable t) {
+                        progressBar.setVisibility(View.GONE);
+                        btnUpdateBike.setEnabled(true);
+                        showToast("Lỗi kết nối: " + t.getMessage());
+                    }
+                });
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<Bike>> call, Throwable t) {
+            public void onError(String message) {
+                showToast(message);
                 progressBar.setVisibility(View.GONE);
                 btnUpdateBike.setEnabled(true);
-                showToast("Lỗi kết nối: " + t.getMessage());
             }
         });
     }
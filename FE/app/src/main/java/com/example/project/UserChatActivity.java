@@ -4,12 +4,17 @@ import android.os.Bundle;
 import android.widget.EditText;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
+import com.example.project.chat.ChatClient;
+import com.example.project.chat.ChatHistory;
+import com.example.project.models.User;
+import com.example.project.utils.AuthManager;
+
 import java.util.List;
 
 public class UserChatActivity extends AppCompatActivity {
@@ -19,16 +24,33 @@ public class UserChatActivity extends AppCompatActivity {
     private CardView btnBack, btnSend;
 
     private ChatMessageAdapter messageAdapter;
-    private List<ChatMessage> messages;
+    private LinearLayoutManager layoutManager;
+    private ChatHistory history;
+    // True while the newest message is on screen; new messages then keep the list scrolled to them
+    private boolean followLatest = true;
+
+    private ChatClient chatClient;
+    private String conversationId;
+    private String userName;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_user_chat);
 
+        // A customer's conversation is keyed by their own user id
+        User currentUser = AuthManager.getInstance(this).getCurrentUser();
+        if (currentUser == null) {
+            Toast.makeText(this, "Vui lòng đăng nhập để chat", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+        conversationId = currentUser.getId();
+        userName = currentUser.getUsername();
+        chatClient = ChatClient.getInstance(this);
+
         initViews();
         setupRecyclerView();
-        loadMessages();
         setupClickListeners();
     }
 
@@ -40,37 +62,45 @@ public class UserChatActivity extends AppCompatActivity {
     }
 
     private void setupRecyclerView() {
-        messages = new ArrayList<>();
-        messageAdapter = new ChatMessageAdapter(messages, true); // true = user view
+        messageAdapter = new ChatMessageAdapter(true); // true = user view
 
-        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
-        layoutManager.setStackFromEnd(true); // Start from bottom
+        // Reverse layout puts position 0 (the newest message) at the bottom without a stack-from-end
+        // pass; older pages are appended at the far end, so loading them never moves what is on screen
+        layoutManager = new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, true);
 
         rvMessages.setLayoutManager(layoutManager);
         rvMessages.setAdapter(messageAdapter);
-    }
-
-    private void loadMessages() {
-        // TODO: Load real messages from database
-        // Sample messages
-        messages.add(new ChatMessage("1", "user1", "User", "admin",
-                "Xin chào, tôi cần hỗ trợ về sản phẩm",
-                System.currentTimeMillis() - 3600000, true));
+        rvMessages.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int firstVisible = layoutManager.findFirstVisibleItemPosition();
+                followLatest = firstVisible <= 0;
+                history.onScrolled(firstVisible, layoutManager.findLastVisibleItemPosition());
+            }
+        });
 
-        messages.add(new ChatMessage("2", "admin", "Admin", "user1",
-                "Chào bạn! Tôi có thể giúp gì cho bạn?",
-                System.currentTimeMillis() - 3500000, false));
+        history = new ChatHistory(this, conversationId, this::showMessages);
+    }
 
-        messages.add(new ChatMessage("3", "user1", "User", "admin",
-                "Tôi muốn biết thông tin về xe đạp điện VinFast",
-                System.currentTimeMillis() - 3400000, true));
+    @Override
+    protected void onStart() {
+        super.onStart();
+        history.start();
+    }
 
-        messages.add(new ChatMessage("4", "admin", "Admin", "user1",
-                "Xe đạp điện VinFast Klara S có giá 29.990.000 VNĐ với pin lithium-ion dung lượng cao",
-                System.currentTimeMillis() - 3300000, false));
+    @Override
+    protected void onStop() {
+        super.onStop();
+        history.stop();
+    }
 
-        messageAdapter.notifyDataSetChanged();
-        rvMessages.scrollToPosition(messages.size() - 1);
+    private void showMessages(List<ChatMessage> newestFirst, boolean newestIncluded) {
+        boolean scrollToNewest = followLatest && newestIncluded;
+        messageAdapter.submitList(newestFirst, () -> {
+            if (scrollToNewest) {
+                rvMessages.scrollToPosition(0);
+            }
+        });
     }
 
     private void setupClickListeners() {
@@ -92,43 +122,13 @@ public class UserChatActivity extends AppCompatActivity {
             return;
         }
 
-        // TODO: Send message to database
-        ChatMessage newMessage = new ChatMessage(
-                String.valueOf(System.currentTimeMillis()),
-                "user1",
-                "User",
-                "admin",
-                messageText,
-                System.currentTimeMillis(),
-                true
-        );
-
-        messages.add(newMessage);
-        messageAdapter.notifyItemInserted(messages.size() - 1);
-        rvMessages.scrollToPosition(messages.size() - 1);
-
+        chatClient.send(conversationId, userName, messageText);
         etMessage.setText("");
 
-        // Simulate admin reply after 2 seconds
-        simulateAdminReply();
-    }
-
-    private void simulateAdminReply() {
-        new android.os.Handler().postDelayed(() -> {
-            ChatMessage adminReply = new ChatMessage(
-                    String.valueOf(System.currentTimeMillis()),
-                    "admin",
-                    "Admin",
-                    "user1",
-                    "Cảm ơn bạn đã liên hệ! Chúng tôi sẽ hỗ trợ bạn ngay.",
-                    System.currentTimeMillis(),
-                    false
-            );
-
-            messages.add(adminReply);
-            messageAdapter.notifyItemInserted(messages.size() - 1);
-            rvMessages.scrollToPosition(messages.size() - 1);
-        }, 2000);
+        // Sending jumps back to the newest messages
+        followLatest = true;
+        if (!history.isNewestIncluded()) {
+            history.loadLatest();
+        }
     }
 }
-
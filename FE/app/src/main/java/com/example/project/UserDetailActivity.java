@@ -22,6 +22,7 @@ import com.example.project.models.ApiResponse;
 import com.example.project.models.User;
 import com.example.project.network.ApiService;
 import com.example.project.network.RetrofitClient;
+import com.example.project.repository.ChangeTracker;
 import com.example.project.utils.AuthManager;
 
 import retrofit2.Call;
@@ -93,14 +94,13 @@ public class UserDetailActivity extends AppCompatActivity {
 
         showLoading(true);
         
-        String authHeader = authManager.getAuthHeader();
-        if (authHeader == null) {
+        if (!authManager.isLoggedIn()) {
             Toast.makeText(this, "Vui lòng đăng nhập lại", Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
 
-        Call<ApiResponse<User>> call = apiService.getUser(authHeader, userId);
+        Call<ApiResponse<User>> call = apiService.getUser(userId);
         call.enqueue(new Callback<ApiResponse<User>>() {
             @Override
             public void onResponse(Call<ApiResponse<User>> call, Response<ApiResponse<User>> response) {
@@ -329,8 +329,7 @@ public class UserDetailActivity extends AppCompatActivity {
     private void updateUser(String username, String email, String phoneNumber, String address, String role, boolean isActive) {
         showLoading(true);
 
-        String authHeader = authManager.getAuthHeader();
-        if (authHeader == null) {
+        if (!authManager.isLoggedIn()) {
             Toast.makeText(this, "Vui lòng đăng nhập lại", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -343,7 +342,7 @@ public class UserDetailActivity extends AppCompatActivity {
         user.setRole(role);
         user.setActive(isActive);
 
-        Call<ApiResponse<User>> call = apiService.updateUser(authHeader, userId, user);
+        Call<ApiResponse<User>> call = apiService.updateUser(userId, user);
         call.enqueue(new Callback<ApiResponse<User>>() {
             @Override
             public void onResponse(Call<ApiResponse<User>> call, Response<ApiResponse<User>> response) {
@@ -353,6 +352,8 @@ public class UserDetailActivity extends AppCompatActivity {
                     ApiResponse<User> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
                         Toast.makeText(UserDetailActivity.this, "Cập nhật thành công", Toast.LENGTH_SHORT).show();
+                        ChangeTracker.getInstance().publish(ChangeTracker.USERS, ChangeTracker.Type.UPDATED,
+                                userId, apiResponse.getUser());
                         loadUserDetail(); // Refresh data
                     } else {
                         Toast.makeText(UserDetailActivity.this, "Cập nhật thất bại", Toast.LENGTH_SHORT).show();
@@ -382,13 +383,12 @@ public class UserDetailActivity extends AppCompatActivity {
     private void deleteUser() {
         showLoading(true);
 
-        String authHeader = authManager.getAuthHeader();
-        if (authHeader == null) {
+        if (!authManager.isLoggedIn()) {
             Toast.makeText(this, "Vui lòng đăng nhập lại", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        Call<ApiResponse<Void>> call = apiService.deleteUser(authHeader, userId);
+        Call<ApiResponse<Void>> call = apiService.deleteUser(userId);
         call.enqueue(new Callback<ApiResponse<Void>>() {
             @Override
             public void onResponse(Call<ApiResponse<Void>> call, Response<ApiResponse<Void>> response) {
@@ -398,6 +398,7 @@ public class UserDetailActivity extends AppCompatActivity {
                     ApiResponse<Void> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
                         Toast.makeText(UserDetailActivity.this, "Xóa thành công", Toast.LENGTH_SHORT).show();
+                        ChangeTracker.getInstance().publish(ChangeTracker.USERS, ChangeTracker.Type.DELETED, userId, null);
                         finish(); // Go back to user list
                     } else {
                         Toast.makeText(UserDetailActivity.this, "Xóa thất bại", Toast.LENGTH_SHORT).show();
@@ -2,7 +2,13 @@ package com.example.project;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
+import android.view.inputmethod.EditorInfo;
+import android.widget.EditText;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -13,31 +19,42 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.project.adapters.UserAdapter;
-import com.example.project.models.ApiResponse;
 import com.example.project.models.User;
-import com.example.project.network.ApiService;
-import com.example.project.network.RetrofitClient;
+import com.example.project.repository.ChangeTracker;
+import com.example.project.repository.PagingSource;
+import com.example.project.repository.UserQuery;
+import com.example.project.repository.UserRepository;
 import com.example.project.utils.AuthManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class UserManagementActivity extends AppCompatActivity {
+    // Edits from other devices only show up on revalidation, so do it at most this often
+    private static final long STALE_AFTER_MS = 5 * 60 * 1000;
+    private static final long SEARCH_DEBOUNCE_MS = 300;
 
     private CardView btnBack;
     private TextView tvTitle, tvUserCount;
+    private EditText etSearchUsers;
     private RecyclerView recyclerViewUsers;
     private ProgressBar progressBar;
     private TextView tvEmptyState;
 
     private UserAdapter userAdapter;
-    private List<User> userList;
-    private ApiService apiService;
+    private PagingSource<User> pagingSource;
+    private UserQuery query = new UserQuery();
     private AuthManager authManager;
+    private ChangeTracker changeTracker;
+    private long seenVersion;
+    private long loadedAt;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private String pendingSearch = "";
+    // The query only changes together with a refresh, so pages of two searches never mix
+    private final Runnable applySearch = () -> {
+        query = new UserQuery().setSearch(pendingSearch);
+        loadUsers();
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -46,6 +63,7 @@ public class UserManagementActivity extends AppCompatActivity {
 
         initViews();
         initData();
+        setupRecyclerView();
         loadUsers();
         setupClickListeners();
     }
@@ -54,21 +72,59 @@ public class UserManagementActivity extends AppCompatActivity {
         btnBack = findViewById(R.id.btnBack);
         tvTitle = findViewById(R.id.tvTitle);
         tvUserCount = findViewById(R.id.tvUserCount);
+        etSearchUsers = findViewById(R.id.etSearchUsers);
         recyclerViewUsers = findViewById(R.id.recyclerViewUsers);
         progressBar = findViewById(R.id.progressBar);
         tvEmptyState = findViewById(R.id.tvEmptyState);
     }
 
     private void initData() {
-        userList = new ArrayList<>();
-        apiService = RetrofitClient.getInstance().getApiService();
+        // Only the rows near the viewport are fetched; the fetcher always reads the current filters
+        pagingSource = new PagingSource<>(UserRepository.getInstance().pageFetcher(() -> query));
         authManager = AuthManager.getInstance(this);
+        changeTracker = ChangeTracker.getInstance();
+    }
 
-        // Setup RecyclerView
-        userAdapter = new UserAdapter(userList, this);
+    private void setupRecyclerView() {
+        userAdapter = new UserAdapter(pagingSource.getItems(), this);
         userAdapter.setOnUserClickListener(this::onUserClick);
         recyclerViewUsers.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewUsers.setAdapter(userAdapter);
+        pagingSource.attachTo(recyclerViewUsers);
+
+        pagingSource.setListener(new PagingSource.Listener() {
+            @Override
+            public void onItemRangeInserted(int position, int count) {
+                showUsers();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int position, int count) {
+                showUsers();
+            }
+
+            @Override
+            public void onItemRangeChanged(int position, int count) {
+                // The diff narrows a replaced page down to the rows that really changed
+                showUsers();
+            }
+
+            @Override
+            public void onLoadingChanged(boolean loading) {
+                // Full-screen spinner only for the first page, later pages load behind the list
+                progressBar.setVisibility(loading && pagingSource.getItems().isEmpty() ? View.VISIBLE : View.GONE);
+                showUsers();
+            }
+
+            @Override
+            public void onError(String message) {
+                if (pagingSource.getItems().isEmpty()) {
+                    showError(message);
+                } else {
+                    Toast.makeText(UserManagementActivity.this, message, Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
     }
 
     private void loadUsers() {
@@ -79,57 +135,94 @@ public class UserManagementActivity extends AppCompatActivity {
             return;
         }
 
-        showLoading(true);
-        
-        String authHeader = authManager.getAuthHeader();
-        if (authHeader == null) {
-            Toast.makeText(this, "Vui lòng đăng nhập lại", Toast.LENGTH_SHORT).show();
-            finish();
+        seenVersion = changeTracker.getVersion(ChangeTracker.USERS);
+        loadedAt = System.currentTimeMillis();
+        tvEmptyState.setVisibility(View.GONE);
+        recyclerViewUsers.setVisibility(View.GONE);
+        pagingSource.refresh();
+    }
+
+    // Brings the list up to date with edits made on this device since it was last shown
+    private void syncUsers() {
+        List<ChangeTracker.Change> changes = changeTracker.getChangesSince(ChangeTracker.USERS, seenVersion);
+        seenVersion = changeTracker.getVersion(ChangeTracker.USERS);
+        if (changes == null) {
+            // Too far behind to replay, start over
+            loadUsers();
             return;
         }
 
-        Call<ApiResponse<User[]>> call = apiService.getUsers(authHeader);
-        call.enqueue(new Callback<ApiResponse<User[]>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<User[]>> call, Response<ApiResponse<User[]>> response) {
-                showLoading(false);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<User[]> apiResponse = response.body();
-                    if (apiResponse.isSuccess() && apiResponse.getUsers() != null) {
-                        userList.clear();
-                        userList.addAll(java.util.Arrays.asList(apiResponse.getUsers()));
-                        userAdapter.notifyDataSetChanged();
-                        
-                        // Update user count
-                        tvUserCount.setText("Tổng: " + apiResponse.getCount() + " người dùng");
-                        
-                        // Show/hide empty state
-                        if (userList.isEmpty()) {
-                            tvEmptyState.setVisibility(View.VISIBLE);
-                            recyclerViewUsers.setVisibility(View.GONE);
-                        } else {
-                            tvEmptyState.setVisibility(View.GONE);
-                            recyclerViewUsers.setVisibility(View.VISIBLE);
-                        }
-                    } else {
-                        showError("Không thể tải danh sách người dùng");
-                    }
-                } else {
-                    showError("Lỗi kết nối: " + response.code());
-                }
+        for (ChangeTracker.Change change : changes) {
+            String id = change.getId();
+            if (change.getType() == ChangeTracker.Type.DELETED) {
+                pagingSource.removeItem(u -> id != null && id.equals(u.getId()));
+            } else if (change.getType() == ChangeTracker.Type.UPDATED && change.getEntity() != null) {
+                User user = change.getEntity();
+                pagingSource.replaceItem(u -> id != null && id.equals(u.getId()), user);
             }
+        }
 
-            @Override
-            public void onFailure(Call<ApiResponse<User[]>> call, Throwable t) {
-                showLoading(false);
-                showError("Lỗi kết nối: " + t.getMessage());
+        if (System.currentTimeMillis() - loadedAt > STALE_AFTER_MS) {
+            // Keep the scroll position and only revalidate the pages already on screen
+            loadedAt = System.currentTimeMillis();
+            pagingSource.reloadLoadedPages();
+        }
+    }
+
+    private void showUsers() {
+        userAdapter.submitList(pagingSource.getItems());
+
+        // Update user count
+        if (pagingSource.getTotalItems() >= 0) {
+            tvUserCount.setText("Tổng: " + pagingSource.getTotalItems() + " người dùng");
+        }
+
+        // Show/hide empty state
+        if (pagingSource.getItems().isEmpty()) {
+            if (pagingSource.isLoading()) {
+                tvEmptyState.setVisibility(View.GONE);
+            } else {
+                tvEmptyState.setText(query.getSearch() != null ? "Không tìm thấy người dùng nào" : "Không có người dùng nào");
+                tvEmptyState.setVisibility(View.VISIBLE);
+                recyclerViewUsers.setVisibility(View.GONE);
             }
-        });
+        } else {
+            tvEmptyState.setVisibility(View.GONE);
+            recyclerViewUsers.setVisibility(View.VISIBLE);
+        }
     }
 
     private void setupClickListeners() {
         btnBack.setOnClickListener(v -> finish());
+
+        // Each keystroke would otherwise start a new filtered scan on the server
+        etSearchUsers.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                String search = s.toString().trim();
+                if (search.equals(pendingSearch)) {
+                    return;
+                }
+                pendingSearch = search;
+                handler.removeCallbacks(applySearch);
+                handler.postDelayed(applySearch, SEARCH_DEBOUNCE_MS);
+            }
+        });
+
+        etSearchUsers.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                handler.removeCallbacks(applySearch);
+                applySearch.run();
+                return true;
+            }
+            return false;
+        });
     }
 
     private void onUserClick(User user) {
@@ -138,17 +231,9 @@ public class UserManagementActivity extends AppCompatActivity {
         startActivity(intent);
     }
 
-    private void showLoading(boolean show) {
-        if (show) {
-            progressBar.setVisibility(View.VISIBLE);
-            recyclerViewUsers.setVisibility(View.GONE);
-            tvEmptyState.setVisibility(View.GONE);
-        } else {
-            progressBar.setVisibility(View.GONE);
-        }
-    }
-
     private void showError(String message) {
+        // Retry on the next resume rather than waiting for the list to go stale
+        loadedAt = 0;
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
         tvEmptyState.setText("Không thể tải dữ liệu\n" + message);
         tvEmptyState.setVisibility(View.VISIBLE);
@@ -158,7 +243,13 @@ public class UserManagementActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh data when returning to this activity
-        loadUsers();
+        // UserDetailActivity publishes its edits, so only replay those instead of refetching everything
+        syncUsers();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacks(applySearch);
     }
 }
@@ -13,23 +13,24 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.project.R;
-import com.example.project.models.Bike;
+import com.example.project.models.BikeSummary;
+import com.example.project.utils.Formatters;
 
-import java.text.NumberFormat;
 import java.util.List;
-import java.util.Locale;
 
-public class BikeAdapter extends RecyclerView.Adapter<BikeAdapter.BikeViewHolder> {
+public class BikeAdapter extends DiffingAdapter<BikeSummary, BikeAdapter.BikeViewHolder> {
+
+    // Only price/stock/status/featured changed, so the image and titles can stay as they are
+    private static final Object PAYLOAD_INVENTORY = new Object();
 
-    private List<Bike> bikeList;
     private OnBikeClickListener onBikeClickListener;
 
     public interface OnBikeClickListener {
-        void onBikeClick(Bike bike);
+        void onBikeClick(BikeSummary bike);
     }
 
-    public BikeAdapter(List<Bike> bikeList) {
-        this.bikeList = bikeList;
+    public BikeAdapter(List<BikeSummary> bikeList) {
+        submitList(bikeList);
     }
 
     public void setOnBikeClickListener(OnBikeClickListener listener) {
@@ -45,13 +46,52 @@ public class BikeAdapter extends RecyclerView.Adapter<BikeAdapter.BikeViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull BikeViewHolder holder, int position) {
-        Bike bike = bikeList.get(position);
+        BikeSummary bike = getItem(position);
         holder.bind(bike);
     }
 
     @Override
-    public int getItemCount() {
-        return bikeList.size();
+    public void onBindViewHolder(@NonNull BikeViewHolder holder, int position, @NonNull List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_INVENTORY) {
+                super.onBindViewHolder(holder, position, payloads);
+                return;
+            }
+        }
+        if (payloads.isEmpty()) {
+            super.onBindViewHolder(holder, position, payloads);
+        } else {
+            holder.bindInventory(getItem(position));
+        }
+    }
+
+    @Override
+    protected String getKey(BikeSummary bike) {
+        return bike.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(BikeSummary oldBike, BikeSummary newBike) {
+        return sameIdentity(oldBike, newBike) && sameInventory(oldBike, newBike);
+    }
+
+    @Override
+    protected Object getChangePayload(BikeSummary oldBike, BikeSummary newBike) {
+        return sameIdentity(oldBike, newBike) ? PAYLOAD_INVENTORY : null;
+    }
+
+    private static boolean sameIdentity(BikeSummary a, BikeSummary b) {
+        return equalsNullable(a.getName(), b.getName())
+                && equalsNullable(a.getBrand(), b.getBrand())
+                && equalsNullable(a.getModel(), b.getModel())
+                && equalsNullable(a.getImageUrl(), b.getImageUrl());
+    }
+
+    private static boolean sameInventory(BikeSummary a, BikeSummary b) {
+        return a.getPrice() == b.getPrice()
+                && a.getStock() == b.getStock()
+                && a.isFeatured() == b.isFeatured()
+                && equalsNullable(a.getStatus(), b.getStatus());
     }
 
     class BikeViewHolder extends RecyclerView.ViewHolder {
@@ -74,12 +114,24 @@ public class BikeAdapter extends RecyclerView.Adapter<BikeAdapter.BikeViewHolder
             tvBikeStock = itemView.findViewById(R.id.tvBikeStock);
             tvBikeStatus = itemView.findViewById(R.id.tvBikeStatus);
             ivDetailIcon = itemView.findViewById(R.id.ivDetailIcon);
+
+            // Set once and resolved at click time: an inventory-only rebind does not call bind(),
+            // so a bike captured there would go stale
+            cardViewBike.setOnClickListener(v -> onClick());
+            ivDetailIcon.setOnClickListener(v -> onClick());
         }
 
-        public void bind(Bike bike) {
+        private void onClick() {
+            int position = getBindingAdapterPosition();
+            if (onBikeClickListener != null && position != RecyclerView.NO_POSITION) {
+                onBikeClickListener.onBikeClick(getItem(position));
+            }
+        }
+
+        public void bind(BikeSummary bike) {
             // Load bike image
-            if (bike.getImages() != null && !bike.getImages().isEmpty()) {
-                String imageUrl = bike.getImages().get(0).getUrl();
+            String imageUrl = bike.getImageUrl();
+            if (imageUrl != null) {
                 Glide.with(itemView.getContext())
                     .load(imageUrl)
                     .diskCacheStrategy(DiskCacheStrategy.ALL)
@@ -102,10 +154,12 @@ public class BikeAdapter extends RecyclerView.Adapter<BikeAdapter.BikeViewHolder
             }
             tvBikeBrand.setText(brandModel);
 
+            bindInventory(bike);
+        }
+
+        public void bindInventory(BikeSummary bike) {
             // Format and set price
-            NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-            String formattedPrice = formatter.format(bike.getPrice()) + " ₫";
-            tvBikePrice.setText(formattedPrice);
+            tvBikePrice.setText(Formatters.get().price(bike.getPrice()));
 
             // Set stock
             tvBikeStock.setText("Kho: " + bike.getStock());
@@ -132,20 +186,6 @@ public class BikeAdapter extends RecyclerView.Adapter<BikeAdapter.BikeViewHolder
             if (bike.isFeatured()) {
                 tvBikeStatus.setText("⭐ " + status);
             }
-
-            // Set click listener
-            cardViewBike.setOnClickListener(v -> {
-                if (onBikeClickListener != null) {
-                    onBikeClickListener.onBikeClick(bike);
-                }
-            });
-
-            // Set detail icon click listener
-            ivDetailIcon.setOnClickListener(v -> {
-                if (onBikeClickListener != null) {
-                    onBikeClickListener.onBikeClick(bike);
-                }
-            });
         }
     }
 }
@@ -0,0 +1,103 @@
+package com.example.project.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.project.utils.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Base adapter that diffs each submitted list against the current one on a background thread and
+// dispatches only the resulting insert/remove/move/change events. Rows are matched by getKey().
+public abstract class DiffingAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    private final AsyncListDiffer<T> differ;
+    private final Map<String, Long> stableIds = new HashMap<>();
+
+    protected DiffingAdapter() {
+        DiffUtil.ItemCallback<T> itemCallback = new DiffUtil.ItemCallback<T>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                String oldKey = getKey(oldItem);
+                return oldKey != null && oldKey.equals(getKey(newItem));
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return DiffingAdapter.this.areContentsTheSame(oldItem, newItem);
+            }
+
+            @Nullable
+            @Override
+            public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+                return DiffingAdapter.this.getChangePayload(oldItem, newItem);
+            }
+        };
+        differ = new AsyncListDiffer<>(new AdapterListUpdateCallback(this),
+                new AsyncDifferConfig.Builder<>(itemCallback)
+                        .setBackgroundThreadExecutor(AppExecutors.getInstance().background())
+                        .build());
+        setHasStableIds(true);
+    }
+
+    // Identity of a row, e.g. the server id. Rows with equal keys are treated as the same item.
+    protected abstract String getKey(T item);
+
+    // Whether the bound content of two versions of the same row is identical
+    protected abstract boolean areContentsTheSame(T oldItem, T newItem);
+
+    // Optional partial-bind hint delivered to onBindViewHolder(holder, position, payloads)
+    protected Object getChangePayload(T oldItem, T newItem) {
+        return null;
+    }
+
+    // The list is copied, so callers may keep mutating their own list and submit it again
+    public void submitList(List<T> items) {
+        submitList(items, null);
+    }
+
+    public void submitList(List<T> items, Runnable commitCallback) {
+        differ.submitList(items != null ? new ArrayList<>(items) : null, commitCallback);
+    }
+
+    public List<T> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    public T getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String key = getKey(getItem(position));
+        if (key == null) {
+            // Keyless rows fall back to positional ids outside the range handed out below
+            return Long.MIN_VALUE + position;
+        }
+        // Sequential ids per key avoid the collisions a plain String hash could produce
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(key, id);
+        }
+        return id;
+    }
+
+    protected static boolean equalsNullable(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
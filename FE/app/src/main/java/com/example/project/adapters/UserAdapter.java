@@ -19,9 +19,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
-public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder> {
+public class UserAdapter extends DiffingAdapter<User, UserAdapter.UserViewHolder> {
 
-    private List<User> userList;
     private Context context;
     private OnUserClickListener onUserClickListener;
 
@@ -30,8 +29,8 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
     }
 
     public UserAdapter(List<User> userList, Context context) {
-        this.userList = userList;
         this.context = context;
+        submitList(userList);
     }
 
     public void setOnUserClickListener(OnUserClickListener listener) {
@@ -47,13 +46,23 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = userList.get(position);
+        User user = getItem(position);
         holder.bind(user);
     }
 
     @Override
-    public int getItemCount() {
-        return userList.size();
+    protected String getKey(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(User oldUser, User newUser) {
+        return oldUser.isActive() == newUser.isActive()
+                && equalsNullable(oldUser.getUsername(), newUser.getUsername())
+                && equalsNullable(oldUser.getEmail(), newUser.getEmail())
+                && equalsNullable(oldUser.getRole(), newUser.getRole())
+                && equalsNullable(oldUser.getLastLogin(), newUser.getLastLogin())
+                && equalsNullable(oldUser.getCreatedAt(), newUser.getCreatedAt());
     }
 
     public class UserViewHolder extends RecyclerView.ViewHolder {
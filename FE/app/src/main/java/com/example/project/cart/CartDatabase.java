@@ -0,0 +1,157 @@
+package com.example.project.cart;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// On-device copy of the cart, including edits the server has not confirmed yet: a row with a
+// non-zero revision is unsynced, and an unsynced row with quantity 0 is a removal still to be
+// sent. Blocking; use from AppExecutors.diskIO().
+class CartDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "cart.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_ITEMS = "cart_items";
+    private static final String TABLE_META = "meta";
+    private static final String META_OWNER = "owner";
+
+    private static CartDatabase instance;
+
+    static class Row {
+        String bikeId;
+        String name;
+        String description;
+        String imageUrl;
+        long unitPrice;
+        int quantity;
+        boolean selected;
+        int stock;
+        long revision;
+    }
+
+    static class Snapshot {
+        // "" for a guest cart
+        String owner = "";
+        List<Row> rows = new ArrayList<>();
+    }
+
+    private CartDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    static synchronized CartDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new CartDatabase(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ITEMS + " ("
+                + "bike_id TEXT PRIMARY KEY, "
+                + "position INTEGER NOT NULL, "
+                + "name TEXT, "
+                + "description TEXT, "
+                + "image_url TEXT, "
+                + "unit_price INTEGER NOT NULL, "
+                + "quantity INTEGER NOT NULL, "
+                + "selected INTEGER NOT NULL, "
+                + "stock INTEGER NOT NULL, "
+                + "revision INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE " + TABLE_META + " (key TEXT PRIMARY KEY, value TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ITEMS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_META);
+        onCreate(db);
+    }
+
+    Snapshot load() {
+        SQLiteDatabase db = getReadableDatabase();
+        Snapshot snapshot = new Snapshot();
+        try (Cursor cursor = db.query(TABLE_META, new String[]{"value"}, "key = ?",
+                new String[]{META_OWNER}, null, null, null)) {
+            if (cursor.moveToFirst()) {
+                snapshot.owner = cursor.getString(0);
+            }
+        }
+        try (Cursor cursor = db.query(TABLE_ITEMS,
+                new String[]{"bike_id", "name", "description", "image_url", "unit_price",
+                        "quantity", "selected", "stock", "revision"},
+                null, null, null, null, "position")) {
+            while (cursor.moveToNext()) {
+                Row row = new Row();
+                row.bikeId = cursor.getString(0);
+                row.name = cursor.getString(1);
+                row.description = cursor.getString(2);
+                row.imageUrl = cursor.getString(3);
+                row.unitPrice = cursor.getLong(4);
+                row.quantity = cursor.getInt(5);
+                row.selected = cursor.getInt(6) != 0;
+                row.stock = cursor.getInt(7);
+                row.revision = cursor.getLong(8);
+                snapshot.rows.add(row);
+            }
+        }
+        return snapshot;
+    }
+
+    // One local edit; a new line goes to the end
+    void put(Row row) {
+        SQLiteDatabase db = getWritableDatabase();
+        ContentValues values = toValues(row);
+        if (db.update(TABLE_ITEMS, values, "bike_id = ?", new String[]{row.bikeId}) == 0) {
+            long position;
+            try (Cursor cursor = db.rawQuery("SELECT COALESCE(MAX(position), -1) + 1 FROM " + TABLE_ITEMS, null)) {
+                cursor.moveToFirst();
+                position = cursor.getLong(0);
+            }
+            values.put("bike_id", row.bikeId);
+            values.put("position", position);
+            db.insert(TABLE_ITEMS, null, values);
+        }
+    }
+
+    // The whole cart after a sync or an owner change, in display order
+    void replaceAll(String owner, List<Row> rows) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_ITEMS, null, null);
+            for (int i = 0; i < rows.size(); i++) {
+                ContentValues values = toValues(rows.get(i));
+                values.put("bike_id", rows.get(i).bikeId);
+                values.put("position", i);
+                db.insert(TABLE_ITEMS, null, values);
+            }
+            ContentValues meta = new ContentValues();
+            meta.put("key", META_OWNER);
+            meta.put("value", owner);
+            db.insertWithOnConflict(TABLE_META, null, meta, SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static ContentValues toValues(Row row) {
+        ContentValues values = new ContentValues();
+        values.put("name", row.name);
+        values.put("description", row.description);
+        values.put("image_url", row.imageUrl);
+        values.put("unit_price", row.unitPrice);
+        values.put("quantity", row.quantity);
+        values.put("selected", row.selected ? 1 : 0);
+        values.put("stock", row.stock);
+        values.put("revision", row.revision);
+        return values;
+    }
+}
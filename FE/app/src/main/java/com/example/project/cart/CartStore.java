@@ -0,0 +1,530 @@
+package com.example.project.cart;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.project.CartItem;
+import com.example.project.CartTotals;
+import com.example.project.R;
+import com.example.project.models.ApiResponse;
+import com.example.project.models.CartSnapshot;
+import com.example.project.models.CartSyncRequest;
+import com.example.project.models.User;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+import com.example.project.utils.AppExecutors;
+import com.example.project.utils.AuthManager;
+import com.example.project.utils.Money;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// The cart every screen works on. Edits apply to memory at once and are written to the device,
+// then go to the server in batches: the first edit starts a short timer, later edits ride along,
+// and each batch carries only the final state of the lines it touched. The server's answer is
+// merged back without undoing edits made while it was in flight. Guests keep a device-only cart
+// that is pushed to their account after login. Public methods are main-thread only.
+public class CartStore {
+    private static final String TAG = "CartStore";
+    public static final int MAX_QUANTITY = 999;
+    // Edits made within this window after the first one share a request
+    private static final long SYNC_DELAY_MS = 800;
+    private static final long BASE_RETRY_MS = 2000;
+    private static final long MAX_RETRY_MS = 60000;
+
+    private static CartStore instance;
+
+    public interface Listener {
+        // Main thread; read getItems() and getTotals() again
+        void onCartChanged();
+
+        // The server changed what the user asked for, e.g. stock ran out; ready to show
+        void onCartAdjusted(String message);
+    }
+
+    private final Context context;
+    private final CartDatabase database;
+    private final ApiService apiService;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Executor diskIO;
+    private final Random random = new Random();
+    private final List<Listener> listeners = new ArrayList<>();
+    private final List<Runnable> afterLoad = new ArrayList<>();
+
+    // Visible lines in display order; removals waiting to be sent exist only in `dirty`
+    private final List<CartItem> items = new ArrayList<>();
+    private final CartTotals totals = new CartTotals(items);
+    // bikeId -> revision of its latest edit the server has not confirmed
+    private final Map<String, Long> dirty = new HashMap<>();
+    private long revision;
+    private String owner = "";
+    private boolean loaded;
+    private boolean syncScheduled;
+    private boolean syncing;
+    private int failures;
+
+    private final Runnable syncRunnable = () -> {
+        syncScheduled = false;
+        sync();
+    };
+
+    private CartStore(Context context) {
+        this.context = context.getApplicationContext();
+        database = CartDatabase.getInstance(this.context);
+        apiService = RetrofitClient.getInstance().getApiService();
+        AppExecutors executors = AppExecutors.getInstance();
+        diskIO = executors.diskIO();
+        Executor mainThread = executors.mainThread();
+        diskIO.execute(() -> {
+            CartDatabase.Snapshot snapshot = database.load();
+            mainThread.execute(() -> onLoaded(snapshot));
+        });
+    }
+
+    public static synchronized CartStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new CartStore(context);
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Runs once the device copy has been read (immediately after that)
+    public void whenLoaded(Runnable action) {
+        if (loaded) {
+            action.run();
+        } else {
+            afterLoad.add(action);
+        }
+    }
+
+    // Call from onStart of cart screens: picks up login changes and fetches the server copy
+    public void refresh() {
+        whenLoaded(() -> {
+            handler.removeCallbacks(syncRunnable);
+            syncScheduled = false;
+            sync();
+        });
+    }
+
+    public List<CartItem> getItems() {
+        return new ArrayList<>(items);
+    }
+
+    public List<CartItem> getSelectedItems() {
+        List<CartItem> selected = new ArrayList<>();
+        for (CartItem item : items) {
+            if (item.isSelected()) {
+                selected.add(item);
+            }
+        }
+        return selected;
+    }
+
+    // Kept up to date by every edit; do not modify
+    public CartTotals getTotals() {
+        return totals;
+    }
+
+    // Adds to the line for the same bike if there is one
+    public void add(CartItem newItem) {
+        whenLoaded(() -> {
+            CartItem existing = find(newItem.getBikeId());
+            if (existing != null) {
+                applyQuantity(existing, existing.getQuantity() + newItem.getQuantity());
+            } else {
+                newItem.setQuantity(Math.max(1, Math.min(newItem.getQuantity(), maxQuantity(newItem))));
+                items.add(newItem);
+                totals.add(newItem);
+                markDirty(newItem.getBikeId());
+                persist(newItem);
+            }
+            notifyChanged();
+        });
+    }
+
+    public void setQuantity(CartItem item, int quantity) {
+        CartItem current = current(item);
+        if (current != null) {
+            applyQuantity(current, quantity);
+            notifyChanged();
+        }
+    }
+
+    public void setSelected(CartItem item, boolean selected) {
+        CartItem current = current(item);
+        if (current != null && current.isSelected() != selected) {
+            totals.setSelected(current, selected);
+            markDirty(current.getBikeId());
+            persist(current);
+            notifyChanged();
+        }
+    }
+
+    public void remove(CartItem item) {
+        CartItem current = current(item);
+        if (current != null) {
+            items.remove(current);
+            totals.remove(current);
+            markDirty(current.getBikeId());
+            persistRemoval(current.getBikeId());
+            notifyChanged();
+        }
+    }
+
+    // Lines that were just ordered: the server drops them from its cart when it places the order,
+    // so they leave without a sync of their own
+    public void discard(Collection<String> bikeIds) {
+        boolean changed = false;
+        for (String bikeId : bikeIds) {
+            CartItem item = find(bikeId);
+            if (item != null) {
+                items.remove(item);
+                totals.remove(item);
+                changed = true;
+            }
+            changed |= dirty.remove(bikeId) != null;
+        }
+        if (changed) {
+            persistAll();
+            notifyChanged();
+        }
+    }
+
+    private void applyQuantity(CartItem item, int quantity) {
+        int clamped = Math.max(1, Math.min(quantity, maxQuantity(item)));
+        if (clamped != item.getQuantity()) {
+            totals.setQuantity(item, clamped);
+            markDirty(item.getBikeId());
+            persist(item);
+        }
+    }
+
+    private void onLoaded(CartDatabase.Snapshot snapshot) {
+        owner = snapshot.owner;
+        for (CartDatabase.Row row : snapshot.rows) {
+            if (row.revision > 0) {
+                dirty.put(row.bikeId, row.revision);
+                revision = Math.max(revision, row.revision);
+            }
+            if (row.quantity > 0) {
+                items.add(toItem(row));
+            }
+        }
+        totals.reset(items);
+        loaded = true;
+        List<Runnable> pending = new ArrayList<>(afterLoad);
+        afterLoad.clear();
+        for (Runnable action : pending) {
+            action.run();
+        }
+        notifyChanged();
+        if (!dirty.isEmpty()) {
+            scheduleSync(0);
+        }
+    }
+
+    // A guest cart becomes the new account's; any other change of user starts empty
+    private void adoptOwner(String newOwner) {
+        if (newOwner.equals(owner)) {
+            return;
+        }
+        if (owner.isEmpty()) {
+            for (CartItem item : items) {
+                markDirty(item.getBikeId());
+            }
+        } else {
+            items.clear();
+            dirty.clear();
+            totals.reset(items);
+            notifyChanged();
+        }
+        owner = newOwner;
+        persistAll();
+    }
+
+    private void markDirty(String bikeId) {
+        dirty.put(bikeId, ++revision);
+        scheduleSync(SYNC_DELAY_MS);
+    }
+
+    private void scheduleSync(long delayMs) {
+        // Later edits join the pending batch instead of pushing it back
+        if (!syncScheduled) {
+            syncScheduled = true;
+            handler.postDelayed(syncRunnable, delayMs);
+        }
+    }
+
+    private void sync() {
+        if (syncing) {
+            // Picked up when the running request returns
+            return;
+        }
+        AuthManager authManager = AuthManager.getInstance(context);
+        User user = authManager.getCurrentUser();
+        adoptOwner(user != null && user.getId() != null ? user.getId() : "");
+        if (!authManager.isLoggedIn() || owner.isEmpty()) {
+            // Guest cart stays on the device until login
+            return;
+        }
+
+        Map<String, Long> sent = new HashMap<>(dirty);
+        List<CartSyncRequest.Change> changes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : sent.entrySet()) {
+            CartItem item = find(entry.getKey());
+            changes.add(item != null
+                    ? new CartSyncRequest.Change(item.getBikeId(), item.getQuantity(), item.isSelected())
+                    : new CartSyncRequest.Change(entry.getKey(), 0, null));
+        }
+        Call<ApiResponse<CartSnapshot>> call = changes.isEmpty()
+                ? apiService.getCart()
+                : apiService.syncCart(new CartSyncRequest(changes));
+
+        syncing = true;
+        String requestOwner = owner;
+        call.enqueue(new Callback<ApiResponse<CartSnapshot>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<CartSnapshot>> call, Response<ApiResponse<CartSnapshot>> response) {
+                syncing = false;
+                if (!requestOwner.equals(owner)) {
+                    // Logged out or switched account meanwhile; the answer belongs to nobody here
+                    return;
+                }
+                int code = response.code();
+                if (response.isSuccessful() && response.body() != null
+                        && response.body().isSuccess() && response.body().getData() != null) {
+                    failures = 0;
+                    applySnapshot(response.body().getData(), sent);
+                    if (!dirty.isEmpty()) {
+                        scheduleSync(SYNC_DELAY_MS);
+                    }
+                } else if (code == 401) {
+                    // Edits stay on the device and go out after the next login
+                    Log.w(TAG, "Cart sync unauthorized");
+                } else if (code >= 400 && code < 500 && code != 408 && code != 429) {
+                    // The batch itself was rejected; drop it and take the server's cart as it is
+                    Log.w(TAG, "Cart sync rejected: " + code);
+                    for (Map.Entry<String, Long> entry : sent.entrySet()) {
+                        dirty.remove(entry.getKey(), entry.getValue());
+                    }
+                    scheduleSync(0);
+                } else {
+                    retryLater();
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<CartSnapshot>> call, Throwable t) {
+                syncing = false;
+                Log.w(TAG, "Cart sync failed: " + t.getMessage());
+                if (requestOwner.equals(owner)) {
+                    retryLater();
+                }
+            }
+        });
+    }
+
+    private void retryLater() {
+        failures++;
+        long ceiling = Math.min(MAX_RETRY_MS, BASE_RETRY_MS << Math.min(failures, 10));
+        // Full jitter, so devices that lost the server together do not return together
+        long delay = (long) (random.nextDouble() * ceiling);
+        handler.removeCallbacks(syncRunnable);
+        syncScheduled = true;
+        handler.postDelayed(syncRunnable, delay);
+    }
+
+    // Server lines win unless the user edited them again after the batch was sent
+    private void applySnapshot(CartSnapshot snapshot, Map<String, Long> sent) {
+        for (Map.Entry<String, Long> entry : sent.entrySet()) {
+            dirty.remove(entry.getKey(), entry.getValue());
+        }
+
+        Map<String, CartItem> local = new HashMap<>();
+        for (CartItem item : items) {
+            local.put(item.getBikeId(), item);
+        }
+        List<CartItem> merged = new ArrayList<>();
+        Map<String, CartSnapshot.Line> serverLines = new HashMap<>();
+        if (snapshot.getItems() != null) {
+            for (CartSnapshot.Line line : snapshot.getItems()) {
+                serverLines.put(line.getBikeId(), line);
+                CartItem current = local.get(line.getBikeId());
+                if (!dirty.containsKey(line.getBikeId())) {
+                    CartItem item = fromLine(line);
+                    if (item != null) {
+                        merged.add(item);
+                    }
+                } else if (current != null) {
+                    current.setStock(line.getStock());
+                    merged.add(current);
+                }
+            }
+        }
+        for (CartItem item : items) {
+            // Added while the request was in flight
+            if (!serverLines.containsKey(item.getBikeId()) && dirty.containsKey(item.getBikeId())) {
+                merged.add(item);
+            }
+        }
+
+        items.clear();
+        items.addAll(merged);
+        totals.reset(items);
+        persistAll();
+        notifyChanged();
+        reportAdjustments(snapshot.getAdjustments(), local);
+    }
+
+    private void reportAdjustments(List<CartSnapshot.Adjustment> adjustments, Map<String, CartItem> local) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder();
+        for (CartSnapshot.Adjustment adjustment : adjustments) {
+            if (dirty.containsKey(adjustment.getBikeId())) {
+                // Superseded by a newer edit; the next sync reports on that one
+                continue;
+            }
+            CartItem item = local.get(adjustment.getBikeId());
+            String name = item != null ? item.getName() : "Sản phẩm";
+            String line;
+            if (CartSnapshot.REASON_STOCK_LIMITED.equals(adjustment.getReason())) {
+                line = "Chỉ còn " + adjustment.getQuantity() + " sản phẩm \"" + name + "\" trong kho";
+            } else if (CartSnapshot.REASON_OUT_OF_STOCK.equals(adjustment.getReason())) {
+                line = "\"" + name + "\" đã hết hàng và được xóa khỏi giỏ";
+            } else {
+                line = "\"" + name + "\" không còn được bán và được xóa khỏi giỏ";
+            }
+            if (message.length() > 0) {
+                message.append('\n');
+            }
+            message.append(line);
+        }
+        if (message.length() > 0) {
+            String text = message.toString();
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onCartAdjusted(text);
+            }
+        }
+    }
+
+    private void notifyChanged() {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onCartChanged();
+        }
+    }
+
+    // A row may still hold the instance a sync has just replaced
+    private CartItem current(CartItem item) {
+        return items.contains(item) ? item : find(item.getBikeId());
+    }
+
+    private CartItem find(String bikeId) {
+        for (CartItem item : items) {
+            if (item.getBikeId() != null && item.getBikeId().equals(bikeId)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static int maxQuantity(CartItem item) {
+        return item.getStock() > 0 ? Math.min(item.getStock(), MAX_QUANTITY) : MAX_QUANTITY;
+    }
+
+    private void persist(CartItem item) {
+        CartDatabase.Row row = toRow(item);
+        diskIO.execute(() -> database.put(row));
+    }
+
+    private void persistRemoval(String bikeId) {
+        CartDatabase.Row row = tombstone(bikeId);
+        diskIO.execute(() -> database.put(row));
+    }
+
+    private void persistAll() {
+        List<CartDatabase.Row> rows = new ArrayList<>();
+        for (CartItem item : items) {
+            rows.add(toRow(item));
+        }
+        for (String bikeId : dirty.keySet()) {
+            if (find(bikeId) == null) {
+                rows.add(tombstone(bikeId));
+            }
+        }
+        String rowsOwner = owner;
+        diskIO.execute(() -> database.replaceAll(rowsOwner, rows));
+    }
+
+    private CartDatabase.Row toRow(CartItem item) {
+        CartDatabase.Row row = new CartDatabase.Row();
+        row.bikeId = item.getBikeId();
+        row.name = item.getName();
+        row.description = item.getDescription();
+        row.imageUrl = item.getImageUrl();
+        row.unitPrice = item.getUnitPrice();
+        row.quantity = item.getQuantity();
+        row.selected = item.isSelected();
+        row.stock = item.getStock();
+        Long rowRevision = dirty.get(item.getBikeId());
+        row.revision = rowRevision != null ? rowRevision : 0;
+        return row;
+    }
+
+    private CartDatabase.Row tombstone(String bikeId) {
+        CartDatabase.Row row = new CartDatabase.Row();
+        row.bikeId = bikeId;
+        row.quantity = 0;
+        Long rowRevision = dirty.get(bikeId);
+        row.revision = rowRevision != null ? rowRevision : 0;
+        return row;
+    }
+
+    private static CartItem toItem(CartDatabase.Row row) {
+        CartItem item = new CartItem(row.name, row.description, row.unitPrice,
+                R.drawable.splash_bike_background, row.quantity);
+        item.setBikeId(row.bikeId);
+        item.setImageUrl(row.imageUrl);
+        item.setSelected(row.selected);
+        item.setStock(row.stock);
+        return item;
+    }
+
+    // A fresh instance, so the list diff sees the server's values as a change and rebinds the row.
+    // Null for a line with a price that cannot be charged.
+    private static CartItem fromLine(CartSnapshot.Line line) {
+        if (!Money.isValidApiAmount(line.getUnitPrice())) {
+            Log.w(TAG, "Skipping cart line " + line.getBikeId() + " with invalid price " + line.getUnitPrice());
+            return null;
+        }
+        CartItem item = new CartItem(line.getName(), line.getDescription(), Money.fromApi(line.getUnitPrice()),
+                R.drawable.splash_bike_background, line.getQuantity());
+        item.setBikeId(line.getBikeId());
+        item.setImageUrl(line.getImageUrl());
+        item.setSelected(line.isSelected());
+        item.setStock(line.getStock());
+        return item;
+    }
+}
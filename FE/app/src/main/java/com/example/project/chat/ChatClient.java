@@ -0,0 +1,480 @@
+package com.example.project.chat;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.project.ChatMessage;
+import com.example.project.ChatUser;
+import com.example.project.models.User;
+import com.example.project.network.RetrofitClient;
+import com.example.project.utils.AppExecutors;
+import com.example.project.utils.AuthManager;
+import com.example.project.utils.Session;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+// One WebSocket to the chat server, shared by every chat screen. Screens read from the local store
+// and are told when it changes; the socket only writes to it. Messages are queued in the store
+// first, so nothing typed is lost when the connection drops: the queue is resent on every
+// reconnect and the server ignores copies it already has. Public methods are main-thread only.
+public class ChatClient {
+    private static final String TAG = "ChatClient";
+    private static final String CHAT_PATH = "/ws/chat";
+    private static final long PING_INTERVAL_SECONDS = 20;
+    private static final long BASE_RECONNECT_MS = 1000;
+    private static final long MAX_RECONNECT_MS = 30000;
+    // Keeps the socket across screen changes and gives queued messages a chance to go out
+    private static final long IDLE_CLOSE_MS = 15000;
+    private static final long RETRY_SEND_MS = 5000;
+    private static final int NORMAL_CLOSURE = 1000;
+
+    private static ChatClient instance;
+
+    public interface Listener {
+        // Main thread; the ids are customer user ids, i.e. conversations
+        void onMessagesChanged(Set<String> conversationIds);
+    }
+
+    public interface ResultCallback<T> {
+        void onResult(T result);
+    }
+
+    private final Context context;
+    private final ChatStore store;
+    private final OkHttpClient okHttpClient;
+    private final HttpUrl chatUrl;
+    private final Gson gson = new Gson();
+    private final Random random = new Random();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Executor diskIO;
+    private final Executor mainThread;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private WebSocket webSocket;
+    private int failures;
+    private boolean reconnectScheduled;
+
+    // Also read on the disk thread
+    private volatile WebSocket openSocket;
+    private volatile boolean catchingUp;
+    private volatile boolean staff;
+    private volatile long syncSince;
+
+    private final Runnable reconnect = () -> {
+        reconnectScheduled = false;
+        connect();
+    };
+    private final Runnable idleClose = this::closeIfIdle;
+    private final Runnable retrySend = this::flushOutbox;
+
+    private ChatClient(Context context) {
+        this.context = context.getApplicationContext();
+        store = ChatStore.getInstance(this.context);
+        // Derived from the API client so a 401 on the upgrade goes through TokenAuthenticator, which
+        // refreshes the token and retries the handshake, and ends the session only if the refresh is refused
+        okHttpClient = RetrofitClient.getInstance().getHttpClient().newBuilder()
+                .pingInterval(PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+                // A silent socket is normal; missed pongs are what detect a dead connection
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+        chatUrl = RetrofitClient.getInstance().getRetrofit().baseUrl().newBuilder()
+                .encodedPath(CHAT_PATH)
+                .build();
+        AppExecutors executors = AppExecutors.getInstance();
+        diskIO = executors.diskIO();
+        mainThread = executors.mainThread();
+
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) this.context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager != null) {
+            connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    mainThread.execute(ChatClient.this::reconnectNow);
+                }
+            });
+        }
+        AuthManager.getInstance(this.context).addSessionListener(this::onSessionChanged);
+    }
+
+    public static synchronized ChatClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChatClient(context);
+        }
+        return instance;
+    }
+
+    // Call from onStart; the socket stays open while at least one listener is registered
+    public void addListener(Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        handler.removeCallbacks(idleClose);
+        if (webSocket == null && !reconnectScheduled) {
+            connect();
+        }
+    }
+
+    // Call from onStop
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            handler.removeCallbacks(idleClose);
+            handler.postDelayed(idleClose, IDLE_CLOSE_MS);
+        }
+    }
+
+    // Pages of a conversation straight from the local store, newest first; see ChatHistory
+    void loadOlder(String conversationId, ChatMessage before, int limit, ResultCallback<List<ChatMessage>> callback) {
+        String userId = currentUserId();
+        diskIO.execute(() -> {
+            store.ensureOwner(userId);
+            List<ChatMessage> messages = store.getOlder(conversationId, before, limit);
+            mainThread.execute(() -> callback.onResult(messages));
+        });
+    }
+
+    void loadNewer(String conversationId, ChatMessage after, boolean inclusive, int limit,
+                   ResultCallback<List<ChatMessage>> callback) {
+        String userId = currentUserId();
+        diskIO.execute(() -> {
+            store.ensureOwner(userId);
+            List<ChatMessage> messages = store.getNewer(conversationId, after, inclusive, limit);
+            mainThread.execute(() -> callback.onResult(messages));
+        });
+    }
+
+    public void loadConversations(ResultCallback<List<ChatUser>> callback) {
+        String userId = currentUserId();
+        diskIO.execute(() -> {
+            store.ensureOwner(userId);
+            List<ChatUser> conversations = store.getConversations();
+            mainThread.execute(() -> callback.onResult(conversations));
+        });
+    }
+
+    // userName is the customer's name, shown in the admin conversation list
+    public void send(String conversationId, String userName, String text) {
+        String userId = currentUserId();
+        boolean fromAdmin = AuthManager.getInstance(context).isStaff();
+        diskIO.execute(() -> {
+            store.ensureOwner(userId);
+            ChatMessage message = store.insertOutgoing(conversationId, userName, text, fromAdmin);
+            WebSocket socket = openSocket;
+            if (socket != null) {
+                sendFrame(socket, message);
+            }
+            notifyChanged(Collections.singleton(conversationId));
+        });
+    }
+
+    public void markRead(String conversationId) {
+        diskIO.execute(() -> {
+            if (store.markRead(conversationId)) {
+                notifyChanged(Collections.singleton(conversationId));
+            }
+        });
+    }
+
+    private void connect() {
+        if (webSocket != null) {
+            return;
+        }
+        AuthManager authManager = AuthManager.getInstance(context);
+        String authHeader = authManager.getAuthHeader();
+        if (authHeader == null || authManager.getCurrentUser() == null) {
+            return;
+        }
+        staff = authManager.isStaff();
+        Request request = new Request.Builder()
+                .url(chatUrl)
+                .header("Authorization", authHeader)
+                .build();
+        webSocket = okHttpClient.newWebSocket(request, new SocketListener(currentUserId()));
+    }
+
+    // A socket authenticated as one account must not keep delivering after logout or an account switch
+    private void onSessionChanged(Session previous, Session current) {
+        if (current.isLoggedIn() && Objects.equals(previous.getUserId(), current.getUserId())) {
+            // A refreshed token keeps the open socket; one waiting out a backoff reconnects now
+            if (webSocket == null && !reconnectScheduled && !listeners.isEmpty()) {
+                connect();
+            }
+            return;
+        }
+        handler.removeCallbacks(reconnect);
+        reconnectScheduled = false;
+        failures = 0;
+        WebSocket socket = webSocket;
+        webSocket = null;
+        openSocket = null;
+        if (socket != null) {
+            socket.close(NORMAL_CLOSURE, null);
+        }
+        if (!listeners.isEmpty()) {
+            connect();
+        }
+    }
+
+    // Network came back: skip whatever is left of the backoff
+    private void reconnectNow() {
+        if (reconnectScheduled) {
+            handler.removeCallbacks(reconnect);
+            reconnectScheduled = false;
+            failures = 0;
+            connect();
+        }
+    }
+
+    private void onDisconnected(WebSocket socket) {
+        if (socket != webSocket) {
+            return;
+        }
+        webSocket = null;
+        openSocket = null;
+        // Also after a 401 the authenticator could not fix: if the refresh was refused the session
+        // has ended and connect() does nothing; if it was only offline, the backoff retries later
+        if (!listeners.isEmpty()) {
+            scheduleReconnect();
+        }
+    }
+
+    // Exponential backoff with full jitter so clients dropped together do not return in lockstep
+    private void scheduleReconnect() {
+        failures++;
+        long cap = Math.min(MAX_RECONNECT_MS, BASE_RECONNECT_MS << Math.min(failures - 1, 5));
+        long delay = (long) (random.nextDouble() * cap);
+        reconnectScheduled = true;
+        handler.postDelayed(reconnect, delay);
+    }
+
+    private void closeIfIdle() {
+        diskIO.execute(() -> {
+            boolean pending = store.hasPending();
+            mainThread.execute(() -> {
+                if (!listeners.isEmpty()) {
+                    return;
+                }
+                if (pending && openSocket != null) {
+                    handler.postDelayed(idleClose, IDLE_CLOSE_MS);
+                    return;
+                }
+                handler.removeCallbacks(reconnect);
+                handler.removeCallbacks(retrySend);
+                reconnectScheduled = false;
+                failures = 0;
+                WebSocket socket = webSocket;
+                webSocket = null;
+                openSocket = null;
+                if (socket != null) {
+                    socket.close(NORMAL_CLOSURE, null);
+                }
+            });
+        });
+    }
+
+    private void flushOutbox() {
+        diskIO.execute(() -> {
+            WebSocket socket = openSocket;
+            if (socket == null) {
+                return;
+            }
+            for (ChatMessage message : store.getPending()) {
+                if (!sendFrame(socket, message)) {
+                    return;
+                }
+            }
+        });
+    }
+
+    // Disk thread
+    private boolean sendFrame(WebSocket socket, ChatMessage message) {
+        JsonObject frame = new JsonObject();
+        frame.addProperty("type", "send");
+        frame.addProperty("clientId", message.getClientId());
+        frame.addProperty("message", message.getMessage());
+        frame.addProperty("userId", message.isFromUser() ? message.getSenderId() : message.getReceiverId());
+        return socket.send(frame.toString());
+    }
+
+    // Disk thread
+    private void requestSync(WebSocket socket, long since) {
+        syncSince = since;
+        JsonObject frame = new JsonObject();
+        frame.addProperty("type", "sync");
+        frame.addProperty("since", since);
+        socket.send(frame.toString());
+    }
+
+    // Disk thread
+    private void handleFrame(WebSocket socket, String text) {
+        if (socket != openSocket) {
+            return;
+        }
+        JsonObject frame;
+        try {
+            frame = gson.fromJson(text, JsonObject.class);
+        } catch (JsonParseException e) {
+            Log.w(TAG, "Ignoring malformed frame", e);
+            return;
+        }
+        if (frame == null) {
+            return;
+        }
+        // A field of the wrong shape drops this frame only; thrown here it would end the disk thread
+        try {
+            dispatchFrame(socket, frame);
+        } catch (JsonParseException | IllegalStateException e) {
+            Log.w(TAG, "Ignoring malformed frame", e);
+        }
+    }
+
+    // Disk thread
+    private void dispatchFrame(WebSocket socket, JsonObject frame) {
+        String type = stringOf(frame.get("type"));
+        if ("ack".equals(type) || "message".equals(type)) {
+            ChatStore.ServerMessage message = gson.fromJson(frame.get("message"), ChatStore.ServerMessage.class);
+            if (message == null) {
+                return;
+            }
+            notifyChanged(store.applyServerMessages(Collections.singletonList(message), staff, !catchingUp));
+        } else if ("history".equals(type)) {
+            Type listType = new TypeToken<List<ChatStore.ServerMessage>>() {}.getType();
+            List<ChatStore.ServerMessage> messages = gson.fromJson(frame.get("messages"), listType);
+            Set<String> changed = store.applyServerMessages(
+                    messages != null ? messages : Collections.emptyList(), staff, true);
+            if (booleanOf(frame.get("hasMore"))) {
+                // A full batch sharing one timestamp must still move the cursor forward
+                requestSync(socket, Math.max(store.getSyncCursor(), syncSince + 1));
+            } else {
+                catchingUp = false;
+            }
+            notifyChanged(changed);
+        } else if ("error".equals(type)) {
+            String clientId = stringOf(frame.get("clientId"));
+            Log.w(TAG, "Chat server error: " + stringOf(frame.get("message")));
+            if (clientId == null) {
+                return;
+            }
+            if (booleanOf(frame.get("retryable"))) {
+                mainThread.execute(() -> {
+                    handler.removeCallbacks(retrySend);
+                    handler.postDelayed(retrySend, RETRY_SEND_MS);
+                });
+            } else {
+                String conversationId = store.markFailed(clientId);
+                if (conversationId != null) {
+                    notifyChanged(Collections.singleton(conversationId));
+                }
+            }
+        }
+    }
+
+    private void notifyChanged(Set<String> conversationIds) {
+        if (conversationIds.isEmpty()) {
+            return;
+        }
+        mainThread.execute(() -> {
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onMessagesChanged(conversationIds);
+            }
+        });
+    }
+
+    private String currentUserId() {
+        User user = AuthManager.getInstance(context).getCurrentUser();
+        return user != null ? user.getId() : null;
+    }
+
+    private static String stringOf(JsonElement element) {
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    // False for a missing, null or non-boolean value
+    private static boolean booleanOf(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isBoolean()
+                && element.getAsBoolean();
+    }
+
+    private class SocketListener extends WebSocketListener {
+        private final String userId;
+
+        SocketListener(String userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void onOpen(WebSocket socket, Response response) {
+            // Checked on the main thread, where logout and account switches replace webSocket: a
+            // handshake that completes after that belongs to the previous account and must not
+            // claim the store or carry the new account's outbox. Frames that arrive before the
+            // socket is published are dropped; the sync below fetches them again.
+            mainThread.execute(() -> {
+                if (socket != webSocket || !Objects.equals(userId, currentUserId())) {
+                    socket.close(NORMAL_CLOSURE, null);
+                    return;
+                }
+                failures = 0;
+                catchingUp = true;
+                openSocket = socket;
+                diskIO.execute(() -> {
+                    if (socket != openSocket) {
+                        return;
+                    }
+                    store.ensureOwner(userId);
+                    requestSync(socket, store.getSyncCursor());
+                });
+                flushOutbox();
+            });
+        }
+
+        @Override
+        public void onMessage(WebSocket socket, String text) {
+            diskIO.execute(() -> handleFrame(socket, text));
+        }
+
+        @Override
+        public void onClosing(WebSocket socket, int code, String reason) {
+            socket.close(NORMAL_CLOSURE, null);
+        }
+
+        @Override
+        public void onClosed(WebSocket socket, int code, String reason) {
+            mainThread.execute(() -> onDisconnected(socket));
+        }
+
+        @Override
+        public void onFailure(WebSocket socket, Throwable t, Response response) {
+            if (response != null && response.code() == 401) {
+                Log.w(TAG, "Chat connection rejected");
+            } else {
+                Log.w(TAG, "Chat connection lost: " + t.getMessage());
+            }
+            mainThread.execute(() -> onDisconnected(socket));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.project.chat;
+
+import android.content.Context;
+
+import com.example.project.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Sliding window over one conversation for a reverse-layout list, where position 0 is the newest
+// message. Opening a conversation reads one page; older pages are read from the local store as the
+// user scrolls up, and once the window is full the end furthest from the viewport is dropped, so
+// memory stays flat however long the thread gets. Main thread only.
+public class ChatHistory implements ChatClient.Listener {
+    public static final int PAGE_SIZE = 50;
+    public static final int MAX_WINDOW = 4 * PAGE_SIZE;
+    // Start loading when the viewport is this many rows from either end of the window
+    private static final int PREFETCH_DISTANCE = 15;
+
+    public interface Callback {
+        // newestFirst is a fresh copy; newestIncluded is false while scrolled back past a trimmed tail
+        void onWindowChanged(List<ChatMessage> newestFirst, boolean newestIncluded);
+    }
+
+    private final ChatClient chatClient;
+    private final String conversationId;
+    private final Callback callback;
+
+    private List<ChatMessage> window = new ArrayList<>();
+    private boolean hasOlder;
+    private boolean newestIncluded = true;
+    private boolean loading;
+    // Results of a load that a newer load superseded are dropped
+    private int generation;
+
+    public ChatHistory(Context context, String conversationId, Callback callback) {
+        this.chatClient = ChatClient.getInstance(context);
+        this.conversationId = conversationId;
+        this.callback = callback;
+    }
+
+    // Call from onStart: connects, and reads the newest page (or refreshes the current window)
+    public void start() {
+        chatClient.addListener(this);
+        refresh();
+    }
+
+    public void stop() {
+        chatClient.removeListener(this);
+        generation++;
+        loading = false;
+    }
+
+    public boolean isNewestIncluded() {
+        return newestIncluded;
+    }
+
+    // Drops the window and reads the newest page, e.g. after sending while scrolled far back
+    public void loadLatest() {
+        int token = ++generation;
+        loading = true;
+        chatClient.loadOlder(conversationId, null, PAGE_SIZE + 1, page -> {
+            if (token != generation) {
+                return;
+            }
+            loading = false;
+            hasOlder = page.size() > PAGE_SIZE;
+            window = new ArrayList<>(page.subList(0, Math.min(PAGE_SIZE, page.size())));
+            newestIncluded = true;
+            publish();
+        });
+    }
+
+    // Feed from the list's scroll listener with adapter positions (0 = newest)
+    public void onScrolled(int firstVisible, int lastVisible) {
+        if (loading || window.isEmpty()) {
+            return;
+        }
+        if (hasOlder && lastVisible >= window.size() - 1 - PREFETCH_DISTANCE) {
+            loadOlderPage();
+        } else if (!newestIncluded && firstVisible <= PREFETCH_DISTANCE) {
+            loadNewerPage();
+        }
+    }
+
+    @Override
+    public void onMessagesChanged(Set<String> conversationIds) {
+        if (conversationIds.contains(conversationId)) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        if (window.isEmpty()) {
+            loadLatest();
+            return;
+        }
+        int size = Math.max(PAGE_SIZE, window.size());
+        int token = ++generation;
+        loading = true;
+        if (newestIncluded) {
+            // Following the conversation: new messages push the oldest rows out of the window
+            chatClient.loadOlder(conversationId, null, size + 1, page -> {
+                if (token != generation) {
+                    return;
+                }
+                loading = false;
+                hasOlder = page.size() > size;
+                window = new ArrayList<>(page.subList(0, Math.min(size, page.size())));
+                publish();
+            });
+        } else {
+            // Scrolled back: re-read the same range so acks and edits show, without moving it
+            ChatMessage oldest = window.get(window.size() - 1);
+            chatClient.loadNewer(conversationId, oldest, true, size + 1, page -> {
+                if (token != generation) {
+                    return;
+                }
+                loading = false;
+                newestIncluded = page.size() <= size;
+                window = new ArrayList<>(page.subList(page.size() - Math.min(size, page.size()), page.size()));
+                publish();
+            });
+        }
+    }
+
+    private void loadOlderPage() {
+        int token = ++generation;
+        loading = true;
+        ChatMessage oldest = window.get(window.size() - 1);
+        chatClient.loadOlder(conversationId, oldest, PAGE_SIZE + 1, page -> {
+            if (token != generation) {
+                return;
+            }
+            loading = false;
+            hasOlder = page.size() > PAGE_SIZE;
+            window.addAll(page.subList(0, Math.min(PAGE_SIZE, page.size())));
+            int excess = window.size() - MAX_WINDOW;
+            if (excess > 0) {
+                // The newest rows are furthest from the viewport now
+                window.subList(0, excess).clear();
+                newestIncluded = false;
+            }
+            publish();
+        });
+    }
+
+    private void loadNewerPage() {
+        int token = ++generation;
+        loading = true;
+        ChatMessage newest = window.get(0);
+        chatClient.loadNewer(conversationId, newest, false, PAGE_SIZE + 1, page -> {
+            if (token != generation) {
+                return;
+            }
+            loading = false;
+            boolean more = page.size() > PAGE_SIZE;
+            // The page is newest first; its extra row, if any, is the newest one
+            window.addAll(0, page.subList(more ? 1 : 0, page.size()));
+            newestIncluded = !more;
+            int excess = window.size() - MAX_WINDOW;
+            if (excess > 0) {
+                window.subList(window.size() - excess, window.size()).clear();
+                hasOlder = true;
+            }
+            publish();
+        });
+    }
+
+    private void publish() {
+        if (newestIncluded) {
+            // The newest messages are on screen, so the conversation counts as read
+            chatClient.markRead(conversationId);
+        }
+        callback.onWindowChanged(new ArrayList<>(window), newestIncluded);
+    }
+}
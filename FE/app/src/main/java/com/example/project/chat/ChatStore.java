@@ -0,0 +1,307 @@
+package com.example.project.chat;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.project.ChatMessage;
+import com.example.project.ChatUser;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Local copy of every chat message this device has seen, plus the outbound queue: a message is
+// written here as pending before it is sent and only marked sent once the server acknowledges it.
+// Conversations are keyed by the customer's user id. Blocking; use from AppExecutors.diskIO().
+class ChatStore extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "chat.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_MESSAGES = "messages";
+    private static final String TABLE_META = "meta";
+    private static final String META_OWNER = "owner";
+    private static final String META_SYNC_CURSOR = "sync_cursor";
+
+    private static final String MESSAGE_COLUMNS =
+            "server_id, client_id, conversation_id, user_name, body, sent_at, from_admin, status, local_id";
+
+    private static ChatStore instance;
+
+    private String owner;
+
+    // Message as the chat server sends it
+    static class ServerMessage {
+        @SerializedName("id")
+        String id;
+        @SerializedName("clientId")
+        String clientId;
+        @SerializedName("userId")
+        String userId;
+        @SerializedName("userName")
+        String userName;
+        @SerializedName("message")
+        String message;
+        @SerializedName("sentAt")
+        long sentAt;
+        @SerializedName("isFromAdmin")
+        boolean isFromAdmin;
+    }
+
+    private ChatStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    static synchronized ChatStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChatStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_MESSAGES + " ("
+                + "local_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "server_id TEXT UNIQUE, "
+                + "client_id TEXT UNIQUE, "
+                + "conversation_id TEXT NOT NULL, "
+                + "user_name TEXT, "
+                + "body TEXT NOT NULL, "
+                + "sent_at INTEGER NOT NULL, "
+                + "from_admin INTEGER NOT NULL, "
+                + "status INTEGER NOT NULL DEFAULT 0, "
+                + "is_read INTEGER NOT NULL DEFAULT 1)");
+        // Opening a conversation reads its newest rows straight off this index
+        db.execSQL("CREATE INDEX idx_messages_conversation ON " + TABLE_MESSAGES + " (conversation_id, sent_at)");
+        db.execSQL("CREATE INDEX idx_messages_outbox ON " + TABLE_MESSAGES + " (status, local_id) WHERE status = "
+                + ChatMessage.STATUS_PENDING);
+        db.execSQL("CREATE TABLE " + TABLE_META + " (key TEXT PRIMARY KEY, value TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MESSAGES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_META);
+        onCreate(db);
+    }
+
+    // Wipes everything when a different account signs in on this device
+    void ensureOwner(String userId) {
+        if (userId == null || userId.equals(owner)) {
+            return;
+        }
+        SQLiteDatabase db = getWritableDatabase();
+        if (!userId.equals(readMeta(db, META_OWNER))) {
+            db.beginTransaction();
+            try {
+                db.delete(TABLE_MESSAGES, null, null);
+                db.delete(TABLE_META, null, null);
+                writeMeta(db, META_OWNER, userId);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+        owner = userId;
+    }
+
+    // Up to `limit` messages older than `before` (null = from the newest), newest first.
+    // Keyset paging on (sent_at, local_id) walks the conversation index, so a page costs the same
+    // at message 10 000 as at message 10.
+    List<ChatMessage> getOlder(String conversationId, ChatMessage before, int limit) {
+        String where = "conversation_id = ?";
+        String[] args = {conversationId};
+        if (before != null) {
+            where += " AND (sent_at < ? OR (sent_at = ? AND local_id < ?))";
+            String sentAt = String.valueOf(before.getTimestamp());
+            args = new String[]{conversationId, sentAt, sentAt, String.valueOf(before.getLocalId())};
+        }
+        return query(where + " ORDER BY sent_at DESC, local_id DESC LIMIT " + limit, args);
+    }
+
+    // The next `limit` messages after `after` (or from it, when inclusive), newest first
+    List<ChatMessage> getNewer(String conversationId, ChatMessage after, boolean inclusive, int limit) {
+        String sentAt = String.valueOf(after.getTimestamp());
+        List<ChatMessage> messages = query("conversation_id = ? AND (sent_at > ? OR (sent_at = ? AND local_id "
+                        + (inclusive ? ">=" : ">") + " ?)) ORDER BY sent_at, local_id LIMIT " + limit,
+                new String[]{conversationId, sentAt, sentAt, String.valueOf(after.getLocalId())});
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    private List<ChatMessage> query(String whereAndOrder, String[] args) {
+        List<ChatMessage> messages = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT " + MESSAGE_COLUMNS + " FROM " + TABLE_MESSAGES + " WHERE " + whereAndOrder, args)) {
+            while (cursor.moveToNext()) {
+                messages.add(readMessage(cursor));
+            }
+        }
+        return messages;
+    }
+
+    // One row per conversation with its latest message, most recent conversation first
+    List<ChatUser> getConversations() {
+        List<ChatUser> conversations = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT m.conversation_id, m.user_name, m.body, m.sent_at, "
+                        + "(SELECT COUNT(*) FROM " + TABLE_MESSAGES + " u"
+                        + " WHERE u.conversation_id = m.conversation_id AND u.is_read = 0)"
+                        + " FROM " + TABLE_MESSAGES + " m"
+                        + " WHERE m.local_id = (SELECT l.local_id FROM " + TABLE_MESSAGES + " l"
+                        + " WHERE l.conversation_id = m.conversation_id ORDER BY l.sent_at DESC, l.local_id DESC LIMIT 1)"
+                        + " ORDER BY m.sent_at DESC", null)) {
+            while (cursor.moveToNext()) {
+                conversations.add(new ChatUser(cursor.getString(0), cursor.getString(1), "",
+                        cursor.getString(2), cursor.getLong(3), cursor.getInt(4)));
+            }
+        }
+        return conversations;
+    }
+
+    // Queues a message written on this device
+    ChatMessage insertOutgoing(String conversationId, String userName, String text, boolean fromAdmin) {
+        ContentValues values = new ContentValues();
+        values.put("client_id", UUID.randomUUID().toString());
+        values.put("conversation_id", conversationId);
+        values.put("user_name", userName);
+        values.put("body", text);
+        values.put("sent_at", System.currentTimeMillis());
+        values.put("from_admin", fromAdmin ? 1 : 0);
+        values.put("status", ChatMessage.STATUS_PENDING);
+        long localId = getWritableDatabase().insertOrThrow(TABLE_MESSAGES, null, values);
+
+        ChatMessage message = toChatMessage(null, values.getAsString("client_id"), conversationId, userName,
+                text, values.getAsLong("sent_at"), fromAdmin);
+        message.setStatus(ChatMessage.STATUS_PENDING);
+        message.setLocalId(localId);
+        return message;
+    }
+
+    // Outbox in the order the messages were written
+    List<ChatMessage> getPending() {
+        return query("status = " + ChatMessage.STATUS_PENDING + " ORDER BY local_id", null);
+    }
+
+    boolean hasPending() {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT 1 FROM " + TABLE_MESSAGES + " WHERE status = " + ChatMessage.STATUS_PENDING + " LIMIT 1", null)) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    // The server refused the message itself (e.g. too long); it is kept but no longer resent
+    String markFailed(String clientId) {
+        SQLiteDatabase db = getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put("status", ChatMessage.STATUS_FAILED);
+        db.update(TABLE_MESSAGES, values, "client_id = ? AND status = " + ChatMessage.STATUS_PENDING,
+                new String[]{clientId});
+        try (Cursor cursor = db.rawQuery("SELECT conversation_id FROM " + TABLE_MESSAGES + " WHERE client_id = ?",
+                new String[]{clientId})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    // Stores acks, pushes and sync batches in one transaction; messages we already have are updated
+    // in place (a pending row becomes sent). The sync cursor only moves when advanceCursor is set,
+    // so live messages arriving mid catch-up cannot skip the part of history not fetched yet.
+    // Returns the conversations that changed.
+    Set<String> applyServerMessages(List<ServerMessage> messages, boolean fromAdminIsOwn, boolean advanceCursor) {
+        Set<String> changed = new HashSet<>();
+        SQLiteDatabase db = getWritableDatabase();
+        long cursor = getSyncCursor();
+        db.beginTransaction();
+        try {
+            for (ServerMessage message : messages) {
+                if (message == null || message.id == null || message.userId == null) {
+                    continue;
+                }
+                ContentValues values = new ContentValues();
+                values.put("server_id", message.id);
+                values.put("conversation_id", message.userId);
+                values.put("user_name", message.userName);
+                values.put("body", message.message);
+                values.put("sent_at", message.sentAt);
+                values.put("from_admin", message.isFromAdmin ? 1 : 0);
+                values.put("status", ChatMessage.STATUS_SENT);
+
+                int updated = message.clientId != null
+                        ? db.update(TABLE_MESSAGES, values, "client_id = ? OR server_id = ?",
+                                new String[]{message.clientId, message.id})
+                        : db.update(TABLE_MESSAGES, values, "server_id = ?", new String[]{message.id});
+                if (updated == 0) {
+                    values.put("client_id", message.clientId);
+                    values.put("is_read", message.isFromAdmin == fromAdminIsOwn ? 1 : 0);
+                    db.insertWithOnConflict(TABLE_MESSAGES, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+                }
+                changed.add(message.userId);
+                cursor = Math.max(cursor, message.sentAt);
+            }
+            if (advanceCursor) {
+                writeMeta(db, META_SYNC_CURSOR, String.valueOf(cursor));
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return changed;
+    }
+
+    // Send time of the newest stored server message; the next sync starts there
+    long getSyncCursor() {
+        String value = readMeta(getReadableDatabase(), META_SYNC_CURSOR);
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    // Returns true if anything was unread
+    boolean markRead(String conversationId) {
+        ContentValues values = new ContentValues();
+        values.put("is_read", 1);
+        return getWritableDatabase().update(TABLE_MESSAGES, values,
+                "conversation_id = ? AND is_read = 0", new String[]{conversationId}) > 0;
+    }
+
+    private ChatMessage readMessage(Cursor cursor) {
+        ChatMessage message = toChatMessage(cursor.getString(0), cursor.getString(1), cursor.getString(2),
+                cursor.getString(3), cursor.getString(4), cursor.getLong(5), cursor.getInt(6) == 1);
+        message.setStatus(cursor.getInt(7));
+        message.setLocalId(cursor.getLong(8));
+        return message;
+    }
+
+    private static ChatMessage toChatMessage(String serverId, String clientId, String conversationId,
+                                             String userName, String text, long sentAt, boolean fromAdmin) {
+        ChatMessage message = new ChatMessage(
+                serverId,
+                fromAdmin ? "admin" : conversationId,
+                fromAdmin ? "Admin" : userName,
+                fromAdmin ? conversationId : "admin",
+                text,
+                sentAt,
+                !fromAdmin
+        );
+        message.setClientId(clientId);
+        return message;
+    }
+
+    private static String readMeta(SQLiteDatabase db, String key) {
+        try (Cursor cursor = db.rawQuery("SELECT value FROM " + TABLE_META + " WHERE key = ?", new String[]{key})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private static void writeMeta(SQLiteDatabase db, String key, String value) {
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        db.insertWithOnConflict(TABLE_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
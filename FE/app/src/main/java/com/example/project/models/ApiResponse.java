@@ -12,6 +12,9 @@ public class ApiResponse<T> {
     @SerializedName("token")
     private String token;
     
+    @SerializedName("refreshToken")
+    private String refreshToken;
+    
     @SerializedName("user")
     private T user;
     
@@ -56,6 +59,14 @@ public class ApiResponse<T> {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public T getUser() {
         return user;
     }
@@ -123,6 +134,10 @@ public class ApiResponse<T> {
         @SerializedName("hasPrevPage")
         private boolean hasPrevPage;
 
+        // Cursor-paged endpoints: where the next page starts, null on the last page
+        @SerializedName("nextCursor")
+        private String nextCursor;
+
         public Pagination() {}
 
         public int getCurrentPage() {
@@ -172,6 +187,14 @@ public class ApiResponse<T> {
         public void setHasPrevPage(boolean hasPrevPage) {
             this.hasPrevPage = hasPrevPage;
         }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
     }
 }
 
@@ -0,0 +1,164 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class BikeRequest {
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("brand")
+    private String brand;
+
+    @SerializedName("model")
+    private String model;
+
+    @SerializedName("price")
+    private double price;
+
+    @SerializedName("originalPrice")
+    private Double originalPrice;
+
+    @SerializedName("description")
+    private String description;
+
+    @SerializedName("stock")
+    private int stock;
+
+    @SerializedName("category")
+    private String category;
+
+    @SerializedName("status")
+    private String status;
+
+    @SerializedName("specifications")
+    private Bike.Specifications specifications;
+
+    @SerializedName("features")
+    private List<String> features;
+
+    @SerializedName("warranty")
+    private String warranty;
+
+    @SerializedName("tags")
+    private List<String> tags;
+
+    // Ids returned by the image upload endpoint, in display order
+    @SerializedName("imageIds")
+    private List<String> imageIds;
+
+    public BikeRequest() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public Double getOriginalPrice() {
+        return originalPrice;
+    }
+
+    public void setOriginalPrice(Double originalPrice) {
+        this.originalPrice = originalPrice;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Bike.Specifications getSpecifications() {
+        return specifications;
+    }
+
+    public void setSpecifications(Bike.Specifications specifications) {
+        this.specifications = specifications;
+    }
+
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(List<String> features) {
+        this.features = features;
+    }
+
+    public String getWarranty() {
+        return warranty;
+    }
+
+    public void setWarranty(String warranty) {
+        this.warranty = warranty;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public List<String> getImageIds() {
+        return imageIds;
+    }
+
+    public void setImageIds(List<String> imageIds) {
+        this.imageIds = imageIds;
+    }
+}
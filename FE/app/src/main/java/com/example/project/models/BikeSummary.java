@@ -0,0 +1,188 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The part of a bike that list rows, product cards and the search index use. List requests ask
+// the server for only these fields (FIELDS); the full Bike is fetched by id on the detail screen.
+public class BikeSummary {
+    // Value of the fields= parameter on GET bikes; `image` is the first image only
+    public static final String FIELDS =
+            "name,brand,model,price,originalPrice,description,category,status,stock,isFeatured,tags,image";
+
+    @SerializedName("_id")
+    private String id;
+
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("brand")
+    private String brand;
+
+    @SerializedName("model")
+    private String model;
+
+    @SerializedName("price")
+    private double price;
+
+    @SerializedName("originalPrice")
+    private double originalPrice;
+
+    @SerializedName("description")
+    private String description;
+
+    @SerializedName("category")
+    private String category;
+
+    @SerializedName("status")
+    private String status;
+
+    @SerializedName("stock")
+    private int stock;
+
+    @SerializedName("isFeatured")
+    private boolean isFeatured;
+
+    @SerializedName("tags")
+    private List<String> tags;
+
+    @SerializedName("images")
+    private List<Bike.BikeImage> images;
+
+    public BikeSummary() {}
+
+    // For bikes returned by create/update, so list rows can be patched without a refetch
+    public static BikeSummary from(Bike bike) {
+        BikeSummary summary = new BikeSummary();
+        summary.id = bike.getId();
+        summary.name = bike.getName();
+        summary.brand = bike.getBrand();
+        summary.model = bike.getModel();
+        summary.price = bike.getPrice();
+        summary.originalPrice = bike.getOriginalPrice();
+        summary.description = bike.getDescription();
+        summary.category = bike.getCategory();
+        summary.status = bike.getStatus();
+        summary.stock = bike.getStock();
+        summary.isFeatured = bike.isFeatured();
+        summary.tags = bike.getTags();
+        if (bike.getImages() != null && !bike.getImages().isEmpty()) {
+            summary.images = Collections.singletonList(bike.getImages().get(0));
+        } else {
+            summary.images = new ArrayList<>();
+        }
+        return summary;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public double getOriginalPrice() {
+        return originalPrice;
+    }
+
+    public void setOriginalPrice(double originalPrice) {
+        this.originalPrice = originalPrice;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public boolean isFeatured() {
+        return isFeatured;
+    }
+
+    public void setFeatured(boolean featured) {
+        isFeatured = featured;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    // At most one image: the list thumbnail
+    public List<Bike.BikeImage> getImages() {
+        return images;
+    }
+
+    public void setImages(List<Bike.BikeImage> images) {
+        this.images = images;
+    }
+
+    public String getImageUrl() {
+        return images != null && !images.isEmpty() ? images.get(0).getUrl() : null;
+    }
+}
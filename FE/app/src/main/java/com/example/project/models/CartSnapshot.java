@@ -0,0 +1,117 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+// The server's cart after a sync, already checked against stock
+public class CartSnapshot {
+    public static final String REASON_STOCK_LIMITED = "stock_limited";
+    public static final String REASON_OUT_OF_STOCK = "out_of_stock";
+    public static final String REASON_UNAVAILABLE = "unavailable";
+
+    @SerializedName("items")
+    private List<Line> items;
+
+    @SerializedName("totalPrice")
+    private double totalPrice;
+
+    @SerializedName("adjustments")
+    private List<Adjustment> adjustments;
+
+    public CartSnapshot() {}
+
+    public List<Line> getItems() {
+        return items;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public List<Adjustment> getAdjustments() {
+        return adjustments;
+    }
+
+    public static class Line {
+        @SerializedName("bikeId")
+        private String bikeId;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("description")
+        private String description;
+
+        @SerializedName("imageUrl")
+        private String imageUrl;
+
+        @SerializedName("unitPrice")
+        private double unitPrice;
+
+        @SerializedName("quantity")
+        private int quantity;
+
+        @SerializedName("selected")
+        private boolean selected;
+
+        @SerializedName("stock")
+        private int stock;
+
+        public String getBikeId() {
+            return bikeId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getImageUrl() {
+            return imageUrl;
+        }
+
+        public double getUnitPrice() {
+            return unitPrice;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public boolean isSelected() {
+            return selected;
+        }
+
+        public int getStock() {
+            return stock;
+        }
+    }
+
+    // A line the server clamped or dropped; quantity is what is left (0 = removed)
+    public static class Adjustment {
+        @SerializedName("bikeId")
+        private String bikeId;
+
+        @SerializedName("reason")
+        private String reason;
+
+        @SerializedName("quantity")
+        private int quantity;
+
+        public String getBikeId() {
+            return bikeId;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+// Final state of each changed line, so retrying a batch is harmless
+public class CartSyncRequest {
+    @SerializedName("items")
+    private List<Change> items;
+
+    public CartSyncRequest(List<Change> items) {
+        this.items = items;
+    }
+
+    public List<Change> getItems() {
+        return items;
+    }
+
+    public static class Change {
+        @SerializedName("bikeId")
+        private String bikeId;
+
+        // 0 removes the line
+        @SerializedName("quantity")
+        private int quantity;
+
+        @SerializedName("selected")
+        private Boolean selected;
+
+        public Change(String bikeId, int quantity, Boolean selected) {
+            this.bikeId = bikeId;
+            this.quantity = quantity;
+            this.selected = selected;
+        }
+
+        public String getBikeId() {
+            return bikeId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public Boolean getSelected() {
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// An order as GET /orders returns it. Amounts are đồng, timestamps epoch millis.
+public class Order {
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_CONFIRMED = "confirmed";
+    public static final String STATUS_PROCESSING = "processing";
+    public static final String STATUS_SHIPPED = "shipped";
+    public static final String STATUS_DELIVERED = "delivered";
+    public static final String STATUS_CANCELLED = "cancelled";
+    public static final String STATUS_REFUNDED = "refunded";
+    // Local only: placed on this device and not yet (or never) accepted by the server
+    public static final String STATUS_SENDING = "sending";
+    public static final String STATUS_SEND_FAILED = "send_failed";
+
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("orderNumber")
+    private String orderNumber;
+
+    @SerializedName("orderStatus")
+    private String orderStatus;
+
+    @SerializedName("statusText")
+    private String statusText;
+
+    @SerializedName("totalAmount")
+    private long totalAmount;
+
+    @SerializedName("shippingFee")
+    private long shippingFee;
+
+    @SerializedName("finalAmount")
+    private long finalAmount;
+
+    @SerializedName("paymentMethod")
+    private String paymentMethod;
+
+    @SerializedName("items")
+    private List<Item> items;
+
+    @SerializedName("createdAt")
+    private long createdAt;
+
+    @SerializedName("updatedAt")
+    private long updatedAt;
+
+    // Built on first use; local orders set it up front since they only know the summary
+    private transient String itemsSummary;
+
+    public static class Item {
+        @SerializedName("bikeId")
+        private String bikeId;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("quantity")
+        private int quantity;
+
+        @SerializedName("unitPrice")
+        private long unitPrice;
+
+        public Item() {}
+
+        public String getBikeId() {
+            return bikeId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public long getUnitPrice() {
+            return unitPrice;
+        }
+    }
+
+    public Order() {}
+
+    // An order from this device's outbox, shown until the server's copy is synced
+    public static Order local(String id, String orderNumber, String orderStatus, String statusText,
+                              long finalAmount, String itemsSummary, long createdAt) {
+        Order order = new Order();
+        order.id = id;
+        order.orderNumber = orderNumber;
+        order.orderStatus = orderStatus;
+        order.statusText = statusText;
+        order.totalAmount = finalAmount;
+        order.finalAmount = finalAmount;
+        order.items = new ArrayList<>();
+        order.itemsSummary = itemsSummary;
+        order.createdAt = createdAt;
+        order.updatedAt = createdAt;
+        return order;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public String getOrderStatus() {
+        return orderStatus;
+    }
+
+    public String getStatusText() {
+        return statusText;
+    }
+
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    public long getShippingFee() {
+        return shippingFee;
+    }
+
+    public long getFinalAmount() {
+        return finalAmount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public List<Item> getItems() {
+        return items != null ? items : new ArrayList<>();
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // One "name xN" line per product
+    public String getItemsSummary() {
+        if (itemsSummary == null) {
+            StringBuilder summary = new StringBuilder();
+            for (Item item : getItems()) {
+                if (summary.length() > 0) {
+                    summary.append('\n');
+                }
+                summary.append(item.getName()).append(" x").append(item.getQuantity());
+            }
+            itemsSummary = summary.toString();
+        }
+        return itemsSummary;
+    }
+}
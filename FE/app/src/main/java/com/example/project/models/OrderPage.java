@@ -0,0 +1,25 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One page of GET /orders or GET /orders/changes
+public class OrderPage {
+    @SerializedName("orders")
+    private List<Order> orders;
+
+    @SerializedName("hasMore")
+    private boolean hasMore;
+
+    public OrderPage() {}
+
+    public List<Order> getOrders() {
+        return orders != null ? orders : new ArrayList<>();
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
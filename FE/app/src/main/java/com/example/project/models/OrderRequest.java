@@ -0,0 +1,86 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+// Body of POST /orders; prices are not sent, the server charges its own
+public class OrderRequest {
+    public static final String PAYMENT_CASH = "cash";
+    public static final String PAYMENT_BANK_TRANSFER = "bank_transfer";
+    public static final String PAYMENT_MOMO = "momo";
+
+    @SerializedName("items")
+    private List<Item> items;
+
+    @SerializedName("paymentMethod")
+    private String paymentMethod;
+
+    @SerializedName("receiverName")
+    private String receiverName;
+
+    @SerializedName("receiverPhone")
+    private String receiverPhone;
+
+    @SerializedName("shippingAddress")
+    private String shippingAddress;
+
+    // Total the user confirmed, in minor units; the server refuses the order if prices moved since
+    @SerializedName("expectedTotal")
+    private long expectedTotal;
+
+    public OrderRequest(List<Item> items, String paymentMethod, String receiverName,
+                        String receiverPhone, String shippingAddress, long expectedTotal) {
+        this.items = items;
+        this.paymentMethod = paymentMethod;
+        this.receiverName = receiverName;
+        this.receiverPhone = receiverPhone;
+        this.shippingAddress = shippingAddress;
+        this.expectedTotal = expectedTotal;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getReceiverName() {
+        return receiverName;
+    }
+
+    public String getReceiverPhone() {
+        return receiverPhone;
+    }
+
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+
+    public long getExpectedTotal() {
+        return expectedTotal;
+    }
+
+    public static class Item {
+        @SerializedName("bikeId")
+        private String bikeId;
+
+        @SerializedName("quantity")
+        private int quantity;
+
+        public Item(String bikeId, int quantity) {
+            this.bikeId = bikeId;
+            this.quantity = quantity;
+        }
+
+        public String getBikeId() {
+            return bikeId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
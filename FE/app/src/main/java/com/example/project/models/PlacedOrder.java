@@ -0,0 +1,36 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+// The server's answer to POST /orders
+public class PlacedOrder {
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("orderNumber")
+    private String orderNumber;
+
+    @SerializedName("orderStatus")
+    private String orderStatus;
+
+    @SerializedName("finalAmount")
+    private double finalAmount;
+
+    public PlacedOrder() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public String getOrderStatus() {
+        return orderStatus;
+    }
+
+    public double getFinalAmount() {
+        return finalAmount;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.project.models;
+
+// Account role as stored in User.role
+public enum Role {
+    CUSTOMER("customer"),
+    STAFF("staff"),
+    ADMIN("admin");
+
+    private final String value;
+
+    Role(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    // Unknown or missing roles get the least privileges
+    public static Role fromValue(String value) {
+        for (Role role : values()) {
+            if (role.value.equals(value)) {
+                return role;
+            }
+        }
+        return CUSTOMER;
+    }
+
+    // Admins can do everything staff can
+    public boolean isStaff() {
+        return this == STAFF || this == ADMIN;
+    }
+}
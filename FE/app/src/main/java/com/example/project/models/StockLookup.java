@@ -0,0 +1,88 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Answer to GET /stock for a batch of bike ids. Stores are listed once and referenced by id.
+public class StockLookup {
+    @SerializedName("stores")
+    private List<Store> stores;
+
+    @SerializedName("items")
+    private List<Item> items;
+
+    public StockLookup() {}
+
+    public List<Store> getStores() {
+        return stores != null ? stores : new ArrayList<>();
+    }
+
+    public List<Item> getItems() {
+        return items != null ? items : new ArrayList<>();
+    }
+
+    public static class Store {
+        @SerializedName("id")
+        private String id;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("address")
+        private String address;
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+    }
+
+    public static class Item {
+        @SerializedName("bikeId")
+        private String bikeId;
+
+        // What can be ordered right now
+        @SerializedName("total")
+        private int total;
+
+        @SerializedName("stores")
+        private List<StoreQuantity> stores;
+
+        public String getBikeId() {
+            return bikeId;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<StoreQuantity> getStores() {
+            return stores != null ? stores : new ArrayList<>();
+        }
+    }
+
+    public static class StoreQuantity {
+        @SerializedName("storeId")
+        private String storeId;
+
+        @SerializedName("quantity")
+        private int quantity;
+
+        public String getStoreId() {
+            return storeId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.project.models;
+
+import com.google.gson.annotations.SerializedName;
+
+public class UploadStatus {
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("offset")
+    private long offset;
+
+    @SerializedName("length")
+    private long length;
+
+    @SerializedName("completed")
+    private boolean completed;
+
+    @SerializedName("url")
+    private String url;
+
+    public UploadStatus() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+}
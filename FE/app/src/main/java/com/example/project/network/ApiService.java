@@ -2,8 +2,18 @@ package com.example.project.network;
 
 import com.example.project.models.ApiResponse;
 import com.example.project.models.Bike;
+import com.example.project.models.BikeRequest;
+import com.example.project.models.BikeSummary;
+import com.example.project.models.CartSnapshot;
+import com.example.project.models.CartSyncRequest;
 import com.example.project.models.LoginRequest;
+import com.example.project.models.OrderPage;
+import com.example.project.models.OrderRequest;
+import com.example.project.models.PlacedOrder;
+import com.example.project.models.RefreshTokenRequest;
 import com.example.project.models.RegisterRequest;
+import com.example.project.models.StockLookup;
+import com.example.project.models.UploadStatus;
 import com.example.project.models.User;
 
 import java.util.List;
@@ -13,11 +23,13 @@ import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Part;
 
+// Methods marked @Headers(AuthInterceptor.AUTHENTICATED) are sent with the logged-in user's token
 public interface ApiService {
     
     // Auth endpoints
@@ -27,75 +39,87 @@ public interface ApiService {
     @POST("auth/login")
     Call<ApiResponse<User>> login(@Body LoginRequest request);
     
+    // Answers 401 for a refresh token that is expired or revoked; see TokenAuthenticator
+    @POST("auth/refresh")
+    Call<ApiResponse<User>> refreshToken(@Body RefreshTokenRequest request);
+    
     @POST("auth/logout")
-    Call<ApiResponse<Void>> logout(@Header("Authorization") String token);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<Void>> logout();
     
     @GET("auth/me")
-    Call<ApiResponse<User>> getMe(@Header("Authorization") String token);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<User>> getMe();
     
     @PUT("auth/me")
-    Call<ApiResponse<User>> updateProfile(@Header("Authorization") String token, @Body User user);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<User>> updateProfile(@Body User user);
     
     @PUT("auth/me/change-password")
-    Call<ApiResponse<Void>> changePassword(@Header("Authorization") String token, @Body ChangePasswordRequest request);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<Void>> changePassword(@Body ChangePasswordRequest request);
     
     // User management endpoints (Admin/Staff only)
+    // One page of users; pass pagination.nextCursor of the previous page with the same filters to continue
     @GET("users")
-    Call<ApiResponse<User[]>> getUsers(@Header("Authorization") String token);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<User[]>> getUsers(@retrofit2.http.Query("role") String role,
+                                       @retrofit2.http.Query("status") String status,
+                                       @retrofit2.http.Query("q") String search,
+                                       @retrofit2.http.Query("sort") String sort,
+                                       @retrofit2.http.Query("cursor") String cursor,
+                                       @retrofit2.http.Query("limit") int limit);
     
     @GET("users/{id}")
-    Call<ApiResponse<User>> getUser(@Header("Authorization") String token, @retrofit2.http.Path("id") String userId);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<User>> getUser(@retrofit2.http.Path("id") String userId);
     
     @PUT("users/{id}")
-    Call<ApiResponse<User>> updateUser(@Header("Authorization") String token, @retrofit2.http.Path("id") String userId, @Body User user);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<User>> updateUser(@retrofit2.http.Path("id") String userId, @Body User user);
     
     @retrofit2.http.DELETE("users/{id}")
-    Call<ApiResponse<Void>> deleteUser(@Header("Authorization") String token, @retrofit2.http.Path("id") String userId);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<Void>> deleteUser(@retrofit2.http.Path("id") String userId);
     
     // Bike endpoints
+    // Lists ask for BikeSummary.FIELDS; the whole bike comes from getBikeById
     @GET("bikes")
-    Call<ApiResponse<Bike[]>> getBikes(@retrofit2.http.Query("page") int page,
-                                       @retrofit2.http.Query("limit") int limit,
-                                       @retrofit2.http.Query("category") String category,
-                                       @retrofit2.http.Query("status") String status,
-                                       @retrofit2.http.Query("brand") String brand,
-                                       @retrofit2.http.Query("minPrice") Double minPrice,
-                                       @retrofit2.http.Query("maxPrice") Double maxPrice,
-                                       @retrofit2.http.Query("search") String search,
-                                       @retrofit2.http.Query("sortBy") String sortBy);
+    Call<ApiResponse<BikeSummary[]>> getBikes(@retrofit2.http.Query("page") int page,
+                                              @retrofit2.http.Query("limit") int limit,
+                                              @retrofit2.http.Query("category") String category,
+                                              @retrofit2.http.Query("status") String status,
+                                              @retrofit2.http.Query("brand") String brand,
+                                              @retrofit2.http.Query("minPrice") Double minPrice,
+                                              @retrofit2.http.Query("maxPrice") Double maxPrice,
+                                              @retrofit2.http.Query("search") String search,
+                                              @retrofit2.http.Query("sortBy") String sortBy,
+                                              @retrofit2.http.Query("fields") String fields);
+
+    // Same request as getBikes, read row by row; see ListStream
+    @GET("bikes")
+    Call<ListStream<BikeSummary>> streamBikes(@retrofit2.http.Query("page") int page,
+                                              @retrofit2.http.Query("limit") int limit,
+                                              @retrofit2.http.Query("category") String category,
+                                              @retrofit2.http.Query("status") String status,
+                                              @retrofit2.http.Query("brand") String brand,
+                                              @retrofit2.http.Query("minPrice") Double minPrice,
+                                              @retrofit2.http.Query("maxPrice") Double maxPrice,
+                                              @retrofit2.http.Query("search") String search,
+                                              @retrofit2.http.Query("sortBy") String sortBy,
+                                              @retrofit2.http.Query("fields") String fields);
     
     @GET("bikes/{id}")
     Call<ApiResponse<Bike>> getBikeById(@retrofit2.http.Path("id") String bikeId);
     
-    @Multipart
     @POST("bikes")
-    Call<ApiResponse<Bike>> createBike(
-        @Header("Authorization") String token,
-        @Part("name") RequestBody name,
-        @Part("brand") RequestBody brand,
-        @Part("model") RequestBody model,
-        @Part("price") RequestBody price,
-        @Part("description") RequestBody description,
-        @Part("stock") RequestBody stock,
-        @Part("category") RequestBody category,
-        @Part("status") RequestBody status,
-        @Part("battery") RequestBody battery,
-        @Part("motor") RequestBody motor,
-        @Part("range") RequestBody range,
-        @Part("maxSpeed") RequestBody maxSpeed,
-        @Part("weight") RequestBody weight,
-        @Part("chargingTime") RequestBody chargingTime,
-        @Part("features") RequestBody features,
-        @Part("warranty") RequestBody warranty,
-        @Part("originalPrice") RequestBody originalPrice,
-        @Part("tags") RequestBody tags,
-        @Part List<MultipartBody.Part> images
-    );
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<Bike>> createBike(@Body BikeRequest request);
     
     @Multipart
     @PUT("bikes/{id}")
+    @Headers(AuthInterceptor.AUTHENTICATED)
     Call<ApiResponse<Bike>> updateBike(
-        @Header("Authorization") String token,
         @retrofit2.http.Path("id") String bikeId,
         @Part("name") RequestBody name,
         @Part("brand") RequestBody brand,
@@ -109,7 +133,8 @@ public interface ApiService {
     );
     
     @retrofit2.http.DELETE("bikes/{id}")
-    Call<ApiResponse<Void>> deleteBike(@Header("Authorization") String token, @retrofit2.http.Path("id") String bikeId);
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<Void>> deleteBike(@retrofit2.http.Path("id") String bikeId);
     
     @GET("bikes/featured/list")
     Call<ApiResponse<Bike[]>> getFeaturedBikes(@retrofit2.http.Query("limit") int limit);
@@ -117,6 +142,53 @@ public interface ApiService {
     @GET("bikes/categories/list")
     Call<ApiResponse<Object[]>> getCategories();
     
+    // Resumable image uploads (Admin/Staff only)
+    @GET("uploads/images/{uploadId}")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<UploadStatus>> getUploadStatus(@retrofit2.http.Path("uploadId") String uploadId);
+    
+    @PUT("uploads/images/{uploadId}")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<UploadStatus>> uploadImageChunk(
+        @retrofit2.http.Path("uploadId") String uploadId,
+        @Header("Upload-Offset") long offset,
+        @Header("Upload-Length") long length,
+        @Body RequestBody chunk
+    );
+    
+    // Cart endpoints
+    @GET("cart")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<CartSnapshot>> getCart();
+    
+    @PUT("cart")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<CartSnapshot>> syncCart(@Body CartSyncRequest request);
+    
+    // Order endpoints; resending with the same Idempotency-Key returns the order already placed
+    @POST("orders")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<PlacedOrder>> createOrder(@Header("Idempotency-Key") String idempotencyKey,
+                                               @Body OrderRequest request);
+    
+    // Newest first; pass the last order's createdAt and id to continue after it (null for the first page)
+    @GET("orders")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<OrderPage>> getOrders(@retrofit2.http.Query("before") Long before,
+                                           @retrofit2.http.Query("beforeId") String beforeId,
+                                           @retrofit2.http.Query("limit") int limit);
+    
+    // Orders updated after (updatedSince, afterId), oldest change first
+    @GET("orders/changes")
+    @Headers(AuthInterceptor.AUTHENTICATED)
+    Call<ApiResponse<OrderPage>> getOrderChanges(@retrofit2.http.Query("updatedSince") long updatedSince,
+                                                 @retrofit2.http.Query("afterId") String afterId,
+                                                 @retrofit2.http.Query("limit") int limit);
+    
+    // Stock endpoints; up to 100 comma-separated bike ids per request
+    @GET("stock")
+    Call<ApiResponse<StockLookup>> getStock(@retrofit2.http.Query("bikeIds") String bikeIds);
+    
     // Change password request model
     class ChangePasswordRequest {
         private String currentPassword;
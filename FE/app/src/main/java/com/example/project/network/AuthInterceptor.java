@@ -0,0 +1,38 @@
+package com.example.project.network;
+
+import com.example.project.utils.AuthManager;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Application interceptor that swaps the AUTHENTICATED marker for the logged-in user's bearer token.
+// Unmarked requests go out without one, so public GETs stay in the shared HTTP cache.
+public class AuthInterceptor implements Interceptor {
+    static final String MARKER_HEADER = "X-Authenticated";
+    // For @Headers on ApiService methods that need the user's token
+    public static final String AUTHENTICATED = MARKER_HEADER + ": true";
+
+    private final AuthManager authManager;
+
+    public AuthInterceptor(AuthManager authManager) {
+        this.authManager = authManager;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header(MARKER_HEADER) == null) {
+            return chain.proceed(request);
+        }
+        Request.Builder builder = request.newBuilder().removeHeader(MARKER_HEADER);
+        // Read per request, so calls queued before a refresh or login go out with the current token
+        String authHeader = authManager.getAuthHeader();
+        if (authHeader != null) {
+            builder.header(TokenAuthenticator.HEADER_AUTHORIZATION, authHeader);
+        }
+        return chain.proceed(builder.build());
+    }
+}
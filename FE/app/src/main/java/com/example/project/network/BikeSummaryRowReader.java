@@ -0,0 +1,121 @@
+package com.example.project.network;
+
+import com.example.project.models.Bike;
+import com.example.project.models.BikeSummary;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Decodes a BikeSummary. Anything else in the row (a server that ignores fields=, extra images) is
+// skipped without being materialized.
+public class BikeSummaryRowReader implements RowReader<BikeSummary> {
+
+    @Override
+    public BikeSummary read(JsonReader reader) throws IOException {
+        BikeSummary bike = new BikeSummary();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "_id":
+                    bike.setId(reader.nextString());
+                    break;
+                case "name":
+                    bike.setName(reader.nextString());
+                    break;
+                case "brand":
+                    bike.setBrand(reader.nextString());
+                    break;
+                case "model":
+                    bike.setModel(reader.nextString());
+                    break;
+                case "price":
+                    bike.setPrice(reader.nextDouble());
+                    break;
+                case "originalPrice":
+                    bike.setOriginalPrice(reader.nextDouble());
+                    break;
+                case "description":
+                    bike.setDescription(reader.nextString());
+                    break;
+                case "category":
+                    bike.setCategory(reader.nextString());
+                    break;
+                case "status":
+                    bike.setStatus(reader.nextString());
+                    break;
+                case "stock":
+                    bike.setStock(reader.nextInt());
+                    break;
+                case "isFeatured":
+                    bike.setFeatured(reader.nextBoolean());
+                    break;
+                case "tags":
+                    bike.setTags(readStrings(reader));
+                    break;
+                case "images":
+                    bike.setImages(readFirstImage(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return bike;
+    }
+
+    private static List<String> readStrings(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.STRING) {
+                values.add(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return values;
+    }
+
+    private static List<Bike.BikeImage> readFirstImage(JsonReader reader) throws IOException {
+        Bike.BikeImage first = null;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (first == null && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                first = readImage(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return first != null ? Collections.singletonList(first) : new ArrayList<>();
+    }
+
+    private static Bike.BikeImage readImage(JsonReader reader) throws IOException {
+        Bike.BikeImage image = new Bike.BikeImage();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else if ("url".equals(name)) {
+                image.setUrl(reader.nextString());
+            } else if ("alt".equals(name)) {
+                image.setAlt(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return image;
+    }
+}
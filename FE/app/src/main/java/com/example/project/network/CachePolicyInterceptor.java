@@ -0,0 +1,50 @@
+package com.example.project.network;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Network interceptor that fills in a Cache-Control policy when the backend did not send one.
+// Validators (ETag/Last-Modified) are left untouched so OkHttp's cache can send
+// If-None-Match/If-Modified-Since and accept a bodiless 304 on revalidation.
+public class CachePolicyInterceptor implements Interceptor {
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+    // Categories and the featured list change rarely, everything else must be revalidated on each use
+    private static final String CATEGORIES_POLICY = "public, max-age=3600";
+    private static final String FEATURED_POLICY = "public, max-age=300";
+    private static final String DEFAULT_POLICY = "no-cache";
+    private static final String PRIVATE_POLICY = "no-store";
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method()) || response.header(HEADER_CACHE_CONTROL) != null) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header(HEADER_CACHE_CONTROL, policyFor(request))
+                .build();
+    }
+
+    private String policyFor(Request request) {
+        // Never keep per-user responses on disk, another account may log in on the same device
+        if (request.header("Authorization") != null) {
+            return PRIVATE_POLICY;
+        }
+        String path = request.url().encodedPath();
+        if (path.endsWith("/bikes/categories/list")) {
+            return CATEGORIES_POLICY;
+        }
+        if (path.endsWith("/bikes/featured/list")) {
+            return FEATURED_POLICY;
+        }
+        return DEFAULT_POLICY;
+    }
+}
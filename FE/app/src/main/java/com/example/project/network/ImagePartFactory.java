@@ -0,0 +1,268 @@
+package com.example.project.network;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+
+import com.example.project.utils.AppExecutors;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+// Turns picked image URIs into multipart parts off the main thread. Large or rotated photos are
+// downscaled and re-encoded to a temp JPEG; anything already small enough is streamed as-is.
+public class ImagePartFactory {
+    public static final int DEFAULT_MAX_DIMENSION = 1600;
+    public static final int DEFAULT_QUALITY = 85;
+
+    private static final MediaType JPEG = MediaType.parse("image/jpeg");
+    private static final String TEMP_DIR = "upload_images";
+    // Temp files may still be re-read by an OkHttp retry, so only sweep ones from earlier sessions
+    private static final long TEMP_MAX_AGE_MS = 60 * 60 * 1000;
+
+    private final ContentResolver contentResolver;
+    private final File tempDir;
+    private int maxDimension = DEFAULT_MAX_DIMENSION;
+    private int quality = DEFAULT_QUALITY;
+    private boolean resizeEnabled = true;
+
+    public interface Callback {
+        void onReady(List<MultipartBody.Part> parts);
+
+        void onError(String message);
+    }
+
+    public ImagePartFactory(Context context) {
+        contentResolver = context.getContentResolver();
+        tempDir = new File(context.getCacheDir(), TEMP_DIR);
+    }
+
+    public ImagePartFactory setMaxDimension(int maxDimension) {
+        this.maxDimension = maxDimension;
+        return this;
+    }
+
+    public ImagePartFactory setQuality(int quality) {
+        this.quality = Math.max(1, Math.min(100, quality));
+        return this;
+    }
+
+    // When disabled every image is streamed untouched
+    public ImagePartFactory setResizeEnabled(boolean resizeEnabled) {
+        this.resizeEnabled = resizeEnabled;
+        return this;
+    }
+
+    // Prepares one part per URI, named fileNamePrefix_1.jpg, fileNamePrefix_2.jpg, ...; callback runs on the main thread
+    public void createParts(String fieldName, String fileNamePrefix, List<Uri> uris, Callback callback) {
+        List<Uri> snapshot = new ArrayList<>(uris);
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.background().execute(() -> {
+            sweepTempFiles();
+            List<MultipartBody.Part> parts = new ArrayList<>();
+            for (int i = 0; i < snapshot.size(); i++) {
+                try {
+                    RequestBody body = createBody(snapshot.get(i));
+                    parts.add(MultipartBody.Part.createFormData(fieldName, fileNamePrefix + "_" + (i + 1) + ".jpg", body));
+                } catch (IOException | OutOfMemoryError e) {
+                    String message = "Lỗi xử lý ảnh " + (i + 1) + ": " + e.getMessage();
+                    executors.mainThread().execute(() -> callback.onError(message));
+                    return;
+                }
+            }
+            executors.mainThread().execute(() -> callback.onReady(parts));
+        });
+    }
+
+    // Blocking, call from a background thread
+    public RequestBody createBody(Uri uri) throws IOException {
+        String type = contentResolver.getType(uri);
+        MediaType mediaType = type != null ? MediaType.parse(type) : JPEG;
+        if (!resizeEnabled) {
+            return new UriRequestBody(contentResolver, uri, mediaType);
+        }
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            // Not something we can decode, let the server decide
+            return new UriRequestBody(contentResolver, uri, mediaType);
+        }
+
+        int rotation = readRotation(uri);
+        boolean fits = Math.max(bounds.outWidth, bounds.outHeight) <= maxDimension;
+        if (fits && rotation == 0 && "image/jpeg".equals(bounds.outMimeType)) {
+            return new UriRequestBody(contentResolver, uri, JPEG);
+        }
+        return RequestBody.create(reencode(uri, bounds.outWidth, bounds.outHeight, rotation), JPEG);
+    }
+
+    // Blocking, call from a background thread. Produces a local file the caller can read at any
+    // offset, e.g. for chunked uploads; images that need no resizing are copied unchanged.
+    public PreparedImage prepareFile(Uri uri) throws IOException {
+        String type = contentResolver.getType(uri);
+        MediaType mediaType = type != null ? MediaType.parse(type) : JPEG;
+        if (resizeEnabled) {
+            BitmapFactory.Options bounds = new BitmapFactory.Options();
+            bounds.inJustDecodeBounds = true;
+            try (InputStream in = open(uri)) {
+                BitmapFactory.decodeStream(in, null, bounds);
+            }
+            if (bounds.outWidth > 0 && bounds.outHeight > 0) {
+                int rotation = readRotation(uri);
+                boolean fits = Math.max(bounds.outWidth, bounds.outHeight) <= maxDimension;
+                if (!fits || rotation != 0 || !"image/jpeg".equals(bounds.outMimeType)) {
+                    return new PreparedImage(reencode(uri, bounds.outWidth, bounds.outHeight, rotation), JPEG);
+                }
+                mediaType = JPEG;
+            }
+        }
+
+        File file = createTempFile();
+        try (Source source = Okio.source(open(uri)); BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+            sink.writeAll(source);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        return new PreparedImage(file, mediaType);
+    }
+
+    public static class PreparedImage {
+        private final File file;
+        private final MediaType contentType;
+
+        PreparedImage(File file, MediaType contentType) {
+            this.file = file;
+            this.contentType = contentType;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+    }
+
+    private File createTempFile() throws IOException {
+        if (!tempDir.exists() && !tempDir.mkdirs()) {
+            throw new IOException("Không thể tạo thư mục tạm");
+        }
+        return File.createTempFile("img_", ".jpg", tempDir);
+    }
+
+    private File reencode(Uri uri, int width, int height, int rotation) throws IOException {
+        // Power-of-two subsampling during decode keeps peak memory near the target size, not the camera size
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSizeFor(width, height);
+        Bitmap decoded;
+        try (InputStream in = open(uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Không thể giải mã ảnh");
+        }
+
+        Bitmap output = decoded;
+        float scale = Math.min(1f, (float) maxDimension / Math.max(decoded.getWidth(), decoded.getHeight()));
+        if (scale < 1f || rotation != 0) {
+            Matrix matrix = new Matrix();
+            matrix.postScale(scale, scale);
+            matrix.postRotate(rotation);
+            output = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+            if (output != decoded) {
+                decoded.recycle();
+            }
+        }
+
+        File file;
+        try {
+            file = createTempFile();
+        } catch (IOException e) {
+            output.recycle();
+            throw e;
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            if (!output.compress(Bitmap.CompressFormat.JPEG, quality, out)) {
+                throw new IOException("Không thể nén ảnh");
+            }
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        } finally {
+            output.recycle();
+        }
+        return file;
+    }
+
+    private int sampleSizeFor(int width, int height) {
+        int sampleSize = 1;
+        int longest = Math.max(width, height);
+        while (longest / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private int readRotation(Uri uri) {
+        try (InputStream in = open(uri)) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private InputStream open(Uri uri) throws IOException {
+        InputStream in = contentResolver.openInputStream(uri);
+        if (in == null) {
+            throw new FileNotFoundException("Không thể đọc file ảnh");
+        }
+        return in;
+    }
+
+    void sweepTempFiles() {
+        File[] files = tempDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - TEMP_MAX_AGE_MS;
+        for (File file : files) {
+            if (file.lastModified() < cutoff) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.project.network;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.UploadStatus;
+import com.example.project.utils.AppExecutors;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import retrofit2.Call;
+import retrofit2.Response;
+
+// Uploads images one chunk at a time to uploads/images/{uploadId}, a few images in parallel.
+// A failed chunk is retried with backoff from the offset the server confirms, so a dropped
+// connection only costs the chunk in flight. Listener callbacks run on the main thread.
+public class ImageUploadManager {
+    public static final int DEFAULT_PARALLELISM = 3;
+    public static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 16000;
+    private static final int PROGRESS_STEP = 16 * 1024;
+
+    private final ApiService apiService;
+    private final ImagePartFactory imagePartFactory;
+    private final int parallelism;
+    private final Gson gson = new Gson();
+    private final Random random = new Random();
+
+    public interface Listener {
+        void onProgress(int index, long bytesSent, long totalBytes);
+
+        void onImageUploaded(int index, String imageId);
+
+        // imageIds are in the same order as the URIs passed to upload()
+        void onComplete(List<String> imageIds);
+
+        void onError(int index, String message);
+    }
+
+    public ImageUploadManager(Context context) {
+        this(context, DEFAULT_PARALLELISM);
+    }
+
+    public ImageUploadManager(Context context, int parallelism) {
+        apiService = RetrofitClient.getInstance().getApiService();
+        imagePartFactory = new ImagePartFactory(context);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public ImagePartFactory getImagePartFactory() {
+        return imagePartFactory;
+    }
+
+    public Batch upload(List<Uri> uris, Listener listener) {
+        Batch batch = new Batch(new ArrayList<>(uris), listener);
+        batch.start();
+        return batch;
+    }
+
+    public class Batch {
+        private final List<Uri> uris;
+        private final Listener listener;
+        private final String[] uploadIds;
+        private final String[] imageIds;
+        private final AtomicInteger remaining;
+        private final ExecutorService executor;
+        private volatile boolean cancelled;
+
+        Batch(List<Uri> uris, Listener listener) {
+            this.uris = uris;
+            this.listener = listener;
+            uploadIds = new String[uris.size()];
+            imageIds = new String[uris.size()];
+            remaining = new AtomicInteger(uris.size());
+            executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, uris.size())));
+        }
+
+        void start() {
+            if (uris.isEmpty()) {
+                executor.shutdown();
+                post(() -> listener.onComplete(Collections.emptyList()));
+                return;
+            }
+            executor.execute(imagePartFactory::sweepTempFiles);
+            for (int i = 0; i < uris.size(); i++) {
+                // The id is fixed per image so every retry resumes the same server-side upload
+                uploadIds[i] = UUID.randomUUID().toString();
+                int index = i;
+                executor.execute(() -> uploadImage(index));
+            }
+            executor.shutdown();
+        }
+
+        // Stops new chunks; the chunk in flight finishes and nothing more is reported
+        public void cancel() {
+            cancelled = true;
+            executor.shutdownNow();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void uploadImage(int index) {
+            if (cancelled) {
+                return;
+            }
+            File file = null;
+            try {
+                ImagePartFactory.PreparedImage image = imagePartFactory.prepareFile(uris.get(index));
+                file = image.getFile();
+                String imageId = sendChunks(index, file, image.getContentType());
+                if (imageId == null) {
+                    return;
+                }
+                imageIds[index] = imageId;
+                post(() -> listener.onImageUploaded(index, imageId));
+                if (remaining.decrementAndGet() == 0) {
+                    List<String> ids = new ArrayList<>();
+                    Collections.addAll(ids, imageIds);
+                    post(() -> listener.onComplete(ids));
+                }
+            } catch (IOException | OutOfMemoryError e) {
+                fail(index, "Lỗi tải ảnh " + (index + 1) + ": " + e.getMessage());
+            } finally {
+                if (file != null) {
+                    file.delete();
+                }
+            }
+        }
+
+        // Returns the image id once the server has every byte, or null if the batch was stopped
+        private String sendChunks(int index, File file, MediaType contentType) throws IOException {
+            long length = file.length();
+            long offset = 0;
+            int failures = 0;
+
+            while (!cancelled) {
+                try {
+                    Call<ApiResponse<UploadStatus>> call = apiService.uploadImageChunk(uploadIds[index],
+                            offset, length, new ChunkRequestBody(file, contentType, offset,
+                                    Math.min(CHUNK_SIZE, length - offset), index, length));
+                    Response<ApiResponse<UploadStatus>> response = call.execute();
+                    UploadStatus status = statusOf(response);
+
+                    if (response.isSuccessful() && status != null) {
+                        if (status.isCompleted()) {
+                            reportProgress(index, length, length);
+                            return status.getId();
+                        }
+                        offset = status.getOffset();
+                        failures = 0;
+                        continue;
+                    }
+                    if (response.code() == 409 && status != null) {
+                        // Server is at a different offset, e.g. a chunk landed but its response was lost
+                        offset = status.getOffset();
+                        continue;
+                    }
+                    if (response.code() >= 400 && response.code() < 500 && response.code() != 408 && response.code() != 429) {
+                        fail(index, "Lỗi tải ảnh " + (index + 1) + ": " + response.code());
+                        return null;
+                    }
+                } catch (IOException e) {
+                    if (cancelled) {
+                        return null;
+                    }
+                }
+
+                failures++;
+                if (failures >= MAX_ATTEMPTS) {
+                    fail(index, "Không thể tải ảnh " + (index + 1) + " sau " + MAX_ATTEMPTS + " lần thử");
+                    return null;
+                }
+                if (!sleepBackoff(failures)) {
+                    return null;
+                }
+                offset = confirmedOffset(index, offset);
+            }
+            return null;
+        }
+
+        // Ask the server where to continue; keep the local offset if it cannot tell us
+        private long confirmedOffset(int index, long fallback) {
+            try {
+                Response<ApiResponse<UploadStatus>> response =
+                        apiService.getUploadStatus(uploadIds[index]).execute();
+                if (response.code() == 404) {
+                    return 0;
+                }
+                UploadStatus status = statusOf(response);
+                return status != null ? status.getOffset() : fallback;
+            } catch (IOException e) {
+                return fallback;
+            }
+        }
+
+        private UploadStatus statusOf(Response<ApiResponse<UploadStatus>> response) {
+            if (response.body() != null) {
+                return response.body().getData();
+            }
+            // Error responses (e.g. 409) carry the status in the error body
+            try (okhttp3.ResponseBody errorBody = response.errorBody()) {
+                if (errorBody == null) {
+                    return null;
+                }
+                ErrorEnvelope envelope = gson.fromJson(errorBody.charStream(), ErrorEnvelope.class);
+                return envelope != null ? envelope.data : null;
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        // Exponential backoff with full jitter so parallel uploads do not retry in lockstep
+        private boolean sleepBackoff(int failures) {
+            long cap = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (failures - 1));
+            long delay = (long) (random.nextDouble() * cap);
+            try {
+                Thread.sleep(delay);
+                return !cancelled;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void fail(int index, String message) {
+            if (cancelled) {
+                return;
+            }
+            // One image failing for good fails the listing; stop the others instead of wasting data
+            cancelled = true;
+            executor.shutdownNow();
+            post(() -> listener.onError(index, message));
+        }
+
+        private void reportProgress(int index, long sent, long total) {
+            if (!cancelled) {
+                post(() -> listener.onProgress(index, sent, total));
+            }
+        }
+
+        private void post(Runnable runnable) {
+            AppExecutors.getInstance().mainThread().execute(runnable);
+        }
+
+        // Streams one slice of the prepared file and reports bytes as they are written
+        private class ChunkRequestBody extends RequestBody {
+            private final File file;
+            private final MediaType contentType;
+            private final long start;
+            private final long count;
+            private final int index;
+            private final long totalBytes;
+
+            ChunkRequestBody(File file, MediaType contentType, long start, long count, int index, long totalBytes) {
+                this.file = file;
+                this.contentType = contentType;
+                this.start = start;
+                this.count = count;
+                this.index = index;
+                this.totalBytes = totalBytes;
+            }
+
+            @Override
+            public MediaType contentType() {
+                return contentType;
+            }
+
+            @Override
+            public long contentLength() {
+                return count;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                byte[] buffer = new byte[8 * 1024];
+                long written = 0;
+                long lastReported = 0;
+                try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                    in.seek(start);
+                    while (written < count) {
+                        int read = in.read(buffer, 0, (int) Math.min(buffer.length, count - written));
+                        if (read == -1) {
+                            throw new IOException("File ảnh bị thay đổi khi đang tải");
+                        }
+                        sink.write(buffer, 0, read);
+                        written += read;
+                        if (written - lastReported >= PROGRESS_STEP || written == count) {
+                            lastReported = written;
+                            reportProgress(index, start + written, totalBytes);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static class ErrorEnvelope {
+        UploadStatus data;
+    }
+}
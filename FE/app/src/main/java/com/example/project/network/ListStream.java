@@ -0,0 +1,116 @@
+package com.example.project.network;
+
+import com.example.project.models.ApiResponse;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// A list response ({success, data: [...], pagination}) read straight off the socket. Rows are
+// decoded a chunk at a time with next(), so the first ones can be shown before the rest arrive.
+// Fields after the array (pagination) are only known once isFinished() is true. Not thread-safe;
+// read it on a background thread and always close it.
+public class ListStream<T> implements Closeable {
+    private final Closeable source;
+    private final JsonReader reader;
+    private final RowReader<T> rowReader;
+    private final Gson gson;
+
+    private boolean success;
+    private String message;
+    private ApiResponse.Pagination pagination;
+    private boolean inRows;
+    private boolean finished;
+
+    ListStream(Reader in, Closeable source, RowReader<T> rowReader, Gson gson) throws IOException {
+        this.source = source;
+        this.reader = new JsonReader(in);
+        this.rowReader = rowReader;
+        this.gson = gson;
+        try {
+            reader.beginObject();
+            readFields();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // Up to max more rows; empty once the array has been read to the end
+    public List<T> next(int max) throws IOException {
+        List<T> rows = new ArrayList<>(Math.min(max, 64));
+        if (!inRows) {
+            return rows;
+        }
+        while (rows.size() < max && reader.hasNext()) {
+            rows.add(rowReader.read(reader));
+        }
+        if (!reader.hasNext()) {
+            reader.endArray();
+            inRows = false;
+            readFields();
+        }
+        return rows;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ApiResponse.Pagination getPagination() {
+        return pagination;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    // Envelope fields up to the row array, or to the end of the object if there is none
+    private void readFields() throws IOException {
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "success":
+                    success = reader.nextBoolean();
+                    break;
+                case "message":
+                    message = reader.nextString();
+                    break;
+                case "pagination":
+                    pagination = gson.getAdapter(ApiResponse.Pagination.class).read(reader);
+                    break;
+                case "data":
+                case "users":
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        reader.beginArray();
+                        inRows = true;
+                        return;
+                    }
+                    reader.skipValue();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        finished = true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.project.network;
+
+import com.example.project.models.BikeSummary;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+// Lets service methods return Call<ListStream<T>>. The body is handed over unread and stays open
+// until the ListStream is closed. Bike summaries use BikeSummaryRowReader; any other row type is
+// decoded with Gson one element at a time.
+public class ListStreamConverterFactory extends Converter.Factory {
+    private final Gson gson;
+
+    private ListStreamConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    public static ListStreamConverterFactory create() {
+        return new ListStreamConverterFactory(new Gson());
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (getRawType(type) != ListStream.class) {
+            return null;
+        }
+        if (!(type instanceof ParameterizedType)) {
+            throw new IllegalArgumentException("ListStream must be parameterized, e.g. ListStream<BikeSummary>");
+        }
+        RowReader<?> rowReader = rowReader(getParameterUpperBound(0, (ParameterizedType) type));
+        return body -> new ListStream<>(body.charStream(), body, rowReader, gson);
+    }
+
+    private RowReader<?> rowReader(Type rowType) {
+        if (rowType == BikeSummary.class) {
+            return new BikeSummaryRowReader();
+        }
+        TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(rowType));
+        return adapter::read;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.project.network;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// In-memory store of sampled network timings. Writers never block: each finished call claims the
+// next slot of a fixed-size ring with a single atomic increment and overwrites the oldest sample.
+public class NetworkTelemetry {
+    private static final String TAG = "NetworkTelemetry";
+    private static final int CAPACITY = 512; // must be a power of two
+
+    private static final NetworkTelemetry instance = new NetworkTelemetry();
+
+    private final AtomicReferenceArray<Sample> ring = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile double sampleRate;
+
+    public static class Sample {
+        public final String endpoint;
+        public final int statusCode; // -1 when the call failed before a response arrived
+        public final String error;
+        public final boolean cacheHit;
+        public final long dnsMs;
+        public final long connectMs;
+        public final long ttfbMs;
+        public final long bodyMs;
+        public final long totalMs;
+        public final long requestBytes;
+        public final long responseBytes;
+
+        Sample(String endpoint, int statusCode, String error, boolean cacheHit, long dnsMs, long connectMs,
+               long ttfbMs, long bodyMs, long totalMs, long requestBytes, long responseBytes) {
+            this.endpoint = endpoint;
+            this.statusCode = statusCode;
+            this.error = error;
+            this.cacheHit = cacheHit;
+            this.dnsMs = dnsMs;
+            this.connectMs = connectMs;
+            this.ttfbMs = ttfbMs;
+            this.bodyMs = bodyMs;
+            this.totalMs = totalMs;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+    }
+
+    private NetworkTelemetry() {}
+
+    public static NetworkTelemetry getInstance() {
+        return instance;
+    }
+
+    // 0 disables recording entirely, 1 records every call
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    boolean shouldSample() {
+        double rate = sampleRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    void record(Sample sample) {
+        int slot = (int) (sequence.getAndIncrement() & (CAPACITY - 1));
+        ring.set(slot, sample);
+    }
+
+    public List<Sample> snapshot() {
+        List<Sample> samples = new ArrayList<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            Sample sample = ring.get(i);
+            if (sample != null) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    public void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            ring.set(i, null);
+        }
+    }
+
+    // Human readable per-endpoint summary: call count, p50/p90/p99 per phase, bytes and error codes
+    public String dump() {
+        Map<String, List<Sample>> byEndpoint = new LinkedHashMap<>();
+        for (Sample sample : snapshot()) {
+            List<Sample> list = byEndpoint.get(sample.endpoint);
+            if (list == null) {
+                list = new ArrayList<>();
+                byEndpoint.put(sample.endpoint, list);
+            }
+            list.add(sample);
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("Network telemetry: ").append(sequence.get()).append(" calls recorded, sample rate ")
+                .append(sampleRate).append('\n');
+        for (Map.Entry<String, List<Sample>> entry : byEndpoint.entrySet()) {
+            List<Sample> samples = entry.getValue();
+            int n = samples.size();
+            long[] dns = new long[n], connect = new long[n], ttfb = new long[n], body = new long[n], total = new long[n];
+            long requestBytes = 0, responseBytes = 0;
+            int cacheHits = 0;
+            Map<String, Integer> errors = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                Sample s = samples.get(i);
+                dns[i] = s.dnsMs;
+                connect[i] = s.connectMs;
+                ttfb[i] = s.ttfbMs;
+                body[i] = s.bodyMs;
+                total[i] = s.totalMs;
+                requestBytes += s.requestBytes;
+                responseBytes += s.responseBytes;
+                if (s.cacheHit) {
+                    cacheHits++;
+                }
+                String errorKey = s.error != null ? s.error : (s.statusCode >= 400 ? String.valueOf(s.statusCode) : null);
+                if (errorKey != null) {
+                    Integer count = errors.get(errorKey);
+                    errors.put(errorKey, count == null ? 1 : count + 1);
+                }
+            }
+            out.append(entry.getKey()).append("  n=").append(n).append(" cacheHits=").append(cacheHits).append('\n');
+            appendPercentiles(out, "dns", dns);
+            appendPercentiles(out, "connect", connect);
+            appendPercentiles(out, "ttfb", ttfb);
+            appendPercentiles(out, "body", body);
+            appendPercentiles(out, "total", total);
+            out.append(String.format(Locale.US, "  bytes avg req=%d resp=%d%n", requestBytes / n, responseBytes / n));
+            if (!errors.isEmpty()) {
+                out.append("  errors ").append(errors).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    public void dumpToLog() {
+        for (String line : dump().split("\n")) {
+            Log.i(TAG, line);
+        }
+    }
+
+    private static void appendPercentiles(StringBuilder out, String label, long[] values) {
+        Arrays.sort(values);
+        out.append(String.format(Locale.US, "  %-8s p50=%dms p90=%dms p99=%dms%n", label,
+                percentile(values, 0.50), percentile(values, 0.90), percentile(values, 0.99)));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.project.network;
+
+import java.io.IOException;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Application interceptor that falls back to any cached copy of a public GET when the network is unreachable
+public class OfflineCacheInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            if (!"GET".equals(request.method()) || request.header("Authorization") != null) {
+                throw e;
+            }
+            Request cachedRequest = request.newBuilder()
+                    .cacheControl(CacheControl.FORCE_CACHE)
+                    .build();
+            Response cached = chain.proceed(cachedRequest);
+            // FORCE_CACHE answers 504 when nothing is stored, surface the original failure instead
+            if (cached.code() == 504) {
+                cached.close();
+                throw e;
+            }
+            return cached;
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package com.example.project.network;
 
+import android.content.Context;
+
+import com.example.project.BuildConfig;
+import com.example.project.utils.AuthManager;
+
+import java.io.File;
+
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -7,30 +15,62 @@ import retrofit2.converter.gson.GsonConverterFactory;
 
 public class RetrofitClient {
     private static final String BASE_URL = "http://10.0.2.2:5001/api/"; // Use 10.0.2.2 for Android emulator to access localhost
+    private static final long HTTP_CACHE_SIZE = 20L * 1024 * 1024;
     private static RetrofitClient instance;
+    private static File cacheDirectory;
+    private static Context appContext;
     private ApiService apiService;
     private Retrofit retrofit;
+    private OkHttpClient okHttpClient;
+    private HttpLoggingInterceptor loggingInterceptor;
 
     private RetrofitClient() {
-        // Create logging interceptor
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-
         // Create OkHttp client
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
-                .build();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        if (appContext != null) {
+            // Signs requests before the offline fallback, which must not serve per-user responses
+            AuthManager authManager = AuthManager.getInstance(appContext);
+            builder.addInterceptor(new AuthInterceptor(authManager))
+                    .authenticator(new TokenAuthenticator(authManager));
+        }
+        builder.addInterceptor(new OfflineCacheInterceptor())
+                .addNetworkInterceptor(new CachePolicyInterceptor())
+                .eventListenerFactory(TelemetryEventListener.FACTORY);
+
+        // Logging only exists in debug builds; it starts at BASIC because BODY buffers whole payloads
+        if (BuildConfig.DEBUG) {
+            loggingInterceptor = new HttpLoggingInterceptor();
+            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BASIC);
+            builder.addInterceptor(loggingInterceptor);
+        }
+        if (cacheDirectory != null) {
+            builder.cache(new Cache(cacheDirectory, HTTP_CACHE_SIZE));
+        }
+        okHttpClient = builder.build();
 
         // Create Retrofit instance
         retrofit = new Retrofit.Builder()
                 .baseUrl(BASE_URL)
                 .client(okHttpClient)
+                // Before Gson, which would otherwise claim every type
+                .addConverterFactory(ListStreamConverterFactory.create())
                 .addConverterFactory(GsonConverterFactory.create())
                 .build();
 
         apiService = retrofit.create(ApiService.class);
     }
 
+    // Must be called before the first getInstance() for responses to be cached on disk and for
+    // authenticated endpoints to be signed
+    public static synchronized void init(Context context) {
+        if (appContext == null) {
+            appContext = context.getApplicationContext();
+        }
+        if (cacheDirectory == null) {
+            cacheDirectory = new File(context.getApplicationContext().getCacheDir(), "http_cache");
+        }
+    }
+
     public static synchronized RetrofitClient getInstance() {
         if (instance == null) {
             instance = new RetrofitClient();
@@ -38,6 +78,13 @@ public class RetrofitClient {
         return instance;
     }
 
+    // No-op in release builds
+    public void setBodyLoggingEnabled(boolean enabled) {
+        if (loggingInterceptor != null) {
+            loggingInterceptor.setLevel(enabled ? HttpLoggingInterceptor.Level.BODY : HttpLoggingInterceptor.Level.BASIC);
+        }
+    }
+
     public ApiService getApiService() {
         return apiService;
     }
@@ -45,5 +92,10 @@ public class RetrofitClient {
     public Retrofit getRetrofit() {
         return retrofit;
     }
-}
 
+    // For other transports to derive from with newBuilder(), sharing the connection pool and the
+    // token refresh
+    public OkHttpClient getHttpClient() {
+        return okHttpClient;
+    }
+}
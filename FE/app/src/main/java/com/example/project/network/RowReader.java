@@ -0,0 +1,11 @@
+package com.example.project.network;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+// Decodes one element of a list response; the reader is positioned at the start of the element
+// and must be left just past it
+public interface RowReader<T> {
+    T read(JsonReader reader) throws IOException;
+}
@@ -0,0 +1,140 @@
+package com.example.project.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Per-call OkHttp listener that measures DNS, connect, time to first byte and body phases.
+// Calls that are not sampled get EventListener.NONE, so disabled telemetry adds no work.
+public class TelemetryEventListener extends EventListener {
+    private static final Pattern OBJECT_ID = Pattern.compile("/[0-9a-fA-F]{24}(?=/|$)");
+    private static final Pattern NUMBER = Pattern.compile("/\\d+(?=/|$)");
+
+    public static final EventListener.Factory FACTORY = call ->
+            NetworkTelemetry.getInstance().shouldSample() ? new TelemetryEventListener() : EventListener.NONE;
+
+    private long callStart;
+    private long dnsStart;
+    private long dnsTotal;
+    private long connectStart;
+    private long connectTotal;
+    private long requestEnd;
+    private long ttfb;
+    private long bodyStart;
+    private long bodyTotal;
+    private long requestBytes;
+    private long responseBytes;
+    private int statusCode = -1;
+    private boolean cacheHit;
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsTotal += System.nanoTime() - dnsStart;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                           Protocol protocol) {
+        connectTotal += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              Protocol protocol, IOException ioe) {
+        connectTotal += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+        requestBytes += byteCount;
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestEnd > 0) {
+            ttfb += System.nanoTime() - requestEnd;
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        statusCode = response.code();
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        bodyTotal += System.nanoTime() - bodyStart;
+        responseBytes += byteCount;
+    }
+
+    @Override
+    public void cacheHit(Call call, Response cachedResponse) {
+        cacheHit = true;
+        statusCode = cachedResponse.code();
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        record(call, null);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        record(call, ioe.getClass().getSimpleName());
+    }
+
+    private void record(Call call, String error) {
+        long total = System.nanoTime() - callStart;
+        NetworkTelemetry.getInstance().record(new NetworkTelemetry.Sample(
+                endpointOf(call), statusCode, error, cacheHit,
+                toMillis(dnsTotal), toMillis(connectTotal), toMillis(ttfb), toMillis(bodyTotal), toMillis(total),
+                requestBytes, responseBytes));
+    }
+
+    // Collapse ids so "GET /api/bikes/<id>" aggregates into a single histogram
+    static String endpointOf(Call call) {
+        String path = call.request().url().encodedPath();
+        path = OBJECT_ID.matcher(path).replaceAll("/{id}");
+        path = NUMBER.matcher(path).replaceAll("/{n}");
+        return call.request().method() + " " + path;
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+}
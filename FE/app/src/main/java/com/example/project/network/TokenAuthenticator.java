@@ -0,0 +1,95 @@
+package com.example.project.network;
+
+import android.util.Log;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.RefreshTokenRequest;
+import com.example.project.models.User;
+import com.example.project.utils.AuthManager;
+import com.example.project.utils.Session;
+
+import java.io.IOException;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+// Answers a 401 on a request that carried the user's token by refreshing the token and replaying the
+// request. Refreshing is single-flight: requests refused while a refresh runs wait for it and replay
+// with its token, so a burst of calls after expiry costs one refresh instead of one per call. Runs on
+// OkHttp's threads.
+public class TokenAuthenticator implements Authenticator {
+    private static final String TAG = "TokenAuthenticator";
+    static final String HEADER_AUTHORIZATION = "Authorization";
+
+    private final AuthManager authManager;
+    private final Object refreshLock = new Object();
+
+    public TokenAuthenticator(AuthManager authManager) {
+        this.authManager = authManager;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) throws IOException {
+        String failedHeader = response.request().header(HEADER_AUTHORIZATION);
+        // Login, register and refresh itself answer 401 for bad credentials; there is nothing to renew
+        if (failedHeader == null) {
+            return null;
+        }
+        // The replay with a fresh token was refused as well
+        if (response.priorResponse() != null && response.priorResponse().code() == 401) {
+            return null;
+        }
+        synchronized (refreshLock) {
+            Session session = authManager.getSession();
+            if (!session.isLoggedIn()) {
+                return null;
+            }
+            if (!failedHeader.equals(session.getAuthHeader())) {
+                // Refreshed (or logged in again) while this request was in flight or waiting here
+                return withAuth(response.request(), session.getAuthHeader());
+            }
+            String authHeader = refresh(session);
+            return authHeader != null ? withAuth(response.request(), authHeader) : null;
+        }
+    }
+
+    // The new Authorization header, or null if the session could not be renewed
+    private String refresh(Session session) {
+        if (session.getRefreshToken() == null) {
+            authManager.expireSession(session.getToken());
+            return null;
+        }
+        retrofit2.Response<ApiResponse<User>> response;
+        try {
+            response = RetrofitClient.getInstance().getApiService()
+                    .refreshToken(new RefreshTokenRequest(session.getRefreshToken()))
+                    .execute();
+        } catch (IOException e) {
+            // Offline or server down: keep the session, the caller sees the original 401
+            Log.w(TAG, "Token refresh failed", e);
+            return null;
+        }
+        ApiResponse<User> body = response.body();
+        if (response.isSuccessful() && body != null && body.isSuccess() && body.getToken() != null) {
+            authManager.saveAuthData(body.getToken(),
+                    body.getRefreshToken() != null ? body.getRefreshToken() : session.getRefreshToken(),
+                    body.getUser() != null ? body.getUser() : session.getUser());
+            return authManager.getAuthHeader();
+        }
+        if (response.code() == 401) {
+            // Refresh token expired or revoked; session listeners take the user back to login
+            authManager.expireSession(session.getToken());
+        } else {
+            Log.w(TAG, "Token refresh failed: HTTP " + response.code());
+        }
+        return null;
+    }
+
+    private static Request withAuth(Request request, String authHeader) {
+        return request.newBuilder()
+                .header(HEADER_AUTHORIZATION, authHeader)
+                .build();
+    }
+}
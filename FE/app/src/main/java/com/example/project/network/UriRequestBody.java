@@ -0,0 +1,71 @@
+package com.example.project.network;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+// Streams a content URI straight into the request in small segments, so no image is ever held in memory.
+// The URI is reopened on every write, which keeps the body repeatable for OkHttp retries.
+public class UriRequestBody extends RequestBody {
+    private final ContentResolver contentResolver;
+    private final Uri uri;
+    private final MediaType contentType;
+    private long contentLength = -2;
+
+    public UriRequestBody(ContentResolver contentResolver, Uri uri, MediaType contentType) {
+        this.contentResolver = contentResolver;
+        this.uri = uri;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    // -1 (chunked) when the provider cannot tell us the size up front
+    @Override
+    public long contentLength() {
+        if (contentLength == -2) {
+            contentLength = queryLength();
+        }
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        InputStream inputStream = contentResolver.openInputStream(uri);
+        if (inputStream == null) {
+            throw new FileNotFoundException("Không thể đọc file ảnh: " + uri);
+        }
+        try (Source source = Okio.source(inputStream)) {
+            sink.writeAll(source);
+        }
+    }
+
+    private long queryLength() {
+        try (AssetFileDescriptor descriptor = contentResolver.openAssetFileDescriptor(uri, "r")) {
+            if (descriptor != null) {
+                long length = descriptor.getLength();
+                if (length == AssetFileDescriptor.UNKNOWN_LENGTH) {
+                    // Descriptor covers the whole file, ask the file itself
+                    length = descriptor.getParcelFileDescriptor().getStatSize();
+                }
+                return length >= 0 ? length : -1;
+            }
+        } catch (IOException | SecurityException e) {
+            // Fall through to chunked encoding
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.project.orders;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.project.models.Order;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Local copy of the server's order history for one account, so the history screen opens from disk.
+// Two positions are kept: the paging frontier (the oldest order fetched so far, older pages are
+// fetched from there on demand) and the sync cursor (the latest (updatedAt, id) seen, changes are
+// fetched from there). Blocking; use from AppExecutors.diskIO().
+class OrderCache extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "order_history.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_ORDERS = "orders";
+    private static final String TABLE_META = "meta";
+    private static final String META_OWNER = "owner";
+    private static final String META_FRONTIER_CREATED_AT = "frontier_created_at";
+    private static final String META_FRONTIER_ID = "frontier_id";
+    private static final String META_REACHED_END = "reached_end";
+    private static final String META_SYNC_UPDATED_AT = "sync_updated_at";
+    private static final String META_SYNC_ID = "sync_id";
+
+    private static OrderCache instance;
+
+    private final Gson gson = new Gson();
+
+    // Where paging and syncing continue from
+    static class State {
+        final Long frontierCreatedAt;
+        final String frontierId;
+        final boolean reachedEnd;
+        final Long syncUpdatedAt;
+        final String syncId;
+
+        State(Long frontierCreatedAt, String frontierId, boolean reachedEnd, Long syncUpdatedAt, String syncId) {
+            this.frontierCreatedAt = frontierCreatedAt;
+            this.frontierId = frontierId;
+            this.reachedEnd = reachedEnd;
+            this.syncUpdatedAt = syncUpdatedAt;
+            this.syncId = syncId;
+        }
+
+        // Nothing fetched yet; the first page also sets the sync cursor
+        boolean isEmpty() {
+            return frontierCreatedAt == null && !reachedEnd;
+        }
+    }
+
+    private OrderCache(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    static synchronized OrderCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new OrderCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ORDERS + " ("
+                + "id TEXT PRIMARY KEY, "
+                + "created_at INTEGER NOT NULL, "
+                + "updated_at INTEGER NOT NULL, "
+                + "body TEXT NOT NULL)");
+        db.execSQL("CREATE INDEX idx_orders_created ON " + TABLE_ORDERS + " (created_at, id)");
+        db.execSQL("CREATE TABLE " + TABLE_META + " (key TEXT PRIMARY KEY, value TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Only a cache; the next visit fetches it again
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ORDERS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_META);
+        onCreate(db);
+    }
+
+    // Wipes everything when a different account signs in on this device
+    void ensureOwner(String userId) {
+        SQLiteDatabase db = getWritableDatabase();
+        if (userId.equals(readMeta(db, META_OWNER))) {
+            return;
+        }
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_ORDERS, null, null);
+            db.delete(TABLE_META, null, null);
+            writeMeta(db, META_OWNER, userId);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    State getState() {
+        SQLiteDatabase db = getReadableDatabase();
+        String frontierCreatedAt = readMeta(db, META_FRONTIER_CREATED_AT);
+        String syncUpdatedAt = readMeta(db, META_SYNC_UPDATED_AT);
+        return new State(
+                frontierCreatedAt != null ? Long.valueOf(frontierCreatedAt) : null,
+                readMeta(db, META_FRONTIER_ID),
+                "1".equals(readMeta(db, META_REACHED_END)),
+                syncUpdatedAt != null ? Long.valueOf(syncUpdatedAt) : null,
+                readMeta(db, META_SYNC_ID));
+    }
+
+    // The newest `limit` cached orders
+    List<Order> list(int limit) {
+        List<Order> orders = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery("SELECT body FROM " + TABLE_ORDERS
+                + " ORDER BY created_at DESC, id DESC LIMIT " + limit, null)) {
+            while (cursor.moveToNext()) {
+                orders.add(gson.fromJson(cursor.getString(0), Order.class));
+            }
+        }
+        return orders;
+    }
+
+    int count() {
+        try (Cursor cursor = getReadableDatabase().rawQuery("SELECT COUNT(*) FROM " + TABLE_ORDERS, null)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    // Stores one page of GET /orders and moves the frontier to its last order. Ignored if another
+    // account signed in while the page was in flight.
+    void applyPage(String owner, List<Order> page, boolean hasMore) {
+        SQLiteDatabase db = getWritableDatabase();
+        if (!owner.equals(readMeta(db, META_OWNER))) {
+            return;
+        }
+        boolean first = readMeta(db, META_FRONTIER_CREATED_AT) == null;
+        db.beginTransaction();
+        try {
+            Order latest = null;
+            for (Order order : page) {
+                upsert(db, order);
+                if (latest == null || isAfter(order.getUpdatedAt(), order.getId(), latest.getUpdatedAt(), latest.getId())) {
+                    latest = order;
+                }
+            }
+            if (!page.isEmpty()) {
+                Order oldest = page.get(page.size() - 1);
+                writeMeta(db, META_FRONTIER_CREATED_AT, String.valueOf(oldest.getCreatedAt()));
+                writeMeta(db, META_FRONTIER_ID, oldest.getId());
+            }
+            writeMeta(db, META_REACHED_END, hasMore ? "0" : "1");
+            if (first && readMeta(db, META_SYNC_UPDATED_AT) == null) {
+                // Anything changing after this fetch has a later updatedAt, so syncing can start here
+                writeMeta(db, META_SYNC_UPDATED_AT, String.valueOf(latest != null ? latest.getUpdatedAt() : 0));
+                writeMeta(db, META_SYNC_ID, latest != null ? latest.getId() : null);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Stores one batch of GET /orders/changes (oldest change first) and advances the sync cursor.
+    // Orders older than the frontier are skipped: paging reaches them later with their current state,
+    // and storing them now would show them below a gap. Returns true if anything visible changed.
+    boolean applyChanges(String owner, List<Order> changes) {
+        SQLiteDatabase db = getWritableDatabase();
+        if (!owner.equals(readMeta(db, META_OWNER)) || changes.isEmpty()) {
+            return false;
+        }
+        State state = getState();
+        boolean changed = false;
+        db.beginTransaction();
+        try {
+            for (Order order : changes) {
+                boolean reached = state.reachedEnd || state.frontierCreatedAt == null
+                        || !isAfter(state.frontierCreatedAt, state.frontierId, order.getCreatedAt(), order.getId());
+                if (reached) {
+                    changed |= upsert(db, order);
+                }
+            }
+            Order last = changes.get(changes.size() - 1);
+            writeMeta(db, META_SYNC_UPDATED_AT, String.valueOf(last.getUpdatedAt()));
+            writeMeta(db, META_SYNC_ID, last.getId());
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return changed;
+    }
+
+    // Keeps whichever copy was updated last, so a late page cannot overwrite a newer synced change
+    private boolean upsert(SQLiteDatabase db, Order order) {
+        if (order == null || order.getId() == null) {
+            return false;
+        }
+        ContentValues values = new ContentValues();
+        values.put("created_at", order.getCreatedAt());
+        values.put("updated_at", order.getUpdatedAt());
+        values.put("body", gson.toJson(order));
+        int updated = db.update(TABLE_ORDERS, values, "id = ? AND updated_at <= ?",
+                new String[]{order.getId(), String.valueOf(order.getUpdatedAt())});
+        if (updated > 0) {
+            return true;
+        }
+        values.put("id", order.getId());
+        return db.insertWithOnConflict(TABLE_ORDERS, null, values, SQLiteDatabase.CONFLICT_IGNORE) != -1;
+    }
+
+    // (time, id) ordering, matching the server's sort with its _id tie-break
+    private static boolean isAfter(long time, String id, long otherTime, String otherId) {
+        if (time != otherTime) {
+            return time > otherTime;
+        }
+        return otherId == null || (id != null && id.compareTo(otherId) > 0);
+    }
+
+    private static String readMeta(SQLiteDatabase db, String key) {
+        try (Cursor cursor = db.rawQuery("SELECT value FROM " + TABLE_META + " WHERE key = ?", new String[]{key})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private static void writeMeta(SQLiteDatabase db, String key, String value) {
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        db.insertWithOnConflict(TABLE_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.project.orders;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.Order;
+import com.example.project.models.OrderPage;
+import com.example.project.models.User;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+import com.example.project.utils.AppExecutors;
+import com.example.project.utils.AuthManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+// The logged-in user's order history for one screen. start() shows the cached orders straight away,
+// then fetches only what changed since the last visit; older orders are read from the cache and,
+// past its end, fetched a page at a time as the user scrolls. Main thread only.
+public class OrderHistory {
+    private static final String TAG = "OrderHistory";
+    public static final int PAGE_SIZE = 20;
+    private static final int CHANGES_BATCH_SIZE = 100;
+    // A long absence is caught up over a few visits instead of in one burst
+    private static final int MAX_CHANGE_BATCHES = 10;
+    // Start loading when the viewport is this many rows from the end of the list
+    private static final int PREFETCH_DISTANCE = 5;
+
+    public interface Callback {
+        // newestFirst is a fresh copy; hasMore is true while older orders exist in the cache or on the server
+        void onOrdersLoaded(List<Order> newestFirst, boolean hasMore);
+
+        void onLoadFailed(String message);
+    }
+
+    private final Context context;
+    private final OrderCache cache;
+    private final ApiService apiService;
+    private final Executor diskIO;
+    private final Executor mainThread;
+    private final Callback callback;
+
+    private String owner;
+    private int shownLimit = PAGE_SIZE;
+    private int shownCount;
+    private boolean hasMore;
+    private boolean syncing;
+    private boolean pageLoading;
+    // Results for an earlier start() are dropped
+    private int generation;
+
+    public OrderHistory(Context context, Callback callback) {
+        this.context = context.getApplicationContext();
+        this.cache = OrderCache.getInstance(this.context);
+        this.apiService = RetrofitClient.getInstance().getApiService();
+        AppExecutors executors = AppExecutors.getInstance();
+        this.diskIO = executors.diskIO();
+        this.mainThread = executors.mainThread();
+        this.callback = callback;
+    }
+
+    // Call from onStart
+    public void start() {
+        generation++;
+        syncing = false;
+        pageLoading = false;
+        User user = AuthManager.getInstance(context).getCurrentUser();
+        owner = user != null ? user.getId() : null;
+        if (owner == null) {
+            callback.onOrdersLoaded(new ArrayList<>(), false);
+            return;
+        }
+        String userId = owner;
+        diskIO.execute(() -> cache.ensureOwner(userId));
+        publish();
+        refresh();
+    }
+
+    public void stop() {
+        generation++;
+    }
+
+    // Fetches what changed since the last sync, e.g. after an order from this device was placed
+    public void refresh() {
+        if (owner == null || syncing) {
+            return;
+        }
+        syncing = true;
+        int token = generation;
+        diskIO.execute(() -> {
+            OrderCache.State state = cache.getState();
+            mainThread.execute(() -> {
+                if (token != generation) {
+                    return;
+                }
+                if (state.isEmpty()) {
+                    fetchPage(null, null, true);
+                } else {
+                    fetchChanges(state.syncUpdatedAt != null ? state.syncUpdatedAt : 0, state.syncId, 0);
+                }
+            });
+        });
+    }
+
+    // Feed from the list's scroll listener with the last visible adapter position
+    public void onScrolled(int lastVisible) {
+        // An empty list is still waiting for its first page from refresh()
+        if (hasMore && !pageLoading && shownCount > 0 && lastVisible >= shownCount - 1 - PREFETCH_DISTANCE) {
+            loadMore();
+        }
+    }
+
+    private void loadMore() {
+        if (owner == null) {
+            return;
+        }
+        pageLoading = true;
+        shownLimit = Math.max(shownLimit, shownCount) + PAGE_SIZE;
+        int token = generation;
+        int wanted = shownLimit;
+        diskIO.execute(() -> {
+            int cached = cache.count();
+            OrderCache.State state = cache.getState();
+            mainThread.execute(() -> {
+                if (token != generation) {
+                    return;
+                }
+                if (cached >= wanted || state.reachedEnd) {
+                    // The next page is already on disk
+                    pageLoading = false;
+                    publish();
+                } else {
+                    fetchPage(state.frontierCreatedAt, state.frontierId, false);
+                }
+            });
+        });
+    }
+
+    // first: the initial page of an empty cache, fetched as part of refresh()
+    private void fetchPage(Long before, String beforeId, boolean first) {
+        int token = generation;
+        String userId = owner;
+        apiService.getOrders(before, beforeId, PAGE_SIZE)
+                .enqueue(new retrofit2.Callback<ApiResponse<OrderPage>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<OrderPage>> call, Response<ApiResponse<OrderPage>> response) {
+                        OrderPage page = body(response);
+                        if (page == null) {
+                            onFailure(call, new IllegalStateException("HTTP " + response.code()));
+                            return;
+                        }
+                        diskIO.execute(() -> {
+                            cache.applyPage(userId, page.getOrders(), page.hasMore());
+                            mainThread.execute(() -> {
+                                if (token != generation) {
+                                    return;
+                                }
+                                finishLoad(first);
+                                publish();
+                            });
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<OrderPage>> call, Throwable t) {
+                        failed(token, first, t);
+                    }
+                });
+    }
+
+    private void fetchChanges(long since, String afterId, int batches) {
+        int token = generation;
+        String userId = owner;
+        apiService.getOrderChanges(since, afterId, CHANGES_BATCH_SIZE)
+                .enqueue(new retrofit2.Callback<ApiResponse<OrderPage>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<OrderPage>> call, Response<ApiResponse<OrderPage>> response) {
+                        OrderPage page = body(response);
+                        if (page == null) {
+                            onFailure(call, new IllegalStateException("HTTP " + response.code()));
+                            return;
+                        }
+                        List<Order> changes = page.getOrders();
+                        diskIO.execute(() -> {
+                            boolean changed = cache.applyChanges(userId, changes);
+                            mainThread.execute(() -> {
+                                if (token != generation) {
+                                    return;
+                                }
+                                if (changed) {
+                                    publish();
+                                }
+                                if (page.hasMore() && !changes.isEmpty() && batches + 1 < MAX_CHANGE_BATCHES) {
+                                    Order last = changes.get(changes.size() - 1);
+                                    fetchChanges(last.getUpdatedAt(), last.getId(), batches + 1);
+                                } else {
+                                    syncing = false;
+                                }
+                            });
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<OrderPage>> call, Throwable t) {
+                        failed(token, true, t);
+                    }
+                });
+    }
+
+    private void finishLoad(boolean sync) {
+        if (sync) {
+            syncing = false;
+        } else {
+            pageLoading = false;
+        }
+    }
+
+    private void failed(int token, boolean sync, Throwable t) {
+        Log.w(TAG, "Order history not loaded", t);
+        if (token != generation) {
+            return;
+        }
+        finishLoad(sync);
+        // The cached orders stay on screen
+        callback.onLoadFailed("Không thể tải lịch sử đơn hàng");
+    }
+
+    private void publish() {
+        int token = generation;
+        int limit = shownLimit;
+        diskIO.execute(() -> {
+            List<Order> orders = cache.list(limit + 1);
+            boolean reachedEnd = cache.getState().reachedEnd;
+            mainThread.execute(() -> {
+                if (token != generation) {
+                    return;
+                }
+                hasMore = orders.size() > limit || !reachedEnd;
+                List<Order> shown = new ArrayList<>(orders.subList(0, Math.min(limit, orders.size())));
+                shownCount = shown.size();
+                callback.onOrdersLoaded(shown, hasMore);
+            });
+        });
+    }
+
+    private static OrderPage body(Response<ApiResponse<OrderPage>> response) {
+        ApiResponse<OrderPage> body = response.body();
+        return response.isSuccessful() && body != null && body.isSuccess() ? body.getData() : null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.project.orders;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Orders confirmed on this device. A row is written before the first request goes out and keeps
+// its idempotency key for life, so a retry after a crash or a lost response can only ever reach
+// the order the server may already have. Blocking; use from AppExecutors.diskIO().
+class OrderOutbox extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "orders.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_OUTBOX = "outbox";
+
+    private static OrderOutbox instance;
+
+    static class Entry {
+        final String idempotencyKey;
+        final String payload;
+
+        Entry(String idempotencyKey, String payload) {
+            this.idempotencyKey = idempotencyKey;
+            this.payload = payload;
+        }
+    }
+
+    private OrderOutbox(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    static synchronized OrderOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new OrderOutbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OUTBOX + " ("
+                + "idempotency_key TEXT PRIMARY KEY, "
+                + "owner TEXT NOT NULL, "
+                + "payload TEXT NOT NULL, "
+                + "summary TEXT, "
+                + "total INTEGER NOT NULL, "
+                + "created_at INTEGER NOT NULL, "
+                + "status INTEGER NOT NULL, "
+                + "order_number TEXT, "
+                + "error TEXT, "
+                + "finished_at INTEGER)");
+        db.execSQL("CREATE INDEX idx_outbox_owner ON " + TABLE_OUTBOX + " (owner, status, created_at)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Unsent orders must survive upgrades; add migrations here when the schema changes
+    }
+
+    void insert(String owner, String idempotencyKey, String payload, String summary, long total, long createdAt) {
+        ContentValues values = new ContentValues();
+        values.put("idempotency_key", idempotencyKey);
+        values.put("owner", owner);
+        values.put("payload", payload);
+        values.put("summary", summary);
+        values.put("total", total);
+        values.put("created_at", createdAt);
+        values.put("status", PendingOrder.STATUS_SENDING);
+        getWritableDatabase().insertOrThrow(TABLE_OUTBOX, null, values);
+    }
+
+    // Oldest unsent order of this user; orders go out one at a time, in the order they were placed
+    Entry nextSending(String owner) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_OUTBOX,
+                new String[]{"idempotency_key", "payload"},
+                "owner = ? AND status = " + PendingOrder.STATUS_SENDING, new String[]{owner},
+                null, null, "created_at", "1")) {
+            return cursor.moveToFirst() ? new Entry(cursor.getString(0), cursor.getString(1)) : null;
+        }
+    }
+
+    void finish(String idempotencyKey, int status, String orderNumber, String error, long finishedAt) {
+        ContentValues values = new ContentValues();
+        values.put("status", status);
+        values.put("order_number", orderNumber);
+        values.put("error", error);
+        values.put("finished_at", finishedAt);
+        getWritableDatabase().update(TABLE_OUTBOX, values, "idempotency_key = ?", new String[]{idempotencyKey});
+    }
+
+    // Newest first
+    List<PendingOrder> list(String owner) {
+        List<PendingOrder> orders = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_OUTBOX,
+                new String[]{"idempotency_key", "summary", "total", "created_at", "status", "order_number", "error"},
+                "owner = ?", new String[]{owner}, null, null, "created_at DESC")) {
+            while (cursor.moveToNext()) {
+                orders.add(new PendingOrder(cursor.getString(0), cursor.getString(1), cursor.getLong(2),
+                        cursor.getLong(3), cursor.getInt(4), cursor.getString(5), cursor.getString(6)));
+            }
+        }
+        return orders;
+    }
+
+    // Finished rows only; an unsent order is never dropped
+    void pruneFinished(int status, long finishedBefore) {
+        getWritableDatabase().delete(TABLE_OUTBOX, "status = ? AND finished_at < ?",
+                new String[]{String.valueOf(status), String.valueOf(finishedBefore)});
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.project.orders;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.OrderRequest;
+import com.example.project.models.PlacedOrder;
+import com.example.project.models.User;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+import com.example.project.utils.AppExecutors;
+import com.example.project.utils.AuthManager;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Sends checkout orders through the outbox. An order is stored with its idempotency key before
+// anything goes over the network, then sent until the server either places or refuses it: lost
+// connections and server errors are retried with backoff, on reconnect and on the next app start,
+// and every retry reuses the key so the server answers with the same order instead of a second
+// one. Public methods are main-thread only.
+public class OrderSubmitter {
+    private static final String TAG = "OrderSubmitter";
+    private static final long BASE_RETRY_MS = 2000;
+    private static final long MAX_RETRY_MS = 5 * 60 * 1000;
+    // Placed orders show up in the server's history; the local copy only bridges the gap
+    private static final long KEEP_PLACED_MS = 24 * 60 * 60 * 1000L;
+    private static final long KEEP_FAILED_MS = 7 * 24 * 60 * 60 * 1000L;
+
+    private static OrderSubmitter instance;
+
+    public interface Listener {
+        // Main thread; an order was queued or its status changed
+        void onOrdersChanged();
+    }
+
+    public interface ResultCallback<T> {
+        void onResult(T result);
+    }
+
+    private final Context context;
+    private final OrderOutbox outbox;
+    private final ApiService apiService;
+    private final Gson gson = new Gson();
+    private final Random random = new Random();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Executor diskIO;
+    private final Executor mainThread;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private boolean sending;
+    private boolean retryScheduled;
+    private int failures;
+
+    private final Runnable retry = () -> {
+        retryScheduled = false;
+        drain();
+    };
+
+    private OrderSubmitter(Context context) {
+        this.context = context.getApplicationContext();
+        outbox = OrderOutbox.getInstance(this.context);
+        apiService = RetrofitClient.getInstance().getApiService();
+        AppExecutors executors = AppExecutors.getInstance();
+        diskIO = executors.diskIO();
+        mainThread = executors.mainThread();
+
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) this.context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager != null) {
+            connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    mainThread.execute(OrderSubmitter.this::resume);
+                }
+            });
+        }
+        // Orders kept back by a 401 or a logout go out as soon as their owner logs in again
+        AuthManager.getInstance(this.context).addSessionListener((previous, current) -> {
+            if (current.isLoggedIn() && !Objects.equals(previous.getToken(), current.getToken())) {
+                resume();
+            }
+        });
+    }
+
+    public static synchronized OrderSubmitter getInstance(Context context) {
+        if (instance == null) {
+            instance = new OrderSubmitter(context);
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Queues the order for the logged-in user. onQueued runs once it is safely on disk; from then
+    // on it will reach the server even if the app is killed. summary and total are for display.
+    public void submit(OrderRequest request, String summary, long total, ResultCallback<String> onQueued) {
+        String owner = currentOwner();
+        if (owner == null) {
+            throw new IllegalStateException("Placing an order requires a logged-in user");
+        }
+        String idempotencyKey = UUID.randomUUID().toString();
+        String payload = gson.toJson(request);
+        long createdAt = System.currentTimeMillis();
+        diskIO.execute(() -> {
+            outbox.insert(owner, idempotencyKey, payload, summary, total, createdAt);
+            mainThread.execute(() -> {
+                onQueued.onResult(idempotencyKey);
+                notifyChanged();
+                drain();
+            });
+        });
+    }
+
+    // Sends whatever is still queued right away, e.g. on app start or when the network returns
+    public void resume() {
+        handler.removeCallbacks(retry);
+        retryScheduled = false;
+        failures = 0;
+        drain();
+    }
+
+    // This user's orders from this device, newest first
+    public void loadOrders(ResultCallback<List<PendingOrder>> callback) {
+        String owner = currentOwner();
+        if (owner == null) {
+            callback.onResult(new ArrayList<>());
+            return;
+        }
+        diskIO.execute(() -> {
+            List<PendingOrder> orders = outbox.list(owner);
+            mainThread.execute(() -> callback.onResult(orders));
+        });
+    }
+
+    private void drain() {
+        if (sending || retryScheduled) {
+            return;
+        }
+        String owner = currentOwner();
+        if (owner == null) {
+            // Another user's or a logged-out queue waits for that user to log in again
+            return;
+        }
+        sending = true;
+        long now = System.currentTimeMillis();
+        diskIO.execute(() -> {
+            outbox.pruneFinished(PendingOrder.STATUS_PLACED, now - KEEP_PLACED_MS);
+            outbox.pruneFinished(PendingOrder.STATUS_FAILED, now - KEEP_FAILED_MS);
+            OrderOutbox.Entry entry = outbox.nextSending(owner);
+            mainThread.execute(() -> {
+                if (entry == null) {
+                    sending = false;
+                } else if (!owner.equals(currentOwner())) {
+                    // Logged out or switched account during the disk read; the request would be signed
+                    // with the new session. Start over for whoever is logged in now.
+                    sending = false;
+                    drain();
+                } else {
+                    send(entry);
+                }
+            });
+        });
+    }
+
+    private void send(OrderOutbox.Entry entry) {
+        OrderRequest request = gson.fromJson(entry.payload, OrderRequest.class);
+        apiService.createOrder(entry.idempotencyKey, request)
+                .enqueue(new Callback<ApiResponse<PlacedOrder>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<PlacedOrder>> call, Response<ApiResponse<PlacedOrder>> response) {
+                        int code = response.code();
+                        if (response.isSuccessful() && response.body() != null
+                                && response.body().isSuccess() && response.body().getData() != null) {
+                            finish(entry.idempotencyKey, PendingOrder.STATUS_PLACED,
+                                    response.body().getData().getOrderNumber(), null);
+                        } else if (code == 401) {
+                            // Kept queued; resume() after the next login sends it
+                            sending = false;
+                        } else if (code >= 400 && code < 500 && code != 408 && code != 429) {
+                            // Refused for good (out of stock, price changed...); retrying cannot help
+                            finish(entry.idempotencyKey, PendingOrder.STATUS_FAILED, null, errorMessage(response));
+                        } else {
+                            retryLater("HTTP " + code);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<PlacedOrder>> call, Throwable t) {
+                        retryLater(t.getMessage());
+                    }
+                });
+    }
+
+    private void finish(String idempotencyKey, int status, String orderNumber, String error) {
+        long now = System.currentTimeMillis();
+        diskIO.execute(() -> {
+            outbox.finish(idempotencyKey, status, orderNumber, error, now);
+            mainThread.execute(() -> {
+                sending = false;
+                failures = 0;
+                notifyChanged();
+                drain();
+            });
+        });
+    }
+
+    private void retryLater(String reason) {
+        sending = false;
+        failures++;
+        long ceiling = Math.min(MAX_RETRY_MS, BASE_RETRY_MS << Math.min(failures - 1, 16));
+        // Full jitter, so devices that lost the server together do not come back together
+        long delay = (long) (random.nextDouble() * ceiling);
+        Log.w(TAG, "Order not sent (" + reason + "), retrying in " + delay + " ms");
+        retryScheduled = true;
+        handler.postDelayed(retry, delay);
+    }
+
+    private String errorMessage(Response<?> response) {
+        try (okhttp3.ResponseBody errorBody = response.errorBody()) {
+            if (errorBody != null) {
+                ApiResponse<?> envelope = gson.fromJson(errorBody.charStream(), ApiResponse.class);
+                if (envelope != null && envelope.getMessage() != null) {
+                    return envelope.getMessage();
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Unreadable error body", e);
+        }
+        return "Lỗi " + response.code();
+    }
+
+    private String currentOwner() {
+        User user = AuthManager.getInstance(context).getCurrentUser();
+        return user != null ? user.getId() : null;
+    }
+
+    private void notifyChanged() {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onOrdersChanged();
+        }
+    }
+}
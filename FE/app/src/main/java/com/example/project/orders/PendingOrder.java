@@ -0,0 +1,59 @@
+package com.example.project.orders;
+
+// An order placed on this device, from the moment it is queued until the server's answer is known
+public class PendingOrder {
+    public static final int STATUS_SENDING = 0;
+    public static final int STATUS_PLACED = 1;
+    public static final int STATUS_FAILED = 2;
+
+    private final String idempotencyKey;
+    private final String summary;
+    private final long total;
+    private final long createdAt;
+    private final int status;
+    private final String orderNumber;
+    private final String error;
+
+    PendingOrder(String idempotencyKey, String summary, long total, long createdAt,
+                 int status, String orderNumber, String error) {
+        this.idempotencyKey = idempotencyKey;
+        this.summary = summary;
+        this.total = total;
+        this.createdAt = createdAt;
+        this.status = status;
+        this.orderNumber = orderNumber;
+        this.error = error;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    // One "name xN" line per product
+    public String getSummary() {
+        return summary;
+    }
+
+    // Minor units, as confirmed at checkout
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    // Set once the server has placed the order
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    // Why the server refused the order, for STATUS_FAILED
+    public String getError() {
+        return error;
+    }
+}
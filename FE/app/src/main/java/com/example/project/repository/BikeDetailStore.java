@@ -0,0 +1,201 @@
+package com.example.project.repository;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.Bike;
+import com.example.project.models.BikeSummary;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Single bikes by id, shared by the screens that show one. A list hands over the row it already
+// has so the detail screen can draw straight away; the full bike is then fetched once and reused
+// by the edit screen, and rows that stay on screen can have it fetched ahead of a tap. Requests
+// for the same bike share one call. Memory only; main thread only.
+public class BikeDetailStore {
+    private static final int MAX_SUMMARIES = 200;
+    private static final int MAX_BIKES = 50;
+    // A full bike fetched this recently is used without asking the server again
+    private static final long FRESH_MS = 60 * 1000;
+    // Speculative fetches in flight at once, so a real tap is never queued behind them
+    private static final int MAX_PREFETCHES = 2;
+
+    private static BikeDetailStore instance;
+
+    public interface BikeCallback {
+        void onBikeLoaded(Bike bike);
+
+        void onError(String message);
+    }
+
+    private static class Entry {
+        final Bike bike;
+        final long fetchedAt;
+
+        Entry(Bike bike, long fetchedAt) {
+            this.bike = bike;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final ApiService apiService;
+    private final LruCache<String, BikeSummary> summaries = new LruCache<>(MAX_SUMMARIES);
+    private final LruCache<String, Entry> bikes = new LruCache<>(MAX_BIKES);
+    // Callbacks waiting on each bike being fetched; empty for a prefetch nobody has asked for yet
+    private final Map<String, List<BikeCallback>> inFlight = new HashMap<>();
+    // Ids still to prefetch, replaced whenever the visible rows change
+    private final ArrayDeque<String> prefetchQueue = new ArrayDeque<>();
+    private int prefetching;
+
+    private BikeDetailStore() {
+        apiService = RetrofitClient.getInstance().getApiService();
+
+        // Create/update screens publish the server's copy, which is as fresh as a fetch
+        ChangeTracker.getInstance().addListener(change -> {
+            if (!ChangeTracker.BIKES.equals(change.getCollection()) || change.getId() == null) {
+                return;
+            }
+            Object entity = change.getEntity();
+            if (change.getType() == ChangeTracker.Type.DELETED) {
+                summaries.remove(change.getId());
+                bikes.remove(change.getId());
+            } else if (entity instanceof Bike) {
+                put((Bike) entity);
+            }
+        });
+    }
+
+    public static synchronized BikeDetailStore getInstance() {
+        if (instance == null) {
+            instance = new BikeDetailStore();
+        }
+        return instance;
+    }
+
+    // Call before opening a bike from a list row
+    public void putSummary(BikeSummary summary) {
+        if (summary != null && summary.getId() != null) {
+            summaries.put(summary.getId(), summary);
+        }
+    }
+
+    public BikeSummary getSummary(String id) {
+        return summaries.get(id);
+    }
+
+    // The last full copy, however old; null if none was fetched yet
+    public Bike getBike(String id) {
+        Entry entry = bikes.get(id);
+        return entry != null ? entry.bike : null;
+    }
+
+    public boolean isFresh(String id) {
+        Entry entry = bikes.get(id);
+        return entry != null && SystemClock.elapsedRealtime() - entry.fetchedAt < FRESH_MS;
+    }
+
+    // The full bike: synchronously if it is fresh, otherwise once the (shared) request completes
+    public void load(String id, BikeCallback callback) {
+        if (isFresh(id)) {
+            callback.onBikeLoaded(getBike(id));
+            return;
+        }
+        List<BikeCallback> waiting = inFlight.get(id);
+        if (waiting != null) {
+            waiting.add(callback);
+            return;
+        }
+        List<BikeCallback> callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        fetch(id, callbacks, false);
+    }
+
+    // Fetches these bikes ahead of a likely tap, a few at a time; ids already cached or coming are
+    // skipped. Replaces any earlier ids that have not started yet.
+    public void prefetch(Collection<String> ids) {
+        prefetchQueue.clear();
+        for (String id : ids) {
+            if (id != null) {
+                prefetchQueue.add(id);
+            }
+        }
+        startPrefetches();
+    }
+
+    // Drops prefetches that have not started, e.g. once their rows scrolled away
+    public void cancelPrefetches() {
+        prefetchQueue.clear();
+    }
+
+    private void startPrefetches() {
+        while (prefetching < MAX_PREFETCHES && !prefetchQueue.isEmpty()) {
+            String id = prefetchQueue.poll();
+            if (!isFresh(id) && !inFlight.containsKey(id)) {
+                prefetching++;
+                fetch(id, new ArrayList<>(), true);
+            }
+        }
+    }
+
+    private void fetch(String id, List<BikeCallback> callbacks, boolean speculative) {
+        inFlight.put(id, callbacks);
+        apiService.getBikeById(id).enqueue(new Callback<ApiResponse<Bike>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<Bike>> call, Response<ApiResponse<Bike>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    Bike bike = response.body().getData();
+                    if (bike != null) {
+                        put(bike);
+                        for (BikeCallback callback : finish(id, speculative)) {
+                            callback.onBikeLoaded(bike);
+                        }
+                    } else {
+                        fail(id, speculative, "Không tìm thấy thông tin xe");
+                    }
+                } else {
+                    fail(id, speculative, "Lỗi tải thông tin xe: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<Bike>> call, Throwable t) {
+                fail(id, speculative, "Lỗi kết nối: " + t.getMessage());
+            }
+        });
+    }
+
+    private void put(Bike bike) {
+        if (bike.getId() == null) {
+            return;
+        }
+        bikes.put(bike.getId(), new Entry(bike, SystemClock.elapsedRealtime()));
+        summaries.put(bike.getId(), BikeSummary.from(bike));
+    }
+
+    private void fail(String id, boolean speculative, String message) {
+        for (BikeCallback callback : finish(id, speculative)) {
+            callback.onError(message);
+        }
+    }
+
+    private List<BikeCallback> finish(String id, boolean speculative) {
+        List<BikeCallback> callbacks = inFlight.remove(id);
+        if (speculative) {
+            prefetching--;
+            startPrefetches();
+        }
+        return callbacks != null ? callbacks : new ArrayList<>();
+    }
+}
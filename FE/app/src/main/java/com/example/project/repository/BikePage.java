@@ -0,0 +1,60 @@
+package com.example.project.repository;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.BikeSummary;
+
+import java.util.Collections;
+import java.util.List;
+
+public class BikePage {
+    private final List<BikeSummary> bikes;
+    private final ApiResponse.Pagination pagination;
+    private final boolean fromCache;
+    private final boolean structuralChange;
+    private final List<Integer> changedPositions;
+    private final boolean partial;
+
+    BikePage(List<BikeSummary> bikes, ApiResponse.Pagination pagination, boolean fromCache,
+             boolean structuralChange, List<Integer> changedPositions) {
+        this(bikes, pagination, fromCache, structuralChange, changedPositions, false);
+    }
+
+    BikePage(List<BikeSummary> bikes, ApiResponse.Pagination pagination, boolean fromCache,
+             boolean structuralChange, List<Integer> changedPositions, boolean partial) {
+        this.bikes = bikes;
+        this.pagination = pagination;
+        this.fromCache = fromCache;
+        this.structuralChange = structuralChange;
+        this.changedPositions = changedPositions != null ? changedPositions : Collections.emptyList();
+        this.partial = partial;
+    }
+
+    public List<BikeSummary> getBikes() {
+        return bikes;
+    }
+
+    public ApiResponse.Pagination getPagination() {
+        return pagination;
+    }
+
+    // True when the page was served from memory/disk without waiting for the network
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    // True when rows were added, removed or reordered and the whole list must be replaced
+    public boolean isStructuralChange() {
+        return structuralChange;
+    }
+
+    // Positions whose content changed in place; only meaningful when isStructuralChange() is false
+    public List<Integer> getChangedPositions() {
+        return changedPositions;
+    }
+
+    // True for the first rows of a page still being downloaded; pagination is null until the
+    // complete page follows
+    public boolean isPartial() {
+        return partial;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.project.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.BikeSummary;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+// Stores bike pages as JSON files, one file per query key. Must be used from a single background thread.
+class BikePageCache {
+    private static final String TAG = "BikePageCache";
+    private static final String DIR_NAME = "bike_pages";
+    private static final int MAX_PAGES = 64;
+
+    private final File directory;
+    private final Gson gson;
+
+    BikePageCache(Context context, Gson gson) {
+        this.directory = new File(context.getCacheDir(), DIR_NAME);
+        this.gson = gson;
+    }
+
+    static class Entry {
+        String key;
+        List<BikeSummary> bikes;
+        ApiResponse.Pagination pagination;
+        long savedAt;
+    }
+
+    Entry read(String key) {
+        File file = fileFor(key);
+        if (!file.exists()) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            Entry entry = gson.fromJson(reader, Entry.class);
+            // Guard against hash collisions between two query keys
+            if (entry == null || !key.equals(entry.key) || entry.bikes == null) {
+                return null;
+            }
+            return entry;
+        } catch (Exception e) {
+            Log.w(TAG, "Dropping unreadable cache file " + file.getName(), e);
+            file.delete();
+            return null;
+        }
+    }
+
+    void write(Entry entry) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        File target = fileFor(entry.key);
+        File temp = new File(directory, target.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            gson.toJson(entry, writer);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write cache file", e);
+            temp.delete();
+            return;
+        }
+        // Rename so a crash mid-write never leaves a truncated page behind
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            return;
+        }
+        trim();
+    }
+
+    void clear() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private void trim() {
+        File[] files = directory.listFiles();
+        if (files == null || files.length <= MAX_PAGES) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - MAX_PAGES; i++) {
+            files[i].delete();
+        }
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, hash(key) + ".json");
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] bytes = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.project.repository;
+
+public class BikeQuery {
+    private final int page;
+    private final int limit;
+    private String category;
+    private String status;
+    private String brand;
+    private Double minPrice;
+    private Double maxPrice;
+    private String search;
+    private String sortBy;
+
+    public BikeQuery(int page, int limit) {
+        this.page = page;
+        this.limit = limit;
+    }
+
+    // Same filters, different page window
+    public BikeQuery forPage(int page, int limit) {
+        BikeQuery copy = new BikeQuery(page, limit);
+        copy.category = category;
+        copy.status = status;
+        copy.brand = brand;
+        copy.minPrice = minPrice;
+        copy.maxPrice = maxPrice;
+        copy.search = search;
+        copy.sortBy = sortBy;
+        return copy;
+    }
+
+    public BikeQuery setCategory(String category) {
+        this.category = category;
+        return this;
+    }
+
+    public BikeQuery setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public BikeQuery setBrand(String brand) {
+        this.brand = brand;
+        return this;
+    }
+
+    public BikeQuery setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+        return this;
+    }
+
+    public BikeQuery setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    public BikeQuery setSearch(String search) {
+        this.search = search;
+        return this;
+    }
+
+    public BikeQuery setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+        return this;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    // Every parameter sent to GET bikes is part of the key so different filters never share a page
+    public String getCacheKey() {
+        return "page=" + page
+                + "&limit=" + limit
+                + "&category=" + valueOf(category)
+                + "&status=" + valueOf(status)
+                + "&brand=" + valueOf(brand)
+                + "&minPrice=" + valueOf(minPrice)
+                + "&maxPrice=" + valueOf(maxPrice)
+                + "&search=" + valueOf(search)
+                + "&sortBy=" + valueOf(sortBy);
+    }
+
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
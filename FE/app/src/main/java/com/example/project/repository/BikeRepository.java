@@ -0,0 +1,208 @@
+package com.example.project.repository;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.BikeSummary;
+import com.example.project.network.ApiService;
+import com.example.project.network.ListStream;
+import com.example.project.network.RetrofitClient;
+import com.example.project.utils.AppExecutors;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+public class BikeRepository {
+    private static final int MEMORY_PAGES = 16;
+    private static final int FIRST_CHUNK_ROWS = 10;
+    private static final int MAX_CHUNK_ROWS = 200;
+
+    private static BikeRepository instance;
+
+    private final ApiService apiService;
+    private final AppExecutors executors;
+    private final BikePageCache diskCache;
+    private final LruCache<String, BikePageCache.Entry> memoryCache;
+    private final Gson gson;
+
+    public interface BikePageCallback {
+        // Called first with the cached page (if any), then again only if revalidation found changes
+        void onPageLoaded(BikePage page);
+
+        // Called only when there is nothing cached to fall back on
+        void onError(String message);
+    }
+
+    private BikeRepository(Context context) {
+        apiService = RetrofitClient.getInstance().getApiService();
+        executors = AppExecutors.getInstance();
+        gson = new Gson();
+        diskCache = new BikePageCache(context, gson);
+        memoryCache = new LruCache<>(MEMORY_PAGES);
+
+        // Any local write makes every cached page suspect (ordering and totals can shift too)
+        ChangeTracker.getInstance().addListener(change -> {
+            if (ChangeTracker.BIKES.equals(change.getCollection())) {
+                invalidate();
+            }
+        });
+    }
+
+    public static synchronized BikeRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new BikeRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void getBikes(BikeQuery query, BikePageCallback callback) {
+        String key = query.getCacheKey();
+        BikePageCache.Entry memoryEntry = memoryCache.get(key);
+        if (memoryEntry != null) {
+            deliver(callback, new BikePage(memoryEntry.bikes, memoryEntry.pagination, true, true, null));
+            revalidate(query, key, callback);
+            return;
+        }
+
+        executors.diskIO().execute(() -> {
+            BikePageCache.Entry diskEntry = diskCache.read(key);
+            if (diskEntry != null) {
+                memoryCache.put(key, diskEntry);
+                deliver(callback, new BikePage(diskEntry.bikes, diskEntry.pagination, true, true, null));
+            }
+            revalidate(query, key, callback);
+        });
+    }
+
+    // Adapts the cached catalog to infinite scrolling; filters come from baseQuery, page and size from the pager
+    public PagingSource.PageFetcher<BikeSummary> pageFetcher(BikeQuery baseQuery) {
+        return (page, pageSize, callback) -> getBikes(baseQuery.forPage(page, pageSize), new BikePageCallback() {
+            @Override
+            public void onPageLoaded(BikePage bikePage) {
+                if (bikePage.isPartial()) {
+                    callback.onPartialPage(bikePage.getBikes());
+                } else {
+                    callback.onPage(bikePage.getBikes(), bikePage.getPagination());
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                callback.onError(message);
+            }
+        });
+    }
+
+    // Drops every cached page, e.g. after a bike was created, updated or deleted
+    public void invalidate() {
+        memoryCache.evictAll();
+        executors.diskIO().execute(diskCache::clear);
+    }
+
+    // Reads the page off the network a chunk at a time. With nothing cached to show, the rows decoded
+    // so far are delivered as partial pages; the complete page then goes through store() as usual.
+    private void revalidate(BikeQuery query, String key, BikePageCallback callback) {
+        Call<ListStream<BikeSummary>> call = apiService.streamBikes(query.getPage(), query.getLimit(),
+                query.getCategory(), query.getStatus(), query.getBrand(),
+                query.getMinPrice(), query.getMaxPrice(), query.getSearch(), query.getSortBy(), BikeSummary.FIELDS);
+        executors.background().execute(() -> {
+            try {
+                Response<ListStream<BikeSummary>> response = call.execute();
+                if (!response.isSuccessful() || response.body() == null) {
+                    fail(key, callback, "Lỗi tải dữ liệu: " + response.code());
+                    return;
+                }
+                try (ListStream<BikeSummary> stream = response.body()) {
+                    if (!stream.isSuccess()) {
+                        fail(key, callback, "Lỗi tải dữ liệu: " + response.code());
+                        return;
+                    }
+                    boolean showPartial = memoryCache.get(key) == null;
+                    List<BikeSummary> bikes = new ArrayList<>();
+                    int chunk = FIRST_CHUNK_ROWS;
+                    while (!stream.isFinished()) {
+                        List<BikeSummary> rows = stream.next(chunk);
+                        bikes.addAll(rows);
+                        if (showPartial && !rows.isEmpty() && !stream.isFinished()) {
+                            deliver(callback, new BikePage(new ArrayList<>(bikes), null, false, true, null, true));
+                        }
+                        // Small first chunks get rows on screen early, larger later ones keep the hand-offs few
+                        chunk = Math.min(chunk * 2, MAX_CHUNK_ROWS);
+                    }
+                    ApiResponse.Pagination pagination = stream.getPagination();
+                    executors.diskIO().execute(() -> store(key, bikes, pagination, callback));
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(key, callback, "Lỗi kết nối: " + e.getMessage());
+            }
+        });
+    }
+
+    private void fail(String key, BikePageCallback callback, String message) {
+        if (memoryCache.get(key) == null) {
+            executors.mainThread().execute(() -> callback.onError(message));
+        }
+    }
+
+    private void store(String key, List<BikeSummary> fresh, ApiResponse.Pagination pagination, BikePageCallback callback) {
+        BikePageCache.Entry previous = memoryCache.get(key);
+
+        BikePageCache.Entry entry = new BikePageCache.Entry();
+        entry.key = key;
+        entry.bikes = new ArrayList<>(fresh);
+        entry.pagination = pagination;
+        entry.savedAt = System.currentTimeMillis();
+        memoryCache.put(key, entry);
+        diskCache.write(entry);
+
+        if (previous == null) {
+            deliver(callback, new BikePage(entry.bikes, pagination, false, true, null));
+            return;
+        }
+
+        if (!sameIdsInOrder(previous.bikes, entry.bikes)) {
+            deliver(callback, new BikePage(entry.bikes, pagination, false, true, null));
+            return;
+        }
+
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < entry.bikes.size(); i++) {
+            if (!gson.toJson(previous.bikes.get(i)).equals(gson.toJson(entry.bikes.get(i)))) {
+                changed.add(i);
+            }
+        }
+        if (!changed.isEmpty() || !samePagination(previous.pagination, pagination)) {
+            deliver(callback, new BikePage(entry.bikes, pagination, false, false, changed));
+        }
+    }
+
+    private boolean sameIdsInOrder(List<BikeSummary> a, List<BikeSummary> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            String idA = a.get(i).getId();
+            if (idA == null || !idA.equals(b.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean samePagination(ApiResponse.Pagination a, ApiResponse.Pagination b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getTotalItems() == b.getTotalItems() && a.getTotalPages() == b.getTotalPages();
+    }
+
+    private void deliver(BikePageCallback callback, BikePage page) {
+        executors.mainThread().execute(() -> callback.onPageLoaded(page));
+    }
+}
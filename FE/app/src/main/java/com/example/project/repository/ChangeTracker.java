@@ -0,0 +1,130 @@
+package com.example.project.repository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Local record of create/update/delete calls made from this device. Each collection has a version
+// counter; list screens remember the version they rendered and apply only the changes made since.
+public class ChangeTracker {
+    public static final String BIKES = "bikes";
+    public static final String USERS = "users";
+
+    // Older changes are forgotten; screens further behind than this must reload
+    private static final int MAX_LOG_SIZE = 100;
+
+    private static final ChangeTracker instance = new ChangeTracker();
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static class Change {
+        private final String collection;
+        private final Type type;
+        private final String id;
+        private final Object entity;
+        private final long version;
+
+        Change(String collection, Type type, String id, Object entity, long version) {
+            this.collection = collection;
+            this.type = type;
+            this.id = id;
+            this.entity = entity;
+            this.version = version;
+        }
+
+        public String getCollection() {
+            return collection;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        // The entity returned by the server, null for deletions
+        @SuppressWarnings("unchecked")
+        public <T> T getEntity() {
+            return (T) entity;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    public interface Listener {
+        void onChange(Change change);
+    }
+
+    private final Map<String, Long> versions = new HashMap<>();
+    private final Map<String, Deque<Change>> logs = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ChangeTracker() {}
+
+    public static ChangeTracker getInstance() {
+        return instance;
+    }
+
+    public void publish(String collection, Type type, String id, Object entity) {
+        Change change;
+        synchronized (this) {
+            long version = getVersion(collection) + 1;
+            versions.put(collection, version);
+            change = new Change(collection, type, id, entity, version);
+
+            Deque<Change> log = logs.get(collection);
+            if (log == null) {
+                log = new ArrayDeque<>();
+                logs.put(collection, log);
+            }
+            log.addLast(change);
+            if (log.size() > MAX_LOG_SIZE) {
+                log.removeFirst();
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.onChange(change);
+        }
+    }
+
+    public synchronized long getVersion(String collection) {
+        Long version = versions.get(collection);
+        return version != null ? version : 0;
+    }
+
+    // Changes newer than sinceVersion in publish order, or null if some were already dropped from the log
+    public synchronized List<Change> getChangesSince(String collection, long sinceVersion) {
+        List<Change> changes = new ArrayList<>();
+        if (sinceVersion >= getVersion(collection)) {
+            return changes;
+        }
+        Deque<Change> log = logs.get(collection);
+        if (log == null || log.isEmpty() || log.peekFirst().getVersion() > sinceVersion + 1) {
+            return null;
+        }
+        for (Change change : log) {
+            if (change.getVersion() > sinceVersion) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.project.repository;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.project.models.ApiResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Loads numbered pages on demand as the user scrolls and keeps at most maxPages of them in memory.
+// Pages far behind the viewport are dropped and re-fetched if the user scrolls back. Main thread only.
+public class PagingSource<T> {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 10;
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    public interface PageFetcher<T> {
+        void fetch(int page, int pageSize, PageCallback<T> callback);
+    }
+
+    // A fetcher may answer the same page more than once, e.g. cached copy first and fresh copy later
+    public interface PageCallback<T> {
+        void onPage(List<T> items, ApiResponse.Pagination pagination);
+
+        // The rows of a page still being read, so they can be shown early. Only the rows are used: the
+        // load stays in progress until onPage or onError.
+        void onPartialPage(List<T> items);
+
+        void onError(String message);
+    }
+
+    public interface Listener {
+        void onItemRangeInserted(int position, int count);
+
+        void onItemRangeRemoved(int position, int count);
+
+        void onItemRangeChanged(int position, int count);
+
+        void onLoadingChanged(boolean loading);
+
+        void onError(String message);
+    }
+
+    private static class Page<T> {
+        final int number;
+        List<T> items;
+
+        Page(int number, List<T> items) {
+            this.number = number;
+            this.items = items;
+        }
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxPages;
+
+    private final List<Page<T>> pages = new ArrayList<>();
+    private final List<T> items = new ArrayList<>();
+    private Listener listener;
+
+    private int generation;
+    private boolean loadingNext;
+    private boolean loadingPrevious;
+    private boolean hasNextPage = true;
+    private int totalItems = -1;
+    private int firstVisible;
+    private int lastVisible;
+
+    public PagingSource(PageFetcher<T> fetcher) {
+        this(fetcher, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagingSource(PageFetcher<T> fetcher, int pageSize, int prefetchDistance, int maxPages) {
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.maxPages = Math.max(2, maxPages);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // The windowed rows, in display order. Adapters should render this list directly.
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    // Total reported by the server, or -1 before the first page arrives
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public boolean isLoading() {
+        return loadingNext || loadingPrevious;
+    }
+
+    public void attachTo(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                RecyclerView.LayoutManager layoutManager = rv.getLayoutManager();
+                if (layoutManager instanceof LinearLayoutManager) {
+                    LinearLayoutManager linear = (LinearLayoutManager) layoutManager;
+                    onViewportChanged(linear.findFirstVisibleItemPosition(), linear.findLastVisibleItemPosition());
+                }
+            }
+        });
+    }
+
+    // Drops everything and starts again from page 1
+    public void refresh() {
+        generation++;
+        int removed = items.size();
+        pages.clear();
+        items.clear();
+        loadingNext = false;
+        loadingPrevious = false;
+        hasNextPage = true;
+        totalItems = -1;
+        firstVisible = 0;
+        lastVisible = 0;
+        if (removed > 0 && listener != null) {
+            listener.onItemRangeRemoved(0, removed);
+        }
+        loadPage(1, true);
+    }
+
+    // Re-fetches the pages currently in the window without resetting scroll position
+    public void reloadLoadedPages() {
+        if (pages.isEmpty()) {
+            refresh();
+            return;
+        }
+        for (Page<T> page : new ArrayList<>(pages)) {
+            fetchInto(page.number, generation, null);
+        }
+    }
+
+    // Local edits for rows changed on this device, so the window stays correct without a refetch
+
+    public boolean replaceItem(Predicate<T> match, T replacement) {
+        for (int i = 0, start = 0; i < pages.size(); start += pages.get(i).items.size(), i++) {
+            List<T> pageItems = pages.get(i).items;
+            for (int j = 0; j < pageItems.size(); j++) {
+                if (match.test(pageItems.get(j))) {
+                    pageItems.set(j, replacement);
+                    items.set(start + j, replacement);
+                    if (listener != null) {
+                        listener.onItemRangeChanged(start + j, 1);
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean removeItem(Predicate<T> match) {
+        for (int i = 0, start = 0; i < pages.size(); start += pages.get(i).items.size(), i++) {
+            List<T> pageItems = pages.get(i).items;
+            for (int j = 0; j < pageItems.size(); j++) {
+                if (match.test(pageItems.get(j))) {
+                    pageItems.remove(j);
+                    items.remove(start + j);
+                    if (totalItems > 0) {
+                        totalItems--;
+                    }
+                    if (listener != null) {
+                        listener.onItemRangeRemoved(start + j, 1);
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Only applied while page 1 is in the window; otherwise the row shows up when page 1 is reloaded
+    public void insertFirst(T item) {
+        if (pages.isEmpty() || pages.get(0).number != 1) {
+            return;
+        }
+        pages.get(0).items.add(0, item);
+        items.add(0, item);
+        if (totalItems >= 0) {
+            totalItems++;
+        }
+        if (listener != null) {
+            listener.onItemRangeInserted(0, 1);
+        }
+    }
+
+    public void onViewportChanged(int first, int last) {
+        if (first < 0 || last < 0) {
+            return;
+        }
+        firstVisible = first;
+        lastVisible = last;
+
+        if (!loadingNext && hasNextPage && !pages.isEmpty() && last >= items.size() - 1 - prefetchDistance) {
+            loadPage(pages.get(pages.size() - 1).number + 1, true);
+        }
+        if (!loadingPrevious && !pages.isEmpty() && pages.get(0).number > 1 && first <= prefetchDistance) {
+            loadPage(pages.get(0).number - 1, false);
+        }
+    }
+
+    private void loadPage(int number, boolean append) {
+        if (append) {
+            loadingNext = true;
+        } else {
+            loadingPrevious = true;
+        }
+        notifyLoading();
+        fetchInto(number, generation, append);
+    }
+
+    // append == null means "replace the page if it is still in the window"
+    private void fetchInto(int number, int requestGeneration, Boolean append) {
+        fetcher.fetch(number, pageSize, new PageCallback<T>() {
+            private boolean settled;
+            // Rows from onPartialPage are in the window and no complete copy has replaced them yet
+            private boolean partial;
+
+            @Override
+            public void onPage(List<T> pageItems, ApiResponse.Pagination pagination) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                if (pagination != null) {
+                    totalItems = pagination.getTotalItems();
+                }
+                partial = false;
+                putPage(number, pageItems, append);
+
+                if (isLastPage(number)) {
+                    hasNextPage = pagination != null ? pagination.isHasNextPage() : pageItems.size() >= pageSize;
+                }
+                settle();
+            }
+
+            @Override
+            public void onPartialPage(List<T> pageItems) {
+                if (requestGeneration != generation || settled) {
+                    return;
+                }
+                partial = putPage(number, pageItems, append) || partial;
+            }
+
+            @Override
+            public void onError(String message) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                // A half-read page would leave a gap that scrolling never fills; fetch it again later
+                if (partial) {
+                    partial = false;
+                    removePage(number);
+                }
+                settle();
+                if (listener != null) {
+                    listener.onError(message);
+                }
+            }
+
+            // Later deliveries of the same page must not clear the flag of a newer in-flight load
+            private void settle() {
+                if (!settled) {
+                    settled = true;
+                    finishLoading(append);
+                }
+            }
+        });
+    }
+
+    // Replaces the page if it is in the window, else adds it where append says; false if it was neither
+    private boolean putPage(int number, List<T> pageItems, Boolean append) {
+        int index = indexOfPage(number);
+        if (index >= 0) {
+            replacePage(index, pageItems);
+        } else if (append != null) {
+            if (append) {
+                appendPage(number, pageItems);
+            } else {
+                prependPage(number, pageItems);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void finishLoading(Boolean append) {
+        if (append == null) {
+            return;
+        }
+        if (append) {
+            loadingNext = false;
+        } else {
+            loadingPrevious = false;
+        }
+        notifyLoading();
+    }
+
+    private boolean isLastPage(int number) {
+        return !pages.isEmpty() && pages.get(pages.size() - 1).number == number;
+    }
+
+    private int indexOfPage(int number) {
+        for (int i = 0; i < pages.size(); i++) {
+            if (pages.get(i).number == number) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int startOfPage(int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start += pages.get(i).items.size();
+        }
+        return start;
+    }
+
+    private void appendPage(int number, List<T> pageItems) {
+        int start = items.size();
+        pages.add(new Page<>(number, new ArrayList<>(pageItems)));
+        items.addAll(pageItems);
+        if (listener != null && !pageItems.isEmpty()) {
+            listener.onItemRangeInserted(start, pageItems.size());
+        }
+
+        // Drop the oldest page once the window is full, unless the user can still see it
+        if (pages.size() > maxPages && pages.get(0).items.size() <= firstVisible) {
+            Page<T> dropped = pages.remove(0);
+            items.subList(0, dropped.items.size()).clear();
+            firstVisible -= dropped.items.size();
+            lastVisible -= dropped.items.size();
+            if (listener != null && !dropped.items.isEmpty()) {
+                listener.onItemRangeRemoved(0, dropped.items.size());
+            }
+        }
+    }
+
+    private void prependPage(int number, List<T> pageItems) {
+        pages.add(0, new Page<>(number, new ArrayList<>(pageItems)));
+        items.addAll(0, pageItems);
+        firstVisible += pageItems.size();
+        lastVisible += pageItems.size();
+        if (listener != null && !pageItems.isEmpty()) {
+            listener.onItemRangeInserted(0, pageItems.size());
+        }
+
+        if (pages.size() > maxPages) {
+            Page<T> last = pages.get(pages.size() - 1);
+            int start = items.size() - last.items.size();
+            if (start > lastVisible) {
+                pages.remove(pages.size() - 1);
+                items.subList(start, items.size()).clear();
+                hasNextPage = true;
+                if (listener != null && !last.items.isEmpty()) {
+                    listener.onItemRangeRemoved(start, last.items.size());
+                }
+            }
+        }
+    }
+
+    private void replacePage(int index, List<T> pageItems) {
+        Page<T> page = pages.get(index);
+        int start = startOfPage(index);
+        int oldSize = page.items.size();
+        int newSize = pageItems.size();
+
+        items.subList(start, start + oldSize).clear();
+        items.addAll(start, pageItems);
+        page.items = new ArrayList<>(pageItems);
+
+        if (listener == null) {
+            return;
+        }
+        int common = Math.min(oldSize, newSize);
+        if (common > 0) {
+            listener.onItemRangeChanged(start, common);
+        }
+        if (newSize > oldSize) {
+            listener.onItemRangeInserted(start + oldSize, newSize - oldSize);
+        } else if (oldSize > newSize) {
+            listener.onItemRangeRemoved(start + newSize, oldSize - newSize);
+        }
+    }
+
+    private void removePage(int number) {
+        int index = indexOfPage(number);
+        if (index < 0) {
+            return;
+        }
+        int start = startOfPage(index);
+        Page<T> page = pages.remove(index);
+        items.subList(start, start + page.items.size()).clear();
+        if (start < firstVisible) {
+            firstVisible = Math.max(start, firstVisible - page.items.size());
+            lastVisible = Math.max(start, lastVisible - page.items.size());
+        }
+        if (listener != null && !page.items.isEmpty()) {
+            listener.onItemRangeRemoved(start, page.items.size());
+        }
+    }
+
+    private void notifyLoading() {
+        if (listener != null) {
+            listener.onLoadingChanged(isLoading());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.project.repository;
+
+// Filters for the admin user list; paging position is kept by UserRepository
+public class UserQuery {
+    public static final String STATUS_ACTIVE = "active";
+    public static final String STATUS_INACTIVE = "inactive";
+    public static final String SORT_NEWEST = "newest";
+    public static final String SORT_OLDEST = "oldest";
+    public static final String SORT_USERNAME = "username";
+
+    private String role;
+    private String status;
+    private String search;
+    private String sort = SORT_NEWEST;
+
+    // Role value as stored on User, e.g. "customer"; null for every role
+    public UserQuery setRole(String role) {
+        this.role = role;
+        return this;
+    }
+
+    public UserQuery setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public UserQuery setSearch(String search) {
+        this.search = search != null && !search.trim().isEmpty() ? search.trim() : null;
+        return this;
+    }
+
+    public UserQuery setSort(String sort) {
+        this.sort = sort;
+        return this;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    // Every filter sent to GET users is part of the key so different filters never share a page
+    public String getCacheKey(int limit) {
+        return "limit=" + limit
+                + "&role=" + valueOf(role)
+                + "&status=" + valueOf(status)
+                + "&q=" + valueOf(search)
+                + "&sort=" + valueOf(sort);
+    }
+
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.project.repository;
+
+import android.util.LruCache;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.User;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Admin user list, fetched a page at a time with the server's cursor. Pages are cached in memory only
+// (accounts are personal data and must not outlive the process). Main thread only.
+public class UserRepository {
+    private static final int MEMORY_PAGES = 16;
+    private static final int MAX_CURSORS = 500;
+
+    private static UserRepository instance;
+
+    private final ApiService apiService;
+    private final LruCache<String, CachedPage> memoryCache = new LruCache<>(MEMORY_PAGES);
+    // Where page n of a query starts ("<query key>#<n>"), learned from page n-1. PagingSource numbers
+    // its pages while the server only knows cursors; positions stay valid across edits, so this
+    // survives invalidate().
+    private final LruCache<String, String> cursors = new LruCache<>(MAX_CURSORS);
+    // totalItems comes with the first page only
+    private final LruCache<String, Integer> totals = new LruCache<>(MAX_CURSORS);
+
+    private static class CachedPage {
+        final List<User> users;
+        final boolean hasNextPage;
+        final String nextCursor;
+
+        CachedPage(List<User> users, boolean hasNextPage, String nextCursor) {
+            this.users = users;
+            this.hasNextPage = hasNextPage;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    private UserRepository() {
+        apiService = RetrofitClient.getInstance().getApiService();
+
+        // A user edited or deleted on this device makes every cached page suspect
+        ChangeTracker.getInstance().addListener(change -> {
+            if (ChangeTracker.USERS.equals(change.getCollection())) {
+                invalidate();
+            }
+        });
+    }
+
+    public static synchronized UserRepository getInstance() {
+        if (instance == null) {
+            instance = new UserRepository();
+        }
+        return instance;
+    }
+
+    // Infinite scrolling over whatever query is current; refresh the PagingSource after changing it.
+    // Answers with the cached page first (if any), then again with the server's copy.
+    public PagingSource.PageFetcher<User> pageFetcher(Supplier<UserQuery> query) {
+        return (page, pageSize, callback) -> fetch(query.get(), page, pageSize, callback);
+    }
+
+    public void invalidate() {
+        memoryCache.evictAll();
+    }
+
+    private void fetch(UserQuery query, int page, int pageSize, PagingSource.PageCallback<User> callback) {
+        String queryKey = query.getCacheKey(pageSize);
+        String cursor = null;
+        if (page > 1) {
+            cursor = cursors.get(queryKey + "#" + page);
+            if (cursor == null) {
+                callback.onError("Không thể tải trang " + page);
+                return;
+            }
+        }
+
+        String pageKey = queryKey + "|" + (cursor != null ? cursor : "");
+        CachedPage cached = memoryCache.get(pageKey);
+        if (cached != null) {
+            deliver(queryKey, cached, pageSize, callback);
+        }
+
+        apiService.getUsers(query.getRole(), query.getStatus(), query.getSearch(), query.getSort(), cursor, pageSize)
+                .enqueue(new Callback<ApiResponse<User[]>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<User[]>> call, Response<ApiResponse<User[]>> response) {
+                        ApiResponse<User[]> body = response.body();
+                        if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getUsers() == null) {
+                            if (cached == null) {
+                                callback.onError("Lỗi tải dữ liệu: " + response.code());
+                            }
+                            return;
+                        }
+                        ApiResponse.Pagination pagination = body.getPagination();
+                        boolean hasNextPage = pagination != null && pagination.isHasNextPage();
+                        String nextCursor = pagination != null ? pagination.getNextCursor() : null;
+                        if (page == 1 && pagination != null) {
+                            totals.put(queryKey, pagination.getTotalItems());
+                        }
+                        if (nextCursor != null) {
+                            cursors.put(queryKey + "#" + (page + 1), nextCursor);
+                        }
+                        CachedPage fresh = new CachedPage(new ArrayList<>(Arrays.asList(body.getUsers())),
+                                hasNextPage && nextCursor != null, nextCursor);
+                        memoryCache.put(pageKey, fresh);
+                        deliver(queryKey, fresh, pageSize, callback);
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<User[]>> call, Throwable t) {
+                        if (cached == null) {
+                            callback.onError("Lỗi kết nối: " + t.getMessage());
+                        }
+                    }
+                });
+    }
+
+    private void deliver(String queryKey, CachedPage page, int pageSize, PagingSource.PageCallback<User> callback) {
+        ApiResponse.Pagination pagination = new ApiResponse.Pagination();
+        Integer total = totals.get(queryKey);
+        pagination.setTotalItems(total != null ? total : -1);
+        pagination.setItemsPerPage(pageSize);
+        pagination.setHasNextPage(page.hasNextPage);
+        pagination.setNextCursor(page.nextCursor);
+        callback.onPage(new ArrayList<>(page.users), pagination);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.project.search;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.BikeSummary;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Drives a search box: local index hits are shown on every keystroke, the server is asked only
+// once typing pauses. Superseded requests are cancelled, a query already in flight is joined
+// rather than sent twice, and recent server answers are reused from a small LRU. Main thread only.
+public class BikeSearchController {
+    public static final long DEBOUNCE_MS = 300;
+    public static final int MIN_SERVER_QUERY_LENGTH = 2;
+
+    private static final int SERVER_PAGE_SIZE = 20;
+    private static final int CACHE_SIZE = 32;
+    private static final long CACHE_TTL_MS = 60 * 1000;
+
+    public interface Listener {
+        // serverIncluded is false while only local hits are known for this query
+        void onResults(String query, List<BikeSummary> results, boolean serverIncluded);
+
+        // Local hits stay on screen; this only reports that the server part failed
+        void onServerError(String query, String message);
+    }
+
+    private static class CachedResult {
+        final List<BikeSummary> bikes;
+        final long storedAt;
+
+        CachedResult(List<BikeSummary> bikes, long storedAt) {
+            this.bikes = bikes;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final ApiService apiService;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, CachedResult> cache = new LruCache<>(CACHE_SIZE);
+    private final Map<String, Call<ApiResponse<BikeSummary[]>>> inFlight = new HashMap<>();
+
+    private BikeSearchIndex.Session localSession;
+    private String currentQuery = "";
+    private String currentKey = "";
+    private List<BikeSummary> localHits = new ArrayList<>();
+    private boolean fetchPending;
+    private final Runnable debounced = () -> {
+        fetchPending = false;
+        fetchCurrent();
+    };
+
+    public BikeSearchController(Listener listener) {
+        this.apiService = RetrofitClient.getInstance().getApiService();
+        this.listener = listener;
+    }
+
+    // Swaps in a freshly built index and re-runs the current query against it
+    public void setIndex(BikeSearchIndex index) {
+        localSession = index != null ? index.newSession() : null;
+        if (!currentKey.isEmpty()) {
+            showLocalThenCached();
+        }
+    }
+
+    public void onQueryChanged(String query) {
+        String key = keyOf(query);
+        currentQuery = query;
+        if (key.equals(currentKey)) {
+            // Only whitespace or case changed
+            return;
+        }
+        currentKey = key;
+        handler.removeCallbacks(debounced);
+        fetchPending = false;
+        // Answers for earlier keys would only be cached, not shown; a request for this key is kept
+        cancelInFlight(key);
+        if (key.isEmpty()) {
+            localHits = new ArrayList<>();
+            return;
+        }
+
+        if (showLocalThenCached() || key.length() < MIN_SERVER_QUERY_LENGTH) {
+            return;
+        }
+        fetchPending = true;
+        handler.postDelayed(debounced, DEBOUNCE_MS);
+    }
+
+    // Skips the debounce, e.g. for the keyboard's search action
+    public void submit(String query) {
+        onQueryChanged(query);
+        if (fetchPending) {
+            handler.removeCallbacks(debounced);
+            fetchPending = false;
+            fetchCurrent();
+        }
+    }
+
+    // Call from onDestroy
+    public void cancel() {
+        handler.removeCallbacks(debounced);
+        fetchPending = false;
+        cancelInFlight(null);
+    }
+
+    // Returns true when a fresh cached server answer made a request unnecessary
+    private boolean showLocalThenCached() {
+        localHits = new ArrayList<>();
+        if (localSession != null) {
+            BikeSearchIndex index = localSession.getIndex();
+            for (int doc : localSession.search(currentKey)) {
+                localHits.add(index.getBike(doc));
+            }
+        }
+
+        CachedResult cached = cache.get(currentKey);
+        if (cached != null && SystemClock.elapsedRealtime() - cached.storedAt < CACHE_TTL_MS) {
+            listener.onResults(currentQuery, merge(localHits, cached.bikes), true);
+            return true;
+        }
+        listener.onResults(currentQuery, localHits, false);
+        return false;
+    }
+
+    private void fetchCurrent() {
+        String key = currentKey;
+        cancelInFlight(key);
+        if (inFlight.containsKey(key)) {
+            // Same query is already on its way; its answer will be delivered to the current screen
+            return;
+        }
+
+        Call<ApiResponse<BikeSummary[]>> call = apiService.getBikes(1, SERVER_PAGE_SIZE,
+                null, null, null, null, null, key, null, BikeSummary.FIELDS);
+        inFlight.put(key, call);
+        call.enqueue(new Callback<ApiResponse<BikeSummary[]>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<BikeSummary[]>> call, Response<ApiResponse<BikeSummary[]>> response) {
+                if (inFlight.get(key) == call) {
+                    inFlight.remove(key);
+                }
+                if (response.isSuccessful() && response.body() != null
+                        && response.body().isSuccess() && response.body().getData() != null) {
+                    List<BikeSummary> bikes = Arrays.asList(response.body().getData());
+                    cache.put(key, new CachedResult(bikes, SystemClock.elapsedRealtime()));
+                    if (key.equals(currentKey)) {
+                        listener.onResults(currentQuery, merge(localHits, bikes), true);
+                    }
+                } else if (key.equals(currentKey)) {
+                    listener.onServerError(currentQuery, "Lỗi tìm kiếm: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<BikeSummary[]>> call, Throwable t) {
+                if (inFlight.get(key) == call) {
+                    inFlight.remove(key);
+                }
+                if (!call.isCanceled() && key.equals(currentKey)) {
+                    listener.onServerError(currentQuery, "Lỗi kết nối: " + t.getMessage());
+                }
+            }
+        });
+    }
+
+    // Cancels every request except the one for keepKey (null cancels all)
+    private void cancelInFlight(String keepKey) {
+        Iterator<Map.Entry<String, Call<ApiResponse<BikeSummary[]>>>> iterator = inFlight.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Call<ApiResponse<BikeSummary[]>>> entry = iterator.next();
+            if (!entry.getKey().equals(keepKey)) {
+                entry.getValue().cancel();
+                iterator.remove();
+            }
+        }
+    }
+
+    // Local ranking first; server copies replace local ones (they are fresher), server-only hits follow
+    private static List<BikeSummary> merge(List<BikeSummary> local, List<BikeSummary> server) {
+        LinkedHashMap<String, BikeSummary> merged = new LinkedHashMap<>();
+        List<BikeSummary> withoutId = new ArrayList<>();
+        for (BikeSummary bike : local) {
+            if (bike.getId() != null) {
+                merged.put(bike.getId(), bike);
+            } else {
+                withoutId.add(bike);
+            }
+        }
+        for (BikeSummary bike : server) {
+            if (bike.getId() != null) {
+                merged.put(bike.getId(), bike);
+            }
+        }
+        List<BikeSummary> result = new ArrayList<>(merged.values());
+        result.addAll(withoutId);
+        return result;
+    }
+
+    // Queries that differ only in case or spacing share one request and cache entry. Accents are
+    // kept: the server's text index does its own matching and đ/d are different letters to it.
+    private static String keyOf(String query) {
+        return query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
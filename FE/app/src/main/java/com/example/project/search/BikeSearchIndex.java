@@ -0,0 +1,293 @@
+package com.example.project.search;
+
+import com.example.project.models.BikeSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Immutable inverted index over folded words of bike name, brand, model, tags and description.
+// Terms are kept sorted, so every prefix maps to one contiguous range of term ids; each bike keeps
+// its own sorted term ids, which lets a query be checked against a candidate with a binary search.
+// Build off the main thread; searching is cheap enough to run on every keystroke.
+public class BikeSearchIndex {
+    private static final int WEIGHT_NAME = 8;
+    private static final int WEIGHT_BRAND = 6;
+    private static final int WEIGHT_MODEL = 6;
+    private static final int WEIGHT_TAG = 4;
+    private static final int WEIGHT_DESCRIPTION = 1;
+
+    private final List<BikeSummary> bikes;
+    private final String[] terms;
+    private final int[][] postings;
+    private final int[][] docTerms;
+    private final int[][] docWeights;
+
+    private BikeSearchIndex(List<BikeSummary> bikes, String[] terms, int[][] postings, int[][] docTerms, int[][] docWeights) {
+        this.bikes = bikes;
+        this.terms = terms;
+        this.postings = postings;
+        this.docTerms = docTerms;
+        this.docWeights = docWeights;
+    }
+
+    public static BikeSearchIndex build(List<BikeSummary> source) {
+        List<BikeSummary> bikes = Collections.unmodifiableList(new ArrayList<>(source));
+
+        // Best field weight of every word in every bike
+        List<Map<String, Integer>> docWords = new ArrayList<>(bikes.size());
+        TreeMap<String, Integer> documentFrequency = new TreeMap<>();
+        for (BikeSummary bike : bikes) {
+            Map<String, Integer> words = new HashMap<>();
+            addField(words, bike.getName(), WEIGHT_NAME);
+            addField(words, bike.getBrand(), WEIGHT_BRAND);
+            addField(words, bike.getModel(), WEIGHT_MODEL);
+            if (bike.getTags() != null) {
+                for (String tag : bike.getTags()) {
+                    addField(words, tag, WEIGHT_TAG);
+                }
+            }
+            addField(words, bike.getDescription(), WEIGHT_DESCRIPTION);
+            docWords.add(words);
+            for (String word : words.keySet()) {
+                Integer count = documentFrequency.get(word);
+                documentFrequency.put(word, count == null ? 1 : count + 1);
+            }
+        }
+
+        String[] terms = documentFrequency.keySet().toArray(new String[0]);
+        Map<String, Integer> termIds = new HashMap<>(terms.length * 2);
+        int[][] postings = new int[terms.length][];
+        int[] filled = new int[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            termIds.put(terms[t], t);
+            postings[t] = new int[documentFrequency.get(terms[t])];
+        }
+
+        int[][] docTerms = new int[bikes.size()][];
+        int[][] docWeights = new int[bikes.size()][];
+        for (int doc = 0; doc < bikes.size(); doc++) {
+            Map<String, Integer> words = docWords.get(doc);
+            int[] ids = new int[words.size()];
+            int i = 0;
+            for (String word : words.keySet()) {
+                int termId = termIds.get(word);
+                ids[i++] = termId;
+                postings[termId][filled[termId]++] = doc;
+            }
+            Arrays.sort(ids);
+            int[] weights = new int[ids.length];
+            for (int j = 0; j < ids.length; j++) {
+                weights[j] = words.get(terms[ids[j]]);
+            }
+            docTerms[doc] = ids;
+            docWeights[doc] = weights;
+        }
+        return new BikeSearchIndex(bikes, terms, postings, docTerms, docWeights);
+    }
+
+    private static void addField(Map<String, Integer> words, String text, int weight) {
+        if (text == null) {
+            return;
+        }
+        for (String word : TextNormalizer.tokenize(TextNormalizer.fold(text))) {
+            Integer current = words.get(word);
+            if (current == null || current < weight) {
+                words.put(word, weight);
+            }
+        }
+    }
+
+    public int size() {
+        return bikes.size();
+    }
+
+    public BikeSummary getBike(int doc) {
+        return bikes.get(doc);
+    }
+
+    public List<BikeSummary> getBikes() {
+        return bikes;
+    }
+
+    // One per search box. Remembers the previous result so a query that only grows
+    // ("xe d" -> "xe da" -> "xe dap") re-checks the previous hits instead of the whole index.
+    public Session newSession() {
+        return new Session();
+    }
+
+    public class Session {
+        private List<String> lastTokens = Collections.emptyList();
+        // Hits of the last query in catalog order, with the summed score of all but its last word
+        private final int[] candidates = new int[bikes.size()];
+        private final int[] baseScores = new int[bikes.size()];
+        private int candidateCount = -1;
+
+        // Scratch buffers reused across keystrokes
+        private final int[] totals = new int[bikes.size()];
+        private final int[] stamps = new int[bikes.size()];
+        private int stamp;
+
+        public BikeSearchIndex getIndex() {
+            return BikeSearchIndex.this;
+        }
+
+        // Bike positions in the index, best match first; ties keep catalog order
+        public int[] search(String query) {
+            List<String> tokens = TextNormalizer.tokenize(TextNormalizer.fold(query));
+            int n = tokens.size();
+            if (n == 0) {
+                lastTokens = tokens;
+                candidateCount = -1;
+                return new int[0];
+            }
+
+            int[] lo = new int[n];
+            int[] hi = new int[n];
+            for (int i = 0; i < n; i++) {
+                String token = tokens.get(i);
+                lo[i] = lowerBound(token);
+                hi[i] = lowerBound(token + Character.MAX_VALUE);
+                if (lo[i] == hi[i]) {
+                    // Some word matches nothing, so nothing can match; a longer query will not either
+                    lastTokens = tokens;
+                    candidateCount = 0;
+                    return new int[0];
+                }
+            }
+
+            // Words before `from` scored the same last time, so their sum is reused
+            int from;
+            if (narrows(tokens)) {
+                from = lastTokens.size() - 1;
+            } else {
+                from = 0;
+                collect(lo[0], hi[0]);
+            }
+
+            int count = 0;
+            int maxScore = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                int doc = candidates[c];
+                int base = from == 0 ? 0 : baseScores[c];
+                int last = 0;
+                for (int i = from; i < n; i++) {
+                    int weight = matchWeight(doc, lo[i], hi[i], tokens.get(i));
+                    if (weight == 0) {
+                        base = -1;
+                        break;
+                    }
+                    if (i < n - 1) {
+                        base += weight;
+                    } else {
+                        last = weight;
+                    }
+                }
+                if (base >= 0) {
+                    // Compacting in place keeps catalog order
+                    candidates[count] = doc;
+                    baseScores[count] = base;
+                    totals[count] = base + last;
+                    maxScore = Math.max(maxScore, base + last);
+                    count++;
+                }
+            }
+            lastTokens = tokens;
+            candidateCount = count;
+
+            // Stable counting sort by score: scores are small, so this is linear in the hit count
+            int[] starts = new int[maxScore + 2];
+            for (int c = 0; c < count; c++) {
+                starts[maxScore - totals[c] + 1]++;
+            }
+            for (int s = 1; s < starts.length; s++) {
+                starts[s] += starts[s - 1];
+            }
+            int[] result = new int[count];
+            for (int c = 0; c < count; c++) {
+                result[starts[maxScore - totals[c]]++] = candidates[c];
+            }
+            return result;
+        }
+
+        // True when the previous hits are a superset of the new ones: same words, the last one
+        // possibly longer, and possibly more words after it
+        private boolean narrows(List<String> tokens) {
+            if (candidateCount < 0 || lastTokens.isEmpty() || tokens.size() < lastTokens.size()) {
+                return false;
+            }
+            int last = lastTokens.size() - 1;
+            for (int i = 0; i < last; i++) {
+                if (!tokens.get(i).equals(lastTokens.get(i))) {
+                    return false;
+                }
+            }
+            return tokens.get(last).startsWith(lastTokens.get(last));
+        }
+
+        // Every bike containing a term in [lo, hi), in catalog order
+        private void collect(int lo, int hi) {
+            if (hi - lo == 1) {
+                int[] docs = postings[lo];
+                System.arraycopy(docs, 0, candidates, 0, docs.length);
+                candidateCount = docs.length;
+                return;
+            }
+            stamp++;
+            for (int t = lo; t < hi; t++) {
+                for (int doc : postings[t]) {
+                    stamps[doc] = stamp;
+                }
+            }
+            int count = 0;
+            for (int doc = 0; doc < stamps.length; doc++) {
+                if (stamps[doc] == stamp) {
+                    candidates[count++] = doc;
+                }
+            }
+            candidateCount = count;
+        }
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Best weight of the bike's words in the term range; a whole-word match counts double
+    private int matchWeight(int doc, int lo, int hi, String token) {
+        int[] ids = docTerms[doc];
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < lo) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int best = 0;
+        for (int i = low; i < ids.length && ids[i] < hi; i++) {
+            int weight = docWeights[doc][i];
+            if (ids[i] == lo && terms[lo].equals(token)) {
+                weight *= 2;
+            }
+            best = Math.max(best, weight);
+        }
+        return best;
+    }
+}
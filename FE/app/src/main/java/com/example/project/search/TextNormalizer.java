@@ -0,0 +1,56 @@
+package com.example.project.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lower-cases and strips Vietnamese diacritics so "Xe đạp Điện" and "xe dap dien" compare equal
+public final class TextNormalizer {
+
+    private TextNormalizer() {}
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        // Plain ASCII (most queries while typing) skips the Normalizer entirely
+        boolean ascii = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        String decomposed = ascii ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c < 0x80) {
+                out.append(c >= 'A' && c <= 'Z' ? (char) (c + 32) : c);
+            } else if (c == 'đ' || c == 'Đ') {
+                // đ has no decomposition, it is its own letter
+                out.append('d');
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    // Splits folded text into letter/digit runs
+    public static List<String> tokenize(String folded) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.project.startup;
+
+import android.app.Application;
+import android.os.Trace;
+import android.util.Log;
+
+import com.example.project.network.RetrofitClient;
+import com.example.project.orders.OrderSubmitter;
+import com.example.project.utils.AppExecutors;
+import com.example.project.utils.AuthManager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cold-start work that no screen needs before its first frame. Building the network stack (Gson,
+// OkHttp, the Retrofit proxy) and reading the stored session run in parallel on the background pool
+// while the launcher activity inflates; whoever touches them first afterwards finds them ready, and
+// anyone who gets there earlier simply builds them itself under the same lock. Work that needs both
+// (resending queued orders) runs on the main thread once they are done.
+public final class StartupPipeline {
+    private static final String TAG = "StartupPipeline";
+
+    private static boolean started;
+
+    private StartupPipeline() {}
+
+    // From Application.onCreate, after RetrofitClient.init
+    public static synchronized void start(Application application) {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        AppExecutors executors = AppExecutors.getInstance();
+        Executor background = executors.background();
+        Runnable[] tasks = {
+                () -> RetrofitClient.getInstance(),
+                () -> AuthManager.getInstance(application).warmUp()
+        };
+        String[] names = {"startup:network", "startup:auth"};
+        AtomicInteger remaining = new AtomicInteger(tasks.length);
+
+        for (int i = 0; i < tasks.length; i++) {
+            Runnable task = tasks[i];
+            String name = names[i];
+            background.execute(() -> {
+                Trace.beginSection(name);
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // The first real use retries and reports the failure where it matters
+                    Log.w(TAG, name + " failed", e);
+                } finally {
+                    Trace.endSection();
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    executors.mainThread().execute(() -> onWarm(application));
+                }
+            });
+        }
+    }
+
+    private static void onWarm(Application application) {
+        Trace.beginSection("startup:orders");
+        try {
+            // Orders confirmed before the app was killed are sent now rather than when history is opened
+            OrderSubmitter.getInstance(application).resume();
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
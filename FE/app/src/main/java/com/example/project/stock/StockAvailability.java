@@ -0,0 +1,36 @@
+package com.example.project.stock;
+
+import com.example.project.ProductStock;
+
+import java.util.Collections;
+import java.util.List;
+
+// Stock of one bike: what can be ordered, and how it is spread over the stores. Immutable.
+public class StockAvailability {
+    private final String bikeId;
+    private final int total;
+    private final List<ProductStock> stores;
+
+    StockAvailability(String bikeId, int total, List<ProductStock> stores) {
+        this.bikeId = bikeId;
+        this.total = total;
+        this.stores = Collections.unmodifiableList(stores);
+    }
+
+    public String getBikeId() {
+        return bikeId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isInStock() {
+        return total > 0;
+    }
+
+    // One row per active store that carries the bike; copy before handing to an adapter
+    public List<ProductStock> getStores() {
+        return stores;
+    }
+}
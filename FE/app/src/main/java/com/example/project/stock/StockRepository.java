@@ -0,0 +1,196 @@
+package com.example.project.stock;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.project.ProductStock;
+import com.example.project.models.ApiResponse;
+import com.example.project.models.StockLookup;
+import com.example.project.network.ApiService;
+import com.example.project.network.RetrofitClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+// Stock lookups for list and detail screens. Answers are cached for a short time, and lookups made
+// within a few milliseconds of each other (a grid binding its rows) are sent as one GET /stock, so
+// a screen of 40 products costs one request. A bike already queued or in flight is never asked
+// for twice; later callers just wait for the same answer. Main thread only.
+public class StockRepository {
+    private static final String TAG = "StockRepository";
+    // Stock moves slowly enough that a badge this old is still useful
+    private static final long TTL_MS = 30 * 1000;
+    // Long enough to collect the binds of one layout pass
+    private static final long BATCH_DELAY_MS = 50;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_ENTRIES = 500;
+
+    private static StockRepository instance;
+
+    public interface Callback {
+        // null when the lookup failed and nothing, not even an expired answer, is cached
+        void onAvailability(StockAvailability availability);
+    }
+
+    private static class Entry {
+        final StockAvailability availability;
+        final long fetchedAt;
+
+        Entry(StockAvailability availability, long fetchedAt) {
+            this.availability = availability;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final ApiService apiService;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Access-ordered, so the least recently shown bikes are evicted first
+    private final Map<String, Entry> cache = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // Callers per bike id, for every id that is queued or in flight
+    private final Map<String, List<Callback>> waiting = new HashMap<>();
+    private final Set<String> queued = new LinkedHashSet<>();
+
+    private final Runnable flush = this::flush;
+
+    private StockRepository() {
+        apiService = RetrofitClient.getInstance().getApiService();
+    }
+
+    public static synchronized StockRepository getInstance() {
+        if (instance == null) {
+            instance = new StockRepository();
+        }
+        return instance;
+    }
+
+    // The cached answer if it is still fresh, without triggering a lookup
+    public StockAvailability peek(String bikeId) {
+        Entry entry = cache.get(bikeId);
+        return entry != null && isFresh(entry) ? entry.availability : null;
+    }
+
+    // Calls back synchronously when a fresh answer is cached, otherwise once the batch returns
+    public void get(String bikeId, Callback callback) {
+        Entry entry = cache.get(bikeId);
+        if (entry != null && isFresh(entry)) {
+            callback.onAvailability(entry.availability);
+            return;
+        }
+        List<Callback> callbacks = waiting.get(bikeId);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        waiting.put(bikeId, callbacks);
+        queued.add(bikeId);
+        if (queued.size() >= MAX_BATCH_SIZE) {
+            flush();
+        } else {
+            handler.removeCallbacks(flush);
+            handler.postDelayed(flush, BATCH_DELAY_MS);
+        }
+    }
+
+    // Forgets cached answers, e.g. after this device bought some of them
+    public void invalidate(Collection<String> bikeIds) {
+        for (String bikeId : bikeIds) {
+            cache.remove(bikeId);
+        }
+    }
+
+    private void flush() {
+        handler.removeCallbacks(flush);
+        while (!queued.isEmpty()) {
+            List<String> batch = new ArrayList<>();
+            Iterator<String> iterator = queued.iterator();
+            while (iterator.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            request(batch);
+        }
+    }
+
+    private void request(List<String> bikeIds) {
+        apiService.getStock(String.join(",", bikeIds)).enqueue(new retrofit2.Callback<ApiResponse<StockLookup>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<StockLookup>> call, Response<ApiResponse<StockLookup>> response) {
+                ApiResponse<StockLookup> body = response.body();
+                if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getData() == null) {
+                    onFailure(call, new IllegalStateException("HTTP " + response.code()));
+                    return;
+                }
+                store(body.getData());
+                // Ids the server skipped fall back like a failed lookup
+                deliverStale(bikeIds);
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<StockLookup>> call, Throwable t) {
+                Log.w(TAG, "Stock lookup failed for " + bikeIds.size() + " bikes", t);
+                deliverStale(bikeIds);
+            }
+        });
+    }
+
+    private void store(StockLookup lookup) {
+        Map<String, StockLookup.Store> stores = new HashMap<>();
+        for (StockLookup.Store store : lookup.getStores()) {
+            stores.put(store.getId(), store);
+        }
+        long now = System.currentTimeMillis();
+        for (StockLookup.Item item : lookup.getItems()) {
+            List<ProductStock> rows = new ArrayList<>();
+            for (StockLookup.StoreQuantity quantity : item.getStores()) {
+                StockLookup.Store store = stores.get(quantity.getStoreId());
+                if (store != null) {
+                    rows.add(new ProductStock(store.getId(), store.getName(), store.getAddress(),
+                            quantity.getQuantity(), ProductStock.statusFor(quantity.getQuantity())));
+                }
+            }
+            StockAvailability availability = new StockAvailability(item.getBikeId(), item.getTotal(), rows);
+            cache.put(item.getBikeId(), new Entry(availability, now));
+            deliver(item.getBikeId(), availability);
+        }
+    }
+
+    private void deliverStale(List<String> bikeIds) {
+        for (String bikeId : bikeIds) {
+            if (waiting.containsKey(bikeId)) {
+                Entry entry = cache.get(bikeId);
+                deliver(bikeId, entry != null ? entry.availability : null);
+            }
+        }
+    }
+
+    private void deliver(String bikeId, StockAvailability availability) {
+        List<Callback> callbacks = waiting.remove(bikeId);
+        if (callbacks != null) {
+            for (Callback callback : callbacks) {
+                callback.onAvailability(availability);
+            }
+        }
+    }
+
+    private static boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.fetchedAt < TTL_MS;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.project.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AppExecutors {
+    private static AppExecutors instance;
+
+    private final ExecutorService diskIO;
+    private final ExecutorService background;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        diskIO = Executors.newSingleThreadExecutor();
+        background = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() - 1));
+        mainThread = new MainThreadExecutor();
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    // Serialized executor for reads/writes to local files and databases
+    public ExecutorService diskIO() {
+        return diskIO;
+    }
+
+    // Shared pool for CPU work such as diffing, indexing and encoding
+    public ExecutorService background() {
+        return background;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    }
+}
@@ -5,15 +5,28 @@ import android.content.SharedPreferences;
 import com.example.project.models.User;
 import com.google.gson.Gson;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class AuthManager {
     private static final String PREF_NAME = "auth_prefs";
     private static final String KEY_TOKEN = "token";
+    private static final String KEY_REFRESH_TOKEN = "refresh_token";
     private static final String KEY_USER = "user";
     private static final String KEY_IS_LOGGED_IN = "is_logged_in";
     
     private static AuthManager instance;
     private SharedPreferences preferences;
     private Gson gson;
+    // Decoded once and replaced as a whole, so role checks are field reads and never see half an update
+    private volatile Session session;
+    private final Object lock = new Object();
+    private final List<SessionListener> listeners = new CopyOnWriteArrayList<>();
+    
+    public interface SessionListener {
+        // Main thread; called after every login, profile update, logout and expiry
+        void onSessionChanged(Session previous, Session current);
+    }
     
     private AuthManager(Context context) {
         preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
@@ -27,57 +40,138 @@ public class AuthManager {
         return instance;
     }
     
-    public void saveAuthData(String token, User user) {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putString(KEY_TOKEN, token);
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.apply();
+    // Loads the preferences file and decodes the stored user, e.g. on a background thread at startup
+    public void warmUp() {
+        getSession();
+    }
+    
+    public Session getSession() {
+        Session current = session;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (session == null) {
+                session = loadSession();
+            }
+            return session;
+        }
+    }
+    
+    public void addSessionListener(SessionListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+    
+    public void removeSessionListener(SessionListener listener) {
+        listeners.remove(listener);
+    }
+    
+    // After login, register and every token refresh
+    public void saveAuthData(String token, String refreshToken, User user) {
+        Session previous;
+        Session current = new Session(token, refreshToken, user);
+        synchronized (lock) {
+            previous = getSession();
+            session = current;
+            SharedPreferences.Editor editor = preferences.edit();
+            editor.putString(KEY_TOKEN, token);
+            editor.putString(KEY_REFRESH_TOKEN, refreshToken);
+            editor.putString(KEY_USER, gson.toJson(user));
+            editor.putBoolean(KEY_IS_LOGGED_IN, true);
+            editor.apply();
+        }
+        notifyChanged(previous, current);
     }
     
     public void clearAuthData() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.remove(KEY_TOKEN);
-        editor.remove(KEY_USER);
-        editor.putBoolean(KEY_IS_LOGGED_IN, false);
-        editor.apply();
+        Session previous;
+        synchronized (lock) {
+            previous = getSession();
+            session = Session.LOGGED_OUT;
+            SharedPreferences.Editor editor = preferences.edit();
+            editor.remove(KEY_TOKEN);
+            editor.remove(KEY_REFRESH_TOKEN);
+            editor.remove(KEY_USER);
+            editor.putBoolean(KEY_IS_LOGGED_IN, false);
+            editor.apply();
+        }
+        notifyChanged(previous, Session.LOGGED_OUT);
+    }
+    
+    // The server rejected this token (expired or revoked). Logs out unless someone has logged in again
+    // since the request that found out was sent.
+    public void expireSession(String token) {
+        if (token == null || !token.equals(getSession().getToken())) {
+            return;
+        }
+        synchronized (lock) {
+            if (!token.equals(session.getToken())) {
+                return;
+            }
+        }
+        clearAuthData();
     }
     
     public boolean isLoggedIn() {
-        return preferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return getSession().isLoggedIn();
     }
     
     public String getToken() {
-        return preferences.getString(KEY_TOKEN, null);
+        return getSession().getToken();
     }
     
     public String getAuthHeader() {
-        String token = getToken();
-        return token != null ? "Bearer " + token : null;
+        return getSession().getAuthHeader();
     }
     
     public User getCurrentUser() {
-        String userJson = preferences.getString(KEY_USER, null);
-        if (userJson != null) {
-            return gson.fromJson(userJson, User.class);
-        }
-        return null;
+        return getSession().getUser();
     }
     
     public void updateUser(User user) {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.apply();
+        Session previous;
+        Session current;
+        synchronized (lock) {
+            previous = getSession();
+            current = new Session(previous.getToken(), previous.getRefreshToken(), user);
+            session = current;
+            SharedPreferences.Editor editor = preferences.edit();
+            editor.putString(KEY_USER, gson.toJson(user));
+            editor.apply();
+        }
+        notifyChanged(previous, current);
     }
     
     public boolean isAdmin() {
-        User user = getCurrentUser();
-        return user != null && "admin".equals(user.getRole());
+        return getSession().isAdmin();
     }
     
     public boolean isStaff() {
-        User user = getCurrentUser();
-        return user != null && ("admin".equals(user.getRole()) || "staff".equals(user.getRole()));
+        return getSession().isStaff();
+    }
+    
+    private Session loadSession() {
+        if (!preferences.getBoolean(KEY_IS_LOGGED_IN, false)) {
+            return Session.LOGGED_OUT;
+        }
+        String token = preferences.getString(KEY_TOKEN, null);
+        String userJson = preferences.getString(KEY_USER, null);
+        User user = userJson != null ? gson.fromJson(userJson, User.class) : null;
+        return token != null && user != null
+                ? new Session(token, preferences.getString(KEY_REFRESH_TOKEN, null), user)
+                : Session.LOGGED_OUT;
+    }
+    
+    private void notifyChanged(Session previous, Session current) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        AppExecutors.getInstance().mainThread().execute(() -> {
+            for (SessionListener listener : listeners) {
+                listener.onSessionChanged(previous, current);
+            }
+        });
     }
 }
-
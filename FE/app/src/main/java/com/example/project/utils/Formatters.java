@@ -0,0 +1,136 @@
+package com.example.project.utils;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+// Shared text formatting for list rows. Each thread gets its own instance (formatters are not
+// thread-safe), holding one formatter per pattern and a small cache of already rendered strings,
+// so rebinding a row that was on screen a moment ago allocates nothing.
+public final class Formatters {
+    private static final Locale VIETNAMESE = new Locale("vi", "VN");
+    private static final long MINUTE_MS = 60 * 1000;
+    private static final long DAY_MS = 24 * 60 * MINUTE_MS;
+    private static final int TIME_CACHE_SIZE = 128;
+    private static final int DATE_CACHE_SIZE = 64;
+    private static final int PRICE_CACHE_SIZE = 128;
+
+    private static final ThreadLocal<Formatters> INSTANCE = new ThreadLocal<Formatters>() {
+        @Override
+        protected Formatters initialValue() {
+            return new Formatters();
+        }
+    };
+
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+    private final Date date = new Date();
+    private final NumberFormat priceFormat;
+    private final LongStringCache times = new LongStringCache(TIME_CACHE_SIZE);
+    private final LongStringCache dates = new LongStringCache(DATE_CACHE_SIZE);
+    private final LongStringCache prices = new LongStringCache(PRICE_CACHE_SIZE);
+    private final LongStringCache vndPrices = new LongStringCache(PRICE_CACHE_SIZE);
+
+    private Formatters() {
+        // Prices are in đồng whatever the device locale is, so they always use Vietnamese grouping
+        priceFormat = new DecimalFormat("#,##0", DecimalFormatSymbols.getInstance(VIETNAMESE));
+    }
+
+    // The calling thread's instance; do not hand it to another thread
+    public static Formatters get() {
+        return INSTANCE.get();
+    }
+
+    // "HH:mm"; every timestamp in the same minute shares one cached string
+    public String time(long epochMillis) {
+        long minute = Math.floorDiv(epochMillis, MINUTE_MS);
+        String cached = times.get(minute);
+        if (cached == null) {
+            date.setTime(minute * MINUTE_MS);
+            cached = timeFormat.format(date);
+            times.put(minute, cached);
+        }
+        return cached;
+    }
+
+    // "dd/MM/yyyy"; cached per local calendar day
+    public String date(long epochMillis) {
+        long day = Math.floorDiv(epochMillis + TimeZone.getDefault().getOffset(epochMillis), DAY_MS);
+        String cached = dates.get(day);
+        if (cached == null) {
+            date.setTime(epochMillis);
+            cached = dateFormat.format(date);
+            dates.put(day, cached);
+        }
+        return cached;
+    }
+
+    // "29.990.000 ₫"
+    public String price(double amount) {
+        long key = Double.doubleToLongBits(amount);
+        String cached = prices.get(key);
+        if (cached == null) {
+            cached = priceFormat.format(amount) + " ₫";
+            prices.put(key, cached);
+        }
+        return cached;
+    }
+
+    // "29.990.000 VNĐ", used by the cart and checkout screens
+    public String priceVnd(double amount) {
+        long key = Double.doubleToLongBits(amount);
+        String cached = vndPrices.get(key);
+        if (cached == null) {
+            cached = priceFormat.format(amount) + " VNĐ";
+            vndPrices.put(key, cached);
+        }
+        return cached;
+    }
+
+    // Fixed-size LRU keyed by a primitive long, so lookups box nothing. The capacity is small enough
+    // that a linear scan beats hashing, and eviction picks the entry used longest ago.
+    static final class LongStringCache {
+        private final long[] keys;
+        private final String[] values;
+        private final long[] lastUsed;
+        private int size;
+        private long clock;
+
+        LongStringCache(int capacity) {
+            keys = new long[capacity];
+            values = new String[capacity];
+            lastUsed = new long[capacity];
+        }
+
+        String get(long key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    lastUsed[i] = ++clock;
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        void put(long key, String value) {
+            int slot;
+            if (size < keys.length) {
+                slot = size++;
+            } else {
+                slot = 0;
+                for (int i = 1; i < size; i++) {
+                    if (lastUsed[i] < lastUsed[slot]) {
+                        slot = i;
+                    }
+                }
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            lastUsed[slot] = ++clock;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.project.utils;
+
+// Money is carried as a primitive long of minor units, never as a display string or a double.
+// The shop only sells in đồng, which has no subunit, so one minor unit is one đồng. Arithmetic
+// throws instead of silently wrapping, and text is produced only when a row is rendered.
+public final class Money {
+    public static final long ZERO = 0;
+
+    private Money() {
+    }
+
+    // The API sends prices as JSON numbers. Rows are checked with this where they are read, and a row
+    // with a bad price is skipped there rather than shown or charged.
+    public static boolean isValidApiAmount(double amount) {
+        return !Double.isNaN(amount) && !Double.isInfinite(amount) && amount >= 0;
+    }
+
+    // Only for amounts that passed isValidApiAmount
+    public static long fromApi(double amount) {
+        if (!isValidApiAmount(amount)) {
+            throw new IllegalArgumentException("Invalid price: " + amount);
+        }
+        return Math.round(amount);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long times(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, (long) quantity);
+    }
+
+    // "29.990.000 VNĐ"
+    public static String format(long amount) {
+        return Formatters.get().priceVnd(amount);
+    }
+}
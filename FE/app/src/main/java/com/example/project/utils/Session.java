@@ -0,0 +1,98 @@
+package com.example.project.utils;
+
+import android.util.Base64;
+
+import com.example.project.models.Role;
+import com.example.project.models.User;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+// Who is logged in, as of one moment. Immutable: AuthManager swaps in a new instance on every
+// login, profile update and logout, so a reader never sees the token of one user with the role of
+// another. Do not modify the User it holds; pass a new one to AuthManager.updateUser instead.
+public final class Session {
+    public static final Session LOGGED_OUT = new Session(null, null, null);
+
+    private final String token;
+    private final String refreshToken;
+    private final User user;
+    private final Role role;
+    private final long expiresAt;
+
+    Session(String token, String refreshToken, User user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.user = user;
+        this.role = user != null ? Role.fromValue(user.getRole()) : Role.CUSTOMER;
+        this.expiresAt = token != null ? readExpiry(token) : 0;
+    }
+
+    public boolean isLoggedIn() {
+        return token != null && user != null;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    // Null for sessions saved before refresh tokens existed; those end when the token expires
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public String getAuthHeader() {
+        return token != null ? "Bearer " + token : null;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUserId() {
+        return user != null ? user.getId() : null;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return isLoggedIn() && role == Role.ADMIN;
+    }
+
+    public boolean isStaff() {
+        return isLoggedIn() && role.isStaff();
+    }
+
+    // Epoch millis from the token's exp claim; 0 when the token does not say
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt > 0 && now >= expiresAt;
+    }
+
+    // Reads exp from the JWT payload without verifying it; the server still decides
+    private static long readExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return 0;
+        }
+        try {
+            String payload = new String(Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP),
+                    "UTF-8");
+            JsonElement json = new JsonParser().parse(payload);
+            if (json.isJsonObject()) {
+                JsonObject claims = json.getAsJsonObject();
+                if (claims.has("exp") && claims.get("exp").isJsonPrimitive()) {
+                    return claims.get("exp").getAsLong() * 1000;
+                }
+            }
+        } catch (RuntimeException | java.io.UnsupportedEncodingException e) {
+            // Not a JWT we can read; treat as never expiring locally
+        }
+        return 0;
+    }
+}
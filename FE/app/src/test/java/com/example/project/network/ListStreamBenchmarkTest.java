@@ -0,0 +1,196 @@
+package com.example.project.network;
+
+import com.example.project.models.ApiResponse;
+import com.example.project.models.Bike;
+import com.example.project.models.BikeSummary;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM benchmark for a large catalog page: decodes the same 5k-bike response with the Gson converter
+ * path ({@code ApiResponse<Bike[]>}) and with {@link ListStream} + {@link BikeSummaryRowReader}, and
+ * compares bytes allocated before the first row is available and for the whole page. The payload
+ * carries every field, as from a server that ignores {@code fields=}.
+ */
+public class ListStreamBenchmarkTest {
+    private static final int BIKES = 5000;
+    private static final int FIRST_CHUNK = 10;
+    private static final Type GSON_TYPE = new TypeToken<ApiResponse<Bike[]>>() {}.getType();
+
+    private final Gson gson = new Gson();
+    private final String payload = payload(BIKES);
+
+    @Test
+    public void stream_decodesListFieldsLikeGson() throws IOException {
+        ApiResponse<Bike[]> expected = gson.fromJson(payload, GSON_TYPE);
+        List<BikeSummary> rows = new ArrayList<>();
+        ApiResponse.Pagination pagination;
+        try (ListStream<BikeSummary> stream = open()) {
+            assertTrue(stream.isSuccess());
+            while (!stream.isFinished()) {
+                rows.addAll(stream.next(FIRST_CHUNK));
+            }
+            pagination = stream.getPagination();
+        }
+
+        assertEquals(BIKES, rows.size());
+        assertEquals(expected.getPagination().getTotalItems(), pagination.getTotalItems());
+        for (int i = 0; i < BIKES; i += 97) {
+            Bike full = expected.getData()[i];
+            BikeSummary row = rows.get(i);
+            assertEquals(full.getId(), row.getId());
+            assertEquals(full.getName(), row.getName());
+            assertEquals(full.getBrand(), row.getBrand());
+            assertEquals(full.getPrice(), row.getPrice(), 0);
+            assertEquals(full.getStock(), row.getStock());
+            assertEquals(full.getStatus(), row.getStatus());
+            assertEquals(full.isFeatured(), row.isFeatured());
+            assertEquals(full.getTags(), row.getTags());
+            assertEquals(full.getImages().get(0).getUrl(), row.getImageUrl());
+            assertEquals(1, row.getImages().size());
+        }
+    }
+
+    @Test
+    public void stream_handlesEnvelopeWithoutRows() throws IOException {
+        String body = "{\"success\":false,\"message\":\"Lỗi server\",\"data\":null}";
+        try (ListStream<BikeSummary> stream = new ListStream<>(new StringReader(body), () -> { }, new BikeSummaryRowReader(), gson)) {
+            assertTrue(stream.isFinished());
+            assertFalse(stream.isSuccess());
+            assertEquals("Lỗi server", stream.getMessage());
+            assertTrue(stream.next(FIRST_CHUNK).isEmpty());
+        }
+    }
+
+    @Test
+    public void stream_allocatesLessThanGson() {
+        assumeAllocationCounting();
+
+        long gsonBytes = measure(this::decodeWithGson);
+        long firstRowBytes = measure(this::decodeFirstChunk);
+        long streamBytes = measure(this::decodeStreamed);
+        long gsonNanos = time(this::decodeWithGson);
+        long firstRowNanos = time(this::decodeFirstChunk);
+        System.out.printf(Locale.US, "%d bikes: Gson %.1f MB, %.1f ms to first row; "
+                        + "ListStream %.1f MB, first %d rows after %.1f KB, %.2f ms%n",
+                BIKES, gsonBytes / 1e6, gsonNanos / 1e6,
+                streamBytes / 1e6, FIRST_CHUNK, firstRowBytes / 1e3, firstRowNanos / 1e6);
+
+        // Gson has built the whole page before the first row can be shown
+        assertTrue(firstRowBytes * 100 < gsonBytes);
+        assertTrue("ListStream allocated " + streamBytes + " B vs Gson " + gsonBytes + " B",
+                streamBytes * 2 < gsonBytes);
+    }
+
+    private int sink;
+
+    private void decodeWithGson() {
+        ApiResponse<Bike[]> response = gson.fromJson(new StringReader(payload), GSON_TYPE);
+        sink += response.getData().length;
+    }
+
+    private void decodeFirstChunk() {
+        try (ListStream<BikeSummary> stream = open()) {
+            sink += stream.next(FIRST_CHUNK).size();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void decodeStreamed() {
+        try (ListStream<BikeSummary> stream = open()) {
+            int chunk = FIRST_CHUNK;
+            while (!stream.isFinished()) {
+                sink += stream.next(chunk).size();
+                chunk = Math.min(chunk * 2, 200);
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private ListStream<BikeSummary> open() throws IOException {
+        return new ListStream<>(new StringReader(payload), () -> { }, new BikeSummaryRowReader(), gson);
+    }
+
+    // A GET /bikes response the way the server serializes its documents
+    private static String payload(int count) {
+        StringBuilder json = new StringBuilder(count * 1200);
+        json.append("{\"success\":true,\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"_id\":\"").append(String.format(Locale.US, "66f0a1b2c3d4e5f6%08x", i)).append('"')
+                    .append(",\"name\":\"Xe đạp điện ").append(i).append('"')
+                    .append(",\"brand\":\"").append(i % 2 == 0 ? "VinFast" : "Yadea").append('"')
+                    .append(",\"model\":\"M").append(i % 50).append('"')
+                    .append(",\"price\":").append(15_000_000 + (i % 40) * 500_000)
+                    .append(",\"originalPrice\":").append(18_000_000 + (i % 40) * 500_000)
+                    .append(",\"discount\":10")
+                    .append(",\"description\":\"Xe đạp điện đô thị, pin lithium, quãng đường 60 km mỗi lần sạc.\"")
+                    .append(",\"year\":2025,\"color\":\"Đen\",\"category\":\"city\"")
+                    .append(",\"status\":\"").append(i % 7 == 0 ? "out_of_stock" : "available").append('"')
+                    .append(",\"stock\":").append(i % 30)
+                    .append(",\"images\":[");
+            for (int j = 0; j < 4; j++) {
+                if (j > 0) {
+                    json.append(',');
+                }
+                json.append("{\"url\":\"https://res.cloudinary.com/demo/image/upload/bikes/").append(i).append('_').append(j)
+                        .append(".jpg\",\"alt\":\"Ảnh ").append(j).append("\",\"_id\":\"img").append(i).append(j).append("\"}");
+            }
+            json.append("],\"colors\":[{\"name\":\"Đen\",\"hex\":\"#000000\"},{\"name\":\"Trắng\",\"hex\":\"#FFFFFF\"}]")
+                    .append(",\"specifications\":{\"battery\":\"48V 12Ah\",\"motor\":\"350W\",\"range\":\"60 km\"")
+                    .append(",\"maxSpeed\":\"35 km/h\",\"weight\":\"28 kg\",\"chargingTime\":\"6 giờ\"}")
+                    .append(",\"features\":[\"Phanh đĩa\",\"Đèn LED\",\"Chống nước IP54\"]")
+                    .append(",\"warranty\":\"24 tháng\"")
+                    .append(",\"rating\":{\"average\":4.5,\"count\":120,\"distribution\":{\"5\":80,\"4\":25,\"3\":10,\"2\":3,\"1\":2}}")
+                    .append(",\"isFeatured\":").append(i % 10 == 0)
+                    .append(",\"tags\":[\"xe điện\",\"đô thị\",\"").append(i % 2 == 0 ? "vinfast" : "yadea").append("\"]")
+                    .append(",\"createdAt\":\"2025-09-01T08:00:00.000Z\",\"updatedAt\":\"2025-10-01T08:00:00.000Z\",\"__v\":0}");
+        }
+        json.append("],\"pagination\":{\"currentPage\":1,\"totalPages\":1,\"totalItems\":").append(count)
+                .append(",\"itemsPerPage\":").append(count).append(",\"hasNextPage\":false,\"hasPrevPage\":false}}");
+        return json.toString();
+    }
+
+    // Bytes allocated by this thread while running the workload, after a warm-up run
+    private static long measure(Runnable workload) {
+        workload.run();
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long start = bean.getThreadAllocatedBytes(thread);
+        workload.run();
+        return bean.getThreadAllocatedBytes(thread) - start;
+    }
+
+    // Best of a few warm runs; reported only, since wall time on CI machines is too noisy to assert
+    private static long time(Runnable workload) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            workload.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void assumeAllocationCounting() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        org.junit.Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.project.search;
+
+import com.example.project.models.BikeSummary;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests for {@link BikeSearchIndex}: a session that narrows its previous hits must answer exactly
+ * like a fresh search, Vietnamese text matches with or without diacritics, and field weights decide
+ * the order. Also types queries against a 10k-bike catalog and reports the time per keystroke.
+ */
+public class BikeSearchIndexTest {
+    private static final int BIKES = 10_000;
+    private static final String[] BRANDS = {"VinFast", "Yadea", "Pega", "Asama", "Giant"};
+
+    // Typed one keystroke at a time; includes backspaces, words that match nothing and retyping after them
+    private static final String[] KEYSTROKES = {
+            "x", "xe", "xe ", "xe d", "xe da", "xe dap", "xe dap d", "xe dap di", "xe dap dien",
+            "xe dap dien v", "xe dap dien vi", "xe dap dien vin", "xe dap dien vinf", "xe dap dien vinfast",
+            "xe dap dien vinfast q", "xe dap dien vinfast qq", "xe dap dien vinfast q", "xe dap dien vinfast",
+            "xe dap dien vinfast m", "xe dap dien vinfast m1", "xe dap dien vinfast m12",
+            "zz", "zz x", "zz xe", "z", "", "y", "ya", "yad", "yadea", "yadea g", "yadea g5",
+            "Đ", "Đạ", "Đạp", "đạp Điện", "DAP DIEN ASAMA"
+    };
+
+    private final List<BikeSummary> catalog = catalog(BIKES);
+
+    @Test
+    public void session_narrowingMatchesFreshSearch() {
+        BikeSearchIndex index = BikeSearchIndex.build(catalog);
+        BikeSearchIndex.Session session = index.newSession();
+        for (String query : KEYSTROKES) {
+            assertArrayEquals("query \"" + query + "\"", index.newSession().search(query), session.search(query));
+        }
+    }
+
+    @Test
+    public void session_wordMatchingNothingStaysEmptyWhileNarrowing() {
+        BikeSearchIndex index = BikeSearchIndex.build(catalog);
+        BikeSearchIndex.Session session = index.newSession();
+        assertEquals(0, session.search("vinfast qq").length);
+        // Narrows the empty result of the early exit
+        assertEquals(0, session.search("vinfast qqq").length);
+        assertEquals(0, session.search("vinfast qqq xe").length);
+        // Backing out of the dead word must search the catalog again
+        int[] hits = session.search("vinfast");
+        assertArrayEquals(index.newSession().search("vinfast"), hits);
+        assertEquals(BIKES / BRANDS.length, hits.length);
+    }
+
+    @Test
+    public void search_foldsVietnameseDiacritics() {
+        BikeSearchIndex index = BikeSearchIndex.build(Arrays.asList(
+                bike("Xe Đạp Điện Thống Nhất", "Thống Nhất", "TN1", "Xe đạp điện cho học sinh"),
+                bike("Xe máy điện", "Honda", "EM1", "Không phải xe đạp")));
+        BikeSearchIndex.Session session = index.newSession();
+
+        assertArrayEquals(new int[]{0, 1}, session.search("xe dap"));
+        assertArrayEquals(new int[]{0}, session.search("xe dap dien thong"));
+        assertArrayEquals(new int[]{0}, session.search("XE ĐẠP ĐIỆN THỐNG"));
+        assertArrayEquals(new int[]{0, 1}, index.newSession().search("xe đap điên"));
+        assertArrayEquals(new int[]{0}, index.newSession().search("thong nhat"));
+        assertArrayEquals(new int[]{1}, index.newSession().search("may"));
+    }
+
+    @Test
+    public void search_ranksByFieldAndWholeWord() {
+        BikeSearchIndex index = BikeSearchIndex.build(Arrays.asList(
+                bike("City 1", "Pega", "C1", "Phụ tùng dùng chung với Yadea"),
+                bike("City 2", "Yadea", "C2", null),
+                bike("Yadea G5", "Yadea", "G5", null),
+                bike("City 3", "Yadeax", "C3", null),
+                bike("City 4", "Pega", "C4", null, "yadea"),
+                bike("City 5", "Yadea", "C5", null)));
+
+        // Name, brand, tag, then description; a whole word counts double, so the tag beats the
+        // brand that only starts with the query. Ties keep catalog order.
+        assertArrayEquals(new int[]{2, 1, 5, 4, 3, 0}, index.newSession().search("yadea"));
+        // Every hit is a prefix now, so only the field weights count
+        assertArrayEquals(new int[]{2, 1, 3, 5, 4, 0}, index.newSession().search("yade"));
+    }
+
+    @Test
+    public void search_10kBikesPerKeystroke() {
+        BikeSearchIndex index = BikeSearchIndex.build(catalog);
+        long buildNanos = time(() -> sink += BikeSearchIndex.build(catalog).size());
+        long sessionNanos = time(() -> typeInto(index.newSession()));
+        long freshNanos = time(() -> typeFresh(index));
+        System.out.printf(Locale.US, "%d bikes: build %.1f ms; %d keystrokes: session %.3f ms/key, "
+                        + "fresh search %.3f ms/key%n",
+                BIKES, buildNanos / 1e6, KEYSTROKES.length,
+                sessionNanos / 1e6 / KEYSTROKES.length, freshNanos / 1e6 / KEYSTROKES.length);
+
+        // Far above the expected figure; only catches a search that went quadratic
+        assertTrue("session took " + sessionNanos / KEYSTROKES.length + " ns/key",
+                sessionNanos / KEYSTROKES.length < 50_000_000L);
+
+        if (allocationCounting()) {
+            long sessionBytes = measure(() -> typeInto(index.newSession()));
+            long freshBytes = measure(() -> typeFresh(index));
+            System.out.printf(Locale.US, "bytes per keystroke: session %.0f, fresh search %.0f%n",
+                    (double) sessionBytes / KEYSTROKES.length, (double) freshBytes / KEYSTROKES.length);
+            // A session reuses its buffers; only the result and the query's words are new
+            assertTrue(sessionBytes * 2 < freshBytes);
+        }
+    }
+
+    private int sink;
+
+    private void typeInto(BikeSearchIndex.Session session) {
+        for (String query : KEYSTROKES) {
+            sink += session.search(query).length;
+        }
+    }
+
+    private void typeFresh(BikeSearchIndex index) {
+        for (String query : KEYSTROKES) {
+            sink += index.newSession().search(query).length;
+        }
+    }
+
+    private static List<BikeSummary> catalog(int count) {
+        List<BikeSummary> bikes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String brand = BRANDS[i % BRANDS.length];
+            bikes.add(bike((i % 3 == 0 ? "Xe đạp điện " : "Xe máy điện ") + brand + " " + i,
+                    brand, "M" + (i % 50),
+                    "Xe điện đô thị, pin lithium, quãng đường " + (40 + i % 30) + " km mỗi lần sạc.",
+                    "xe điện", i % 2 == 0 ? "đô thị" : "học sinh", brand.toLowerCase(Locale.ROOT)));
+        }
+        return bikes;
+    }
+
+    private static BikeSummary bike(String name, String brand, String model, String description, String... tags) {
+        BikeSummary bike = new BikeSummary();
+        bike.setName(name);
+        bike.setBrand(brand);
+        bike.setModel(model);
+        bike.setDescription(description);
+        bike.setTags(Arrays.asList(tags));
+        return bike;
+    }
+
+    // Bytes allocated by this thread while running the workload, after a warm-up run
+    private static long measure(Runnable workload) {
+        workload.run();
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long start = bean.getThreadAllocatedBytes(thread);
+        workload.run();
+        return bean.getThreadAllocatedBytes(thread) - start;
+    }
+
+    // Best of a few warm runs
+    private static long time(Runnable workload) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            workload.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static boolean allocationCounting() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.project.utils;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM microbenchmark for row binding: formats a timestamp and a price per row the way the adapters
+ * used to (a new formatter per bind) and through {@link Formatters}, and compares bytes allocated
+ * per bind on the test thread.
+ */
+public class FormattersBenchmarkTest {
+    private static final int ROWS = 200;
+    private static final int PASSES = 50;
+    private static final long START = 1_760_000_000_000L;
+
+    private final long[] timestamps = new long[ROWS];
+    private final double[] prices = new double[ROWS];
+
+    public FormattersBenchmarkTest() {
+        // A screenful of chat: a few messages per minute over about an hour, 40 distinct prices
+        for (int i = 0; i < ROWS; i++) {
+            timestamps[i] = START + i * 17_000L;
+            prices[i] = 15_000_000 + (i % 40) * 500_000;
+        }
+    }
+
+    @Test
+    public void time_matchesSimpleDateFormatWithinMinute() {
+        SimpleDateFormat expected = new SimpleDateFormat("HH:mm", Locale.getDefault());
+        Formatters formatters = Formatters.get();
+        for (long ts : timestamps) {
+            assertEquals(expected.format(new Date(ts)), formatters.time(ts));
+        }
+    }
+
+    @Test
+    public void price_usesVietnameseGrouping() {
+        assertEquals("29.990.000 ₫", Formatters.get().price(29_990_000));
+        assertEquals("1.500.000 VNĐ", Formatters.get().priceVnd(1_500_000));
+        assertEquals("0 ₫", Formatters.get().price(0));
+    }
+
+    @Test
+    public void cache_evictsLeastRecentlyUsed() {
+        Formatters.LongStringCache cache = new Formatters.LongStringCache(2);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.get(1);
+        cache.put(3, "c");
+        assertEquals("a", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("c", cache.get(3));
+    }
+
+    @Test
+    public void bind_allocatesLessThanPerBindFormatters() {
+        assumeAllocationCounting();
+
+        long before = measure(this::bindUncached);
+        long after = measure(this::bindCached);
+        double beforePerBind = (double) before / (ROWS * PASSES);
+        double afterPerBind = (double) after / (ROWS * PASSES);
+        System.out.printf(Locale.US, "bytes per bind: per-call formatters=%.0f, Formatters=%.1f%n",
+                beforePerBind, afterPerBind);
+
+        // Rebinding rows that are already cached should be (close to) allocation free
+        assertTrue("Formatters allocated " + afterPerBind + " B/bind", afterPerBind < 16);
+        assertTrue(after * 50 < before);
+    }
+
+    private int sink;
+
+    private void bindUncached() {
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (int i = 0; i < ROWS; i++) {
+                SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
+                String time = sdf.format(new Date(timestamps[i]));
+                NumberFormat formatter = NumberFormat.getNumberInstance(new Locale("vi", "VN"));
+                String price = formatter.format(prices[i]) + " ₫";
+                sink += time.length() + price.length();
+            }
+        }
+    }
+
+    private void bindCached() {
+        Formatters formatters = Formatters.get();
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (int i = 0; i < ROWS; i++) {
+                String time = formatters.time(timestamps[i]);
+                String price = formatters.price(prices[i]);
+                sink += time.length() + price.length();
+            }
+        }
+    }
+
+    // Bytes allocated by this thread while running the workload, after a warm-up run
+    private static long measure(Runnable workload) {
+        workload.run();
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long start = bean.getThreadAllocatedBytes(thread);
+        workload.run();
+        return bean.getThreadAllocatedBytes(thread) - start;
+    }
+
+    private static void assumeAllocationCounting() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        org.junit.Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.project.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+// Records the classes and methods used on the cold-start path (splash, then the start button to
+// login). Run on a rooted device or an emulator without Google APIs with:
+//   ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest -P android.testInstrumentationRunnerArguments.class=com.example.project.macrobenchmark.BaselineProfileGenerator
+// then copy the generated *-baseline-prof.txt over app/src/main/baseline-prof.txt.
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    private static final String PACKAGE_NAME = "com.example.project";
+    private static final long TIMEOUT_MS = 5000;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                PACKAGE_NAME,
+                15,
+                3,
+                null,
+                true,
+                false,
+                className -> true,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+
+                    UiObject2 startButton = scope.getDevice().wait(
+                            Until.findObject(By.res(PACKAGE_NAME, "startButton")), TIMEOUT_MS);
+                    if (startButton != null) {
+                        startButton.click();
+                        scope.getDevice().wait(Until.hasObject(By.pkg(PACKAGE_NAME).depth(0)), TIMEOUT_MS);
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}
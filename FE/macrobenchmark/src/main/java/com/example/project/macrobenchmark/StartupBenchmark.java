@@ -0,0 +1,59 @@
+package com.example.project.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+// Cold start of the launcher activity, with and without the bundled baseline profile.
+// Run on a physical device (ideally one of the kiosks) with:
+//   ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+// Results (timeToInitialDisplayMs median/min/max, plus Perfetto traces with the startup:* sections)
+// land in macrobenchmark/build/outputs/connected_android_test_additional_output.
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final String PACKAGE_NAME = "com.example.project";
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    // What a fresh sideloaded install sees before the profile installer has run
+    @Test
+    public void startupWithoutCompilation() {
+        startup(new CompilationMode.None());
+    }
+
+    // What users see once the baseline profile is installed
+    @Test
+    public void startupWithBaselineProfile() {
+        startup(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void startup(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Project"
 include(":app")
+include(":macrobenchmark")
  
\ No newline at end of file